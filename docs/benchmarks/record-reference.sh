@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# Records a reference JMH run: docs/benchmarks/reference.json (JMH result) and
+# docs/benchmarks/reference.md (machine, JDK and a summary table). Run from the repository root
+# on an otherwise idle machine; extra arguments are passed to JMH, e.g. a benchmark regexp.
+set -euo pipefail
+
+out=docs/benchmarks
+result=$PWD/$out/reference.json
+
+./mvnw -B -q -Pjmh test-compile exec:exec -Djmh.result="$result" -Djmh.args="${*:-}"
+
+{
+  echo "# Reference run"
+  echo
+  echo "| | |"
+  echo "|---|---|"
+  echo "| Date | $(date -u +%Y-%m-%d) |"
+  echo "| Commit | $(git rev-parse --short HEAD) |"
+  echo "| CPU | $(lscpu 2>/dev/null | sed -n 's/^Model name: *//p' || sysctl -n machdep.cpu.brand_string) |"
+  echo "| Cores | $(nproc 2>/dev/null || sysctl -n hw.ncpu) |"
+  echo "| Memory | $(free -g 2>/dev/null | awk '/^Mem:/ {print $2 " GB"}') |"
+  echo "| OS | $(uname -sr) |"
+  echo "| JDK | $(java -version 2>&1 | head -1) |"
+  echo
+  echo "| Benchmark | Params | Score | Error | Unit | Alloc B/op |"
+  echo "|---|---|---:|---:|---|---:|"
+  jq -r '.[] | [(.benchmark | sub("^org\\.dnaerys\\.jmh\\."; "")),
+                (.params // {} | to_entries | map("\(.key)=\(.value)") | join(" ")),
+                (.primaryMetric.score | . * 1000 | round / 1000),
+                (.primaryMetric.scoreError | . * 1000 | round / 1000),
+                .primaryMetric.scoreUnit,
+                (.secondaryMetrics["gc.alloc.rate.norm"].score // 0 | round)]
+         | "| " + (map(tostring) | join(" | ")) + " |"' "$result"
+} > "$out/reference.md"
+
+echo "Wrote $out/reference.json and $out/reference.md"
@@ -0,0 +1,38 @@
+package org.dnaerys.client;
+
+import org.dnaerys.cluster.grpc.Annotations;
+import org.dnaerys.jmh.Workloads;
+import org.dnaerys.mcp.OneKGPdMCPServer.SelectByAnnotations;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Translation of tool filter arguments into gRPC {@code Annotations}, done once per variant RPC
+ * and once per sample in fan-out tools.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComposeAnnotationsBenchmark {
+
+    @Param({Workloads.FILTERS_NONE, Workloads.FILTERS_RARE_MISSENSE, Workloads.FILTERS_CLINICAL})
+    String filters;
+
+    // composeAnnotations uses no injected state
+    private final DnaerysClient client = new DnaerysClient();
+    private SelectByAnnotations sbn;
+
+    @Setup
+    public void setup() {
+        sbn = Workloads.filters(filters);
+    }
+
+    @Benchmark
+    public Annotations composeAnnotations() {
+        return client.composeAnnotations(sbn);
+    }
+}
@@ -0,0 +1,37 @@
+package org.dnaerys.client;
+
+import org.dnaerys.cluster.grpc.Chromosome;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contig name parsing, for every region argument of every tool call.
+ * Inputs mix bare and {@code chr}-prefixed names in different cases plus an unknown contig.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContigsMappingBenchmark {
+
+    private final String[] contigs = {
+        "1", "chr2", "CHR17", "X", "chrX", "22", "Chr9", "MT", "chrM", "11", "chr1_KI270706v1_random", "Y"
+    };
+
+    @Benchmark
+    @OperationsPerInvocation(12)
+    public void contigName2GrpcChr(Blackhole bh) {
+        for (String contig : contigs) {
+            bh.consume(ContigsMapping.contigName2GrpcChr(contig));
+        }
+    }
+
+    @Benchmark
+    public Chromosome contigName2GrpcChrHit() {
+        return ContigsMapping.contigName2GrpcChr("chr17");
+    }
+}
@@ -0,0 +1,108 @@
+package org.dnaerys.client;
+
+import org.dnaerys.db.MetadataSnapshot;
+import org.duckdb.DuckDBAppender;
+import org.duckdb.DuckDBConnection;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Startup cost of loading sample metadata.
+ * <p>
+ * {@code readJsonAuto} is the original path (copy kgpe.json to a temp file, read_json_auto into DuckDB),
+ * {@code snapshotAppender} the intermediate one (decode kgpe.snapshot, insert into DuckDB with the appender),
+ * {@code snapshotIndex} the current one (decode kgpe.snapshot, build {@link MetaIndex}), and
+ * {@code jsonIndex} its fallback used when the snapshot is missing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataLoadBenchmark {
+
+    private byte[] json;
+    private ByteBuffer snapshot;
+
+    @Setup
+    public void setup() throws Exception {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("kgpe.json")) {
+            json = is.readAllBytes();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MetadataSnapshot.fromJson(new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8)).write(out);
+        snapshot = ByteBuffer.wrap(out.toByteArray());
+    }
+
+    @Benchmark
+    public int readJsonAuto() throws Exception {
+        Path temp = Files.createTempFile("kgpe-", ".json");
+        try (Connection connection = DriverManager.getConnection("jdbc:duckdb:")) {
+            Files.write(temp, json);
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("CREATE TABLE sample_meta AS SELECT * FROM read_json_auto('" + temp.toAbsolutePath() + "')");
+            }
+            return count(connection);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Benchmark
+    public int snapshotAppender() throws Exception {
+        return load(MetadataSnapshot.read(snapshot));
+    }
+
+    @Benchmark
+    public MetaIndex snapshotIndex() throws Exception {
+        return MetaIndex.of(MetadataSnapshot.read(snapshot));
+    }
+
+    @Benchmark
+    public MetaIndex jsonIndex() throws Exception {
+        return MetaIndex.of(MetadataSnapshot.fromJson(
+            new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8)));
+    }
+
+    private static int load(MetadataSnapshot meta) throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:duckdb:")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("CREATE TABLE sample_meta (" + meta.columns().stream()
+                    .map(c -> "\"" + c + "\" VARCHAR").collect(Collectors.joining(", ")) + ")");
+            }
+            try (DuckDBAppender appender = connection.unwrap(DuckDBConnection.class)
+                    .createAppender(DuckDBConnection.DEFAULT_SCHEMA, "sample_meta")) {
+                for (int r = 0; r < meta.rows(); r++) {
+                    appender.beginRow();
+                    for (int c = 0; c < meta.columns().size(); c++) {
+                        appender.append(meta.value(c, r));
+                    }
+                    appender.endRow();
+                }
+            }
+            return count(connection);
+        }
+    }
+
+    private static int count(Connection connection) throws Exception {
+        try (Statement stmt = connection.createStatement();
+             var rs = stmt.executeQuery("SELECT count(*) FROM sample_meta")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
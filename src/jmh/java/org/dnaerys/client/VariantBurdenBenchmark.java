@@ -0,0 +1,61 @@
+package org.dnaerys.client;
+
+import org.dnaerys.jmh.Workloads;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local post-processing of computeVariantBurden: the burden histogram and the highest-burden
+ * sample lists, over per-sample counts for a population and for the whole cohort.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VariantBurdenBenchmark {
+
+    // a single population and the whole 1KGP cohort
+    @Param({"100", "3202"})
+    int samples;
+
+    private final DnaerysClient client = new DnaerysClient();
+    private Map<String, Integer> sampleBurdens;
+    private int zeroVarSamples;
+    private int highestBurden;
+    private List<String> highestBurdenSamples;
+
+    @Setup
+    public void setup() {
+        int[] burdens = Workloads.burdens(Workloads.SEED, samples, 0.3);
+        sampleBurdens = new HashMap<>();
+        for (int i = 0; i < burdens.length; i++) {
+            if (burdens[i] == 0) {
+                zeroVarSamples++;
+            } else {
+                sampleBurdens.put("HG" + (10_000 + i), burdens[i]);
+            }
+        }
+        highestBurden = sampleBurdens.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        highestBurdenSamples = new ArrayList<>();
+        sampleBurdens.forEach((sample, burden) -> {
+            if (burden == highestBurden) highestBurdenSamples.add(sample);
+        });
+    }
+
+    @Benchmark
+    public String histogram() {
+        return client.generateHistogram(sampleBurdens, zeroVarSamples);
+    }
+
+    @Benchmark
+    public String burdenSamplesJson() {
+        return client.createBurdenSamplesJson(highestBurden, highestBurdenSamples);
+    }
+}
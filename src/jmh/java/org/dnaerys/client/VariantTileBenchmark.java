@@ -0,0 +1,59 @@
+package org.dnaerys.client;
+
+import org.dnaerys.cluster.grpc.Variant;
+import org.dnaerys.jmh.Workloads;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answering a region query from a cached tile: decoding the variants in a window from the off-heap
+ * columnar tile, against filtering the same variants kept on heap as protobuf objects.
+ * Also measures encoding a tile after a fetch. The window is a tenth of the tile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VariantTileBenchmark {
+
+    private static final int TILE_START = 43_057_153;
+    private static final int TILE_SIZE = 65_536;
+
+    @Param({"500", "2500"})
+    int variantCount;
+
+    private List<Variant> variants;
+    private VariantTile tile;
+    private int from;
+    private int to;
+
+    @Setup
+    public void setup() {
+        variants = Workloads.region(Workloads.SEED, variantCount, "17", TILE_START, TILE_START + TILE_SIZE - 1);
+        tile = VariantTile.encode(variants.getFirst().getChrValue(), variants);
+        from = TILE_START + TILE_SIZE / 2;
+        to = from + TILE_SIZE / 10;
+    }
+
+    @Benchmark
+    public void collectFromTile(Blackhole bh) {
+        tile.collect(from, to, null, null, bh::consume);
+    }
+
+    @Benchmark
+    public void filterOnHeap(Blackhole bh) {
+        for (Variant v : variants) {
+            if (v.getStart() >= from && v.getStart() <= to) bh.consume(v);
+        }
+    }
+
+    @Benchmark
+    public VariantTile encode() {
+        return VariantTile.encode(variants.getFirst().getChrValue(), variants);
+    }
+}
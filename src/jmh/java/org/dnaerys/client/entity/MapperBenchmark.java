@@ -0,0 +1,86 @@
+package org.dnaerys.client.entity;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enum parsers behind annotation filters. Tokens are written the way clients send them:
+ * lower case, spaces or dashes instead of underscores, surrounding whitespace.
+ * Each benchmark also parses one unknown token, which takes the exception path in valueOf.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final String[] impacts = {"HIGH", "moderate", " low", "modifier", "severe"};
+    private final String[] consequences = {
+        "missense_variant", "stop gained", "frameshift-variant", "splice_donor_variant", "not_a_consequence"
+    };
+    private final String[] clinSigs = {"pathogenic", "likely pathogenic", "benign", "uncertain_significance", "maybe"};
+    private final String[] biotypes = {"protein_coding", "lncRNA", "processed transcript", "retained_intron", "coding"};
+    private final String[] variantTypes = {"SNV", "insertion", "deletion", "indel", "cnv-like"};
+    private final String[] alphaMissense = {"likely_pathogenic", "likely benign", "ambiguous", "AMBIGUOUS", "unknown"};
+    private final String[] features = {"transcript", "RegulatoryFeature", "motif_feature", "MotifFeature", "gene"};
+    private final String[] polyPhen = {"benign", "possibly_damaging", "probably damaging", "unknown", "damaging"};
+    private final String[] sift = {"tolerated", "deleterious", "TOLERATED", " deleterious ", "harmful"};
+
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void impact(Blackhole bh) {
+        for (String s : impacts) bh.consume(ImpactMapper.fromString(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void consequence(Blackhole bh) {
+        for (String s : consequences) bh.consume(ConsequencesMapper.fromString(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void clinSignificance(Blackhole bh) {
+        for (String s : clinSigs) bh.consume(ClinSigMapper.fromString(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void biotype(Blackhole bh) {
+        for (String s : biotypes) bh.consume(BiotypeMapper.fromString(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void variantType(Blackhole bh) {
+        for (String s : variantTypes) bh.consume(VariantTypeMapper.fromString(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void alphaMissense(Blackhole bh) {
+        for (String s : alphaMissense) bh.consume(AlphaMissenseMapper.fromString(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void featureType(Blackhole bh) {
+        for (String s : features) bh.consume(FeatureTypeMapper.fromString(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void polyPhen(Blackhole bh) {
+        for (String s : polyPhen) bh.consume(PolyPhenMapper.fromString(s));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void sift(Blackhole bh) {
+        for (String s : sift) bh.consume(SIFTMapper.fromString(s));
+    }
+}
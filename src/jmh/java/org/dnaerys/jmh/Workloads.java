@@ -0,0 +1,185 @@
+package org.dnaerys.jmh;
+
+import org.dnaerys.cluster.grpc.Chromosome;
+import org.dnaerys.cluster.grpc.Variant;
+import org.dnaerys.mcp.OneKGPdMCPServer.SelectByAnnotations;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic inputs shared by benchmarks.
+ * <p>
+ * Variant streams are drawn from a fixed seed with a shape close to what the cluster returns for
+ * 1000 Genomes: mostly rare SNVs, allele counts skewed towards singletons, partial gnomAD / CADD
+ * annotation and protein-level fields only on coding variants. The same seed always yields the same
+ * stream, so results from different runs and machines are comparable.
+ */
+public final class Workloads {
+
+    public static final long SEED = 0x1CB6_2024L;
+
+    // alleles in 1000 Genomes high coverage, 3202 samples
+    private static final int AN = 6404;
+
+    private static final String[] CHR = {
+        "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12",
+        "13", "14", "15", "16", "17", "18", "19", "20", "21", "22", "X", "Y"
+    };
+    // approximate GRCh38 lengths in Mb, used as sampling weights; Y is mostly unassembled / low density
+    private static final int[] CHR_MB = {
+        248, 242, 198, 190, 181, 171, 159, 145, 138, 134, 135, 133,
+        114, 107, 102, 90, 83, 80, 59, 64, 47, 51, 156, 5
+    };
+    private static final String[] BASES = {"A", "C", "G", "T"};
+    private static final String[] AMINO_ACIDS = {
+        "Ala", "Arg", "Asn", "Asp", "Cys", "Gln", "Glu", "Gly", "His", "Ile",
+        "Leu", "Lys", "Met", "Phe", "Pro", "Ser", "Thr", "Trp", "Tyr", "Val"
+    };
+
+    /** Filter sets used by annotation benchmarks, from none to every list-valued filter populated. */
+    public static final String FILTERS_NONE = "none";
+    public static final String FILTERS_RARE_MISSENSE = "rare-missense";
+    public static final String FILTERS_CLINICAL = "clinical";
+
+    private Workloads() {}
+
+    /**
+     * Variants scattered over the genome, sorted by chromosome and position.
+     */
+    public static List<Variant> genomeWide(long seed, int count) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int totalMb = 0;
+        for (int mb : CHR_MB) totalMb += mb;
+
+        List<Variant> variants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int pick = rnd.nextInt(totalMb);
+            int c = 0;
+            while (pick >= CHR_MB[c]) pick -= CHR_MB[c++];
+            int start = 10_000 + rnd.nextInt(CHR_MB[c] * 1_000_000 - 20_000);
+            variants.add(variant(rnd, CHR[c], start));
+        }
+        variants.sort(Comparator.comparingInt((Variant v) -> v.getChr().getNumber()).thenComparingInt(Variant::getStart));
+        return variants;
+    }
+
+    /**
+     * Variants in a single region, e.g. a gene, sorted by position.
+     */
+    public static List<Variant> region(long seed, int count, String chr, int start, int end) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        List<Variant> variants = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            variants.add(variant(rnd, chr, start + rnd.nextInt(end - start + 1)));
+        }
+        variants.sort(Comparator.comparingInt(Variant::getStart));
+        return variants;
+    }
+
+    /**
+     * Per-sample variant counts as returned by per-sample count RPCs: most samples carry a handful
+     * of qualifying variants, a few carry many, {@code zeroFraction} carry none.
+     */
+    public static int[] burdens(long seed, int samples, double zeroFraction) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        int[] burdens = new int[samples];
+        for (int i = 0; i < samples; i++) {
+            if (rnd.nextDouble() < zeroFraction) continue;
+            // geometric with mean ~4, occasional outliers
+            int b = 1 + (int) Math.floor(Math.log(1 - rnd.nextDouble()) / Math.log(0.75));
+            burdens[i] = rnd.nextInt(100) == 0 ? b * 10 : b;
+        }
+        return burdens;
+    }
+
+    public static SelectByAnnotations filters(String name) {
+        return switch (name) {
+            case FILTERS_NONE -> SelectByAnnotations.empty();
+            case FILTERS_RARE_MISSENSE -> new SelectByAnnotations(
+                0.01f, null, null, null, null, null,
+                null, "HIGH,MODERATE", null, null, null, "missense_variant",
+                "likely_pathogenic", null, null,
+                true, null, null, null, null, null);
+            case FILTERS_CLINICAL -> new SelectByAnnotations(
+                0.05f, null, 0.01f, null, 0.01f, null,
+                "pathogenic,likely_pathogenic,uncertain_significance",
+                "HIGH,MODERATE",
+                "transcript",
+                "protein_coding",
+                "SNV,insertion,deletion",
+                "stop_gained,frameshift_variant,splice_acceptor_variant,splice_donor_variant,missense_variant",
+                "likely_pathogenic,ambiguous", null, 0.34f,
+                true, null, null, null, null, null);
+            default -> throw new IllegalArgumentException("Unknown filter set: " + name);
+        };
+    }
+
+    private static Variant variant(SplittableRandom rnd, String chr, int start) {
+        String ref = BASES[rnd.nextInt(4)];
+        String alt;
+        int kind = rnd.nextInt(100);
+        if (kind < 85) {
+            alt = BASES[(indexOf(ref) + 1 + rnd.nextInt(3)) % 4];
+        } else if (kind < 93) {
+            ref = ref + bases(rnd, 1 + rnd.nextInt(5));
+            alt = ref.substring(0, 1);
+        } else if (kind < 99) {
+            alt = ref + bases(rnd, 1 + rnd.nextInt(5));
+        } else {
+            ref = ref + bases(rnd, 1);
+            alt = bases(rnd, 2);
+        }
+
+        int an = AN - 2 * rnd.nextInt(10);
+        // roughly the 1KGP site frequency spectrum: ~45% singletons, log-uniform above
+        int ac = rnd.nextInt(100) < 45 ? 1 : (int) Math.ceil(Math.exp(rnd.nextDouble() * Math.log(an)));
+        float af = (float) ac / an;
+        int homc = (int) Math.round(an / 2.0 * af * af);
+        int hetc = Math.max(0, ac - 2 * homc);
+
+        Variant.Builder b = Variant.newBuilder()
+            .setChr(Chromosome.valueOf("CHR_" + chr))
+            .setStart(start)
+            .setEnd(start + ref.length() - 1)
+            .setRef(ref)
+            .setAlt(alt)
+            .setAf(af)
+            .setAc(ac)
+            .setAn(an)
+            .setHomc(homc)
+            .setHetc(hetc)
+            .setMisc(AN - an)
+            .setBiallelic(rnd.nextInt(10) != 0);
+
+        if (rnd.nextInt(10) < 7) b.setGnomADg((float) (af * Math.exp(rnd.nextGaussian())));
+        if (rnd.nextInt(10) < 2) b.setGnomADe((float) (af * Math.exp(rnd.nextGaussian())));
+        if (rnd.nextInt(10) < 6) {
+            float phred = (float) (-10 * Math.log10(1 - rnd.nextDouble() * 0.9999));
+            b.setCaddPhred(phred).setCaddRaw(phred / 10 - 1);
+        }
+        // coding SNVs get protein-level annotations
+        if (kind < 85 && rnd.nextInt(100) < 15) {
+            b.setAmScore((float) rnd.nextDouble());
+            int pos = 1 + rnd.nextInt(2_000);
+            String aa = "p." + AMINO_ACIDS[rnd.nextInt(20)] + pos + AMINO_ACIDS[rnd.nextInt(20)];
+            b.setAminoAcids(rnd.nextInt(3) == 0 ? aa + "," + aa : aa);
+        }
+        return b.build();
+    }
+
+    private static String bases(SplittableRandom rnd, int n) {
+        StringBuilder sb = new StringBuilder(n);
+        for (int i = 0; i < n; i++) sb.append(BASES[rnd.nextInt(4)]);
+        return sb.toString();
+    }
+
+    private static int indexOf(String base) {
+        for (int i = 0; i < BASES.length; i++) {
+            if (BASES[i].equals(base)) return i;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,82 @@
+package org.dnaerys.mcp.generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dnaerys.cluster.grpc.Chromosome;
+import org.dnaerys.cluster.grpc.Variant;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Row vs columnar output for variant-returning tools: serialization time via JMH,
+ * payload size and an estimated token count are printed once per trial.
+ * <p>
+ * Token estimate counts words, numbers and punctuation as separate tokens, which is a rough
+ * lower bound for BPE tokenizers on JSON; use it to compare formats, not as an absolute figure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnarFormatBenchmark {
+
+    private static final Pattern TOKEN = Pattern.compile("[A-Za-z]+|[0-9]+|[^\\sA-Za-z0-9]");
+
+    @Param({"10", "50"})
+    int variantCount;
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(GrpcVariantSerializer.module());
+    private List<Variant> variants;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        variants = new ArrayList<>(variantCount);
+        // a gene-sized region: one chromosome, increasing positions
+        for (int i = 0; i < variantCount; i++) {
+            variants.add(Variant.newBuilder()
+                .setChr(Chromosome.CHR_17)
+                .setStart(43_044_295 + i * 2_531)
+                .setEnd(43_044_295 + i * 2_531)
+                .setRef("C")
+                .setAlt(i % 7 == 0 ? "CTT" : "T")
+                .setAf(0.00015f * (i + 1))
+                .setAc(i + 1)
+                .setAn(6404)
+                .setHetc(i + 1)
+                .setGnomADe(i % 2 == 0 ? 0.00002f * i : 0f)
+                .setGnomADg(0.00003f * i)
+                .setAmScore(i % 3 == 0 ? 0.013f * i : 0f)
+                .setAminoAcids(i % 3 == 0 ? "p.Arg" + (1000 + i) + "Trp" : "")
+                .build());
+        }
+
+        String rows = rows();
+        String columnar = columnar();
+        System.out.printf("%n[payload] variants=%d rows: %d bytes, ~%d tokens; columnar: %d bytes, ~%d tokens%n",
+            variantCount, rows.length(), tokens(rows), columnar.length(), tokens(columnar));
+    }
+
+    @Benchmark
+    public String rows() throws Exception {
+        return mapper.writeValueAsString(Map.of("variants", variants));
+    }
+
+    @Benchmark
+    public String columnar() throws Exception {
+        return mapper.writeValueAsString(Map.of("variants", ColumnarVariants.of(variants)));
+    }
+
+    private static int tokens(String json) {
+        Matcher m = TOKEN.matcher(json);
+        int count = 0;
+        while (m.find()) count++;
+        return count;
+    }
+}
@@ -0,0 +1,108 @@
+package org.dnaerys.mcp.generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dnaerys.cluster.grpc.Chromosome;
+import org.dnaerys.cluster.grpc.Variant;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of tool results with and without intermediate {@link VariantView} records.
+ * Run with {@code -prof gc} to compare allocation per operation (gc.alloc.rate.norm).
+ * <p>
+ * {@code views*} reproduce the former selectVariants / selectVariantsInSamples paths,
+ * {@code direct*} write gRPC variants with {@link GrpcVariantSerializer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VariantSerializationBenchmark {
+
+    // MAX_RETURNED_ITEMS variants per sample
+    private static final int VARIANTS = 50;
+
+    @Param({"1", "10"})
+    int samples;
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(GrpcVariantSerializer.module());
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    private List<Variant> variants;
+    private Map<String, Set<Variant>> variantsBySample;
+
+    @Setup
+    public void setup() {
+        variants = new ArrayList<>(VARIANTS);
+        for (int i = 0; i < VARIANTS; i++) {
+            variants.add(Variant.newBuilder()
+                .setChr(Chromosome.forNumber(1 + i % 23))
+                .setStart(1_000_000 + i * 137)
+                .setEnd(1_000_000 + i * 137)
+                .setRef("A")
+                .setAlt(i % 5 == 0 ? "AGT" : "G")
+                .setAf(0.0001f * (i + 1))
+                .setAc(i + 1)
+                .setAn(6404)
+                .setHetc(i)
+                .setHomc(i % 3)
+                .setGnomADe(i % 2 == 0 ? 0.0002f * i : 0f)
+                .setGnomADg(0.0003f * i)
+                .setAmScore(i % 4 == 0 ? 0.01f * i : 0f)
+                .setAminoAcids(i % 3 == 0 ? "p.Arg" + i + "Trp,p.Arg" + (i + 40) + "Trp" : "")
+                .build());
+        }
+        variantsBySample = new LinkedHashMap<>();
+        for (int s = 0; s < samples; s++) {
+            variantsBySample.put("HG" + (100 + s), new HashSet<>(variants));
+        }
+    }
+
+    @Benchmark
+    public String viewsSelectVariants() throws Exception {
+        List<VariantView> vv = variants.stream().map(VariantView::fromGrpc).toList();
+        return mapper.writeValueAsString(vv);
+    }
+
+    @Benchmark
+    public String directSelectVariants() throws Exception {
+        return mapper.writeValueAsString(variants);
+    }
+
+    @Benchmark
+    public String viewsSelectVariantsInSamples() throws Exception {
+        // views were built twice: once for structured content and once for the text content
+        List<Map<String, Object>> structured = variantsBySample.entrySet().stream()
+            .map(e -> Map.of("sample", (Object) e.getKey(),
+                "variants", (Object) e.getValue().stream().map(VariantView::fromGrpc).toList()))
+            .toList();
+        Map<String, List<VariantView>> views = new LinkedHashMap<>();
+        variantsBySample.forEach((k, v) -> views.put(k, v.stream().map(VariantView::fromGrpc).toList()));
+        mapper.writeValue(sink, Map.of("variantsBySample", structured));
+        return mapper.writeValueAsString(views);
+    }
+
+    @Benchmark
+    public String directSelectVariantsInSamples() throws Exception {
+        List<Map<String, Object>> structured = variantsBySample.entrySet().stream()
+            .map(e -> Map.of("sample", (Object) e.getKey(), "variants", (Object) e.getValue()))
+            .toList();
+        mapper.writeValue(sink, Map.of("variantsBySample", structured));
+        return mapper.writeValueAsString(variantsBySample);
+    }
+
+    @Benchmark
+    public void directToStream() throws Exception {
+        mapper.writeValue(sink, variants);
+    }
+}
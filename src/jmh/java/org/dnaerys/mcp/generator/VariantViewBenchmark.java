@@ -0,0 +1,70 @@
+package org.dnaerys.mcp.generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dnaerys.cluster.grpc.Variant;
+import org.dnaerys.jmh.Workloads;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link VariantView#fromGrpc} and {@link VariantView.VariantSerializer} over generated,
+ * genome-wide variant streams: one tool response page and a full RPC batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VariantViewBenchmark {
+
+    // MAX_RETURNED_ITEMS and MAX_RECEIVED_ITEMS
+    @Param({"50", "1000"})
+    int variantCount;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    private List<Variant> variants;
+    private List<VariantView> views;
+
+    @Setup
+    public void setup() {
+        variants = Workloads.genomeWide(Workloads.SEED, variantCount);
+        views = new ArrayList<>(variantCount);
+        for (Variant v : variants) {
+            views.add(VariantView.fromGrpc(v));
+        }
+    }
+
+    @Benchmark
+    public void fromGrpc(Blackhole bh) {
+        for (Variant v : variants) {
+            bh.consume(VariantView.fromGrpc(v));
+        }
+    }
+
+    @Benchmark
+    public String serializeViews() throws Exception {
+        return mapper.writeValueAsString(views);
+    }
+
+    @Benchmark
+    public void serializeViewsToStream() throws Exception {
+        mapper.writeValue(sink, views);
+    }
+
+    @Benchmark
+    public String fromGrpcAndSerialize() throws Exception {
+        List<VariantView> vv = new ArrayList<>(variants.size());
+        for (Variant v : variants) {
+            vv.add(VariantView.fromGrpc(v));
+        }
+        return mapper.writeValueAsString(vv);
+    }
+}
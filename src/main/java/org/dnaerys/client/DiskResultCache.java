@@ -0,0 +1,508 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import com.google.protobuf.ByteString;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent cache of RPC responses in append-only, memory-mapped segment files, shared by all
+ * processes using the same directory (e.g. consecutive stdio sessions).
+ * <p>
+ * Entries are keyed by a hash of the dataset version, the RPC method and the canonical request
+ * bytes, so results of a previous dataset version are never returned. Each process appends to its
+ * own segment, named by creation time and pid, and rotates it at {@code segmentBytes}:
+ * <pre>
+ * record := int magic, long versionHash, byte[32] key, int length, int crc32, byte[length] payload
+ * </pre>
+ * The index is built on first access by scanning record headers of mapped segments; payloads are
+ * read and checked only on a hit, and a torn record at the end of a segment is ignored until it is
+ * complete. A background thread picks up segments written by other processes and records appended
+ * to them since the last scan, deletes the oldest segments once {@code maxBytes} is exceeded and
+ * rewrites segments which are mostly stale or superseded. The newest segment of another live
+ * process is neither deleted nor rewritten, as that process may still be appending to it.
+ * <p>
+ * State is guarded by a {@link ReentrantLock} rather than a monitor: file I/O is done under the lock,
+ * and a virtual thread blocked on a monitor pins its carrier thread.
+ */
+final class DiskResultCache implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(DiskResultCache.class);
+
+    private static final int MAGIC = 0x444E5243; // "DNRC"
+    private static final int HEADER_BYTES = 4 + 8 + 32 + 4 + 4;
+    private static final String SUFFIX = ".seg";
+    // segments with less than this share of live bytes are rewritten
+    private static final double MIN_LIVE_RATIO = 0.5;
+    private static final long MAINTENANCE_INTERVAL_SECONDS = 60;
+
+    private static final class Segment {
+        final Path path;
+        // bytes of complete records, scanned up to here
+        long bytes;
+        private MappedByteBuffer mapping;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        Segment(Path path, long bytes) {
+            this.path = path;
+            this.bytes = bytes;
+        }
+
+        // read-only mapping covering at least [0, end)
+        ByteBuffer mapping(long end) throws IOException {
+            lock.lock();
+            try {
+                if (mapping == null || mapping.capacity() < end) {
+                    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                        mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    }
+                }
+                return mapping.duplicate();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private record Location(Segment segment, long versionHash, int offset, int length) {}
+
+    private final Path dir;
+    private final long maxBytes;
+    private final long segmentBytes;
+    private final ScheduledExecutorService maintenance;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // guarded by lock; null until first access
+    private Map<ByteString, Location> index;
+    private final LinkedHashMap<Path, Segment> segments = new LinkedHashMap<>();
+    private Segment active;
+    private FileChannel activeChannel;
+    private long currentVersionHash;
+    private boolean closed;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    DiskResultCache(Path dir, long maxBytes, long segmentBytes) {
+        if (segmentBytes <= 0 || segmentBytes > maxBytes / 2) {
+            throw new IllegalArgumentException("segmentBytes must be > 0 and <= maxBytes / 2");
+        }
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create disk cache directory " + dir, e);
+        }
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.segmentBytes = segmentBytes;
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dnaerys-disk-cache");
+            t.setDaemon(true);
+            return t;
+        });
+        maintenance.scheduleWithFixedDelay(this::maintain,
+            MAINTENANCE_INTERVAL_SECONDS, MAINTENANCE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @return cached payload or null
+     */
+    byte[] get(String version, String method, byte[] request) {
+        ByteString key = key(version, method, request);
+        Location location;
+        lock.lock();
+        try {
+            currentVersionHash = versionHash(version);
+            location = index().get(key);
+        } finally {
+            lock.unlock();
+        }
+        if (location == null) {
+            misses.increment();
+            return null;
+        }
+        try {
+            ByteBuffer buffer = location.segment().mapping((long) location.offset() + location.length());
+            byte[] payload = new byte[location.length()];
+            buffer.get(location.offset(), payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            int expected = buffer.getInt(location.offset() - 4);
+            if ((int) crc.getValue() == expected) {
+                hits.increment();
+                return payload;
+            }
+            LOG.debugf("Disk cache: checksum mismatch in %s, entry dropped", location.segment().path);
+        } catch (IOException | RuntimeException e) {
+            LOG.debugf("Disk cache: cannot read %s (%s), entry dropped", location.segment().path, e.getMessage());
+        }
+        lock.lock();
+        try {
+            index.remove(key, location);
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(String version, String method, byte[] request, byte[] payload) {
+        if (HEADER_BYTES + (long) payload.length > segmentBytes) return;
+        ByteString key = key(version, method, request);
+        long versionHash = versionHash(version);
+        lock.lock();
+        try {
+            currentVersionHash = versionHash;
+            index();
+            append(key, versionHash, payload);
+        } catch (IOException e) {
+            LOG.debugf("Disk cache: cannot write to %s: %s", dir, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Picks up segments of other processes, enforces the size cap and rewrites sparse segments.
+     * Runs periodically in the background.
+     */
+    void maintain() {
+        try {
+            lock.lock();
+            try {
+                if (closed || index == null) return;
+                scanNewSegments();
+                enforceCap();
+            } finally {
+                lock.unlock();
+            }
+            compact();
+        } catch (Exception e) {
+            LOG.debugf("Disk cache maintenance failed: %s", e.getMessage());
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return index == null ? 0 : index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long bytes() {
+        lock.lock();
+        try {
+            return segments.values().stream().mapToLong(s -> s.bytes).sum();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int segmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long hitCount() { return hits.sum(); }
+
+    long missCount() { return misses.sum(); }
+
+    @Override
+    public void close() {
+        maintenance.shutdownNow();
+        lock.lock();
+        try {
+            closed = true;
+            closeActive();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- index ---
+
+    private Map<ByteString, Location> index() {
+        if (index == null) {
+            index = new HashMap<>();
+            scanNewSegments();
+            LOG.debugf("Disk cache: indexed %d entries in %d segments under %s", index.size(), segments.size(), dir);
+        }
+        return index;
+    }
+
+    private void scanNewSegments() {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(dir)) {
+            // names start with the creation time, so newer entries win
+            paths = files.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        } catch (IOException e) {
+            LOG.debugf("Disk cache: cannot list %s: %s", dir, e.getMessage());
+            return;
+        }
+        for (Path path : paths) {
+            Segment known = segments.get(path);
+            if (known != null && known == active) continue;
+            try {
+                long size = Files.size(path);
+                if (known == null) {
+                    Segment segment = new Segment(path, 0);
+                    scan(segment, size);
+                    segments.put(path, segment);
+                } else if (size > known.bytes) {
+                    // appended to by another process since the last scan
+                    scan(known, size);
+                }
+            } catch (IOException e) {
+                LOG.debugf("Disk cache: skipped segment %s: %s", path, e.getMessage());
+            }
+        }
+    }
+
+    // record headers from the last scanned position, stops at the first incomplete or foreign record
+    private void scan(Segment segment, long size) throws IOException {
+        ByteBuffer buffer = segment.mapping(size);
+        int position = (int) segment.bytes;
+        int limit = buffer.capacity();
+        while (position + HEADER_BYTES <= limit && buffer.getInt(position) == MAGIC) {
+            long versionHash = buffer.getLong(position + 4);
+            byte[] key = new byte[32];
+            buffer.get(position + 12, key);
+            int length = buffer.getInt(position + 44);
+            int payloadOffset = position + HEADER_BYTES;
+            if (length < 0 || payloadOffset + (long) length > limit) break;
+            index.put(ByteString.copyFrom(key), new Location(segment, versionHash, payloadOffset, length));
+            position = payloadOffset + length;
+        }
+        segment.bytes = position;
+    }
+
+    // --- writes ---
+
+    private Location append(ByteString key, long versionHash, byte[] payload) throws IOException {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (active == null || active.bytes + recordBytes > segmentBytes) {
+            rotate();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(recordBytes);
+        record.putInt(MAGIC).putLong(versionHash).put(key.toByteArray())
+            .putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        record.flip();
+        while (record.hasRemaining()) {
+            activeChannel.write(record);
+        }
+        Location location = new Location(active, versionHash, (int) active.bytes + HEADER_BYTES, payload.length);
+        active.bytes += recordBytes;
+        index.put(key, location);
+        return location;
+    }
+
+    private void rotate() throws IOException {
+        closeActive();
+        Path path;
+        do {
+            path = dir.resolve(String.format("%013d-%d%s",
+                System.currentTimeMillis(), ProcessHandle.current().pid(), SUFFIX));
+        } while (Files.exists(path) && sleepMillis());
+        activeChannel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+        active = new Segment(path, 0);
+        segments.put(path, active);
+        if (!closed) maintenance.execute(this::maintain);
+    }
+
+    private static boolean sleepMillis() {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    private void closeActive() {
+        if (activeChannel != null) {
+            try {
+                activeChannel.close();
+            } catch (IOException e) {
+                LOG.debugf("Disk cache: cannot close %s: %s", active.path, e.getMessage());
+            }
+        }
+        activeChannel = null;
+        active = null;
+    }
+
+    // --- size cap and compaction ---
+
+    private void enforceCap() {
+        long total = bytes();
+        Set<Segment> inUse = inUse();
+        Iterator<Segment> oldest = segments.values().iterator();
+        while (total > maxBytes && oldest.hasNext()) {
+            Segment segment = oldest.next();
+            if (inUse.contains(segment)) continue;
+            total -= segment.bytes;
+            oldest.remove();
+            drop(segment);
+        }
+    }
+
+    private void compact() throws IOException {
+        List<Segment> candidates;
+        lock.lock();
+        try {
+            // entries of other dataset versions are unreachable
+            if (currentVersionHash != 0) {
+                index.values().removeIf(l -> l.versionHash() != currentVersionHash);
+            }
+            Map<Segment, Long> live = new HashMap<>();
+            for (Location l : index.values()) {
+                live.merge(l.segment(), (long) HEADER_BYTES + l.length(), Long::sum);
+            }
+            Set<Segment> inUse = inUse();
+            candidates = new ArrayList<>();
+            for (Segment s : segments.values()) {
+                if (!inUse.contains(s) && live.getOrDefault(s, 0L) < s.bytes * MIN_LIVE_RATIO) candidates.add(s);
+            }
+        } finally {
+            lock.unlock();
+        }
+        // one segment at a time, so lookups are not blocked for the whole pass
+        for (Segment segment : candidates) {
+            lock.lock();
+            try {
+                if (closed || !segments.containsKey(segment.path)) continue;
+                List<Map.Entry<ByteString, Location>> entries = index.entrySet().stream()
+                    .filter(e -> e.getValue().segment() == segment)
+                    .map(Map.Entry::copyOf)
+                    .toList();
+                ByteBuffer buffer = segment.mapping(segment.bytes);
+                for (Map.Entry<ByteString, Location> entry : entries) {
+                    Location l = entry.getValue();
+                    byte[] payload = new byte[l.length()];
+                    buffer.get(l.offset(), payload);
+                    append(entry.getKey(), l.versionHash(), payload);
+                }
+                segments.remove(segment.path);
+                drop(segment);
+                LOG.debugf("Disk cache: compacted %s, %d live entries kept", segment.path.getFileName(), entries.size());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Segments which may still be appended to: the active one and the newest of each other live process.
+     * A pid reused by an unrelated process only keeps a segment longer.
+     */
+    private Set<Segment> inUse() {
+        long self = ProcessHandle.current().pid();
+        Map<Long, Segment> newest = new HashMap<>();
+        for (Segment s : segments.values()) {
+            long pid = pidOf(s.path);
+            if (pid < 0 || pid == self) continue;
+            // names start with the creation time
+            newest.merge(pid, s, (a, b) -> a.path.getFileName().compareTo(b.path.getFileName()) >= 0 ? a : b);
+        }
+        Set<Segment> inUse = new HashSet<>();
+        if (active != null) inUse.add(active);
+        newest.forEach((pid, s) -> {
+            if (ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false)) inUse.add(s);
+        });
+        return inUse;
+    }
+
+    // segment names are <creation time>-<pid>.seg
+    private static long pidOf(Path path) {
+        String name = path.getFileName().toString();
+        int dash = name.indexOf('-');
+        if (dash < 0 || !name.endsWith(SUFFIX)) return -1;
+        try {
+            return Long.parseLong(name.substring(dash + 1, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void drop(Segment segment) {
+        index.values().removeIf(l -> l.segment() == segment);
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            LOG.debugf("Disk cache: cannot delete %s: %s", segment.path, e.getMessage());
+        }
+    }
+
+    // --- keys ---
+
+    private static ByteString key(String version, String method, byte[] request) {
+        MessageDigest digest = sha256();
+        digest.update(version.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(method.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(request);
+        return ByteString.copyFrom(digest.digest());
+    }
+
+    private static long versionHash(String version) {
+        return ByteBuffer.wrap(sha256().digest(version.getBytes(StandardCharsets.UTF_8))).getLong();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
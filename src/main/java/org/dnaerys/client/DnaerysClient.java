@@ -16,18 +16,45 @@
 
 package org.dnaerys.client;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
 import org.dnaerys.client.entity.*;
 import org.dnaerys.cluster.grpc.DnaerysServiceGrpc;
 import org.dnaerys.cluster.grpc.*;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.context.Context;
 import io.quarkus.grpc.GrpcClient;
 import org.dnaerys.mcp.OneKGPdMCPServer.SelectByAnnotations;
 import org.dnaerys.mcp.OneKGPdMCPServer.GenomicRegion;
@@ -42,29 +69,169 @@ public class DnaerysClient {
     @GrpcClient("dnaerys")
     DnaerysServiceGrpc.DnaerysServiceBlockingStub blockingStub;
 
+    @Inject
+    MetaClient metaClient;
+
+    @Inject
+    MeterRegistry registry;
+
     @ConfigProperty(name = "quarkus.grpc.clients.dnaerys.host")
     String host;
 
     @ConfigProperty(name = "quarkus.grpc.clients.dnaerys.port")
     int port;
 
+    // upper bound on RPCs issued concurrently by a single fan-out call (e.g. trio scans)
+    @ConfigProperty(name = "dnaerys.client.max-parallel-rpcs", defaultValue = "8")
+    int maxParallelRpcs;
+
+    // upper bound on fanned-out RPCs in flight across all concurrent calls
+    @ConfigProperty(name = "dnaerys.client.max-cluster-rpcs", defaultValue = "32")
+    int maxClusterRpcs;
+
+    // off-heap cache of variant tiles for selectVariants; max-bytes=0 disables it
+    @ConfigProperty(name = "dnaerys.tile-cache.max-bytes", defaultValue = "268435456")
+    long tileCacheMaxBytes;
+
+    @ConfigProperty(name = "dnaerys.tile-cache.tile-size", defaultValue = "65536")
+    int tileSize;
+
+    // queries spanning more tiles go to the cluster directly
+    @ConfigProperty(name = "dnaerys.tile-cache.max-tiles-per-query", defaultValue = "16")
+    int maxTilesPerQuery;
+
+    // denser tiles are not cached, queries overlapping them go to the cluster directly
+    @ConfigProperty(name = "dnaerys.tile-cache.max-variants-per-tile", defaultValue = "2048")
+    int maxVariantsPerTile;
+
+    // persistent cache of genome-wide scan and cohort-wide RPC responses; unset disables it
+    @ConfigProperty(name = "dnaerys.disk-cache.dir")
+    Optional<String> diskCacheDir;
+
+    @ConfigProperty(name = "dnaerys.disk-cache.max-bytes", defaultValue = "1073741824")
+    long diskCacheMaxBytes;
+
+    @ConfigProperty(name = "dnaerys.disk-cache.segment-bytes", defaultValue = "67108864")
+    long diskCacheSegmentBytes;
+
+    private ExecutorService rpcExecutor;
+    private Semaphore clusterPermits;
+    private final AtomicInteger activeFanOutRpcs = new AtomicInteger();
+    private VariantTileCache tileCache;
+    private DiskResultCache diskCache;
+    // identifies dataset contents in disk cache keys, fetched on first use
+    private volatile String datasetVersion;
+
     @PostConstruct
     void init() {
-        LOG.infof("gRPC client initialized. Connecting to: %s:%d", host, port);
+        // a virtual thread per fanned-out RPC, bounded per call and across calls by permits in fanOut
+        // rather than by a shared pool; tasks run in the trace context of the calling tool
+        rpcExecutor = Context.taskWrapping(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dnaerys-rpc-", 1).factory()));
+        clusterPermits = new Semaphore(maxClusterRpcs, true);
+        if (tileCacheMaxBytes > 0) {
+            tileCache = new VariantTileCache(tileSize, tileCacheMaxBytes);
+        }
+        if (diskCacheDir.isPresent() && !diskCacheDir.get().isBlank()) {
+            diskCache = new DiskResultCache(Path.of(diskCacheDir.get()), diskCacheMaxBytes, diskCacheSegmentBytes);
+            LOG.infof("Disk result cache: %s, max %d bytes", diskCacheDir.get(), diskCacheMaxBytes);
+        }
+        bindMetrics();
+        LOG.infof("gRPC client initialized. Connecting to: %s:%d, max parallel RPCs: %d per call, %d in total",
+            host, port, maxParallelRpcs, maxClusterRpcs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (rpcExecutor != null) rpcExecutor.shutdownNow();
+        if (diskCache != null) diskCache.close();
     }
 
     private static final Integer MAX_RETURNED_ITEMS = 50;
     private static final Integer MAX_RECEIVED_ITEMS = 5000;
+    private static final Integer MAX_SET_OPERANDS = 32;
     private static final Integer TOTAL_SAMPLES = 3202;
 
+    // genome-wide scans (TopNHWE, TopNchi2) allowed to run in MT mode on the cluster at the same time;
+    // any scan above that runs with seq=true to be gentle on CPU resources of the nodes
+    private static final int MAX_CONCURRENT_MT_SCANS = 1;
+    private static final int TOP_N_CACHE_ENTRIES = 256;
+
+    // genome-wide scans currently running in MT mode
+    private final AtomicInteger mtGenomeWideScans = new AtomicInteger();
+
+    private record TopNKey(String test, int n, List<String> cases) {}
+    private final ResultCache<TopNKey, List<VariantWithStats>> topNCache =
+        new ResultCache<>("topN", TOP_N_CACHE_ENTRIES);
+
+    private static final int PRS_CACHE_ENTRIES = 64;
+
+    // PRS scores for the whole cohort indexed by SampleIndex ordinal, NaN for samples without a score
+    private record CohortScores(int prsCardinality, float[] scores, float[] sortedScores) {}
+    private record PrsKey(String prsName, boolean dominant, boolean recessive) {}
+    private final ResultCache<PrsKey, CohortScores> prsCache = new ResultCache<>("prs", PRS_CACHE_ENTRIES);
+
+    private static final float DEFAULT_SEX_THRESHOLD = 0.7f;
+    private static final int FSTAT_CACHE_ENTRIES = 32;
+
+    // sex thresholds are applied locally, so F-statistics depend on AAF threshold and PAR inclusion only
+    private record FstatKey(float aafThreshold, boolean includePar) {}
+    private final ResultCache<FstatKey, float[]> fstatCache = new ResultCache<>("fstatX", FSTAT_CACHE_ENTRIES);
+
     public enum Gender { MALE, FEMALE, BOTH }
 
+    public enum InheritanceModel {
+        DE_NOVO, HET_DOMINANT, HOM_RECESSIVE;
+
+        public static InheritanceModel parse(String value) {
+            if (value != null) {
+                for (InheritanceModel model : values()) {
+                    if (model.name().equalsIgnoreCase(value.trim())) return model;
+                }
+            }
+            throw new RuntimeException("Invalid parameter: 'model' must be one of " + Arrays.toString(values()));
+        }
+    }
+
     public record DatasetInfo(int variantsTotal, int samplesTotal, int samplesMaleCount, int samplesFemaleCount) {}
     public record VariantsInSample(String sample, List<Variant> variants) {}
 
     public record AlphaMissenseAvg(double alphaMissenseMean, double alphaMissenseDeviation, int variantCount) {}
     public record VariantBurden(String histogram, String highestBurdenSamples, String secondHighestBurdenSamples) {}
 
+    public record PrsModel(String name, String description, int cardinality) {}
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record PrsSampleScore(String sample, String populationCode, String superpopulationCode, Float score,
+                                 Double cohortPercentile, Double populationPercentile) {}
+    public record PrsGroupSummary(String code, String name, int sampleCount, double mean, double standardDeviation,
+                                  double p10, double median, double p90) {}
+    public record SexCheckMismatch(String sample, String populationCode, String reportedSex, String observedSex,
+                                   float fStat) {}
+    public record FstatDistribution(String populationCode, String superpopulationCode, String reportedSex,
+                                    int sampleCount, double mean, double min, double median, double max) {}
+    public record SexCheckReport(float aafThreshold, float femaleThreshold, float maleThreshold, boolean includePar,
+                                 int checkedSamples, int mismatchCount, int undeterminedCount,
+                                 List<SexCheckMismatch> mismatches, List<FstatDistribution> distributions) {}
+    public record TrioVariantCount(String child, String father, String mother, String populationCode,
+                                   int variantCount, boolean truncated) {}
+    public record RecurrentVariant(Variant variant, int trioCount, List<String> probands) {}
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record TrioScan(String model, String affectedParent, int triosScanned, int triosFailed,
+                           int triosWithVariants, int totalVariants, List<TrioVariantCount> trios,
+                           List<RecurrentVariant> recurrentVariants) {}
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record StratumCount(String level, String code, String name, int sampleCount, Integer variantCount) {}
+    public record StratifiedCounts(int strataCounted, int strataFailed, List<StratumCount> strata) {}
+    public record OperandCount(String operand, int count) {}
+    public record SampleSet(String expression, int count, List<OperandCount> operands, List<String> samples) {}
+    public record FrequencyStratum(String level, String code, String name, int sampleCount) {}
+    // af and ac are aligned with PopulationFrequencies.strata
+    public record FrequencyRow(Variant variant, float[] af, int[] ac) {}
+    public record PopulationFrequencies(List<FrequencyStratum> strata, int totalVariants, List<FrequencyRow> variants) {}
+    public record PrsReport(String prsName, boolean dominant, boolean recessive, int prsCardinality, int scoredSamples,
+                            List<PrsSampleScore> samples, List<PrsGroupSummary> populations,
+                            List<PrsGroupSummary> superpopulations) {}
+
     Annotations composeAnnotations(SelectByAnnotations sbn) {
         if (sbn == null) return Annotations.getDefaultInstance();
 
@@ -291,12 +458,6 @@ public class DnaerysClient {
 
         if (sbn != null && sbn.minVariantLengthBp() != null) builder.setVariantMinLength(sbn.minVariantLengthBp());
         if (sbn != null && sbn.maxVariantLengthBp() != null) builder.setVariantMaxLength(sbn.maxVariantLengthBp());
-        if (skip != null) builder.setSkip(skip);
-        if (limit != null) {
-            builder.setLimit(limit);
-        } else {
-            builder.setLimit(MAX_RETURNED_ITEMS);
-        }
 
         AllelesInMultiRegionsRequest request = builder
             .setAssembly(RefAssembly.GRCh38)
@@ -305,14 +466,136 @@ public class DnaerysClient {
             .setAnn(annotations)
             .build();
 
-        Set<Variant> results = new HashSet<>();
-        Iterator<AllelesResponse> responseStream = blockingStub.selectVariantsInMultiRegions(request);
+        if (tileCache != null) {
+            List<Variant> cached = selectVariantsFromTiles(regions, request, skip, limit);
+            if (cached != null) return cached;
+        }
+
+        // skip and limit apply per node on the cluster: the first skip + limit variants of every node
+        // hold the requested page of the merged selection, which is paged here as on the tile path
+        int effectiveLimit = limit == null ? MAX_RETURNED_ITEMS : limit;
+        long nodeLimit = effectiveLimit <= 0 ? 0 : (skip == null ? 0L : skip) + effectiveLimit;
+        Map<VariantKey, Variant> variants = new HashMap<>();
+        Iterator<AllelesResponse> responseStream = blockingStub.selectVariantsInMultiRegions(
+            request.toBuilder().setLimit((int) Math.min(nodeLimit, Integer.MAX_VALUE)).build());
 
         while (responseStream.hasNext()) {
-            results.addAll(responseStream.next().getVariantsList());
+            for (Variant v : responseStream.next().getVariantsList()) {
+                variants.putIfAbsent(VariantKey.of(v), v);
+            }
         }
 
-        return new ArrayList<>(results);
+        return page(variants, skip, limit);
+    }
+
+    // orders the selection by position and applies skip and limit to it; limit <= 0 means no limit, as on the cluster
+    private static List<Variant> page(Map<VariantKey, Variant> variants, Integer skip, Integer limit) {
+        int effectiveLimit = limit == null ? MAX_RETURNED_ITEMS : limit;
+        return variants.entrySet().stream()
+            .sorted(Map.Entry.comparingByKey(VariantKey.POSITION_ORDER))
+            .skip(skip == null ? 0 : skip)
+            .limit(effectiveLimit <= 0 ? Long.MAX_VALUE : effectiveLimit)
+            .map(Map.Entry::getValue)
+            .toList();
+    }
+
+    /**
+     * Answers a variant selection from cached tiles, fetching missing tiles concurrently.
+     * The result is paged as on the direct path, so both answer the same page.
+     *
+     * @return null if the query is to go to the cluster directly: regions with ref or alt alleles,
+     * spanning more than {@code dnaerys.tile-cache.max-tiles-per-query} tiles, or overlapping a tile
+     * that cannot be cached
+     */
+    private List<Variant> selectVariantsFromTiles(List<GenomicRegion> regions, AllelesInMultiRegionsRequest request,
+                                                  Integer skip, Integer limit) {
+        // point lookups are cheaper on the cluster than a whole tile
+        for (GenomicRegion r : regions) {
+            if ((r.refAllele() != null && !r.refAllele().isBlank())
+                || (r.altAllele() != null && !r.altAllele().isBlank())) return null;
+        }
+
+        // every request field except regions identifies the tile contents
+        AllelesInMultiRegionsRequest template = request.toBuilder()
+            .clearChr().clearStart().clearEnd().clearRef().clearAlt()
+            .build();
+        ByteString filter = template.toByteString();
+
+        Set<VariantTileCache.TileKey> keys = new LinkedHashSet<>();
+        for (GenomicRegion r : regions) {
+            int chr = ContigsMapping.contigName2GrpcChr(r.chromosome()).getNumber();
+            for (int t = tileCache.tileOf(r.start()); t <= tileCache.tileOf(r.end()); t++) {
+                keys.add(new VariantTileCache.TileKey(chr, t, template.getHom(), template.getHet(), filter));
+                if (keys.size() > maxTilesPerQuery) return null;
+            }
+        }
+
+        Map<VariantTileCache.TileKey, VariantTile> tiles = new HashMap<>();
+        List<VariantTileCache.TileKey> missing = new ArrayList<>();
+        for (VariantTileCache.TileKey key : keys) {
+            VariantTile tile = tileCache.getIfPresent(key);
+            if (tile != null) tiles.put(key, tile); else missing.add(key);
+        }
+        FanOutResult result = fanOut(missing,
+            key -> tileCache.get(key, () -> fetchTile(key, template)),
+            tiles::put);
+        if (result.failed() > 0) {
+            throw new RuntimeException("Variant selection failed: " + result.firstFailure().getMessage(),
+                result.firstFailure());
+        }
+        if (tiles.containsValue(null)) return null;
+
+        Map<VariantKey, Variant> variants = new HashMap<>();
+        for (GenomicRegion r : regions) {
+            int chr = ContigsMapping.contigName2GrpcChr(r.chromosome()).getNumber();
+            for (int t = tileCache.tileOf(r.start()); t <= tileCache.tileOf(r.end()); t++) {
+                tiles.get(new VariantTileCache.TileKey(chr, t, template.getHom(), template.getHet(), filter))
+                    .collect(r.start(), r.end(), r.refAllele(), r.altAllele(),
+                        v -> variants.putIfAbsent(VariantKey.of(v), v));
+            }
+        }
+
+        return page(variants, skip, limit);
+    }
+
+    /**
+     * All variants starting in the tile.
+     *
+     * @return null if the tile cannot be cached: the cluster was incomplete or the tile holds more than
+     * {@code dnaerys.tile-cache.max-variants-per-tile} variants
+     */
+    private VariantTile fetchTile(VariantTileCache.TileKey key, AllelesInMultiRegionsRequest template) {
+        int from = tileCache.tileStart(key.tile());
+        int to = tileCache.tileEnd(key.tile());
+        // limit applies per node, one more than the cap is enough to tell a tile is too dense
+        AllelesInMultiRegionsRequest request = template.toBuilder()
+            .addChrValue(key.chr())
+            .addStart(from)
+            .addEnd(to)
+            .addRef("")
+            .addAlt("")
+            .setLimit(maxVariantsPerTile + 1)
+            .build();
+
+        Map<VariantKey, Variant> variants = new HashMap<>();
+        boolean incomplete = false;
+        Iterator<AllelesResponse> responseStream = blockingStub.selectVariantsInMultiRegions(request);
+        while (responseStream.hasNext()) {
+            AllelesResponse response = responseStream.next();
+            incomplete |= response.getIncompleteCluster();
+            for (Variant v : response.getVariantsList()) {
+                if (v.getStart() >= from && v.getStart() <= to) variants.putIfAbsent(VariantKey.of(v), v);
+            }
+        }
+        if (incomplete) {
+            LOG.warnf("Tile %d:%d-%d not cached: incomplete cluster", key.chr(), from, to);
+            return null;
+        }
+        if (variants.size() > maxVariantsPerTile) {
+            LOG.debugf("Tile %d:%d-%d not cached: more than %d variants", key.chr(), from, to, maxVariantsPerTile);
+            return null;
+        }
+        return VariantTile.encode(key.chr(), new ArrayList<>(variants.values()));
     }
 
     public int countVariantsInSamples(List<GenomicRegion> regions, List<String> samples, boolean selectHom,
@@ -537,6 +820,955 @@ public class DnaerysClient {
         return response.getFirst().getDegree().toString();
     }
 
+    /**
+     * Top N variants with the most significant p-value of HWE deviation across the whole dataset.
+     * Results are cached: the dataset does not change and the genome-wide scan is expensive.
+     */
+    public List<VariantWithStats> topNHWE(int n) {
+        topNValidation(n);
+        return topNCache.get(new TopNKey("HWE", n, List.of()), () -> {
+            TopNHWERequest request = TopNHWERequest.newBuilder()
+                .setN(n)
+                .build();
+            AllelesWithStatsResponse response = persisted("TopNHWE", request, AllelesWithStatsResponse.parser(),
+                r -> !r.getIncompleteCluster(),
+                () -> genomeWideScan(seq -> blockingStub.topNHWE(request.toBuilder().setSeq(seq).build())));
+            return topN(response.getVariantsList(), n, Comparator.comparingDouble(VariantWithStats::getPhwe));
+        });
+    }
+
+    /**
+     * Top N variants with the most significant p-value in Pearson's chi-squared test with provided samples
+     * as cases and the rest of the cohort as controls. Results are cached by N and the normalized case set.
+     */
+    public List<VariantWithStats> topNChi2(int n, List<String> samples) {
+        topNValidation(n);
+        List<String> cases = normalizeSamples(samples);
+        if (cases.isEmpty()) {
+            throw new RuntimeException("Samples ID must not be empty");
+        }
+        return topNCache.get(new TopNKey("CHI2", n, cases), () -> {
+            samplesValidation(cases);
+            TopNchi2Request request = TopNchi2Request.newBuilder()
+                .setN(n)
+                .addAllSamples(cases)
+                .build();
+            AllelesWithStatsResponse response = persisted("TopNchi2", request, AllelesWithStatsResponse.parser(),
+                r -> !r.getIncompleteCluster(),
+                () -> genomeWideScan(seq -> blockingStub.topNchi2(request.toBuilder().setSeq(seq).build())));
+            return topN(response.getVariantsList(), n, Comparator.comparingDouble(VariantWithStats::getPchi2));
+        });
+    }
+
+    // per-RPC latency and message counts come from the gRPC client binder of quarkus-micrometer
+    private void bindMetrics() {
+        Gauge.builder("dnaerys.rpc.fanout.active", activeFanOutRpcs, AtomicInteger::get)
+            .description("Fanned-out RPCs in flight").register(registry);
+        bindCacheMetrics("topN", topNCache, ResultCache::hitCount, ResultCache::missCount, ResultCache::size);
+        bindCacheMetrics("prs", prsCache, ResultCache::hitCount, ResultCache::missCount, ResultCache::size);
+        bindCacheMetrics("fstatX", fstatCache, ResultCache::hitCount, ResultCache::missCount, ResultCache::size);
+        if (tileCache != null) {
+            bindCacheMetrics("variantTiles", tileCache, VariantTileCache::hitCount, VariantTileCache::missCount,
+                VariantTileCache::size);
+            Gauge.builder("dnaerys.cache.bytes", tileCache, VariantTileCache::bytes)
+                .tag("cache", "variantTiles").baseUnit("bytes").register(registry);
+        }
+        if (diskCache != null) {
+            bindCacheMetrics("disk", diskCache, DiskResultCache::hitCount, DiskResultCache::missCount,
+                DiskResultCache::size);
+            Gauge.builder("dnaerys.cache.bytes", diskCache, DiskResultCache::bytes)
+                .tag("cache", "disk").baseUnit("bytes").register(registry);
+        }
+    }
+
+    // hit ratio: rate of result="hit" over the rate of all requests of the cache
+    private <C> void bindCacheMetrics(String name, C cache, ToDoubleFunction<C> hits, ToDoubleFunction<C> misses,
+                                      ToDoubleFunction<C> size) {
+        FunctionCounter.builder("dnaerys.cache.requests", cache, hits)
+            .tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("dnaerys.cache.requests", cache, misses)
+            .tag("cache", name).tag("result", "miss").register(registry);
+        Gauge.builder("dnaerys.cache.size", cache, size)
+            .tag("cache", name).register(registry);
+    }
+
+    /**
+     * Response of a deterministic RPC, read from the disk cache when enabled. Requests are keyed
+     * without scheduling hints (e.g. {@code seq}), which must be set by {@code rpc} only.
+     * Responses rejected by {@code complete} are returned but not stored.
+     */
+    private <T extends Message> T persisted(String method, Message request, Parser<T> parser,
+                                            Predicate<T> complete, Supplier<T> rpc) {
+        if (diskCache == null) return rpc.get();
+        String version;
+        byte[] key;
+        try {
+            version = datasetVersion();
+            key = canonicalBytes(request);
+        } catch (Exception e) {
+            LOG.debugf("Disk cache bypassed for %s: %s", method, e.getMessage());
+            return rpc.get();
+        }
+        byte[] cached = diskCache.get(version, method, key);
+        if (cached != null) {
+            try {
+                return parser.parseFrom(cached);
+            } catch (InvalidProtocolBufferException e) {
+                LOG.debugf("Disk cache entry for %s is not readable: %s", method, e.getMessage());
+            }
+        }
+        T response = rpc.get();
+        if (complete.test(response)) {
+            diskCache.put(version, method, key, response.toByteArray());
+        }
+        return response;
+    }
+
+    private String datasetVersion() {
+        String version = datasetVersion;
+        if (version == null) {
+            DatasetInfoResponse info = blockingStub.datasetInfo(DatasetInfoRequest.newBuilder()
+                .setReturnSamplesNames(false)
+                .build());
+            version = String.join("/", info.getTimestamp(), info.getAssembly().name(),
+                String.valueOf(info.getDataFormat()), String.valueOf(info.getVariantsTotal()),
+                String.valueOf(info.getSamplesTotal()));
+            datasetVersion = version;
+        }
+        return version;
+    }
+
+    private static byte[] canonicalBytes(Message message) throws IOException {
+        byte[] bytes = new byte[message.getSerializedSize()];
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        out.useDeterministicSerialization();
+        message.writeTo(out);
+        out.checkNoSpaceLeft();
+        return bytes;
+    }
+
+    /**
+     * Runs a genome-wide scan, in MT mode if fewer than {@code MAX_CONCURRENT_MT_SCANS} MT scans are
+     * running and sequentially on the nodes otherwise. Sequential scans are not counted.
+     */
+    private <T> T genomeWideScan(Function<Boolean, T> rpc) {
+        boolean seq = true;
+        int running = mtGenomeWideScans.get();
+        while (running < MAX_CONCURRENT_MT_SCANS) {
+            if (mtGenomeWideScans.compareAndSet(running, running + 1)) {
+                seq = false;
+                break;
+            }
+            running = mtGenomeWideScans.get();
+        }
+        LOG.debugf("Genome-wide MT scans running: %d, seq mode: %s", seq ? running : running + 1, seq);
+        try {
+            return rpc.apply(seq);
+        } finally {
+            if (!seq) mtGenomeWideScans.decrementAndGet();
+        }
+    }
+
+    // every node returns its own top N, keep the N most significant across the cluster
+    private static List<VariantWithStats> topN(List<VariantWithStats> variants, int n,
+                                               Comparator<VariantWithStats> byPValue) {
+        return variants.stream()
+            .sorted(byPValue)
+            .limit(n)
+            .toList();
+    }
+
+    public List<PrsModel> listPrsModels() {
+        DatasetInfoRequest request = DatasetInfoRequest.newBuilder()
+            .setReturnSamplesNames(false)
+            .build();
+        return blockingStub.datasetInfo(request).getPrsList().stream()
+            .map(p -> new PrsModel(p.getName(), p.getDesc(), p.getCardinality()))
+            .toList();
+    }
+
+    /**
+     * Polygenic risk scores with cohort, population and superpopulation percentiles.
+     * <p>
+     * Scores are computed once per (prsName, dominant, recessive) for the whole cohort and cached;
+     * all percentile queries are answered locally against the sample index from {@link MetaClient}.
+     * When no samples or groups are requested, summaries for all superpopulations are returned.
+     */
+    public PrsReport computePrs(String prsName, boolean dominant, boolean recessive, List<String> samples,
+                                List<String> populations, List<String> superpopulations) {
+        if (prsName == null || prsName.isBlank()) {
+            throw new RuntimeException("Invalid parameter: 'prsName' must be provided");
+        }
+        if (dominant && recessive) {
+            throw new RuntimeException("Invalid parameter: 'dominant' and 'recessive' are mutually exclusive");
+        }
+
+        SampleIndex index = metaClient.sampleIndex();
+        String name = prsName.trim();
+        CohortScores cohort = prsCache.get(new PrsKey(name, dominant, recessive),
+            () -> loadCohortScores(name, dominant, recessive, index));
+
+        List<String> sampleIds = samples == null ? List.of() : samples.stream().map(String::trim).toList();
+        List<String> unknownSamples = sampleIds.stream().filter(id -> index.ordinal(id) < 0).toList();
+        if (!unknownSamples.isEmpty()) {
+            throw new RuntimeException("Unknown sample IDs: " + unknownSamples);
+        }
+        List<String> popCodes = resolveGroups(populations, index::populationCodeOf, "population");
+        List<String> superpopCodes = resolveGroups(superpopulations, index::superpopulationCodeOf, "superpopulation");
+
+        if (sampleIds.isEmpty() && popCodes.isEmpty() && superpopCodes.isEmpty()) {
+            superpopCodes = resolveAllGroups(index, false).stream().sorted().toList();
+        }
+
+        Map<String, float[]> populationScores = new HashMap<>();
+        List<PrsSampleScore> sampleScores = new ArrayList<>();
+        for (String id : sampleIds) {
+            int ordinal = index.ordinal(id);
+            float score = cohort.scores()[ordinal];
+            String pop = index.populationCode(ordinal);
+            if (Float.isNaN(score)) {
+                sampleScores.add(new PrsSampleScore(id, pop, index.superpopulationCode(ordinal), null, null, null));
+                continue;
+            }
+            float[] popSorted = populationScores.computeIfAbsent(pop,
+                code -> groupScores(cohort, index, code, true));
+            sampleScores.add(new PrsSampleScore(id, pop, index.superpopulationCode(ordinal), score,
+                percentileRank(cohort.sortedScores(), score), percentileRank(popSorted, score)));
+        }
+
+        List<PrsGroupSummary> popSummaries = new ArrayList<>();
+        for (String code : popCodes) {
+            float[] sorted = populationScores.computeIfAbsent(code, c -> groupScores(cohort, index, c, true));
+            popSummaries.add(groupSummary(code, groupName(index, code, true), sorted));
+        }
+        List<PrsGroupSummary> superpopSummaries = new ArrayList<>();
+        for (String code : superpopCodes) {
+            float[] sorted = groupScores(cohort, index, code, false);
+            superpopSummaries.add(groupSummary(code, groupName(index, code, false), sorted));
+        }
+
+        return new PrsReport(name, dominant, recessive, cohort.prsCardinality(), cohort.sortedScores().length,
+            sampleScores, popSummaries, superpopSummaries);
+    }
+
+    private CohortScores loadCohortScores(String prsName, boolean dominant, boolean recessive, SampleIndex index) {
+        List<String> models = listPrsModels().stream().map(PrsModel::name).sorted().toList();
+        if (!models.contains(prsName)) {
+            throw new RuntimeException(String.format(
+                "Invalid parameter: PRS '%s' does not exist. Available PRS: %s", prsName, models));
+        }
+
+        PRSRequest request = PRSRequest.newBuilder()
+            .setPrsName(prsName)
+            .addAllSamples(index.sampleIds())
+            .setDominant(dominant)
+            .setRecessive(recessive)
+            .build();
+        PRSResponse response = persisted("Prs", request, PRSResponse.parser(),
+            r -> !r.getIncompleteCluster(), () -> blockingStub.prs(request));
+        if (response.getIncompleteCluster()) {
+            // partial scores must not end up in the cache
+            throw new RuntimeException("PRS scores are incomplete: some cluster nodes are unreachable, try again later");
+        }
+
+        float[] scores = new float[index.size()];
+        Arrays.fill(scores, Float.NaN);
+        for (SampleScore sampleScore : response.getSampleScoresList()) {
+            int ordinal = index.ordinal(sampleScore.getSample());
+            if (ordinal >= 0) {
+                scores[ordinal] = sampleScore.getScoresSum();
+            } else {
+                LOG.debugf("PRS score for sample '%s' without metadata is ignored", sampleScore.getSample());
+            }
+        }
+
+        float[] sorted = finiteSorted(scores, null);
+        LOG.debugf("PRS '%s' (dominant=%s, recessive=%s): %d samples scored", prsName, dominant, recessive, sorted.length);
+        return new CohortScores(response.getPrsCardinality(), scores, sorted);
+    }
+
+    /**
+     * Sex check based on chrX F-statistics, cross-referenced with reported gender in sample metadata.
+     * <p>
+     * F-statistics are computed once for the whole cohort per (aafThreshold, includePar) and cached;
+     * sex calls, mismatches and per-population F distributions are derived locally.
+     * Samples are called female if F &lt; femaleThreshold and male if F &gt; maleThreshold.
+     */
+    public SexCheckReport checkSampleSex(Float aafThreshold, Float femaleThreshold, Float maleThreshold,
+                                         Boolean includePar, List<String> populations) {
+        float aaf = aafThreshold == null ? 0f : aafThreshold;
+        float female = femaleThreshold == null ? DEFAULT_SEX_THRESHOLD : femaleThreshold;
+        float male = maleThreshold == null ? DEFAULT_SEX_THRESHOLD : maleThreshold;
+        boolean par = Boolean.TRUE.equals(includePar);
+
+        if (aaf < 0f || aaf >= 0.5f) {
+            throw new RuntimeException("Invalid parameter: 'aafThreshold' must be >= 0 and < 0.5");
+        }
+        if (female > male) {
+            throw new RuntimeException("Invalid parameter: 'femaleThreshold' must be <= 'maleThreshold'");
+        }
+
+        SampleIndex index = metaClient.sampleIndex();
+        float[] fStats = fstatCache.get(new FstatKey(aaf, par), () -> loadFstatX(aaf, par, index));
+        Set<String> popFilter = new HashSet<>(resolveGroups(populations, index::populationCodeOf, "population"));
+
+        int checked = 0;
+        int undetermined = 0;
+        List<SexCheckMismatch> mismatches = new ArrayList<>();
+        // population -> reported sex -> ordinals, in population code order
+        Map<String, Map<String, List<Integer>>> groups = new TreeMap<>();
+
+        for (int i = 0; i < index.size(); i++) {
+            float f = fStats[i];
+            String pop = index.populationCode(i);
+            if (Float.isNaN(f) || (!popFilter.isEmpty() && !popFilter.contains(pop))) continue;
+
+            checked++;
+            String reported = index.gender(i);
+            String observed = f < female ? "female" : f > male ? "male" : null;
+            if (observed == null) {
+                undetermined++;
+            } else if (!observed.equals(reported)) {
+                mismatches.add(new SexCheckMismatch(index.sampleId(i), pop, reported, observed, f));
+            }
+            groups.computeIfAbsent(pop, k -> new TreeMap<>())
+                .computeIfAbsent(reported, k -> new ArrayList<>())
+                .add(i);
+        }
+
+        List<FstatDistribution> distributions = new ArrayList<>();
+        for (var byPop : groups.entrySet()) {
+            for (var bySex : byPop.getValue().entrySet()) {
+                List<Integer> ordinals = bySex.getValue();
+                float[] sorted = new float[ordinals.size()];
+                for (int j = 0; j < sorted.length; j++) sorted[j] = fStats[ordinals.get(j)];
+                Arrays.sort(sorted);
+                double sum = 0.0;
+                for (float v : sorted) sum += v;
+                distributions.add(new FstatDistribution(byPop.getKey(),
+                    index.superpopulationCode(ordinals.getFirst()), bySex.getKey(), sorted.length,
+                    sum / sorted.length, sorted[0], quantile(sorted, 0.5), sorted[sorted.length - 1]));
+            }
+        }
+
+        return new SexCheckReport(aaf, female, male, par, checked, mismatches.size(), undetermined,
+            mismatches, distributions);
+    }
+
+    private float[] loadFstatX(float aafThreshold, boolean includePar, SampleIndex index) {
+        FstatXRequest request = FstatXRequest.newBuilder()
+            .addAllSamples(index.sampleIds())
+            .setAafThreshold(aafThreshold)
+            .setIncludePar(includePar)
+            .build();
+        FstatXResponse response = persisted("FstatX", request, FstatXResponse.parser(),
+            r -> !r.getIncompleteCluster(),
+            () -> genomeWideScan(seq -> blockingStub.fstatX(request.toBuilder().setSeq(seq).build())));
+        if (response.getIncompleteCluster()) {
+            // partial F-statistics must not end up in the cache
+            throw new RuntimeException("F-statistics are incomplete: some cluster nodes are unreachable, try again later");
+        }
+
+        float[] fStats = new float[index.size()];
+        Arrays.fill(fStats, Float.NaN);
+        Stream.concat(response.getMalesList().stream(), response.getFemalesList().stream())
+            .forEach(stat -> {
+                int ordinal = index.ordinal(stat.getSample());
+                if (ordinal >= 0) fStats[ordinal] = stat.getFStat();
+            });
+        return fStats;
+    }
+
+    private static List<String> resolveGroups(List<String> values, Function<String, String> resolver,
+                                              String groupType) {
+        if (values == null || values.isEmpty()) return List.of();
+        List<String> unknown = values.stream().filter(v -> resolver.apply(v) == null).toList();
+        if (!unknown.isEmpty()) {
+            throw new RuntimeException("Unrecognised " + groupType + " values: " + unknown);
+        }
+        return values.stream().map(resolver).distinct().toList();
+    }
+
+    private static Set<String> resolveAllGroups(SampleIndex index, boolean population) {
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < index.size(); i++) {
+            codes.add(population ? index.populationCode(i) : index.superpopulationCode(i));
+        }
+        return codes;
+    }
+
+    private static String groupName(SampleIndex index, String code, boolean population) {
+        for (int i = 0; i < index.size(); i++) {
+            if (population && code.equals(index.populationCode(i))) return index.populationName(i);
+            if (!population && code.equals(index.superpopulationCode(i))) return index.superpopulationName(i);
+        }
+        return code;
+    }
+
+    private static float[] groupScores(CohortScores cohort, SampleIndex index, String code, boolean population) {
+        boolean[] members = new boolean[index.size()];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = code.equals(population ? index.populationCode(i) : index.superpopulationCode(i));
+        }
+        return finiteSorted(cohort.scores(), members);
+    }
+
+    // sorted non-NaN scores, optionally restricted to members
+    private static float[] finiteSorted(float[] scores, boolean[] members) {
+        float[] buffer = new float[scores.length];
+        int n = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (!Float.isNaN(scores[i]) && (members == null || members[i])) {
+                buffer[n++] = scores[i];
+            }
+        }
+        float[] sorted = Arrays.copyOf(buffer, n);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static PrsGroupSummary groupSummary(String code, String name, float[] sorted) {
+        if (sorted.length == 0) {
+            return new PrsGroupSummary(code, name, 0, 0d, 0d, 0d, 0d, 0d);
+        }
+        double sum = 0.0;
+        for (float v : sorted) sum += v;
+        double mean = sum / sorted.length;
+        double sumSquaredDiff = 0.0;
+        for (float v : sorted) sumSquaredDiff += (v - mean) * (v - mean);
+        return new PrsGroupSummary(code, name, sorted.length, mean, Math.sqrt(sumSquaredDiff / sorted.length),
+            quantile(sorted, 0.1), quantile(sorted, 0.5), quantile(sorted, 0.9));
+    }
+
+    // mid-rank percentile of value within sorted values, ties contribute half
+    static double percentileRank(float[] sorted, float value) {
+        if (sorted.length == 0) return 0d;
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) lo = mid + 1; else hi = mid;
+        }
+        int below = lo;
+        hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= value) lo = mid + 1; else hi = mid;
+        }
+        int equal = lo - below;
+        return 100.0 * (below + 0.5 * equal) / sorted.length;
+    }
+
+    // linearly interpolated quantile, q in [0, 1]
+    static double quantile(float[] sorted, double q) {
+        if (sorted.length == 0) return 0d;
+        double position = q * (sorted.length - 1);
+        int lower = (int) Math.floor(position);
+        int upper = (int) Math.ceil(position);
+        return sorted[lower] + (position - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    private record Stratum(String level, String code, String name, List<String> samples) {}
+
+    /**
+     * Counts variants in the regions separately in every requested population and superpopulation,
+     * one RPC per stratum with bounded parallelism. Sample sets come from metadata and are not validated
+     * against the cluster. Without populations and superpopulations all populations are counted.
+     * Strata which fail are reported without a count; the call fails only if no stratum succeeds.
+     */
+    public StratifiedCounts countVariantsByPopulation(List<GenomicRegion> regions, boolean selectHom,
+                                                      boolean selectHet, SelectByAnnotations sbn,
+                                                      List<String> populations, List<String> superpopulations) {
+        paramValidation(regions, sbn);
+        List<Stratum> strata = resolveStrata(populations, superpopulations);
+
+        Map<Stratum, Integer> counts = new HashMap<>();
+        FanOutResult result = fanOut(strata,
+            stratum -> countVariantsInSamples(regions, stratum.samples(), selectHom, selectHet, sbn, false),
+            counts::put);
+
+        if (!strata.isEmpty() && result.failed() == strata.size()) {
+            throw new RuntimeException("Stratified count failed: " + result.firstFailure().getMessage(),
+                result.firstFailure());
+        }
+
+        // requested order: populations, then superpopulations
+        List<StratumCount> table = strata.stream()
+            .map(s -> new StratumCount(s.level(), s.code(), s.name(), s.samples().size(), counts.get(s)))
+            .toList();
+
+        LOG.debugf("countVariantsByPopulation: strata=%d, failed=%d", strata.size(), result.failed());
+        return new StratifiedCounts(strata.size() - result.failed(), result.failed(), table);
+    }
+
+    /**
+     * Builds a variant x stratum allele frequency matrix: one WithStats RPC per population or superpopulation
+     * (all populations by default), with the stratum samples as the virtual cohort, merged by variant.
+     * A variant not returned for a stratum is not carried by its samples and has AF 0 there.
+     * Rows are ordered by position; {@code skip} and {@code limit} page through them.
+     */
+    public PopulationFrequencies populationFrequencies(List<GenomicRegion> regions, boolean selectHom,
+                                                       boolean selectHet, SelectByAnnotations sbn,
+                                                       List<String> populations, List<String> superpopulations,
+                                                       Integer skip, Integer limit) {
+        paramValidation(regions, sbn, skip, limit);
+        List<Stratum> strata = resolveStrata(populations, superpopulations);
+
+        // variants of every stratum are a subset of the dataset-wide selection
+        int datasetTotal = countVariants(regions, selectHom, selectHet, sbn);
+        if (datasetTotal > MAX_RECEIVED_ITEMS) {
+            throw new RuntimeException(String.format(
+                "Total number of selected variants exceeds %s. Try to reduce the number of regions or ranges.",
+                MAX_RECEIVED_ITEMS));
+        }
+
+        Annotations annotations = composeAnnotations(sbn);
+        int columns = strata.size();
+        Map<VariantKey, Variant> variants = new HashMap<>();
+        Map<VariantKey, float[]> af = new HashMap<>();
+        Map<VariantKey, int[]> ac = new HashMap<>();
+
+        List<Integer> columnIds = IntStream.range(0, columns).boxed().toList();
+        FanOutResult result = fanOut(columnIds,
+            c -> selectVariantsWithStats(regions, strata.get(c).samples(), selectHom, selectHet, sbn, annotations),
+            (c, stats) -> {
+                for (VariantWithStats vws : stats) {
+                    VariantKey key = VariantKey.of(vws.getVariant());
+                    variants.putIfAbsent(key, vws.getVariant());
+                    af.computeIfAbsent(key, k -> new float[columns])[c] = vws.getVaf();
+                    ac.computeIfAbsent(key, k -> new int[columns])[c] = Math.round(vws.getVac());
+                }
+            });
+
+        // a missing column would read as AF 0, so partial results are not returned
+        if (result.failed() > 0) {
+            throw new RuntimeException("Population frequency query failed: " + result.firstFailure().getMessage(),
+                result.firstFailure());
+        }
+
+        int effectiveSkip = skip == null ? 0 : skip;
+        int effectiveLimit = (limit == null || limit == 0) ? MAX_RETURNED_ITEMS : limit;
+        List<FrequencyRow> rows = variants.keySet().stream()
+            .sorted(Comparator.comparingInt(VariantKey::chr)
+                .thenComparingInt(VariantKey::start)
+                .thenComparing(VariantKey::ref)
+                .thenComparing(VariantKey::alt))
+            .skip(effectiveSkip)
+            .limit(effectiveLimit)
+            .map(k -> new FrequencyRow(variants.get(k), af.get(k), ac.get(k)))
+            .toList();
+
+        List<FrequencyStratum> header = strata.stream()
+            .map(s -> new FrequencyStratum(s.level(), s.code(), s.name(), s.samples().size()))
+            .toList();
+
+        LOG.debugf("populationFrequencies: strata=%d, variants=%d, returned=%d", columns, variants.size(), rows.size());
+        return new PopulationFrequencies(header, variants.size(), rows);
+    }
+
+    // all variants selected in the samples, with virtual cohort counters; fails rather than return empty counters
+    private List<VariantWithStats> selectVariantsWithStats(List<GenomicRegion> regions, List<String> samples,
+                                                           boolean selectHom, boolean selectHet,
+                                                           SelectByAnnotations sbn, Annotations annotations) {
+        var builder = AllelesInMultiRegionsInSamplesRequest.newBuilder();
+
+        regions.forEach(r -> {
+            builder.addChr(ContigsMapping.contigName2GrpcChr(r.chromosome()));
+            builder.addStart(r.start());
+            builder.addEnd(r.end());
+            builder.addRef(r.refAllele() == null ? "" : r.refAllele());
+            builder.addAlt(r.altAllele() == null ? "" : r.altAllele());
+        });
+
+        if (sbn != null && sbn.minVariantLengthBp() != null) builder.setVariantMinLength(sbn.minVariantLengthBp());
+        if (sbn != null && sbn.maxVariantLengthBp() != null) builder.setVariantMaxLength(sbn.maxVariantLengthBp());
+
+        AllelesInMultiRegionsInSamplesRequest request = builder
+            .setAssembly(RefAssembly.GRCh38)
+            .setHom(selectHom)
+            .setHet(selectHet)
+            .addAllSamples(samples)
+            .setAnn(annotations)
+            .build();
+
+        List<VariantWithStats> results = new ArrayList<>();
+        Iterator<AllelesWithStatsResponse> responseStream =
+            blockingStub.selectVariantsInMultiRegionsInSamplesWithStats(request);
+        while (responseStream.hasNext()) {
+            AllelesWithStatsResponse response = responseStream.next();
+            if (response.getIncompleteCluster()) {
+                throw new RuntimeException(
+                    "Population frequencies are incomplete: some cluster nodes are unreachable, try again later");
+            }
+            for (VariantWithStats vws : response.getVariantsList()) {
+                // a selected variant has at least one called allele in the samples, unless counters are absent
+                if (vws.getVan() == 0) {
+                    throw new RuntimeException(
+                        "Population frequencies are not available: the cluster returned no cohort counters");
+                }
+                results.add(vws);
+            }
+        }
+        return results;
+    }
+
+    // requested populations, then superpopulations; all populations by code if none requested
+    private List<Stratum> resolveStrata(List<String> populations, List<String> superpopulations) {
+        SampleIndex index = metaClient.sampleIndex();
+        List<String> popCodes = resolveGroups(populations, index::populationCodeOf, "population");
+        List<String> superpopCodes = resolveGroups(superpopulations, index::superpopulationCodeOf, "superpopulation");
+        if (popCodes.isEmpty() && superpopCodes.isEmpty()) {
+            popCodes = resolveAllGroups(index, true).stream().sorted().toList();
+        }
+
+        List<Stratum> strata = new ArrayList<>(popCodes.size() + superpopCodes.size());
+        for (String code : popCodes) {
+            strata.add(new Stratum("population", code, groupName(index, code, true),
+                metaClient.populationSampleIds(code)));
+        }
+        for (String code : superpopCodes) {
+            strata.add(new Stratum("superpopulation", code, groupName(index, code, false),
+                metaClient.superpopulationSampleIds(code)));
+        }
+        return strata;
+    }
+
+    /**
+     * Evaluates a {@link SampleSetExpression} on bitsets over the sample index. Region operands are resolved with
+     * one SelectSamplesInMultiRegions RPC each, concurrently, using the same zygosity and filters; metadata operands
+     * are resolved locally. Returns the size of the result set and a page of its members in sample ID order.
+     *
+     * @param limit members to return, 0 for count only; default 50
+     */
+    public SampleSet evaluateSampleSet(String expression, boolean selectHom, boolean selectHet,
+                                       SelectByAnnotations sbn, Integer skip, Integer limit) {
+        SampleSetExpression parsed = SampleSetExpression.parse(expression);
+        SampleIndex index = metaClient.sampleIndex();
+        int size = index.size();
+
+        int effectiveSkip = skip == null ? 0 : skip;
+        int effectiveLimit = limit == null ? MAX_RETURNED_ITEMS : limit;
+        if (effectiveSkip < 0) throw new RuntimeException("Invalid parameter: 'skip' must be >= 0.");
+        if (effectiveLimit < 0 || effectiveLimit > size) {
+            throw new RuntimeException("Invalid parameter: 'limit' must be >= 0 and <= " + size);
+        }
+
+        List<SampleSetExpression.Operand> regionOperands = parsed.operands().stream()
+            .filter(o -> o.kind() == SampleSetExpression.Kind.REGION)
+            .toList();
+        if (regionOperands.size() > MAX_SET_OPERANDS) {
+            throw new RuntimeException("Invalid parameter: 'expression' must have at most " + MAX_SET_OPERANDS +
+                " region operands, actual: " + regionOperands.size());
+        }
+        if (!regionOperands.isEmpty()) {
+            paramValidation(regionOperands.stream().map(SampleSetExpression.Operand::region).toList(), sbn);
+        }
+
+        Map<SampleSetExpression.Operand, BitSet> sets = new HashMap<>();
+        for (SampleSetExpression.Operand operand : parsed.operands()) {
+            if (operand.kind() != SampleSetExpression.Kind.REGION) {
+                sets.put(operand, metadataSet(index, operand));
+            }
+        }
+
+        Annotations annotations = composeAnnotations(sbn);
+        FanOutResult result = fanOut(regionOperands,
+            operand -> selectSamplesInRegion(operand.region(), selectHom, selectHet, sbn, annotations),
+            (operand, samples) -> {
+                BitSet set = new BitSet(size);
+                for (String sample : samples) {
+                    int ordinal = index.ordinal(sample);
+                    if (ordinal >= 0) set.set(ordinal);
+                }
+                sets.put(operand, set);
+            });
+
+        // a missing operand would change the meaning of the expression
+        if (result.failed() > 0) {
+            throw new RuntimeException("Sample set evaluation failed: " + result.firstFailure().getMessage(),
+                result.firstFailure());
+        }
+
+        BitSet members = parsed.evaluate(sets::get, size);
+        List<String> page = new ArrayList<>(Math.min(effectiveLimit, members.cardinality()));
+        int matched = 0;
+        for (int i = members.nextSetBit(0); i >= 0 && page.size() < effectiveLimit; i = members.nextSetBit(i + 1)) {
+            if (matched++ < effectiveSkip) continue;
+            page.add(index.sampleId(i));
+        }
+
+        List<OperandCount> operandCounts = parsed.operands().stream()
+            .map(o -> new OperandCount(o.text(), sets.get(o).cardinality()))
+            .toList();
+
+        LOG.debugf("evaluateSampleSet: '%s', operands=%d, members=%d", parsed, operandCounts.size(),
+            members.cardinality());
+        return new SampleSet(parsed.toString(), members.cardinality(), operandCounts, page);
+    }
+
+    private static BitSet metadataSet(SampleIndex index, SampleSetExpression.Operand operand) {
+        String code = switch (operand.kind()) {
+            case POPULATION ->
+                resolveGroups(List.of(operand.value()), index::populationCodeOf, "population").getFirst();
+            case SUPERPOPULATION ->
+                resolveGroups(List.of(operand.value()), index::superpopulationCodeOf, "superpopulation").getFirst();
+            default -> operand.value();
+        };
+        BitSet set = new BitSet(index.size());
+        for (int i = 0; i < index.size(); i++) {
+            String value = switch (operand.kind()) {
+                case POPULATION -> index.populationCode(i);
+                case SUPERPOPULATION -> index.superpopulationCode(i);
+                default -> index.gender(i);
+            };
+            if (code.equals(value)) set.set(i);
+        }
+        return set;
+    }
+
+    private List<String> selectSamplesInRegion(GenomicRegion region, boolean selectHom, boolean selectHet,
+                                               SelectByAnnotations sbn, Annotations annotations) {
+        var builder = SamplesInMultiRegionsRequest.newBuilder()
+            .addChr(ContigsMapping.contigName2GrpcChr(region.chromosome()))
+            .addStart(region.start())
+            .addEnd(region.end())
+            .addRef("")
+            .addAlt("");
+
+        if (sbn != null && sbn.minVariantLengthBp() != null) builder.setVariantMinLength(sbn.minVariantLengthBp());
+        if (sbn != null && sbn.maxVariantLengthBp() != null) builder.setVariantMaxLength(sbn.maxVariantLengthBp());
+
+        SamplesInMultiRegionsRequest request = builder
+            .setAssembly(RefAssembly.GRCh38)
+            .setHom(selectHom)
+            .setHet(selectHet)
+            .setAnn(annotations)
+            .build();
+
+        return blockingStub.selectSamplesInMultiRegions(request).getSamplesList();
+    }
+
+    /**
+     * Runs the inheritance model RPC for every trio in metadata (optionally restricted to populations)
+     * with bounded parallelism and aggregates results as trios complete.
+     * Trios which fail are counted and skipped; the scan fails only if no trio succeeds.
+     * Trios with variants are returned most variants first, paged by {@code skip} and {@code limit}.
+     *
+     * @param affectedParent "father" or "mother"; required for HET_DOMINANT, ignored otherwise
+     */
+    public TrioScan scanTrios(InheritanceModel model, String affectedParent, GenomicRegion region,
+                              SelectByAnnotations sbn, List<String> populations, Integer skip, Integer limit) {
+        if (model == null) {
+            throw new RuntimeException("Invalid parameter: 'model' must be one of " +
+                Arrays.toString(InheritanceModel.values()));
+        }
+        Boolean fatherAffected = null;
+        if (model == InheritanceModel.HET_DOMINANT) {
+            if ("father".equalsIgnoreCase(affectedParent)) {
+                fatherAffected = true;
+            } else if ("mother".equalsIgnoreCase(affectedParent)) {
+                fatherAffected = false;
+            } else {
+                throw new RuntimeException(
+                    "Invalid parameter: 'affectedParent' must be 'father' or 'mother' for HET_DOMINANT model");
+            }
+        }
+        if (region == null) {
+            throw new RuntimeException("Invalid parameter: genomic region must be provided");
+        }
+        paramValidation(List.of(region), sbn, skip, limit);
+
+        SampleIndex index = metaClient.sampleIndex();
+        Set<String> populationCodes =
+            new HashSet<>(resolveGroups(populations, index::populationCodeOf, "population"));
+        List<Trio> trios = metaClient.listTrios().stream()
+            .filter(t -> populationCodes.isEmpty() || populationCodes.contains(t.populationCode()))
+            .toList();
+
+        Annotations annotations = composeAnnotations(sbn);
+        boolean fatherIsAffected = Boolean.TRUE.equals(fatherAffected);
+
+        List<TrioVariantCount> counts = new ArrayList<>();
+        Map<VariantKey, Variant> variants = new HashMap<>();
+        Map<VariantKey, List<String>> probands = new HashMap<>();
+        int[] totalVariants = new int[1];
+
+        FanOutResult result = fanOut(trios,
+            trio -> selectTrioVariants(model, fatherIsAffected, trio, region, sbn, annotations),
+            (trio, selected) -> {
+                List<Variant> trioVariants = selected.variants();
+                counts.add(new TrioVariantCount(trio.child(), trio.father(), trio.mother(),
+                    trio.populationCode(), trioVariants.size(), selected.truncated()));
+                totalVariants[0] += trioVariants.size();
+                for (Variant v : trioVariants) {
+                    VariantKey key = VariantKey.of(v);
+                    variants.putIfAbsent(key, v);
+                    probands.computeIfAbsent(key, k -> new ArrayList<>()).add(trio.child());
+                }
+            });
+
+        if (!trios.isEmpty() && result.failed() == trios.size()) {
+            throw new RuntimeException("Trio scan failed: " + result.firstFailure().getMessage(),
+                result.firstFailure());
+        }
+
+        int effectiveSkip = skip == null ? 0 : skip;
+        int effectiveLimit = (limit == null || limit == 0) ? MAX_RETURNED_ITEMS : limit;
+        List<TrioVariantCount> withVariants = counts.stream()
+            .filter(c -> c.variantCount() > 0)
+            .sorted(Comparator.comparingInt(TrioVariantCount::variantCount).reversed()
+                .thenComparing(TrioVariantCount::child))
+            .toList();
+        List<TrioVariantCount> page = withVariants.stream()
+            .skip(effectiveSkip)
+            .limit(effectiveLimit)
+            .toList();
+
+        List<RecurrentVariant> recurrent = probands.entrySet().stream()
+            .filter(e -> e.getValue().size() > 1)
+            .map(e -> new RecurrentVariant(variants.get(e.getKey()), e.getValue().size(),
+                e.getValue().stream().sorted().toList()))
+            .sorted(Comparator.comparingInt(RecurrentVariant::trioCount).reversed()
+                .thenComparingInt(rv -> rv.variant().getChrValue())
+                .thenComparingInt(rv -> rv.variant().getStart()))
+            .limit(MAX_RETURNED_ITEMS)
+            .toList();
+
+        LOG.debugf("scanTrios: model=%s, trios=%d, failed=%d, with variants=%d, recurrent=%d",
+            model, trios.size(), result.failed(), withVariants.size(), recurrent.size());
+
+        return new TrioScan(model.name(), fatherAffected == null ? null : (fatherAffected ? "father" : "mother"),
+            trios.size(), result.failed(), withVariants.size(), totalVariants[0], page, recurrent);
+    }
+
+    private record TrioVariants(List<Variant> variants, boolean truncated) {}
+
+    // distinct variants segregating in the trio according to the model, at most MAX_RECEIVED_ITEMS
+    private TrioVariants selectTrioVariants(InheritanceModel model, boolean fatherAffected, Trio trio,
+                                            GenomicRegion region, SelectByAnnotations sbn,
+                                            Annotations annotations) {
+        Chromosome chr = ContigsMapping.contigName2GrpcChr(region.chromosome());
+        String ref = region.refAllele() == null ? "" : region.refAllele();
+        String alt = region.altAllele() == null ? "" : region.altAllele();
+        int minLength = sbn != null && sbn.minVariantLengthBp() != null ? sbn.minVariantLengthBp() : 0;
+        int maxLength = sbn != null && sbn.maxVariantLengthBp() != null ? sbn.maxVariantLengthBp() : Integer.MAX_VALUE;
+
+        // the stream is not read to the end once the cap is reached; cancelling the context cancels the call
+        io.grpc.Context.CancellableContext call = io.grpc.Context.current().withCancellation();
+        io.grpc.Context previous = call.attach();
+        try {
+            Iterator<AllelesResponse> responseStream = switch (model) {
+                case DE_NOVO -> blockingStub.selectDeNovo(DeNovoRequest.newBuilder()
+                    .setParent1(trio.father())
+                    .setParent2(trio.mother())
+                    .setProband(trio.child())
+                    .setChr(chr).setStart(region.start()).setEnd(region.end()).setRef(ref).setAlt(alt)
+                    .setAnn(annotations)
+                    .setAssembly(RefAssembly.GRCh38)
+                    .setVariantMinLength(minLength)
+                    .setVariantMaxLength(maxLength)
+                    .setLimit(MAX_RECEIVED_ITEMS)
+                    .build());
+                case HET_DOMINANT -> blockingStub.selectHetDominant(HetDominantRequest.newBuilder()
+                    .setAffectedParent(fatherAffected ? trio.father() : trio.mother())
+                    .setUnaffectedParent(fatherAffected ? trio.mother() : trio.father())
+                    .setAffectedChild(trio.child())
+                    .setChr(chr).setStart(region.start()).setEnd(region.end()).setRef(ref).setAlt(alt)
+                    .setAnn(annotations)
+                    .setAssembly(RefAssembly.GRCh38)
+                    .setVariantMinLength(minLength)
+                    .setVariantMaxLength(maxLength)
+                    .setLimit(MAX_RECEIVED_ITEMS)
+                    .build());
+                case HOM_RECESSIVE -> blockingStub.selectHomRecessive(HomRecessiveRequest.newBuilder()
+                    .setUnaffectedParent1(trio.father())
+                    .setUnaffectedParent2(trio.mother())
+                    .setAffectedChild(trio.child())
+                    .setChr(chr).setStart(region.start()).setEnd(region.end()).setRef(ref).setAlt(alt)
+                    .setAnn(annotations)
+                    .setAssembly(RefAssembly.GRCh38)
+                    .setVariantMinLength(minLength)
+                    .setVariantMaxLength(maxLength)
+                    .setLimit(MAX_RECEIVED_ITEMS)
+                    .build());
+            };
+            return readTrioVariants(responseStream);
+        } finally {
+            call.detach(previous);
+            call.cancel(null);
+        }
+    }
+
+    // nodes apply the limit independently, so the merged stream may still exceed it
+    private static TrioVariants readTrioVariants(Iterator<AllelesResponse> responseStream) {
+        Map<VariantKey, Variant> distinct = new LinkedHashMap<>();
+        boolean truncated = false;
+        while (!truncated && responseStream.hasNext()) {
+            for (Variant v : responseStream.next().getVariantsList()) {
+                VariantKey key = VariantKey.of(v);
+                if (distinct.size() >= MAX_RECEIVED_ITEMS && !distinct.containsKey(key)) {
+                    truncated = true;
+                    break;
+                }
+                distinct.putIfAbsent(key, v);
+            }
+        }
+        return new TrioVariants(new ArrayList<>(distinct.values()), truncated);
+    }
+
+    private record FanOutResult(int failed, Exception firstFailure) {}
+    private record Completed<T, R>(T input, R result) {}
+
+    /**
+     * Runs {@code task} for every input on the RPC executor, at most {@code maxParallelRpcs} at a time
+     * per call and {@code maxClusterRpcs} at a time across all calls, so concurrent tool calls cannot
+     * multiply the load on the cluster.
+     * Results are handed to {@code onResult} on the calling thread in completion order, so the consumer
+     * needs no synchronization. Failed tasks are logged and counted rather than propagated.
+     */
+    private <T, R> FanOutResult fanOut(List<T> inputs, Function<T, R> task, BiConsumer<T, R> onResult) {
+        ExecutorCompletionService<Completed<T, R>> completion = new ExecutorCompletionService<>(rpcExecutor);
+        List<Future<Completed<T, R>>> futures = new ArrayList<>(inputs.size());
+        Semaphore permits = new Semaphore(maxParallelRpcs);
+        for (T input : inputs) {
+            futures.add(completion.submit(() -> {
+                permits.acquire();
+                try {
+                    clusterPermits.acquire();
+                    activeFanOutRpcs.incrementAndGet();
+                    try {
+                        return new Completed<>(input, task.apply(input));
+                    } finally {
+                        activeFanOutRpcs.decrementAndGet();
+                        clusterPermits.release();
+                    }
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        int failed = 0;
+        Exception firstFailure = null;
+        try {
+            for (int i = 0; i < inputs.size(); i++) {
+                try {
+                    Completed<T, R> done = completion.take().get();
+                    onResult.accept(done.input(), done.result());
+                } catch (ExecutionException e) {
+                    failed++;
+                    Exception cause = e.getCause() instanceof Exception ex ? ex : e;
+                    if (firstFailure == null) firstFailure = cause;
+                    LOG.warnf("Fan-out task failed: %s", cause.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for RPC results", e);
+        }
+        return new FanOutResult(failed, firstFailure);
+    }
+
     public AlphaMissenseAvg computeAlphaMissenseAvg(List<GenomicRegion> regions) {
         // count vars
         boolean selectHom = true;
@@ -706,7 +1938,7 @@ public class DnaerysClient {
         return new VariantBurden(histogram, highestBurdenSamplesJson, secondHighestBurdenSamplesJson);
     }
 
-    private String generateHistogram(Map<String, Integer> sampleBurdens, Integer zeroVarSamples) {
+    String generateHistogram(Map<String, Integer> sampleBurdens, Integer zeroVarSamples) {
         // Count frequency of each burden value
         Map<Integer, Integer> burdenFrequency = new HashMap<>(); // Map(variantBurden, sampleCount)
         burdenFrequency.put(0, zeroVarSamples);
@@ -737,7 +1969,7 @@ public class DnaerysClient {
         return histogram.toString();
     }
 
-    private String createBurdenSamplesJson(int variantCount, List<String> samples) {
+    String createBurdenSamplesJson(int variantCount, List<String> samples) {
         StringBuilder json = new StringBuilder();
         json.append("{\"variantCount\":\"").append(variantCount).append("\",\"samples\":[");
 
@@ -778,6 +2010,34 @@ public class DnaerysClient {
         }
     }
 
+    private void topNValidation(int n) {
+        if (n <= 0 || n > MAX_RETURNED_ITEMS) {
+            throw new RuntimeException("Invalid parameter: 'n' must be > 0 and <= " + MAX_RETURNED_ITEMS);
+        }
+    }
+
+    private void samplesValidation(Collection<String> samples) {
+        Set<String> allSamples = new HashSet<>(getSampleIds(DnaerysClient.Gender.BOTH));
+        for (String sample : samples) {
+            if (!allSamples.contains(sample)) {
+                throw new RuntimeException(String.format(
+                    "Invalid parameter: sample '%s' does not exist", sample));
+            }
+        }
+    }
+
+    // trimmed, de-duplicated and sorted, so that equal sample sets produce equal cache keys
+    private static List<String> normalizeSamples(List<String> samples) {
+        if (samples == null) return List.of();
+        return samples.stream()
+            .filter(Objects::nonNull)
+            .map(String::trim)
+            .filter(s -> !s.isEmpty())
+            .distinct()
+            .sorted()
+            .toList();
+    }
+
     private void paramValidation(List<GenomicRegion> regions, SelectByAnnotations sbn) {
         paramValidation(regions, sbn, 0, 0);
     }
@@ -16,10 +16,13 @@
 
 package org.dnaerys.client;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.opentelemetry.instrumentation.annotations.WithSpan;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import org.dnaerys.db.DuckDBConnectionProducer;
+import org.dnaerys.db.MetadataLoader;
 import org.jboss.logging.Logger;
 
 import org.dnaerys.client.entity.PopulationInfo;
@@ -27,19 +30,11 @@ import org.dnaerys.client.entity.PopulationStats;
 import org.dnaerys.client.entity.SuperpopulationInfo;
 import org.dnaerys.client.entity.SuperpopulationSummary;
 import org.dnaerys.client.entity.SampleMeta;
+import org.dnaerys.client.entity.Trio;
 
-import java.sql.Array;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 @ApplicationScoped
 public class MetaClient {
@@ -49,16 +44,41 @@ public class MetaClient {
     private static final int MAX_LIMIT = 3202;
 
     @Inject
-    DuckDBConnectionProducer duckDB;
+    MetadataLoader metadata;
 
-    private Connection connection;
+    @Inject
+    MeterRegistry registry;
+
+    private MetaIndex metaIndex;
+    private long indexMillis;
 
     @PostConstruct
     void init() {
-        connection = duckDB.getConnection();
-        LOG.info("MetaClient initialized with DuckDB connection");
+        long start = System.nanoTime();
+        metaIndex = MetaIndex.of(metadata.snapshot());
+        indexMillis = (System.nanoTime() - start) / 1_000_000;
+        LOG.infof("MetaClient initialized, %d samples indexed in %d ms",
+            metaIndex.sampleIndex().size(), indexMillis);
+        bindMetrics();
+    }
+
+    private void bindMetrics() {
+        TimeGauge.builder("dnaerys.metadata.load", metadata, TimeUnit.MILLISECONDS, MetadataLoader::loadMillis)
+            .description("Sample metadata read and decode time at startup")
+            .tag("stage", "read").register(registry);
+        TimeGauge.builder("dnaerys.metadata.load", this, TimeUnit.MILLISECONDS, c -> c.indexMillis)
+            .description("Sample metadata index build time at startup")
+            .tag("stage", "index").register(registry);
     }
 
+    /**
+     * Dense sample index for joining per-sample results with metadata.
+     */
+    public SampleIndex sampleIndex() {
+        return metaIndex.sampleIndex();
+    }
+
+    @WithSpan
     public List<String> selectSamplesByPopulation(String population, String region,
                                                   Integer skip, Integer limit) {
         boolean hasPop = population != null && !population.isBlank();
@@ -83,55 +103,32 @@ public class MetaClient {
                 "Invalid parameter: 'limit' must be between 1 and " + MAX_LIMIT + ",  actual: " + effectiveLimit);
         }
 
-        validatePopulationRegionInputs(popTrimmed, regTrimmed);
-
-        StringBuilder sql = new StringBuilder("SELECT externalIDs FROM sample_meta WHERE ");
-        List<String> conditions = new ArrayList<>();
-        List<Object> params = new ArrayList<>();
-
-        if (hasPop) {
-            conditions.add("(pop = ? OR \"Population\" = ?)");
-            params.add(popTrimmed);
-            params.add(popTrimmed);
+        SampleIndex index = metaIndex.sampleIndex();
+        String popCode = hasPop ? index.populationCodeOf(popTrimmed) : null;
+        String regCode = hasReg ? index.superpopulationCodeOf(regTrimmed) : null;
+        if (hasPop && popCode == null) {
+            throw new RuntimeException("Unrecognised population: '" + popTrimmed + "'");
         }
-
-        if (hasReg) {
-            conditions.add("(reg = ? OR region = ?)");
-            params.add(regTrimmed);
-            params.add(regTrimmed);
+        if (hasReg && regCode == null) {
+            throw new RuntimeException("Unrecognised superpopulation: '" + regTrimmed + "'");
         }
 
-        sql.append(String.join(" AND ", conditions));
-        sql.append(" ORDER BY externalIDs LIMIT ? OFFSET ?");
-        params.add(effectiveLimit);
-        params.add(effectiveSkip);
-
-        try (PreparedStatement ps = connection.prepareStatement(sql.toString())) {
-            for (int i = 0; i < params.size(); i++) {
-                Object p = params.get(i);
-                if (p instanceof String s) {
-                    ps.setString(i + 1, s);
-                } else {
-                    ps.setInt(i + 1, (Integer) p);
-                }
-            }
-
-            ResultSet rs = ps.executeQuery();
-            List<String> results = new ArrayList<>();
-            while (rs.next()) {
-                results.add(rs.getString("externalIDs"));
-            }
-
-            LOG.debugf("selectSamplesByPopulation: found %d samples", results.size());
-            return results;
-
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException("DuckDB query failed: " + e.getMessage(), e);
+        // both ranges are in sample ID order
+        int[] ordinals = hasPop ? metaIndex.populationOrdinals(popCode) : metaIndex.superpopulationOrdinals(regCode);
+        List<String> results = new ArrayList<>(Math.min(effectiveLimit, ordinals.length));
+        int matched = 0;
+        for (int ordinal : ordinals) {
+            if (hasPop && hasReg && !regCode.equals(index.superpopulationCode(ordinal))) continue;
+            if (matched++ < effectiveSkip) continue;
+            results.add(index.sampleId(ordinal));
+            if (results.size() == effectiveLimit) break;
         }
+
+        LOG.debugf("selectSamplesByPopulation: found %d samples", results.size());
+        return results;
     }
 
+    @WithSpan
     public List<SampleMeta> getSampleMeta(List<String> sampleIds) {
         if (sampleIds == null || sampleIds.isEmpty()) {
             throw new RuntimeException("Parameter 'sampleIds' must not be null or empty");
@@ -141,400 +138,135 @@ public class MetaClient {
             .map(String::trim)
             .toList();
 
-        validateSampleIds(trimmedIds);
-
-        String placeholders = trimmedIds.stream()
-            .map(id -> "?")
-            .collect(Collectors.joining(", "));
-
-        String sql =
-            "SELECT s.externalIDs, s.familyId, s.gender, s.pid, s.mid, " +
-            "s.\"Relationship\", s.pop, s.reg, s.\"Population\", s.region, s.phase3, " +
-            "LIST(c.externalIDs) AS children " +
-            "FROM sample_meta s " +
-            "LEFT JOIN sample_meta c ON (c.pid = s.externalIDs OR c.mid = s.externalIDs) " +
-            "AND c.pid != '0' AND c.mid != '0' " +
-            "WHERE s.externalIDs IN (" + placeholders + ") " +
-            "GROUP BY s.externalIDs, s.familyId, s.gender, s.pid, s.mid, " +
-            "s.\"Relationship\", s.pop, s.reg, s.\"Population\", s.region, s.phase3 " +
-            "ORDER BY s.externalIDs";
-
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            for (int i = 0; i < trimmedIds.size(); i++) {
-                ps.setString(i + 1, trimmedIds.get(i));
-            }
-
-            ResultSet rs = ps.executeQuery();
-            List<SampleMeta> results = new ArrayList<>();
-            while (rs.next()) {
-                String pid = rs.getString("pid");
-                String mid = rs.getString("mid");
-                String relationship = rs.getString("Relationship");
-                String familyId = rs.getString("familyId");
-
-                Array childrenArray = rs.getArray("children");
-                List<String> childList = null;
-                if (childrenArray != null) {
-                    Object[] arr = (Object[]) childrenArray.getArray();
-                    List<String> nonNull = new ArrayList<>();
-                    for (Object o : arr) {
-                        if (o != null) nonNull.add(o.toString());
-                    }
-                    if (!nonNull.isEmpty()) {
-                        Collections.sort(nonNull);
-                        childList = nonNull;
-                    }
-                }
-
-                results.add(new SampleMeta(
-                    rs.getString("externalIDs"),
-                    nullIfEmpty(familyId),
-                    rs.getString("gender"),
-                    nullIfAbsent(pid),
-                    nullIfAbsent(mid),
-                    nullIfEmpty(relationship),
-                    childList,
-                    rs.getString("pop"),
-                    rs.getString("reg"),
-                    rs.getString("Population"),
-                    rs.getString("region"),
-                    rs.getString("phase3")
-                ));
-            }
-
-            LOG.debugf("getSampleMeta: found %d samples", results.size());
-            return results;
-
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException("DuckDB query failed: " + e.getMessage(), e);
+        SampleIndex index = metaIndex.sampleIndex();
+        List<String> unknown = trimmedIds.stream()
+            .filter(id -> index.ordinal(id) < 0)
+            .toList();
+        if (!unknown.isEmpty()) {
+            throw new RuntimeException("Unknown sample IDs: " + unknown);
+        }
+
+        // ordinals follow sample ID order
+        int[] ordinals = trimmedIds.stream()
+            .mapToInt(index::ordinal)
+            .distinct()
+            .sorted()
+            .toArray();
+
+        List<SampleMeta> results = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            results.add(metaIndex.sampleMeta(ordinal));
         }
+
+        LOG.debugf("getSampleMeta: found %d samples", results.size());
+        return results;
     }
 
-    public List<PopulationInfo> listPopulations() {
-        String sql =
-            "SELECT pop, \"Population\", reg, region, COUNT(*) AS cnt " +
-            "FROM sample_meta " +
-            "GROUP BY pop, \"Population\", reg, region " +
-            "ORDER BY reg, pop ";
-
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ResultSet rs = ps.executeQuery();
-            List<PopulationInfo> results = new ArrayList<>();
-            while (rs.next()) {
-                results.add(new PopulationInfo(
-                    rs.getString("pop"),
-                    rs.getString("Population"),
-                    rs.getString("reg"),
-                    rs.getString("region"),
-                    rs.getInt("cnt")
-                ));
-            }
-
-            LOG.debugf("listPopulations: returned %d entries", results.size());
-            return results;
-
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException("DuckDB query failed: " + e.getMessage(), e);
+    /**
+     * All samples of the population, in sample ID order; empty if the code is unknown.
+     */
+    public List<String> populationSampleIds(String populationCode) {
+        return sampleIds(metaIndex.populationOrdinals(populationCode));
+    }
+
+    /**
+     * All samples of the superpopulation, in sample ID order; empty if the code is unknown.
+     */
+    public List<String> superpopulationSampleIds(String superpopulationCode) {
+        return sampleIds(metaIndex.superpopulationOrdinals(superpopulationCode));
+    }
+
+    private List<String> sampleIds(int[] ordinals) {
+        SampleIndex index = metaIndex.sampleIndex();
+        List<String> ids = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            ids.add(index.sampleId(ordinal));
         }
+        return ids;
     }
 
+    /**
+     * Pedigree graph: children, trios, duos and families.
+     */
+    public Pedigree pedigree() {
+        return metaIndex.pedigree();
+    }
+
+    /**
+     * Trios with both parents present in the dataset, ordered by child sample ID.
+     */
+    @WithSpan
+    public List<Trio> listTrios() {
+        List<Trio> results = metaIndex.pedigree().trios();
+        LOG.debugf("listTrios: returned %d trios", results.size());
+        return results;
+    }
+
+    @WithSpan
+    public List<PopulationInfo> listPopulations() {
+        List<PopulationInfo> results = metaIndex.populations();
+        LOG.debugf("listPopulations: returned %d entries", results.size());
+        return results;
+    }
+
+    @WithSpan
     public List<SuperpopulationInfo> listSuperpopulations() {
-        String sql =
-            "SELECT reg, region, COUNT(*) AS cnt, LIST(DISTINCT pop ORDER BY pop) AS pops " +
-            "FROM sample_meta " +
-            "GROUP BY reg, region " +
-            "ORDER BY reg";
-
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ResultSet rs = ps.executeQuery();
-            List<SuperpopulationInfo> results = new ArrayList<>();
-            while (rs.next()) {
-                Array popsArray = rs.getArray("pops");
-                List<String> populations = new ArrayList<>();
-                if (popsArray != null) {
-                    Object[] arr = (Object[]) popsArray.getArray();
-                    for (Object o : arr) {
-                        if (o != null) populations.add(o.toString());
-                    }
-                }
-
-                results.add(new SuperpopulationInfo(
-                    rs.getString("reg"),
-                    rs.getString("region"),
-                    rs.getInt("cnt"),
-                    populations
-                ));
-            }
-
-            LOG.debugf("listSuperpopulations: returned %d entries", results.size());
-            return results;
-
-        } catch (Exception e) {
-            throw new RuntimeException("DuckDB query failed: " + e.getMessage(), e);
-        }
+        List<SuperpopulationInfo> results = metaIndex.superpopulations();
+        LOG.debugf("listSuperpopulations: returned %d entries", results.size());
+        return results;
     }
 
+    @WithSpan
     public List<PopulationStats> getPopulationStats(List<String> populations) {
         if (populations == null || populations.isEmpty()) {
             throw new RuntimeException("Parameter 'populations' must not be null or empty");
         }
 
         List<String> trimmed = populations.stream().map(String::trim).toList();
-        validatePopulationValues(trimmed);
-
-        String placeholders = trimmed.stream().map(p -> "?").collect(Collectors.joining(", "));
-
-        String sql =
-            "SELECT pop, \"Population\", reg, region, " +
-            "COUNT(*) AS cnt, " +
-            "COUNT(CASE WHEN gender = 'male' THEN 1 END) AS male_cnt, " +
-            "COUNT(CASE WHEN gender = 'female' THEN 1 END) AS female_cnt, " +
-            "COUNT(CASE WHEN phase3 = 'TRUE' THEN 1 END) AS phase3_cnt, " +
-            "COUNT(CASE WHEN pid IS NOT NULL AND pid != '0' AND pid != '' " +
-            "AND mid IS NOT NULL AND mid != '0' AND mid != '' THEN 1 END) AS trio_cnt " +
-            "FROM sample_meta " +
-            "WHERE pop IN (" + placeholders + ") OR \"Population\" IN (" + placeholders + ") " +
-            "GROUP BY pop, \"Population\", reg, region " +
-            "ORDER BY pop";
-
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            for (int i = 0; i < trimmed.size(); i++) {
-                ps.setString(i + 1, trimmed.get(i));
-                ps.setString(i + 1 + trimmed.size(), trimmed.get(i));
-            }
-
-            return readPopulationStats(ps);
-
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException("DuckDB query failed: " + e.getMessage(), e);
-        }
-    }
 
-    public List<SuperpopulationSummary> getSuperpopulationSummary(List<String> superpopulations) {
-        if (superpopulations == null || superpopulations.isEmpty()) {
-            throw new RuntimeException("Parameter 'superpopulations' must not be null or empty");
+        SampleIndex index = metaIndex.sampleIndex();
+        List<String> unknown = trimmed.stream()
+            .filter(p -> index.populationCodeOf(p) == null)
+            .toList();
+        if (!unknown.isEmpty()) {
+            throw new RuntimeException("Unrecognised population values: " + unknown);
         }
 
-        List<String> trimmed = superpopulations.stream().map(String::trim).toList();
-        validateSuperpopulationValues(trimmed);
-
-        String placeholders = trimmed.stream().map(r -> "?").collect(Collectors.joining(", "));
-
-        // Get per-population stats for all populations within the requested superpopulations
-        String sql =
-            "SELECT pop, \"Population\", reg, region, " +
-            "COUNT(*) AS cnt, " +
-            "COUNT(CASE WHEN gender = 'male' THEN 1 END) AS male_cnt, " +
-            "COUNT(CASE WHEN gender = 'female' THEN 1 END) AS female_cnt, " +
-            "COUNT(CASE WHEN phase3 = 'TRUE' THEN 1 END) AS phase3_cnt, " +
-            "COUNT(CASE WHEN pid IS NOT NULL AND pid != '0' AND pid != '' " +
-            "AND mid IS NOT NULL AND mid != '0' AND mid != '' THEN 1 END) AS trio_cnt " +
-            "FROM sample_meta " +
-            "WHERE reg IN (" + placeholders + ") OR region IN (" + placeholders + ") " +
-            "GROUP BY pop, \"Population\", reg, region " +
-            "ORDER BY reg, pop";
-
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            for (int i = 0; i < trimmed.size(); i++) {
-                ps.setString(i + 1, trimmed.get(i));
-                ps.setString(i + 1 + trimmed.size(), trimmed.get(i));
-            }
-
-            List<PopulationStats> popStats = readPopulationStats(ps);
-
-            // Group by superpopulation in Java
-            Map<String, List<PopulationStats>> bySuperpop = new LinkedHashMap<>();
-            for (PopulationStats ps2 : popStats) {
-                bySuperpop.computeIfAbsent(ps2.superpopulationCode(), k -> new ArrayList<>()).add(ps2);
-            }
-
-            List<SuperpopulationSummary> results = new ArrayList<>();
-            for (var entry : bySuperpop.entrySet()) {
-                List<PopulationStats> pops = entry.getValue();
-                int sampleCount = pops.stream().mapToInt(PopulationStats::sampleCount).sum();
-                int maleCount = pops.stream().mapToInt(PopulationStats::maleCount).sum();
-                int femaleCount = pops.stream().mapToInt(PopulationStats::femaleCount).sum();
-                int phase3Count = pops.stream().mapToInt(PopulationStats::phase3Count).sum();
-                int trioCount = pops.stream().mapToInt(PopulationStats::trioCount).sum();
-
-                results.add(new SuperpopulationSummary(
-                    entry.getKey(),
-                    pops.get(0).superpopulation(),
-                    sampleCount, maleCount, femaleCount, phase3Count, trioCount,
-                    pops
-                ));
-            }
-
-            LOG.debugf("getSuperpopulationSummary: returned %d superpopulations", results.size());
-            return results;
-
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException("DuckDB query failed: " + e.getMessage(), e);
-        }
-    }
+        List<PopulationStats> results = trimmed.stream()
+            .map(index::populationCodeOf)
+            .distinct()
+            .sorted()
+            .map(metaIndex::populationStats)
+            .toList();
 
-    private List<PopulationStats> readPopulationStats(PreparedStatement ps) throws Exception {
-        ResultSet rs = ps.executeQuery();
-        List<PopulationStats> results = new ArrayList<>();
-        while (rs.next()) {
-            results.add(new PopulationStats(
-                rs.getString("pop"),
-                rs.getString("Population"),
-                rs.getString("reg"),
-                rs.getString("region"),
-                rs.getInt("cnt"),
-                rs.getInt("male_cnt"),
-                rs.getInt("female_cnt"),
-                rs.getInt("phase3_cnt"),
-                rs.getInt("trio_cnt")
-            ));
-        }
-        LOG.debugf("readPopulationStats: returned %d entries", results.size());
+        LOG.debugf("getPopulationStats: returned %d entries", results.size());
         return results;
     }
 
-    private void validatePopulationValues(List<String> populations) {
-        String placeholders = populations.stream().map(p -> "?").collect(Collectors.joining(", "));
-        String sql = "SELECT DISTINCT pop, \"Population\" FROM sample_meta " +
-            "WHERE pop IN (" + placeholders + ") OR \"Population\" IN (" + placeholders + ")";
-
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            for (int i = 0; i < populations.size(); i++) {
-                ps.setString(i + 1, populations.get(i));
-                ps.setString(i + 1 + populations.size(), populations.get(i));
-            }
-
-            ResultSet rs = ps.executeQuery();
-            Set<String> found = new HashSet<>();
-            while (rs.next()) {
-                found.add(rs.getString("pop"));
-                found.add(rs.getString("Population"));
-            }
-
-            List<String> unknown = populations.stream()
-                .filter(p -> !found.contains(p))
-                .toList();
-
-            if (!unknown.isEmpty()) {
-                throw new RuntimeException("Unrecognised population values: " + unknown);
-            }
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException("DuckDB validation query failed: " + e.getMessage(), e);
-        }
-    }
-
-    private void validateSuperpopulationValues(List<String> superpopulations) {
-        String placeholders = superpopulations.stream().map(r -> "?").collect(Collectors.joining(", "));
-        String sql = "SELECT DISTINCT reg, region FROM sample_meta " +
-            "WHERE reg IN (" + placeholders + ") OR region IN (" + placeholders + ")";
-
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            for (int i = 0; i < superpopulations.size(); i++) {
-                ps.setString(i + 1, superpopulations.get(i));
-                ps.setString(i + 1 + superpopulations.size(), superpopulations.get(i));
-            }
-
-            ResultSet rs = ps.executeQuery();
-            Set<String> found = new HashSet<>();
-            while (rs.next()) {
-                found.add(rs.getString("reg"));
-                found.add(rs.getString("region"));
-            }
-
-            List<String> unknown = superpopulations.stream()
-                .filter(r -> !found.contains(r))
-                .toList();
-
-            if (!unknown.isEmpty()) {
-                throw new RuntimeException("Unrecognised superpopulation values: " + unknown);
-            }
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException("DuckDB validation query failed: " + e.getMessage(), e);
+    @WithSpan
+    public List<SuperpopulationSummary> getSuperpopulationSummary(List<String> superpopulations) {
+        if (superpopulations == null || superpopulations.isEmpty()) {
+            throw new RuntimeException("Parameter 'superpopulations' must not be null or empty");
         }
-    }
 
-    private void validateSampleIds(List<String> sampleIds) {
-        String placeholders = sampleIds.stream()
-            .map(id -> "?")
-            .collect(Collectors.joining(", "));
-
-        String sql = "SELECT DISTINCT externalIDs FROM sample_meta WHERE externalIDs IN (" + placeholders + ")";
-
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            for (int i = 0; i < sampleIds.size(); i++) {
-                ps.setString(i + 1, sampleIds.get(i));
-            }
-
-            ResultSet rs = ps.executeQuery();
-            Set<String> found = new HashSet<>();
-            while (rs.next()) {
-                found.add(rs.getString("externalIDs"));
-            }
-
-            List<String> unknown = sampleIds.stream()
-                .filter(id -> !found.contains(id))
-                .toList();
-
-            if (!unknown.isEmpty()) {
-                throw new RuntimeException("Unknown sample IDs: " + unknown);
-            }
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException("DuckDB validation query failed: " + e.getMessage(), e);
-        }
-    }
+        List<String> trimmed = superpopulations.stream().map(String::trim).toList();
 
-    private void validatePopulationRegionInputs(String population, String region) {
-        try {
-            if (population != null) {
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT 1 FROM sample_meta WHERE pop = ? OR \"Population\" = ? LIMIT 1")) {
-                    ps.setString(1, population);
-                    ps.setString(2, population);
-                    ResultSet rs = ps.executeQuery();
-                    if (!rs.next()) {
-                        throw new RuntimeException(
-                            "Unrecognised population: '" + population + "'");
-                    }
-                }
-            }
-            if (region != null) {
-                try (PreparedStatement ps = connection.prepareStatement(
-                        "SELECT 1 FROM sample_meta WHERE reg = ? OR region = ? LIMIT 1")) {
-                    ps.setString(1, region);
-                    ps.setString(2, region);
-                    ResultSet rs = ps.executeQuery();
-                    if (!rs.next()) {
-                        throw new RuntimeException(
-                            "Unrecognised superpopulation: '" + region + "'");
-                    }
-                }
-            }
-        } catch (RuntimeException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new RuntimeException("DuckDB validation query failed: " + e.getMessage(), e);
+        SampleIndex index = metaIndex.sampleIndex();
+        List<String> unknown = trimmed.stream()
+            .filter(r -> index.superpopulationCodeOf(r) == null)
+            .toList();
+        if (!unknown.isEmpty()) {
+            throw new RuntimeException("Unrecognised superpopulation values: " + unknown);
         }
-    }
 
-    private static String nullIfAbsent(String value) {
-        return (value == null || value.isEmpty() || "0".equals(value)) ? null : value;
-    }
+        List<SuperpopulationSummary> results = trimmed.stream()
+            .map(index::superpopulationCodeOf)
+            .distinct()
+            .sorted()
+            .map(metaIndex::superpopulationSummary)
+            .toList();
 
-    private static String nullIfEmpty(String value) {
-        return (value == null || value.isEmpty()) ? null : value;
+        LOG.debugf("getSuperpopulationSummary: returned %d superpopulations", results.size());
+        return results;
     }
 }
@@ -0,0 +1,297 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import org.dnaerys.client.entity.PopulationInfo;
+import org.dnaerys.client.entity.PopulationStats;
+import org.dnaerys.client.entity.SampleMeta;
+import org.dnaerys.client.entity.SuperpopulationInfo;
+import org.dnaerys.client.entity.SuperpopulationSummary;
+import org.dnaerys.db.MetadataSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable in-memory view of the sample metadata, built once at startup.
+ * <p>
+ * Holds a {@link SampleMeta} per sample ordinal (children from {@link Pedigree}), sample ordinals grouped into
+ * contiguous ranges per population and superpopulation, and precomputed population and
+ * superpopulation aggregates. Point lookups and summaries are answered without SQL.
+ * <p>
+ * Being immutable and safely published by {@link MetaClient}, it is read by concurrent tool calls
+ * without locks or database connections.
+ */
+final class MetaIndex {
+
+    /**
+     * One metadata row, values as stored.
+     */
+    record Row(String sampleId, String familyId, String gender, String pid, String mid,
+               String relationship, String populationCode, String population,
+               String superpopulationCode, String superpopulation, String phase3) {}
+
+    private final SampleIndex sampleIndex;
+    private final Pedigree pedigree;
+    private final SampleMeta[] metas;
+    // ordinals ordered by population code (superpopulation code), then sample ID
+    private final int[] byPopulation;
+    private final int[] bySuperpopulation;
+    // code -> {from, to} in byPopulation / bySuperpopulation
+    private final Map<String, int[]> populationRanges;
+    private final Map<String, int[]> superpopulationRanges;
+
+    private final Map<String, PopulationStats> populationStats;
+    private final Map<String, SuperpopulationSummary> superpopulationSummaries;
+    private final List<PopulationInfo> populations;
+    private final List<SuperpopulationInfo> superpopulations;
+
+    /**
+     * @param snapshot sample metadata as loaded at startup, in source order
+     */
+    static MetaIndex of(MetadataSnapshot snapshot) {
+        String[] ids = snapshot.column("externalIDs");
+        if (ids == null) {
+            throw new RuntimeException("Sample metadata has no 'externalIDs' column");
+        }
+        String[] familyIds = snapshot.column("familyId");
+        String[] genders = snapshot.column("gender");
+        String[] pids = snapshot.column("pid");
+        String[] mids = snapshot.column("mid");
+        String[] relationships = snapshot.column("Relationship");
+        String[] pops = snapshot.column("pop");
+        String[] populations = snapshot.column("Population");
+        String[] regs = snapshot.column("reg");
+        String[] regions = snapshot.column("region");
+        String[] phase3 = snapshot.column("phase3");
+
+        List<Row> rows = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            rows.add(new Row(
+                ids[i],
+                valueAt(familyIds, i),
+                valueAt(genders, i),
+                valueAt(pids, i),
+                valueAt(mids, i),
+                valueAt(relationships, i),
+                valueAt(pops, i),
+                valueAt(populations, i),
+                valueAt(regs, i),
+                valueAt(regions, i),
+                valueAt(phase3, i)
+            ));
+        }
+        rows.sort(Comparator.comparing(Row::sampleId));
+        return new MetaIndex(rows);
+    }
+
+    private static String valueAt(String[] column, int row) {
+        return column == null ? null : column[row];
+    }
+
+    /**
+     * @param rows all metadata rows, ordered by sample ID
+     */
+    MetaIndex(List<Row> rows) {
+        int n = rows.size();
+        String[][] columns = new String[6][n];
+        for (int i = 0; i < n; i++) {
+            Row row = rows.get(i);
+            columns[0][i] = row.sampleId();
+            columns[1][i] = row.populationCode();
+            columns[2][i] = row.population();
+            columns[3][i] = row.superpopulationCode();
+            columns[4][i] = row.superpopulation();
+            columns[5][i] = row.gender();
+        }
+        sampleIndex = new SampleIndex(columns[0], columns[1], columns[2], columns[3], columns[4], columns[5]);
+
+        pedigree = new Pedigree(sampleIndex, rows);
+
+        metas = new SampleMeta[n];
+        for (int i = 0; i < n; i++) {
+            Row row = rows.get(i);
+            List<String> children = pedigree.children(row.sampleId());
+            metas[i] = new SampleMeta(
+                row.sampleId(),
+                nullIfEmpty(row.familyId()),
+                row.gender(),
+                nullIfAbsent(row.pid()),
+                nullIfAbsent(row.mid()),
+                nullIfEmpty(row.relationship()),
+                children.isEmpty() ? null : children,
+                row.populationCode(),
+                row.superpopulationCode(),
+                row.population(),
+                row.superpopulation(),
+                row.phase3()
+            );
+        }
+
+        byPopulation = groupedOrdinals(n, sampleIndex::populationCode);
+        bySuperpopulation = groupedOrdinals(n, sampleIndex::superpopulationCode);
+        populationRanges = ranges(byPopulation, sampleIndex::populationCode);
+        superpopulationRanges = ranges(bySuperpopulation, sampleIndex::superpopulationCode);
+
+        // aggregates, populations ordered by code
+        Map<String, PopulationStats> stats = new TreeMap<>();
+        for (Map.Entry<String, int[]> entry : new TreeMap<>(populationRanges).entrySet()) {
+            stats.put(entry.getKey(), aggregate(rows, entry.getValue()));
+        }
+        populationStats = Collections.unmodifiableMap(stats);
+
+        Map<String, List<PopulationStats>> bySuperpop = new TreeMap<>();
+        for (PopulationStats ps : stats.values()) {
+            bySuperpop.computeIfAbsent(ps.superpopulationCode(), k -> new ArrayList<>()).add(ps);
+        }
+
+        Map<String, SuperpopulationSummary> summaries = new HashMap<>();
+        List<PopulationInfo> popInfos = new ArrayList<>();
+        List<SuperpopulationInfo> superpopInfos = new ArrayList<>();
+        for (Map.Entry<String, List<PopulationStats>> entry : bySuperpop.entrySet()) {
+            List<PopulationStats> pops = List.copyOf(entry.getValue());
+            summaries.put(entry.getKey(), new SuperpopulationSummary(
+                entry.getKey(),
+                pops.get(0).superpopulation(),
+                pops.stream().mapToInt(PopulationStats::sampleCount).sum(),
+                pops.stream().mapToInt(PopulationStats::maleCount).sum(),
+                pops.stream().mapToInt(PopulationStats::femaleCount).sum(),
+                pops.stream().mapToInt(PopulationStats::phase3Count).sum(),
+                pops.stream().mapToInt(PopulationStats::trioCount).sum(),
+                pops
+            ));
+            for (PopulationStats ps : pops) {
+                popInfos.add(new PopulationInfo(ps.populationCode(), ps.population(),
+                    ps.superpopulationCode(), ps.superpopulation(), ps.sampleCount()));
+            }
+            superpopInfos.add(new SuperpopulationInfo(
+                entry.getKey(),
+                pops.get(0).superpopulation(),
+                pops.stream().mapToInt(PopulationStats::sampleCount).sum(),
+                pops.stream().map(PopulationStats::populationCode).toList()
+            ));
+        }
+        superpopulationSummaries = Collections.unmodifiableMap(summaries);
+        populations = List.copyOf(popInfos);
+        superpopulations = List.copyOf(superpopInfos);
+    }
+
+    SampleIndex sampleIndex() { return sampleIndex; }
+
+    Pedigree pedigree() { return pedigree; }
+
+    /**
+     * @return metadata of the sample or null if the sample is not in the index
+     */
+    SampleMeta sampleMeta(String sampleId) {
+        int ordinal = sampleIndex.ordinal(sampleId);
+        return ordinal < 0 ? null : metas[ordinal];
+    }
+
+    SampleMeta sampleMeta(int ordinal) { return metas[ordinal]; }
+
+    /**
+     * @return ordinals of samples in the population, in sample ID order; empty if the code is unknown
+     */
+    int[] populationOrdinals(String populationCode) {
+        return slice(byPopulation, populationRanges.get(populationCode));
+    }
+
+    /**
+     * @return ordinals of samples in the superpopulation, in sample ID order; empty if the code is unknown
+     */
+    int[] superpopulationOrdinals(String superpopulationCode) {
+        return slice(bySuperpopulation, superpopulationRanges.get(superpopulationCode));
+    }
+
+    PopulationStats populationStats(String populationCode) { return populationStats.get(populationCode); }
+
+    SuperpopulationSummary superpopulationSummary(String superpopulationCode) {
+        return superpopulationSummaries.get(superpopulationCode);
+    }
+
+    /** Ordered by superpopulation code, then population code. */
+    List<PopulationInfo> populations() { return populations; }
+
+    /** Ordered by superpopulation code. */
+    List<SuperpopulationInfo> superpopulations() { return superpopulations; }
+
+    private PopulationStats aggregate(List<Row> rows, int[] range) {
+        int males = 0, females = 0, phase3 = 0, trios = 0;
+        for (int i = range[0]; i < range[1]; i++) {
+            Row row = rows.get(byPopulation[i]);
+            if ("male".equals(row.gender())) males++;
+            if ("female".equals(row.gender())) females++;
+            if ("TRUE".equalsIgnoreCase(row.phase3())) phase3++;
+            if (isPresent(row.pid()) && isPresent(row.mid())) trios++;
+        }
+        Row first = rows.get(byPopulation[range[0]]);
+        return new PopulationStats(
+            first.populationCode(),
+            first.population(),
+            first.superpopulationCode(),
+            first.superpopulation(),
+            range[1] - range[0],
+            males, females, phase3, trios
+        );
+    }
+
+    private static int[] groupedOrdinals(int n, IntFunction<String> key) {
+        // ordinals are in sample ID order, a stable sort keeps it within each group
+        return IntStream.range(0, n)
+            .boxed()
+            .sorted(Comparator.comparing(key::apply))
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+
+    private static Map<String, int[]> ranges(int[] grouped, IntFunction<String> key) {
+        Map<String, int[]> ranges = new HashMap<>();
+        int from = 0;
+        for (int i = 1; i <= grouped.length; i++) {
+            if (i == grouped.length || !key.apply(grouped[i]).equals(key.apply(grouped[from]))) {
+                ranges.put(key.apply(grouped[from]), new int[] {from, i});
+                from = i;
+            }
+        }
+        return Collections.unmodifiableMap(ranges);
+    }
+
+    private static int[] slice(int[] grouped, int[] range) {
+        return range == null ? new int[0] : Arrays.copyOfRange(grouped, range[0], range[1]);
+    }
+
+    private static boolean isPresent(String parentId) {
+        return parentId != null && !parentId.isEmpty() && !"0".equals(parentId);
+    }
+
+    private static String nullIfAbsent(String value) {
+        return (value == null || value.isEmpty() || "0".equals(value)) ? null : value;
+    }
+
+    private static String nullIfEmpty(String value) {
+        return (value == null || value.isEmpty()) ? null : value;
+    }
+}
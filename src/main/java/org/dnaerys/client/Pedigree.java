@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import org.dnaerys.client.entity.Duo;
+import org.dnaerys.client.entity.Trio;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable pedigree graph over samples in {@link SampleIndex}, built once when metadata is loaded.
+ * <p>
+ * Parent to children adjacency is stored in compressed form (offsets into one ordinal array),
+ * trios and duos are listed in child sample ID order, families map to their members. All lookups
+ * are hash or array accesses and do not depend on the number of samples.
+ */
+public final class Pedigree {
+
+    private final SampleIndex index;
+    // children of parent ordinal p are childOrdinals[childOffsets[p] .. childOffsets[p + 1])
+    private final int[] childOffsets;
+    private final int[] childOrdinals;
+    private final List<Trio> trios;
+    private final List<Duo> duos;
+    private final Map<String, Trio> trioByChild;
+    private final Map<String, List<String>> familyMembers;
+
+    /**
+     * @param rows all metadata rows, in the ordinal order of {@code index}
+     */
+    Pedigree(SampleIndex index, List<MetaIndex.Row> rows) {
+        this.index = index;
+        int n = rows.size();
+
+        // a child is linked to its parents only if both parent IDs are given
+        int[] counts = new int[n + 1];
+        for (MetaIndex.Row row : rows) {
+            if (!hasBothParentIds(row)) continue;
+            int father = index.ordinal(row.pid());
+            int mother = index.ordinal(row.mid());
+            if (father >= 0) counts[father + 1]++;
+            if (mother >= 0 && mother != father) counts[mother + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            counts[i + 1] += counts[i];
+        }
+        childOffsets = counts.clone();
+        childOrdinals = new int[counts[n]];
+        // rows are in ordinal order, so children of each parent end up sorted by sample ID
+        for (int c = 0; c < n; c++) {
+            MetaIndex.Row row = rows.get(c);
+            if (!hasBothParentIds(row)) continue;
+            int father = index.ordinal(row.pid());
+            int mother = index.ordinal(row.mid());
+            if (father >= 0) childOrdinals[counts[father]++] = c;
+            if (mother >= 0 && mother != father) childOrdinals[counts[mother]++] = c;
+        }
+
+        List<Trio> trioList = new ArrayList<>();
+        List<Duo> duoList = new ArrayList<>();
+        Map<String, Trio> byChild = new HashMap<>();
+        Map<String, List<String>> families = new HashMap<>();
+        for (MetaIndex.Row row : rows) {
+            String familyId = nullIfEmpty(row.familyId());
+            boolean father = isPresent(row.pid()) && index.ordinal(row.pid()) >= 0;
+            boolean mother = isPresent(row.mid()) && index.ordinal(row.mid()) >= 0;
+            if (father && mother) {
+                Trio trio = new Trio(row.sampleId(), row.pid(), row.mid(), familyId, row.populationCode());
+                trioList.add(trio);
+                byChild.put(row.sampleId(), trio);
+            } else if (father || mother) {
+                duoList.add(new Duo(row.sampleId(), father ? row.pid() : row.mid(),
+                    father ? "father" : "mother", familyId, row.populationCode()));
+            }
+            if (familyId != null) {
+                families.computeIfAbsent(familyId, k -> new ArrayList<>()).add(row.sampleId());
+            }
+        }
+        families.replaceAll((k, v) -> List.copyOf(v));
+
+        trios = List.copyOf(trioList);
+        duos = List.copyOf(duoList);
+        trioByChild = Collections.unmodifiableMap(byChild);
+        familyMembers = Collections.unmodifiableMap(families);
+    }
+
+    /**
+     * @return ordinals of the sample's children, in sample ID order
+     */
+    public int[] childOrdinals(int parentOrdinal) {
+        return Arrays.copyOfRange(childOrdinals, childOffsets[parentOrdinal], childOffsets[parentOrdinal + 1]);
+    }
+
+    /**
+     * @return IDs of the sample's children in sample ID order, empty if none or the sample is unknown
+     */
+    public List<String> children(String sampleId) {
+        int parent = index.ordinal(sampleId);
+        if (parent < 0 || childOffsets[parent] == childOffsets[parent + 1]) return List.of();
+        List<String> children = new ArrayList<>(childOffsets[parent + 1] - childOffsets[parent]);
+        for (int i = childOffsets[parent]; i < childOffsets[parent + 1]; i++) {
+            children.add(index.sampleId(childOrdinals[i]));
+        }
+        return Collections.unmodifiableList(children);
+    }
+
+    /**
+     * Trios with both parents present in the dataset, in child sample ID order.
+     */
+    public List<Trio> trios() { return trios; }
+
+    /**
+     * @return trio in which the sample is the child, null if there is none
+     */
+    public Trio trio(String childId) { return trioByChild.get(childId); }
+
+    /**
+     * Children with exactly one parent present in the dataset, in child sample ID order.
+     */
+    public List<Duo> duos() { return duos; }
+
+    /**
+     * @return sample IDs of the family in sample ID order, empty if the family is unknown
+     */
+    public List<String> family(String familyId) {
+        return familyId == null ? List.of() : familyMembers.getOrDefault(familyId, List.of());
+    }
+
+    private static boolean hasBothParentIds(MetaIndex.Row row) {
+        return row.pid() != null && row.mid() != null && !"0".equals(row.pid()) && !"0".equals(row.mid());
+    }
+
+    private static boolean isPresent(String parentId) {
+        return parentId != null && !parentId.isEmpty() && !"0".equals(parentId);
+    }
+
+    private static String nullIfEmpty(String value) {
+        return (value == null || value.isEmpty()) ? null : value;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded memoizing cache for results of expensive, deterministic RPCs.
+ * <p>
+ * The dataset is static, so entries never expire; they are only evicted (oldest first) once
+ * {@code maxEntries} is exceeded. Concurrent requests for the same key share a single in-flight
+ * load instead of issuing duplicate RPCs. Failed loads are not cached. Only completed values are
+ * counted against {@code maxEntries} and evicted; in-flight loads are kept apart until they complete.
+ */
+public final class ResultCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    // guarded by this; insertion order, oldest first
+    private final LinkedHashMap<K, V> values = new LinkedHashMap<>();
+    private final ConcurrentHashMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ResultCache(String name, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be > 0");
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = loading.putIfAbsent(key, created);
+        if (existing != null) {
+            hits.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw e;
+            }
+        }
+        try {
+            // a load may have completed between the lookup and the registration above
+            V value = getIfPresent(key);
+            if (value != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                value = loader.get();
+                put(key, value);
+            }
+            created.complete(value);
+            return value;
+        } catch (Throwable t) {
+            created.completeExceptionally(t);
+            throw t;
+        } finally {
+            loading.remove(key, created);
+        }
+    }
+
+    public String name() { return name; }
+
+    public synchronized int size() { return values.size(); }
+
+    public long hitCount() { return hits.sum(); }
+
+    public long missCount() { return misses.sum(); }
+
+    public synchronized void clear() {
+        values.clear();
+    }
+
+    private synchronized V getIfPresent(K key) {
+        return values.get(key);
+    }
+
+    private synchronized void put(K key, V value) {
+        if (value == null) return;
+        values.put(key, value);
+        var it = values.entrySet().iterator();
+        while (values.size() > maxEntries && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+
+/**
+ * Client span for every outbound Dnaerys RPC, a child of the tool call span, with the trace context
+ * propagated to the cluster in the gRPC metadata.
+ * <p>
+ * Besides the standard {@code rpc.*} attributes, spans carry the request shape (set fields, with
+ * sizes of repeated ones), the number of regions, streamed messages and items, and the nodes which
+ * responded with their largest {@code elapsed_db_ms}. Requests and responses are inspected through
+ * protobuf descriptors, so the interceptor needs no changes when RPCs are added. They are not inspected
+ * when the span is not recording, e.g. with the default {@code quarkus.otel.sdk.disabled=true}.
+ * <p>
+ * Replaces the generic gRPC instrumentation of quarkus-opentelemetry, which is switched off.
+ */
+@GlobalInterceptor
+@ApplicationScoped
+public class RpcTracingInterceptor implements ClientInterceptor {
+
+    static final AttributeKey<String> REQUEST_SHAPE = AttributeKey.stringKey("dnaerys.request.shape");
+    static final AttributeKey<Long> REGIONS = AttributeKey.longKey("dnaerys.regions");
+    static final AttributeKey<Long> MESSAGES = AttributeKey.longKey("dnaerys.response.messages");
+    static final AttributeKey<Long> ITEMS = AttributeKey.longKey("dnaerys.response.items");
+    static final AttributeKey<List<String>> NODE_IDS = AttributeKey.stringArrayKey("dnaerys.node_ids");
+    static final AttributeKey<Long> ELAPSED_DB_MS = AttributeKey.longKey("dnaerys.elapsed_db_ms");
+
+    private static final TextMapSetter<Metadata> METADATA_SETTER = (metadata, key, value) ->
+        metadata.put(Metadata.Key.of(key, Metadata.ASCII_STRING_MARSHALLER), value);
+
+    @Inject
+    Tracer tracer;
+
+    @Inject
+    OpenTelemetry openTelemetry;
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions, Channel next) {
+        Span span = tracer.spanBuilder("dnaerys/" + method.getBareMethodName())
+            .setSpanKind(SpanKind.CLIENT)
+            .setAttribute("rpc.system", "grpc")
+            .setAttribute("rpc.service", method.getServiceName())
+            .setAttribute("rpc.method", method.getBareMethodName())
+            .startSpan();
+        Context context = Context.current().with(span);
+
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                openTelemetry.getPropagators().getTextMapPropagator().inject(context, headers, METADATA_SETTER);
+                super.start(new ResponseListener<>(responseListener, span), headers);
+            }
+
+            @Override
+            public void sendMessage(ReqT message) {
+                if (span.isRecording() && message instanceof Message request) {
+                    describeRequest(span, request);
+                }
+                super.sendMessage(message);
+            }
+        };
+    }
+
+    // listener callbacks are serialized by gRPC, so plain fields are sufficient
+    private static final class ResponseListener<RespT>
+        extends ForwardingClientCallListener.SimpleForwardingClientCallListener<RespT> {
+
+        private final Span span;
+        private final TreeSet<String> nodeIds = new TreeSet<>();
+        private long messages;
+        private long items;
+        private long elapsedDbMs = -1;
+
+        ResponseListener(ClientCall.Listener<RespT> delegate, Span span) {
+            super(delegate);
+            this.span = span;
+        }
+
+        @Override
+        public void onMessage(RespT message) {
+            messages++;
+            if (span.isRecording() && message instanceof Message response) {
+                for (Map.Entry<FieldDescriptor, Object> field : response.getAllFields().entrySet()) {
+                    FieldDescriptor descriptor = field.getKey();
+                    if (descriptor.isRepeated()) {
+                        items += ((List<?>) field.getValue()).size();
+                    } else if (descriptor.getName().equals("node_id")) {
+                        nodeIds.add((String) field.getValue());
+                    } else if (descriptor.getName().equals("elapsed_db_ms")) {
+                        elapsedDbMs = Math.max(elapsedDbMs, ((Number) field.getValue()).longValue());
+                    }
+                }
+            }
+            super.onMessage(message);
+        }
+
+        @Override
+        public void onClose(Status status, Metadata trailers) {
+            span.setAttribute(MESSAGES, messages);
+            span.setAttribute(ITEMS, items);
+            if (!nodeIds.isEmpty()) span.setAttribute(NODE_IDS, List.copyOf(nodeIds));
+            if (elapsedDbMs >= 0) span.setAttribute(ELAPSED_DB_MS, elapsedDbMs);
+            span.setAttribute("rpc.grpc.status_code", status.getCode().value());
+            if (!status.isOk()) {
+                span.setStatus(StatusCode.ERROR, status.getCode().name());
+                if (status.getCause() != null) span.recordException(status.getCause());
+            }
+            span.end();
+            super.onClose(status, trailers);
+        }
+    }
+
+    // e.g. "chr[2],start[2],end[2],hom,het,ann" - field names only, never values
+    static void describeRequest(Span span, Message request) {
+        StringJoiner shape = new StringJoiner(",");
+        for (Map.Entry<FieldDescriptor, Object> field : request.getAllFields().entrySet()) {
+            FieldDescriptor descriptor = field.getKey();
+            if (descriptor.isRepeated()) {
+                int size = ((List<?>) field.getValue()).size();
+                shape.add(descriptor.getName() + "[" + size + "]");
+                if (descriptor.getName().equals("chr")) span.setAttribute(REGIONS, (long) size);
+            } else {
+                shape.add(descriptor.getName());
+            }
+        }
+        span.setAttribute(REQUEST_SHAPE, shape.toString());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable dense index over samples in the sample metadata.
+ * <p>
+ * Every sample gets an ordinal in {@code [0, size())}, assigned in sample ID order, so per-sample
+ * results received from the cluster can be kept in primitive arrays and joined with metadata locally.
+ */
+public final class SampleIndex {
+
+    private final String[] sampleIds;
+    private final String[] populationCodes;
+    private final String[] populationNames;
+    private final String[] superpopulationCodes;
+    private final String[] superpopulationNames;
+    private final String[] genders;
+    private final Map<String, Integer> ordinals;
+    private final Map<String, String> populationCodeByValue;
+    private final Map<String, String> superpopulationCodeByValue;
+
+    /**
+     * All arrays are indexed by ordinal and must be of equal length, ordered by sample ID.
+     */
+    SampleIndex(String[] sampleIds, String[] populationCodes, String[] populationNames,
+                String[] superpopulationCodes, String[] superpopulationNames, String[] genders) {
+        this.sampleIds = sampleIds;
+        this.populationCodes = populationCodes;
+        this.populationNames = populationNames;
+        this.superpopulationCodes = superpopulationCodes;
+        this.superpopulationNames = superpopulationNames;
+        this.genders = genders;
+
+        Map<String, Integer> byId = new HashMap<>(sampleIds.length * 2);
+        Map<String, String> popCodes = new HashMap<>();
+        Map<String, String> superpopCodes = new HashMap<>();
+        for (int i = 0; i < sampleIds.length; i++) {
+            byId.put(sampleIds[i], i);
+            popCodes.put(populationCodes[i], populationCodes[i]);
+            popCodes.put(populationNames[i], populationCodes[i]);
+            superpopCodes.put(superpopulationCodes[i], superpopulationCodes[i]);
+            superpopCodes.put(superpopulationNames[i], superpopulationCodes[i]);
+        }
+        this.ordinals = Collections.unmodifiableMap(byId);
+        this.populationCodeByValue = Collections.unmodifiableMap(popCodes);
+        this.superpopulationCodeByValue = Collections.unmodifiableMap(superpopCodes);
+    }
+
+    public int size() { return sampleIds.length; }
+
+    /**
+     * @return ordinal of the sample or -1 if the sample is not in the index
+     */
+    public int ordinal(String sampleId) {
+        Integer ordinal = sampleId == null ? null : ordinals.get(sampleId);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public String sampleId(int ordinal) { return sampleIds[ordinal]; }
+
+    public String populationCode(int ordinal) { return populationCodes[ordinal]; }
+
+    public String populationName(int ordinal) { return populationNames[ordinal]; }
+
+    public String superpopulationCode(int ordinal) { return superpopulationCodes[ordinal]; }
+
+    public String superpopulationName(int ordinal) { return superpopulationNames[ordinal]; }
+
+    public String gender(int ordinal) { return genders[ordinal]; }
+
+    public List<String> sampleIds() { return Arrays.asList(sampleIds.clone()); }
+
+    /**
+     * @return population code for a population code or full name, null if not recognised
+     */
+    public String populationCodeOf(String codeOrName) {
+        return codeOrName == null ? null : populationCodeByValue.get(codeOrName.trim());
+    }
+
+    /**
+     * @return superpopulation code for a superpopulation code or full name, null if not recognised
+     */
+    public String superpopulationCodeOf(String codeOrName) {
+        return codeOrName == null ? null : superpopulationCodeByValue.get(codeOrName.trim());
+    }
+}
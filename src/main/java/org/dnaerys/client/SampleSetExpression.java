@@ -0,0 +1,206 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import org.dnaerys.mcp.OneKGPdMCPServer.GenomicRegion;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Set expression over samples, evaluated on bitsets of {@link SampleIndex} ordinals.
+ * <pre>
+ * expr    := term (OR term)*
+ * term    := factor (AND factor)*
+ * factor  := NOT factor | '(' expr ')' | operand
+ * operand := chr:start-end | chr:position
+ *          | population:CODE | superpopulation:CODE | gender:male|female
+ * </pre>
+ * Keywords are case-insensitive, NOT binds tighter than AND, AND tighter than OR.
+ * A region operand stands for samples with selected variants in the region.
+ */
+public final class SampleSetExpression {
+
+    public enum Kind { REGION, POPULATION, SUPERPOPULATION, GENDER }
+
+    /**
+     * @param text operand as written in the expression
+     */
+    public record Operand(Kind kind, String value, String text) {
+
+        GenomicRegion region() {
+            Matcher m = REGION.matcher(value);
+            if (!m.matches()) throw new IllegalStateException("Not a region operand: " + text);
+            int start = Integer.parseInt(m.group(2));
+            int end = m.group(3) == null ? start : Integer.parseInt(m.group(3));
+            return new GenomicRegion(m.group(1), start, end, null, null);
+        }
+    }
+
+    private sealed interface Node permits And, Or, Not, Leaf {}
+    private record And(Node left, Node right) implements Node {}
+    private record Or(Node left, Node right) implements Node {}
+    private record Not(Node node) implements Node {}
+    private record Leaf(Operand operand) implements Node {}
+
+    private static final Pattern REGION = Pattern.compile("((?:chr)?(?:[0-9]{1,2}|X|Y|MT)):([0-9]+)(?:-([0-9]+))?",
+        Pattern.CASE_INSENSITIVE);
+    private static final Pattern TOKEN = Pattern.compile("\\(|\\)|[^\\s()]+");
+
+    private final String expression;
+    private final Node root;
+    private final List<Operand> operands;
+
+    private SampleSetExpression(String expression, Node root, List<Operand> operands) {
+        this.expression = expression;
+        this.root = root;
+        this.operands = operands;
+    }
+
+    public static SampleSetExpression parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new RuntimeException("Invalid parameter: 'expression' must be provided");
+        }
+        List<String> tokens = new ArrayList<>();
+        Matcher m = TOKEN.matcher(expression);
+        while (m.find()) tokens.add(m.group());
+
+        Parser parser = new Parser(tokens);
+        Node root = parser.expr();
+        if (parser.pos < tokens.size()) {
+            throw parser.error("unexpected '" + tokens.get(parser.pos) + "'");
+        }
+        return new SampleSetExpression(expression.trim(), root, List.copyOf(parser.operands));
+    }
+
+    /**
+     * Distinct operands in order of first appearance.
+     */
+    public List<Operand> operands() { return operands; }
+
+    /**
+     * @param resolve ordinals of samples in the operand set
+     * @param size number of samples, the universe for NOT
+     */
+    public BitSet evaluate(Function<Operand, BitSet> resolve, int size) {
+        return evaluate(root, resolve, size);
+    }
+
+    @Override
+    public String toString() { return expression; }
+
+    private static BitSet evaluate(Node node, Function<Operand, BitSet> resolve, int size) {
+        return switch (node) {
+            case Leaf leaf -> (BitSet) resolve.apply(leaf.operand()).clone();
+            case Not not -> {
+                BitSet set = evaluate(not.node(), resolve, size);
+                set.flip(0, size);
+                yield set;
+            }
+            case And and -> {
+                BitSet set = evaluate(and.left(), resolve, size);
+                set.and(evaluate(and.right(), resolve, size));
+                yield set;
+            }
+            case Or or -> {
+                BitSet set = evaluate(or.left(), resolve, size);
+                set.or(evaluate(or.right(), resolve, size));
+                yield set;
+            }
+        };
+    }
+
+    private static final class Parser {
+        private final List<String> tokens;
+        private final Set<Operand> operands = new LinkedHashSet<>();
+        private int pos;
+
+        Parser(List<String> tokens) { this.tokens = tokens; }
+
+        Node expr() {
+            Node node = term();
+            while (accept("OR")) node = new Or(node, term());
+            return node;
+        }
+
+        Node term() {
+            Node node = factor();
+            while (accept("AND")) node = new And(node, factor());
+            return node;
+        }
+
+        Node factor() {
+            if (accept("NOT")) return new Not(factor());
+            if (accept("(")) {
+                Node node = expr();
+                if (!accept(")")) throw error("missing ')'");
+                return node;
+            }
+            if (pos == tokens.size()) throw error("unexpected end of expression");
+            String token = tokens.get(pos);
+            if (isKeyword(token) || token.equals(")")) throw error("unexpected '" + token + "'");
+            pos++;
+            Operand operand = operand(token);
+            operands.add(operand);
+            return new Leaf(operand);
+        }
+
+        private boolean accept(String keyword) {
+            if (pos < tokens.size() && tokens.get(pos).equalsIgnoreCase(keyword)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private static boolean isKeyword(String token) {
+            return token.equalsIgnoreCase("AND") || token.equalsIgnoreCase("OR") || token.equalsIgnoreCase("NOT");
+        }
+
+        private Operand operand(String token) {
+            int colon = token.indexOf(':');
+            String prefix = colon < 0 ? "" : token.substring(0, colon).toLowerCase(Locale.ROOT);
+            String value = colon < 0 ? "" : token.substring(colon + 1);
+            switch (prefix) {
+                case "population", "pop" -> { return new Operand(Kind.POPULATION, value, token); }
+                case "superpopulation", "superpop" -> { return new Operand(Kind.SUPERPOPULATION, value, token); }
+                case "gender", "sex" -> {
+                    String gender = value.toLowerCase(Locale.ROOT);
+                    if (!gender.equals("male") && !gender.equals("female")) {
+                        throw error("gender must be 'male' or 'female' in '" + token + "'");
+                    }
+                    return new Operand(Kind.GENDER, gender, token);
+                }
+                default -> {
+                    if (REGION.matcher(token).matches()) return new Operand(Kind.REGION, token, token);
+                    throw error("unrecognised operand '" + token + "'");
+                }
+            }
+        }
+
+        RuntimeException error(String message) {
+            return new RuntimeException("Invalid parameter: 'expression' " + message);
+        }
+    }
+}
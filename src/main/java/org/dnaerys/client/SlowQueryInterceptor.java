@@ -0,0 +1,178 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import com.google.protobuf.TextFormat;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.quarkus.grpc.GlobalInterceptor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Writes Dnaerys RPCs slower than {@code dnaerys.slow-query.threshold}, and all RPCs ending in
+ * DEADLINE_EXCEEDED, to the {@link SlowQueryLog}. Disabled unless {@code dnaerys.slow-query.file} is set.
+ * <p>
+ * Response messages are only counted and scanned for the cluster's elapsed times; the request is
+ * described and serialized for logged calls only.
+ */
+@GlobalInterceptor
+@ApplicationScoped
+public class SlowQueryInterceptor implements ClientInterceptor {
+
+    private static final Logger LOG = Logger.getLogger(SlowQueryInterceptor.class);
+
+    @ConfigProperty(name = "dnaerys.slow-query.file")
+    Optional<String> file;
+
+    @ConfigProperty(name = "dnaerys.slow-query.threshold", defaultValue = "5s")
+    Duration threshold;
+
+    // size of a log file before it is rotated
+    @ConfigProperty(name = "dnaerys.slow-query.max-bytes", defaultValue = "16777216")
+    long maxBytes;
+
+    // rotated files kept, including the current one
+    @ConfigProperty(name = "dnaerys.slow-query.max-files", defaultValue = "5")
+    int maxFiles;
+
+    private SlowQueryLog log;
+
+    @PostConstruct
+    void init() {
+        file.ifPresent(f -> {
+            log = new SlowQueryLog(Path.of(f), maxBytes, maxFiles);
+            LOG.infof("Logging Dnaerys RPCs slower than %d ms to %s", threshold.toMillis(), f);
+        });
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions, Channel next) {
+        ClientCall<ReqT, RespT> call = next.newCall(method, callOptions);
+        if (log == null) return call;
+
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(call) {
+
+            private Message request;
+            private long started;
+
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                started = System.nanoTime();
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+
+                    // listener callbacks are serialized by gRPC
+                    private long messages;
+                    private long items;
+                    private long responseBytes;
+                    private long serverMs = -1;
+                    private long dbMs = -1;
+
+                    @Override
+                    public void onMessage(RespT message) {
+                        messages++;
+                        if (message instanceof Message response) {
+                            responseBytes += response.getSerializedSize();
+                            for (Map.Entry<FieldDescriptor, Object> field : response.getAllFields().entrySet()) {
+                                FieldDescriptor descriptor = field.getKey();
+                                if (descriptor.isRepeated()) {
+                                    items += ((List<?>) field.getValue()).size();
+                                } else if (descriptor.getName().equals("elapsed_ms")) {
+                                    serverMs = Math.max(serverMs, ((Number) field.getValue()).longValue());
+                                } else if (descriptor.getName().equals("elapsed_db_ms")) {
+                                    dbMs = Math.max(dbMs, ((Number) field.getValue()).longValue());
+                                }
+                            }
+                        }
+                        super.onMessage(message);
+                    }
+
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        long clientMs = (System.nanoTime() - started) / 1_000_000;
+                        if (request != null && (clientMs >= threshold.toMillis()
+                                || status.getCode() == Status.Code.DEADLINE_EXCEEDED)) {
+                            write(method.getFullMethodName(), status, clientMs, serverMs, dbMs,
+                                request, messages, items, responseBytes);
+                        }
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            }
+
+            @Override
+            public void sendMessage(ReqT message) {
+                if (message instanceof Message m) request = m;
+                super.sendMessage(message);
+            }
+        };
+    }
+
+    private void write(String method, Status status, long clientMs, long serverMs, long dbMs,
+                       Message request, long messages, long items, long responseBytes) {
+        int regions = 0;
+        int samples = 0;
+        String annotations = "";
+        for (Map.Entry<FieldDescriptor, Object> field : request.getAllFields().entrySet()) {
+            String name = field.getKey().getName();
+            if (name.equals("chr") && field.getKey().isRepeated()) {
+                regions = ((List<?>) field.getValue()).size();
+            } else if (name.equals("samples") && field.getKey().isRepeated()) {
+                samples = ((List<?>) field.getValue()).size();
+            } else if (name.equals("ann") && field.getValue() instanceof Message ann) {
+                annotations = TextFormat.printer().shortDebugString(ann);
+            }
+        }
+        try {
+            log.append(new SlowQueryLog.Entry(Instant.now(), method, status.getCode().name(), clientMs, serverMs,
+                dbMs, regions, samples, annotations, messages, items, responseBytes, request.toByteString()));
+        } catch (IOException e) {
+            LOG.warnf("Cannot write slow query log %s: %s", log.path(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (log == null) return;
+        try {
+            log.close();
+        } catch (IOException e) {
+            LOG.warnf("Cannot close slow query log %s: %s", log.path(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.protobuf.ByteString;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rotating NDJSON log of slow or timed out Dnaerys RPCs, one {@link Entry} per line.
+ * <p>
+ * Each entry keeps the full method name and the serialized request, so it can be replayed
+ * against any backend, together with a readable summary (regions, samples, annotations), the
+ * elapsed time as seen by the client, the cluster and its database, and the response size.
+ * The file is rotated once it exceeds {@code maxBytes}: {@code log} becomes {@code log.1},
+ * {@code log.1} becomes {@code log.2} and so on, keeping at most {@code maxFiles} files.
+ */
+public final class SlowQueryLog implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * @param method full gRPC method name, e.g. org.dnaerys.cluster.grpc.DnaerysService/CountVariantsInMultiRegions
+     * @param status gRPC status code name
+     * @param clientMs time from sending the request to the end of the call
+     * @param serverMs largest elapsed_ms reported by the cluster, -1 if none
+     * @param dbMs largest elapsed_db_ms reported by the cluster, -1 if none
+     * @param annotations annotation filter in protobuf text format, empty if none
+     * @param request serialized request message
+     */
+    public record Entry(Instant timestamp, String method, String status, long clientMs, long serverMs, long dbMs,
+                        int regions, int samples, String annotations, long messages, long items,
+                        long responseBytes, ByteString request) {}
+
+    private final Path path;
+    private final long maxBytes;
+    private final int maxFiles;
+    // a lock rather than a monitor: appends run on virtual threads and must not pin their carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    // guarded by lock
+    private Writer out;
+    private long bytes;
+
+    SlowQueryLog(Path path, long maxBytes, int maxFiles) {
+        if (maxBytes <= 0 || maxFiles <= 0) {
+            throw new IllegalArgumentException("maxBytes and maxFiles must be > 0");
+        }
+        this.path = path;
+        this.maxBytes = maxBytes;
+        this.maxFiles = maxFiles;
+        try {
+            if (path.getParent() != null) Files.createDirectories(path.getParent());
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open slow query log " + path, e);
+        }
+    }
+
+    Path path() { return path; }
+
+    void append(Entry entry) throws IOException {
+        String line = MAPPER.writeValueAsString(toJson(entry)) + "\n";
+        lock.lock();
+        try {
+            // ASCII only: base64, numbers and escaped text
+            if (bytes > 0 && bytes + line.length() > maxBytes) rotate();
+            out.write(line);
+            out.flush();
+            bytes += line.length();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() throws IOException {
+        out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        bytes = Files.size(path);
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        Files.deleteIfExists(rotated(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(path, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(path);
+        }
+        open();
+    }
+
+    private Path rotated(int i) { return path.resolveSibling(path.getFileName() + "." + i); }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            out.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static ObjectNode toJson(Entry e) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("ts", e.timestamp().toString());
+        node.put("method", e.method());
+        node.put("status", e.status());
+        node.put("clientMs", e.clientMs());
+        node.put("serverMs", e.serverMs());
+        node.put("dbMs", e.dbMs());
+        node.put("regions", e.regions());
+        node.put("samples", e.samples());
+        node.put("annotations", e.annotations());
+        node.put("messages", e.messages());
+        node.put("items", e.items());
+        node.put("responseBytes", e.responseBytes());
+        node.put("request", Base64.getEncoder().encodeToString(e.request().toByteArray()));
+        return node;
+    }
+
+    /**
+     * Reads entries of a log file, oldest first; lines which cannot be parsed are skipped.
+     */
+    public static List<Entry> read(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) continue;
+            try {
+                JsonNode n = MAPPER.readTree(line);
+                entries.add(new Entry(
+                    Instant.parse(n.get("ts").asText()),
+                    n.get("method").asText(),
+                    n.get("status").asText(),
+                    n.get("clientMs").asLong(),
+                    n.get("serverMs").asLong(),
+                    n.get("dbMs").asLong(),
+                    n.get("regions").asInt(),
+                    n.get("samples").asInt(),
+                    n.get("annotations").asText(),
+                    n.get("messages").asLong(),
+                    n.get("items").asLong(),
+                    n.get("responseBytes").asLong(),
+                    ByteString.copyFrom(Base64.getDecoder().decode(n.get("request").asText()))));
+            } catch (IOException | RuntimeException e) {
+                // torn or foreign line
+            }
+        }
+        return entries;
+    }
+}
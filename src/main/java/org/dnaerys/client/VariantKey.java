@@ -0,0 +1,37 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import org.dnaerys.cluster.grpc.Variant;
+
+import java.util.Comparator;
+
+/**
+ * Compact identity of a variant for merging results from several RPCs.
+ * Ignores annotations and counters, which may differ between requests for the same variant.
+ */
+record VariantKey(int chr, int start, String ref, String alt) {
+
+    static final Comparator<VariantKey> POSITION_ORDER = Comparator.comparingInt(VariantKey::chr)
+        .thenComparingInt(VariantKey::start)
+        .thenComparing(VariantKey::ref)
+        .thenComparing(VariantKey::alt);
+
+    static VariantKey of(Variant v) {
+        return new VariantKey(v.getChrValue(), v.getStart(), v.getRef(), v.getAlt());
+    }
+}
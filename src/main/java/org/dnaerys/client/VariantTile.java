@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import org.dnaerys.cluster.grpc.Variant;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Variants of one chromosome tile in columnar form, in a single direct (off-heap) buffer.
+ * <p>
+ * Variants are sorted by start position. Numeric fields are stored one column per field,
+ * string fields as cumulative end offsets into a shared UTF-8 block:
+ * <pre>
+ * int n
+ * int start[n], int end[n], float af[n], float ac[n], int an[n], int homc[n], int hetc[n], int misc[n],
+ * int homfc[n], int hetfc[n], int misfc[n], float gnomADe[n], float gnomADg[n], float caddRaw[n],
+ * float caddPhred[n], float amScore[n], byte biallelic[n]
+ * int textEnd[3n], bytes of ref, alt and amino_acids strings
+ * </pre>
+ * The only on-heap state is the buffer object, so cached tiles add nothing for the GC to trace or copy.
+ * Decoded {@link Variant}s are short-lived and built only for variants in the requested range.
+ */
+final class VariantTile {
+
+    private static final int INT_COLUMNS = 9;    // start, end, an, homc, hetc, misc, homfc, hetfc, misfc
+    private static final int FLOAT_COLUMNS = 7;  // af, ac, gnomADe, gnomADg, caddRaw, caddPhred, amScore
+    private static final int STRING_COLUMNS = 3; // ref, alt, amino_acids
+
+    private final int chr;
+    private final int n;
+    private final ByteBuffer buffer;
+    // column offsets in buffer
+    private final int start, end, af, ac, an, homc, hetc, misc, homfc, hetfc, misfc;
+    private final int gnomADe, gnomADg, caddRaw, caddPhred, amScore, biallelic;
+    private final int textEnds, strings;
+
+    private VariantTile(int chr, ByteBuffer buffer) {
+        this.chr = chr;
+        this.buffer = buffer;
+        this.n = buffer.getInt(0);
+        int column = 4 * n;
+        int offset = 4;
+        start = offset; offset += column;
+        end = offset; offset += column;
+        af = offset; offset += column;
+        ac = offset; offset += column;
+        an = offset; offset += column;
+        homc = offset; offset += column;
+        hetc = offset; offset += column;
+        misc = offset; offset += column;
+        homfc = offset; offset += column;
+        hetfc = offset; offset += column;
+        misfc = offset; offset += column;
+        gnomADe = offset; offset += column;
+        gnomADg = offset; offset += column;
+        caddRaw = offset; offset += column;
+        caddPhred = offset; offset += column;
+        amScore = offset; offset += column;
+        biallelic = offset; offset += n;
+        textEnds = offset; offset += STRING_COLUMNS * column;
+        strings = offset;
+    }
+
+    /**
+     * @param chr chromosome value shared by all variants of the tile
+     */
+    static VariantTile encode(int chr, List<Variant> variants) {
+        List<Variant> sorted = new ArrayList<>(variants);
+        sorted.sort(Comparator.comparingInt(Variant::getStart));
+        int n = sorted.size();
+
+        byte[][] text = new byte[STRING_COLUMNS * n][];
+        int textBytes = 0;
+        for (int i = 0; i < n; i++) {
+            Variant v = sorted.get(i);
+            text[i] = v.getRef().getBytes(StandardCharsets.UTF_8);
+            text[n + i] = v.getAlt().getBytes(StandardCharsets.UTF_8);
+            text[2 * n + i] = v.getAminoAcids().getBytes(StandardCharsets.UTF_8);
+            textBytes += text[i].length + text[n + i].length + text[2 * n + i].length;
+        }
+
+        int size = 4 + (INT_COLUMNS + FLOAT_COLUMNS + STRING_COLUMNS) * 4 * n + n + textBytes;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        buffer.putInt(n);
+        for (Variant v : sorted) buffer.putInt(v.getStart());
+        for (Variant v : sorted) buffer.putInt(v.getEnd());
+        for (Variant v : sorted) buffer.putFloat(v.getAf());
+        for (Variant v : sorted) buffer.putFloat(v.getAc());
+        for (Variant v : sorted) buffer.putInt(v.getAn());
+        for (Variant v : sorted) buffer.putInt(v.getHomc());
+        for (Variant v : sorted) buffer.putInt(v.getHetc());
+        for (Variant v : sorted) buffer.putInt(v.getMisc());
+        for (Variant v : sorted) buffer.putInt(v.getHomfc());
+        for (Variant v : sorted) buffer.putInt(v.getHetfc());
+        for (Variant v : sorted) buffer.putInt(v.getMisfc());
+        for (Variant v : sorted) buffer.putFloat(v.getGnomADe());
+        for (Variant v : sorted) buffer.putFloat(v.getGnomADg());
+        for (Variant v : sorted) buffer.putFloat(v.getCaddRaw());
+        for (Variant v : sorted) buffer.putFloat(v.getCaddPhred());
+        for (Variant v : sorted) buffer.putFloat(v.getAmScore());
+        for (Variant v : sorted) buffer.put((byte) (v.getBiallelic() ? 1 : 0));
+        // end offsets are cumulative over all string columns
+        int textEnd = 0;
+        for (byte[] bytes : text) {
+            textEnd += bytes.length;
+            buffer.putInt(textEnd);
+        }
+        for (byte[] bytes : text) buffer.put(bytes);
+        return new VariantTile(chr, buffer);
+    }
+
+    int size() { return n; }
+
+    /**
+     * Off-heap bytes held by the tile.
+     */
+    int bytes() { return buffer.capacity(); }
+
+    int start(int i) { return buffer.getInt(start + 4 * i); }
+
+    /**
+     * Passes variants with start in [from, to] and, if given, matching ref and alt to {@code out}, by start position.
+     */
+    void collect(int from, int to, String ref, String alt, Consumer<Variant> out) {
+        for (int i = firstAtOrAfter(from); i < n && start(i) <= to; i++) {
+            if (ref != null && !ref.isEmpty() && !ref.equals(text(i))) continue;
+            if (alt != null && !alt.isEmpty() && !alt.equals(text(n + i))) continue;
+            out.accept(variant(i));
+        }
+    }
+
+    Variant variant(int i) {
+        return Variant.newBuilder()
+            .setChrValue(chr)
+            .setStart(start(i))
+            .setEnd(buffer.getInt(end + 4 * i))
+            .setRef(text(i))
+            .setAlt(text(n + i))
+            .setAf(buffer.getFloat(af + 4 * i))
+            .setAc(buffer.getFloat(ac + 4 * i))
+            .setAn(buffer.getInt(an + 4 * i))
+            .setHomc(buffer.getInt(homc + 4 * i))
+            .setHetc(buffer.getInt(hetc + 4 * i))
+            .setMisc(buffer.getInt(misc + 4 * i))
+            .setHomfc(buffer.getInt(homfc + 4 * i))
+            .setHetfc(buffer.getInt(hetfc + 4 * i))
+            .setMisfc(buffer.getInt(misfc + 4 * i))
+            .setGnomADe(buffer.getFloat(gnomADe + 4 * i))
+            .setGnomADg(buffer.getFloat(gnomADg + 4 * i))
+            .setCaddRaw(buffer.getFloat(caddRaw + 4 * i))
+            .setCaddPhred(buffer.getFloat(caddPhred + 4 * i))
+            .setAmScore(buffer.getFloat(amScore + 4 * i))
+            .setAminoAcids(text(2 * n + i))
+            .setBiallelic(buffer.get(biallelic + i) != 0)
+            .build();
+    }
+
+    // string k of the concatenated ref, alt and amino_acids columns
+    private String text(int k) {
+        int from = k == 0 ? 0 : buffer.getInt(textEnds + 4 * (k - 1));
+        int to = buffer.getInt(textEnds + 4 * k);
+        byte[] bytes = new byte[to - from];
+        buffer.get(strings + from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int firstAtOrAfter(int position) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (start(mid) < position) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
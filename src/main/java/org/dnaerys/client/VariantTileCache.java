@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import com.google.protobuf.ByteString;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Off-heap cache of {@link VariantTile}s with a strict cap on total tile bytes.
+ * <p>
+ * A tile holds all variants starting in a fixed-size window of a chromosome selected with given
+ * zygosity flags and filters, so any region query is answered from the tiles it overlaps. The
+ * dataset is static and entries never expire; least recently used tiles are evicted once the cap
+ * is exceeded. Concurrent requests for the same tile share one load, failed loads are not cached,
+ * and a tile larger than an eighth of the cap is returned but not kept. A loader returns null for a
+ * tile that cannot be cached, e.g. an incomplete one; null is then returned to every waiting request.
+ */
+final class VariantTileCache {
+
+    /**
+     * @param filter serialized request fields other than the region (annotations, variant length bounds)
+     */
+    record TileKey(int chr, int tile, boolean hom, boolean het, ByteString filter) {}
+
+    private final int tileSize;
+    private final long maxBytes;
+    // access ordered, guarded by this
+    private final LinkedHashMap<TileKey, VariantTile> tiles = new LinkedHashMap<>(256, 0.75f, true);
+    private final ConcurrentHashMap<TileKey, CompletableFuture<VariantTile>> loading = new ConcurrentHashMap<>();
+    private long bytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    VariantTileCache(int tileSize, long maxBytes) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize must be > 0");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be > 0");
+        }
+        this.tileSize = tileSize;
+        this.maxBytes = maxBytes;
+    }
+
+    int tileSize() { return tileSize; }
+
+    /**
+     * @return index of the tile containing the 1-based position
+     */
+    int tileOf(int position) { return Math.max(position - 1, 0) / tileSize; }
+
+    /**
+     * @return first 1-based position of the tile
+     */
+    int tileStart(int tile) { return tile * tileSize + 1; }
+
+    /**
+     * @return last 1-based position of the tile
+     */
+    int tileEnd(int tile) { return tile * tileSize + tileSize; }
+
+    /**
+     * @return cached tile or null, without loading
+     */
+    synchronized VariantTile getIfPresent(TileKey key) {
+        VariantTile tile = tiles.get(key);
+        if (tile != null) hits.increment();
+        return tile;
+    }
+
+    VariantTile get(TileKey key, Supplier<VariantTile> loader) {
+        synchronized (this) {
+            VariantTile tile = tiles.get(key);
+            if (tile != null) {
+                hits.increment();
+                return tile;
+            }
+        }
+        CompletableFuture<VariantTile> created = new CompletableFuture<>();
+        CompletableFuture<VariantTile> existing = loading.putIfAbsent(key, created);
+        if (existing != null) {
+            hits.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw e;
+            }
+        }
+        misses.increment();
+        try {
+            VariantTile tile = loader.get();
+            if (tile != null) put(key, tile);
+            created.complete(tile);
+            return tile;
+        } catch (Throwable t) {
+            created.completeExceptionally(t);
+            throw t;
+        } finally {
+            loading.remove(key, created);
+        }
+    }
+
+    private synchronized void put(TileKey key, VariantTile tile) {
+        if (tile.bytes() > maxBytes / 8) return;
+        VariantTile previous = tiles.put(key, tile);
+        if (previous != null) bytes -= previous.bytes();
+        bytes += tile.bytes();
+        var it = tiles.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<TileKey, VariantTile> eldest = it.next();
+            bytes -= eldest.getValue().bytes();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    synchronized int size() { return tiles.size(); }
+
+    synchronized long bytes() { return bytes; }
+
+    long maxBytes() { return maxBytes; }
+
+    long hitCount() { return hits.sum(); }
+
+    long missCount() { return misses.sum(); }
+
+    long evictionCount() { return evictions.sum(); }
+
+    synchronized void clear() {
+        tiles.clear();
+        bytes = 0;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.db;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Loads sample metadata at startup.
+ * <p>
+ * Metadata comes from {@code kgpe.snapshot}, produced from {@code kgpe.json} at build time
+ * (see {@link MetadataSnapshot}), which is memory mapped when it is a plain file on the class path.
+ * If the snapshot is missing, e.g. when running from an IDE without the Maven build, the JSON
+ * resource is parsed instead. Lookups are answered from the index MetaClient builds from the snapshot.
+ */
+@ApplicationScoped
+public class MetadataLoader {
+
+    private static final Logger LOG = Logger.getLogger(MetadataLoader.class);
+    private static final String KGPE_RESOURCE = "kgpe.json";
+    private static final String SNAPSHOT_RESOURCE = "kgpe.snapshot";
+
+    private MetadataSnapshot snapshot;
+    private long loadMillis;
+
+    @PostConstruct
+    void init() {
+        long start = System.nanoTime();
+        try {
+            String source = loadSnapshot();
+            loadMillis = (System.nanoTime() - start) / 1_000_000;
+            long rss = rssKb();
+            LOG.infof("Sample metadata loaded: %d records from %s in %d ms%s",
+                snapshot.rows(), source, loadMillis,
+                rss < 0 ? "" : ", RSS " + rss / 1024 + " MB");
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to load sample metadata", e);
+        }
+    }
+
+    /**
+     * Metadata in source order.
+     */
+    public MetadataSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Time taken to read and decode the metadata at startup.
+     */
+    public long loadMillis() {
+        return loadMillis;
+    }
+
+    /**
+     * @return description of the source the snapshot was loaded from
+     */
+    private String loadSnapshot() throws IOException {
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        URL url = cl.getResource(SNAPSHOT_RESOURCE);
+        if (url != null) {
+            if ("file".equals(url.getProtocol())) {
+                try (FileChannel channel = FileChannel.open(Path.of(URI.create(url.toString())),
+                        StandardOpenOption.READ)) {
+                    snapshot = MetadataSnapshot.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                    return SNAPSHOT_RESOURCE + " (mapped)";
+                }
+            }
+            // packaged in a jar, cannot be mapped
+            try (InputStream is = url.openStream()) {
+                snapshot = MetadataSnapshot.read(ByteBuffer.wrap(is.readAllBytes()));
+                return SNAPSHOT_RESOURCE;
+            }
+        }
+
+        LOG.infof("Resource %s not found, parsing %s", SNAPSHOT_RESOURCE, KGPE_RESOURCE);
+        try (InputStream is = cl.getResourceAsStream(KGPE_RESOURCE)) {
+            if (is == null) {
+                throw new RuntimeException("Resource not found: " + KGPE_RESOURCE);
+            }
+            snapshot = MetadataSnapshot.fromJson(new InputStreamReader(is, StandardCharsets.UTF_8));
+            return KGPE_RESOURCE;
+        }
+    }
+
+    /**
+     * @return resident set size in KB, -1 where /proc is not available
+     */
+    private static long rssKb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (Exception ignored) {
+            // not Linux
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.db;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sample metadata table in columnar form, as a string value per column and row.
+ * <p>
+ * Built from {@code kgpe.json} at build time and stored as a binary snapshot:
+ * <pre>
+ * int magic "KGPS", int version, int columns, int rows
+ * columns x string                 column names
+ * int n, n x string                dictionary of distinct values
+ * columns x rows x int             dictionary index per value, -1 for null
+ * </pre>
+ * Strings are an int byte length followed by UTF-8 bytes, all ints are big-endian.
+ * Decoding needs no schema inference and reads each distinct string once.
+ */
+public final class MetadataSnapshot {
+
+    static final int MAGIC = 0x4B475053;
+    static final int VERSION = 1;
+
+    private final List<String> columns;
+    // [column][row]
+    private final String[][] values;
+
+    MetadataSnapshot(List<String> columns, String[][] values) {
+        this.columns = List.copyOf(columns);
+        this.values = values;
+    }
+
+    public List<String> columns() { return columns; }
+
+    public int rows() { return values.length == 0 ? 0 : values[0].length; }
+
+    public String value(int column, int row) { return values[column][row]; }
+
+    /**
+     * @return values of the column by row, null if there is no such column
+     */
+    public String[] column(String name) {
+        int c = columns.indexOf(name);
+        return c < 0 ? null : values[c].clone();
+    }
+
+    /**
+     * Parses a JSON array of flat objects. Columns are taken in order of first appearance,
+     * values missing from an object are null, numbers and booleans are kept as their JSON text.
+     */
+    public static MetadataSnapshot fromJson(Reader json) throws IOException {
+        Map<String, Integer> columnIndex = new LinkedHashMap<>();
+        List<List<String>> columnValues = new ArrayList<>();
+        int rows = 0;
+
+        try (JsonReader reader = new JsonReader(json)) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    String value = switch (reader.peek()) {
+                        case NULL -> { reader.nextNull(); yield null; }
+                        case BOOLEAN -> String.valueOf(reader.nextBoolean());
+                        case STRING, NUMBER -> reader.nextString();
+                        default -> throw new IOException("Unexpected " + reader.peek() + " for '" + name + "'");
+                    };
+                    Integer c = columnIndex.get(name);
+                    if (c == null) {
+                        c = columnValues.size();
+                        columnIndex.put(name, c);
+                        columnValues.add(new ArrayList<>());
+                    }
+                    List<String> column = columnValues.get(c);
+                    while (column.size() < rows) column.add(null);
+                    column.add(value);
+                }
+                reader.endObject();
+                rows++;
+            }
+            reader.endArray();
+        }
+
+        String[][] values = new String[columnValues.size()][];
+        for (int c = 0; c < values.length; c++) {
+            List<String> column = columnValues.get(c);
+            while (column.size() < rows) column.add(null);
+            values[c] = column.toArray(new String[0]);
+        }
+        return new MetadataSnapshot(new ArrayList<>(columnIndex.keySet()), values);
+    }
+
+    /**
+     * Decodes a snapshot, e.g. from a memory mapped file.
+     */
+    public static MetadataSnapshot read(ByteBuffer buffer) throws IOException {
+        ByteBuffer in = buffer.duplicate();
+        if (in.remaining() < 16 || in.getInt() != MAGIC) {
+            throw new IOException("Not a metadata snapshot");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported metadata snapshot version " + version + ", expected " + VERSION);
+        }
+        int columnCount = in.getInt();
+        int rows = in.getInt();
+        List<String> columns = new ArrayList<>(columnCount);
+        for (int c = 0; c < columnCount; c++) {
+            columns.add(readString(in));
+        }
+        String[] dictionary = new String[in.getInt()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = readString(in);
+        }
+        String[][] values = new String[columnCount][rows];
+        for (int c = 0; c < columnCount; c++) {
+            for (int r = 0; r < rows; r++) {
+                int id = in.getInt();
+                values[c][r] = id < 0 ? null : dictionary[id];
+            }
+        }
+        return new MetadataSnapshot(columns, values);
+    }
+
+    public void write(OutputStream os) throws IOException {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        for (String[] column : values) {
+            for (String value : column) {
+                if (value != null && !ids.containsKey(value)) {
+                    ids.put(value, dictionary.size());
+                    dictionary.add(value);
+                }
+            }
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(columns.size());
+        out.writeInt(rows());
+        for (String column : columns) {
+            writeString(out, column);
+        }
+        out.writeInt(dictionary.size());
+        for (String value : dictionary) {
+            writeString(out, value);
+        }
+        for (String[] column : values) {
+            for (String value : column) {
+                out.writeInt(value == null ? -1 : ids.get(value));
+            }
+        }
+        out.flush();
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Build step: {@code MetadataSnapshot <input.json> <output.snapshot>}.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: MetadataSnapshot <input.json> <output.snapshot>, got " +
+                Arrays.toString(args));
+        }
+        Path input = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+        MetadataSnapshot snapshot;
+        try (Reader reader = new InputStreamReader(Files.newInputStream(input), StandardCharsets.UTF_8)) {
+            snapshot = fromJson(reader);
+        }
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        try (OutputStream os = Files.newOutputStream(output)) {
+            snapshot.write(os);
+        }
+        System.out.printf("Metadata snapshot: %d rows, %d columns, %d -> %d bytes%n",
+            snapshot.rows(), snapshot.columns().size(), Files.size(input), Files.size(output));
+    }
+}
@@ -21,7 +21,7 @@ import io.quarkiverse.mcp.server.ToolArg;
 import io.quarkiverse.mcp.server.ToolResponse;
 import io.quarkus.logging.Log;
 import io.quarkus.runtime.Startup;
-import io.smallrye.common.annotation.Blocking;
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.enterprise.context.ApplicationScoped;
 
 import jakarta.inject.Inject;
@@ -35,17 +35,16 @@ import org.dnaerys.client.entity.SampleMeta;
 import org.dnaerys.cluster.grpc.Variant;
 import org.dnaerys.mcp.generator.*;
 import org.dnaerys.mcp.logging.LogToolCall;
+import org.dnaerys.mcp.util.Cursor;
 import org.dnaerys.mcp.util.McpResponse;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @SuppressWarnings("unused")
 @ApplicationScoped
-@LogToolCall
 public class OneKGPdMCPServer {
 
     @Inject
@@ -156,6 +155,14 @@ public class OneKGPdMCPServer {
     private static final String LIM_DESC =
         "items limit";
 
+    private static final String CURSOR_DESC =
+        "continuation cursor from 'nextCursor' of a previous response; other parameters must be the same";
+
+    private static final String FORMAT_DESC =
+        "output format: 'rows' (default, one object per variant) or 'columnar' (column names once, " +
+        "parallel value arrays, run-length encoded chromosomes and delta encoded positions; " +
+        "much smaller for many variants)";
+
     public record GenomicRegion(
         @ToolArg(description = CHROMOSOME_DESC) String chromosome,
         @ToolArg(description = START_DESC) int start,
@@ -209,6 +216,8 @@ public class OneKGPdMCPServer {
 
     // Dataset stats & constants
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "getDatasetInfo",
         structuredContent = true,
@@ -236,6 +245,8 @@ public class OneKGPdMCPServer {
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "countVariants",
         structuredContent = true,
@@ -316,6 +327,8 @@ public class OneKGPdMCPServer {
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "selectVariants",
         structuredContent = true,
@@ -346,7 +359,9 @@ public class OneKGPdMCPServer {
             "PARAMETERS Logic:\n" +
             "- Filters: ALL filters are combined with AND logic\n" +
             "- CSV parameters: OR logic. Example: impact='HIGH,MODERATE' selects variants with HIGH OR MODERATE impact\n" +
-            "- Pagination: skip, limit (max=50)\n\n" +
+            "- Pagination: skip, limit (max=50). Variants are ordered by position; page by increasing skip by limit\n" +
+            "  until a page is empty\n" +
+            "- format='columnar': compact output for many variants\n\n" +
 
             "RETURNS: Refer to the Output Schema for field definitions. Empty array [] if no matches.",
         outputSchema = @Tool.OutputSchema(
@@ -384,7 +399,8 @@ public class OneKGPdMCPServer {
                 @ToolArg(description = MINLEN_DESC, required = false) Integer minVariantLengthBp,
                 @ToolArg(description = MAXLEN_DESC, required = false) Integer maxVariantLengthBp,
                 @ToolArg(description = SKIP_DESC, required = false) Integer skip,
-                @ToolArg(description = LIM_DESC, required = false) Integer limit) {
+                @ToolArg(description = LIM_DESC, required = false) Integer limit,
+                @ToolArg(description = FORMAT_DESC, required = false) String format) {
         try {
             List<GenomicRegion> regions = getGenomicRegions(chromosome, start, end, refAllele, altAllele);
             SelectByAnnotations annotations = new SelectByAnnotations (
@@ -393,17 +409,18 @@ public class OneKGPdMCPServer {
                 vepConsequences, alphaMissenseClass, alphaMissenseScoreLessThan, alphaMissenseScoreGreaterThan,
                 biallelicOnly, multiallelicOnly, excludeMales, excludeFemales, minVariantLengthBp, maxVariantLengthBp
             );
+            boolean columnar = isColumnar(format);
+            // gRPC variants are written to JSON directly by GrpcVariantSerializer
             List<Variant> variants = client.selectVariants(regions, selectHom, selectHet, annotations, skip, limit);
-            List<VariantView> vv = variants.stream()
-                .map(VariantView::fromGrpc)
-                .toList();
-            Map<String, Object> structured = Map.of("variants", vv);
-            return mcpResponse.success(structured, vv);
+            Map<String, Object> structured = Map.of("variants", columnar ? ColumnarVariants.of(variants) : variants);
+            return mcpResponse.success(structured);
         } catch (Exception e) {
             throw McpResponse.handle(e);
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "countVariantsInSamples",
         structuredContent = true,
@@ -485,6 +502,170 @@ public class OneKGPdMCPServer {
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
+    @Tool(
+        title = "countVariantsByPopulation",
+        structuredContent = true,
+        annotations = @Tool.Annotations(
+            title = "countVariantsByPopulation",
+            readOnlyHint = true,
+            destructiveHint = false,
+            idempotentHint = true,
+            openWorldHint = false
+        ),
+        description =
+            "COUNT variants which exist in ANY genomic region provided, separately in each POPULATION and/or SUPERPOPULATION.\n" +
+            "Use this tool instead of selectSamplesByPopulation + countVariantsInSamples for every population.\n" +
+            "Returns: table of variant counts per population/superpopulation with the number of samples in each.\n" +
+            "Filters: REF/ALT, AF (KGP/gnomAD), VEP impact/biotype/consequences, variant type, AlphaMissense class/score, ClinVar significance.\n\n" +
+
+            "ZYGOSITY Parameters Logic:\n" +
+            "- Use selectHet=true: to include HETEROZYGOUS variants (0/1 genotypes)\n" +
+            "- Use selectHom=true: to include HOMOZYGOUS variants (1/1 genotypes)\n\n" +
+
+            "PARAMETERS Logic:\n" +
+            "- populations, superpopulations: codes or full names; if both are omitted, all 26 populations are counted\n" +
+            "- Filters: ALL filters are combined with AND logic\n" +
+            "- CSV parameters: OR logic. Example: impact='HIGH,MODERATE' selects variants with HIGH OR MODERATE impact\n\n" +
+
+            "RETURNS: Refer to the Output Schema for field definitions.",
+        outputSchema = @Tool.OutputSchema(
+            from = DnaerysClient.StratifiedCounts.class,
+            generator = StratifiedCountsSchemaGenerator.class
+        )
+    )
+    public ToolResponse countVariantsByPopulation(
+                @ToolArg(description = CHROMOSOME_DESC) List<String> chromosome,
+                @ToolArg(description = START_DESC) List<Integer> start,
+                @ToolArg(description = END_DESC) List<Integer> end,
+                @ToolArg(description = REF_DESC, required = false) List<String> refAllele,
+                @ToolArg(description = ALT_DESC, required = false) List<String> altAllele,
+                @ToolArg(description = HET_DESC) Boolean selectHet,
+                @ToolArg(description = HOM_DESC) Boolean selectHom,
+                @ToolArg(description = "population codes or full names to count in (e.g. GBR, YRI)", required = false) List<String> populations,
+                @ToolArg(description = "superpopulation codes or full names to count in (e.g. EUR, AFR)", required = false) List<String> superpopulations,
+                @ToolArg(description = AFLT_DESC, required = false) Float afLessThan,
+                @ToolArg(description = AFGT_DESC, required = false) Float afGreaterThan,
+                @ToolArg(description = GNE_AFLT_DESC, required = false) Float gnomadExomeAfLessThan,
+                @ToolArg(description = GNE_AFGT_DESC, required = false) Float gnomadExomeAfGreaterThan,
+                @ToolArg(description = GNG_AFLT_DESC, required = false) Float gnomadGenomeAfLessThan,
+                @ToolArg(description = GNG_AFGT_DESC, required = false) Float gnomadGenomeAfGreaterThan,
+                @ToolArg(description = CLIN_DESC, required = false) String clinSignificance,
+                @ToolArg(description = IMPACT_DESC, required = false) String vepImpact,
+                @ToolArg(description = FEATURETYPE_DESC, required = false) String vepFeature,
+                @ToolArg(description = BIOTYPE_DESC, required = false) String vepBiotype,
+                @ToolArg(description = VARIANTTYPE_DESC, required = false) String vepVariantType,
+                @ToolArg(description = CONSEQ_DESC, required = false) String vepConsequences,
+                @ToolArg(description = AM_DESC, required = false) String alphaMissenseClass,
+                @ToolArg(description = AMLT_DESC, required = false) Float alphaMissenseScoreLessThan,
+                @ToolArg(description = AMGT_DESC, required = false) Float alphaMissenseScoreGreaterThan,
+                @ToolArg(description = BIONLY_DESC, required = false) Boolean biallelicOnly,
+                @ToolArg(description = MULTONLY_DESC, required = false) Boolean multiallelicOnly,
+                @ToolArg(description = EXCLUDE_MALE_DESC, required = false) Boolean excludeMales,
+                @ToolArg(description = EXCLUDE_FEMALE_DESC, required = false) Boolean excludeFemales,
+                @ToolArg(description = MINLEN_DESC, required = false) Integer minVariantLengthBp,
+                @ToolArg(description = MAXLEN_DESC, required = false) Integer maxVariantLengthBp) {
+        try {
+            List<GenomicRegion> regions = getGenomicRegions(chromosome, start, end, refAllele, altAllele);
+            SelectByAnnotations annotations = new SelectByAnnotations (
+                afLessThan, afGreaterThan, gnomadExomeAfLessThan, gnomadExomeAfGreaterThan, gnomadGenomeAfLessThan,
+                gnomadGenomeAfGreaterThan, clinSignificance, vepImpact, vepFeature, vepBiotype, vepVariantType,
+                vepConsequences, alphaMissenseClass, alphaMissenseScoreLessThan, alphaMissenseScoreGreaterThan,
+                biallelicOnly, multiallelicOnly, excludeMales, excludeFemales, minVariantLengthBp, maxVariantLengthBp
+            );
+            DnaerysClient.StratifiedCounts counts = client.countVariantsByPopulation(
+                regions, selectHom, selectHet, annotations, populations, superpopulations);
+            return mcpResponse.success(counts);
+        } catch (Exception e) {
+            throw McpResponse.handle(e);
+        }
+    }
+
+    @LogToolCall
+    @RunOnVirtualThread
+    @Tool(
+        title = "selectPopulationFrequencies",
+        structuredContent = true,
+        annotations = @Tool.Annotations(
+            title = "selectPopulationFrequencies",
+            readOnlyHint = true,
+            destructiveHint = false,
+            idempotentHint = true,
+            openWorldHint = false
+        ),
+        description =
+            "SELECT variants which exist in ANY genomic region provided with their ALLELE FREQUENCY and ALLELE COUNT " +
+            "in each POPULATION and/or SUPERPOPULATION, as one variant x population matrix.\n" +
+            "Use this tool for population-specific AF instead of selecting variants in samples of each population.\n" +
+            "Limited to regions with at most 5000 selected variants.\n\n" +
+
+            "ZYGOSITY Parameters Logic:\n" +
+            "- Use selectHet=true: to include HETEROZYGOUS variants (0/1 genotypes)\n" +
+            "- Use selectHom=true: to include HOMOZYGOUS variants (1/1 genotypes)\n\n" +
+
+            "PARAMETERS Logic:\n" +
+            "- populations, superpopulations: codes or full names; if both are omitted, all 26 populations are used\n" +
+            "- Filters: ALL filters are combined with AND logic\n" +
+            "- CSV parameters: OR logic. Example: impact='HIGH,MODERATE' selects variants with HIGH OR MODERATE impact\n" +
+            "- skip/limit: page through variants ordered by position\n\n" +
+
+            "RETURNS: strata (matrix columns) and variants with 'af' and 'ac' arrays aligned with strata. " +
+            "Refer to the Output Schema for field definitions.",
+        outputSchema = @Tool.OutputSchema(
+            from = PopulationFrequencyView.class,
+            generator = PopulationFrequencySchemaGenerator.class
+        )
+    )
+    public ToolResponse selectPopulationFrequencies(
+                @ToolArg(description = CHROMOSOME_DESC) List<String> chromosome,
+                @ToolArg(description = START_DESC) List<Integer> start,
+                @ToolArg(description = END_DESC) List<Integer> end,
+                @ToolArg(description = REF_DESC, required = false) List<String> refAllele,
+                @ToolArg(description = ALT_DESC, required = false) List<String> altAllele,
+                @ToolArg(description = HET_DESC) Boolean selectHet,
+                @ToolArg(description = HOM_DESC) Boolean selectHom,
+                @ToolArg(description = "population codes or full names (e.g. GBR, YRI)", required = false) List<String> populations,
+                @ToolArg(description = "superpopulation codes or full names (e.g. EUR, AFR)", required = false) List<String> superpopulations,
+                @ToolArg(description = AFLT_DESC, required = false) Float afLessThan,
+                @ToolArg(description = AFGT_DESC, required = false) Float afGreaterThan,
+                @ToolArg(description = GNE_AFLT_DESC, required = false) Float gnomadExomeAfLessThan,
+                @ToolArg(description = GNE_AFGT_DESC, required = false) Float gnomadExomeAfGreaterThan,
+                @ToolArg(description = GNG_AFLT_DESC, required = false) Float gnomadGenomeAfLessThan,
+                @ToolArg(description = GNG_AFGT_DESC, required = false) Float gnomadGenomeAfGreaterThan,
+                @ToolArg(description = CLIN_DESC, required = false) String clinSignificance,
+                @ToolArg(description = IMPACT_DESC, required = false) String vepImpact,
+                @ToolArg(description = FEATURETYPE_DESC, required = false) String vepFeature,
+                @ToolArg(description = BIOTYPE_DESC, required = false) String vepBiotype,
+                @ToolArg(description = VARIANTTYPE_DESC, required = false) String vepVariantType,
+                @ToolArg(description = CONSEQ_DESC, required = false) String vepConsequences,
+                @ToolArg(description = AM_DESC, required = false) String alphaMissenseClass,
+                @ToolArg(description = AMLT_DESC, required = false) Float alphaMissenseScoreLessThan,
+                @ToolArg(description = AMGT_DESC, required = false) Float alphaMissenseScoreGreaterThan,
+                @ToolArg(description = BIONLY_DESC, required = false) Boolean biallelicOnly,
+                @ToolArg(description = MULTONLY_DESC, required = false) Boolean multiallelicOnly,
+                @ToolArg(description = MINLEN_DESC, required = false) Integer minVariantLengthBp,
+                @ToolArg(description = MAXLEN_DESC, required = false) Integer maxVariantLengthBp,
+                @ToolArg(description = SKIP_DESC, required = false) Integer skip,
+                @ToolArg(description = LIM_DESC, required = false) Integer limit) {
+        try {
+            List<GenomicRegion> regions = getGenomicRegions(chromosome, start, end, refAllele, altAllele);
+            SelectByAnnotations annotations = new SelectByAnnotations (
+                afLessThan, afGreaterThan, gnomadExomeAfLessThan, gnomadExomeAfGreaterThan, gnomadGenomeAfLessThan,
+                gnomadGenomeAfGreaterThan, clinSignificance, vepImpact, vepFeature, vepBiotype, vepVariantType,
+                vepConsequences, alphaMissenseClass, alphaMissenseScoreLessThan, alphaMissenseScoreGreaterThan,
+                biallelicOnly, multiallelicOnly, null, null, minVariantLengthBp, maxVariantLengthBp
+            );
+            DnaerysClient.PopulationFrequencies frequencies = client.populationFrequencies(
+                regions, selectHom, selectHet, annotations, populations, superpopulations, skip, limit);
+            return mcpResponse.success(PopulationFrequencyView.fromClient(frequencies));
+        } catch (Exception e) {
+            throw McpResponse.handle(e);
+        }
+    }
+
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "selectVariantsInSamples",
         structuredContent = true,
@@ -515,7 +696,10 @@ public class OneKGPdMCPServer {
             "PARAMETERS Logic:\n" +
             "- Filters: ALL filters are combined with AND logic\n" +
             "- CSV parameters: OR logic. Example: impact='HIGH,MODERATE' selects variants with HIGH OR MODERATE impact\n" +
-            "- Pagination: skip, limit (max=50)\n\n" +
+            "- Pagination: skip, limit (max=50)\n" +
+            "- format='columnar': compact output for many variants\n" +
+            "- Large results are replaced by a summary (counts, AF and AlphaMissense histograms, top variants) " +
+            "with 'nextCursor'; pass it as 'cursor' to retrieve variants in pages of samples\n\n" +
 
             "RETURNS: Array of variants for each sample",
         outputSchema = @Tool.OutputSchema(
@@ -554,7 +738,9 @@ public class OneKGPdMCPServer {
                 @ToolArg(description = MINLEN_DESC, required = false) Integer minVariantLengthBp,
                 @ToolArg(description = MAXLEN_DESC, required = false) Integer maxVariantLengthBp,
                 @ToolArg(description = SKIP_DESC, required = false) Integer skip,
-                @ToolArg(description = LIM_DESC, required = false) Integer limit) {
+                @ToolArg(description = LIM_DESC, required = false) Integer limit,
+                @ToolArg(description = FORMAT_DESC, required = false) String format,
+                @ToolArg(description = CURSOR_DESC, required = false) String cursor) {
         try {
             List<GenomicRegion> regions = getGenomicRegions(chromosome, start, end, refAllele, altAllele);
             SelectByAnnotations annotations = new SelectByAnnotations (
@@ -564,35 +750,61 @@ public class OneKGPdMCPServer {
                 biallelicOnly, multiallelicOnly, excludeMales, excludeFemales, minVariantLengthBp, maxVariantLengthBp
             );
 
-            Map<String, Set<Variant>> variantsBySample = client.selectVariantsInSamples(regions, samples, selectHom, selectHet, annotations, skip, limit);
-
-            // Convert to array of {sample, variants} objects
-            List<Map<String, Object>> arrayFormat = variantsBySample.entrySet().stream()
-                .map(entry -> Map.of(
-                    "sample", (Object) entry.getKey(),
-                    "variants", (Object) entry.getValue().stream()
-                        .map(VariantView::fromGrpc)
-                        .toList()
+            boolean columnar = isColumnar(format);
+            Cursor page = Cursor.decode(cursor, "samples");
+            List<String> pageSamples = samples;
+            if (page != null) {
+                if (samples == null || page.offset() >= samples.size()) {
+                    throw new RuntimeException("Invalid parameter: 'cursor' does not match 'samples'");
+                }
+                pageSamples = samples.subList(page.offset(), Math.min(samples.size(), page.offset() + page.count()));
+            }
+            Map<String, Set<Variant>> variantsBySample = client.selectVariantsInSamples(regions, pageSamples, selectHom, selectHet, annotations, skip, limit);
+
+            // Convert to array of {sample, variants} objects in requested order, variants are written to JSON directly
+            List<Map<String, Object>> arrayFormat = pageSamples.stream()
+                .distinct()
+                .filter(variantsBySample::containsKey)
+                .map(sample -> Map.of(
+                    "sample", (Object) sample,
+                    "variants", columnar ? ColumnarVariants.of(variantsBySample.get(sample)) : (Object) variantsBySample.get(sample)
                 ))
                 .toList();
 
-            Map<String, Object> structured = Map.of("variantsBySample", arrayFormat);
-
-            // For rawData, keep the map structure for stringify
-            Map<String, List<VariantView>> viewsBySample = variantsBySample.entrySet().stream()
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    entry -> entry.getValue().stream()
-                        .map(VariantView::fromGrpc)
-                        .toList()
-                ));
-
-            return mcpResponse.success(structured, viewsBySample);
+            Map<String, Object> structured = page != null && page.offset() + page.count() < samples.size()
+                ? Map.of("variantsBySample", arrayFormat, "nextCursor", page.next().encode())
+                : Map.of("variantsBySample", arrayFormat);
+
+            int pageOffset = page == null ? 0 : page.offset();
+            int pageSize = pageSamples.size();
+            List<String> requested = pageSamples;
+            return mcpResponse.successWithinBudget(structured, () -> {
+                if (pageSize > 1) {
+                    // page size for the continuation: as many samples as fit into the budget, at least one,
+                    // so a sample that alone exceeds the budget gets a page of its own
+                    int count = Math.min(Math.max(mcpResponse.fittingPrefix(arrayFormat), 1), pageSize - 1);
+                    String reason = String.format("Variants of %d samples exceed response budget of %d bytes. " +
+                        "Use nextCursor with the same parameters to retrieve them in pages.",
+                        pageSize, mcpResponse.maxBytes());
+                    return Map.of("summary", VariantSummary.of(variantsBySample, reason),
+                        "nextCursor", new Cursor("samples", pageOffset, count).encode());
+                }
+                // a single sample cannot be paged further by samples
+                String reason = String.format("Variants of sample %s exceed response budget of %d bytes. " +
+                    "Reduce the regions or retrieve the variants in pages with skip and limit.",
+                    requested.getFirst(), mcpResponse.maxBytes());
+                VariantSummary summary = VariantSummary.of(variantsBySample, reason);
+                return page != null && pageOffset + 1 < samples.size()
+                    ? Map.of("summary", summary, "nextCursor", new Cursor("samples", pageOffset + 1, page.count()).encode())
+                    : Map.of("summary", summary);
+            });
         } catch (Exception e) {
             throw McpResponse.handle(e);
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "countSamples",
         structuredContent = true,
@@ -674,6 +886,8 @@ public class OneKGPdMCPServer {
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "selectSamples",
         structuredContent = true,
@@ -749,12 +963,94 @@ public class OneKGPdMCPServer {
             );
             List<String> samples = client.selectSamples(regions, selectHom, selectHet, annotations);
             Map<String, Object> structured = Map.of("samples", samples);
-            return mcpResponse.success(structured, samples);
+            return mcpResponse.success(structured);
+        } catch (Exception e) {
+            throw McpResponse.handle(e);
+        }
+    }
+
+    @LogToolCall
+    @RunOnVirtualThread
+    @Tool(
+        title = "evaluateSampleSet",
+        structuredContent = true,
+        annotations = @Tool.Annotations(
+            title = "evaluateSampleSet",
+            readOnlyHint = true,
+            destructiveHint = false,
+            idempotentHint = true,
+            openWorldHint = false
+        ),
+        description =
+            "EVALUATE a SET EXPRESSION over 1000 Genomes SAMPLES on the server: intersect, combine or subtract samples " +
+            "with variants in genomic regions and samples from populations or of a given gender.\n" +
+            "Use this tool instead of calling selectSamples several times and combining sample lists manually.\n\n" +
+
+            "EXPRESSION syntax:\n" +
+            "- Operators: AND, OR, NOT and parentheses; NOT binds tighter than AND, AND tighter than OR\n" +
+            "- chr:start-end or chr:position: samples with variants in the region matching zygosity and filters\n" +
+            "- population:CODE, superpopulation:CODE, gender:male|female: samples from metadata\n" +
+            "Example: (17:43044295-43125483 AND 13:32315474-32400266) AND NOT superpopulation:EUR\n\n" +
+
+            "ZYGOSITY Parameters Logic:\n" +
+            "- Use selectHet=true: to include samples with HETEROZYGOUS variants (0/1 genotypes)\n" +
+            "- Use selectHom=true: to include samples with HOMOZYGOUS variants (1/1 genotypes)\n\n" +
+
+            "PARAMETERS Logic:\n" +
+            "- Filters apply to every region operand; ALL filters are combined with AND logic\n" +
+            "- CSV parameters: OR logic. Example: impact='HIGH,MODERATE' selects variants with HIGH OR MODERATE impact\n" +
+            "- skip/limit: page through resulting samples; limit=0 returns the count only (default limit 50)\n\n" +
+
+            "RETURNS: Refer to the Output Schema for field definitions.",
+        outputSchema = @Tool.OutputSchema(
+            from = DnaerysClient.SampleSet.class,
+            generator = SampleSetSchemaGenerator.class
+        )
+    )
+    public ToolResponse evaluateSampleSet(
+                @ToolArg(description = "sample set expression, e.g. '(1:100-200 AND 2:300-400) AND NOT population:GBR'") String expression,
+                @ToolArg(description = HET_DESC) Boolean selectHet,
+                @ToolArg(description = HOM_DESC) Boolean selectHom,
+                @ToolArg(description = AFLT_DESC, required = false) Float afLessThan,
+                @ToolArg(description = AFGT_DESC, required = false) Float afGreaterThan,
+                @ToolArg(description = GNE_AFLT_DESC, required = false) Float gnomadExomeAfLessThan,
+                @ToolArg(description = GNE_AFGT_DESC, required = false) Float gnomadExomeAfGreaterThan,
+                @ToolArg(description = GNG_AFLT_DESC, required = false) Float gnomadGenomeAfLessThan,
+                @ToolArg(description = GNG_AFGT_DESC, required = false) Float gnomadGenomeAfGreaterThan,
+                @ToolArg(description = CLIN_DESC, required = false) String clinSignificance,
+                @ToolArg(description = IMPACT_DESC, required = false) String vepImpact,
+                @ToolArg(description = FEATURETYPE_DESC, required = false) String vepFeature,
+                @ToolArg(description = BIOTYPE_DESC, required = false) String vepBiotype,
+                @ToolArg(description = VARIANTTYPE_DESC, required = false) String vepVariantType,
+                @ToolArg(description = CONSEQ_DESC, required = false) String vepConsequences,
+                @ToolArg(description = AM_DESC, required = false) String alphaMissenseClass,
+                @ToolArg(description = AMLT_DESC, required = false) Float alphaMissenseScoreLessThan,
+                @ToolArg(description = AMGT_DESC, required = false) Float alphaMissenseScoreGreaterThan,
+                @ToolArg(description = BIONLY_DESC, required = false) Boolean biallelicOnly,
+                @ToolArg(description = MULTONLY_DESC, required = false) Boolean multiallelicOnly,
+                @ToolArg(description = EXCLUDE_MALE_DESC, required = false) Boolean excludeMales,
+                @ToolArg(description = EXCLUDE_FEMALE_DESC, required = false) Boolean excludeFemales,
+                @ToolArg(description = MINLEN_DESC, required = false) Integer minVariantLengthBp,
+                @ToolArg(description = MAXLEN_DESC, required = false) Integer maxVariantLengthBp,
+                @ToolArg(description = SKIP_DESC, required = false) Integer skip,
+                @ToolArg(description = LIM_DESC, required = false) Integer limit) {
+        try {
+            SelectByAnnotations annotations = new SelectByAnnotations (
+                afLessThan, afGreaterThan, gnomadExomeAfLessThan, gnomadExomeAfGreaterThan, gnomadGenomeAfLessThan,
+                gnomadGenomeAfGreaterThan, clinSignificance, vepImpact, vepFeature, vepBiotype, vepVariantType,
+                vepConsequences, alphaMissenseClass, alphaMissenseScoreLessThan, alphaMissenseScoreGreaterThan,
+                biallelicOnly, multiallelicOnly, excludeMales, excludeFemales, minVariantLengthBp, maxVariantLengthBp
+            );
+            DnaerysClient.SampleSet set = client.evaluateSampleSet(
+                expression, selectHom, selectHet, annotations, skip, limit);
+            return mcpResponse.success(set);
         } catch (Exception e) {
             throw McpResponse.handle(e);
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "countSamplesHomozygousReference",
         structuredContent = true,
@@ -784,6 +1080,8 @@ public class OneKGPdMCPServer {
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "selectSamplesHomozygousReference",
         structuredContent = true,
@@ -807,7 +1105,7 @@ public class OneKGPdMCPServer {
         try {
             List<String> samples = client.selectSamplesHomozygousReference(chromosome, position);
             Map<String, Object> structured = Map.of("samples", samples);
-            return mcpResponse.success(structured, samples);
+            return mcpResponse.success(structured);
         } catch (Exception e) {
             throw McpResponse.handle(e);
         }
@@ -815,6 +1113,8 @@ public class OneKGPdMCPServer {
 
     public record KinshipResult(String degree) {}
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "getKinshipDegree",
         structuredContent = true,
@@ -845,6 +1145,8 @@ public class OneKGPdMCPServer {
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "computeAlphaMissenseAvg",
         structuredContent = true,
@@ -876,6 +1178,8 @@ public class OneKGPdMCPServer {
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "computeVariantBurden",
         structuredContent = true,
@@ -904,7 +1208,6 @@ public class OneKGPdMCPServer {
             generator = VariantBurdenSchemaGenerator.class
         )
     )
-    @Blocking
     public ToolResponse computeVariantBurden(
                 @ToolArg(description = CHROMOSOME_DESC) List<String> chromosome,
                 @ToolArg(description = START_DESC) List<Integer> start,
@@ -950,6 +1253,304 @@ public class OneKGPdMCPServer {
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
+    @Tool(
+        title = "selectTopHWEVariants",
+        structuredContent = true,
+        annotations = @Tool.Annotations(
+            title = "selectTopHWEVariants",
+            readOnlyHint = true,
+            destructiveHint = false,
+            idempotentHint = true,
+            openWorldHint = false
+        ),
+        description =
+            "SELECT top N variants with the most significant deviation from Hardy-Weinberg Equilibrium " +
+            "across the whole 1000 Genomes dataset (genome-wide scan).\n" +
+            "Scope: biallelic SNVs on autosomes and X chromosome outside PAR.\n\n" +
+
+            "Use this tool instead of selecting variants and computing HWE statistics manually.\n" +
+            "Results are cached, repeated calls with the same N are cheap.\n\n" +
+
+            "RETURNS: variants ordered by HWE p-value (most significant first). " +
+            "Refer to the Output Schema for field definitions.",
+        outputSchema = @Tool.OutputSchema(
+            from = VariantStatsView.class,
+            generator = VariantStatsArraySchemaGenerator.class
+        )
+    )
+    public ToolResponse selectTopHWEVariants(
+                @ToolArg(description = "number of top variants to return (max=50)") int n) {
+        try {
+            List<VariantStatsView> views = client.topNHWE(n).stream()
+                .map(VariantStatsView::hweFromGrpc)
+                .toList();
+            Map<String, Object> structured = Map.of("variants", views);
+            return mcpResponse.success(structured);
+        } catch (Exception e) {
+            throw McpResponse.handle(e);
+        }
+    }
+
+    @LogToolCall
+    @RunOnVirtualThread
+    @Tool(
+        title = "selectTopChi2Variants",
+        structuredContent = true,
+        annotations = @Tool.Annotations(
+            title = "selectTopChi2Variants",
+            readOnlyHint = true,
+            destructiveHint = false,
+            idempotentHint = true,
+            openWorldHint = false
+        ),
+        description =
+            "SELECT top N variants with the most significant p-value in Pearson's chi-squared test (genome-wide scan), " +
+            "with the provided samples as CASES and the rest of 1000 Genomes cohort as CONTROLS.\n\n" +
+
+            "Use this tool for case/control association ranking instead of selecting variants and computing statistics manually.\n" +
+            "Results are cached by N and case sample set (order and duplicates of samples do not matter).\n\n" +
+
+            "RETURNS: variants ordered by chi-squared p-value (most significant first) with odds ratio. " +
+            "Refer to the Output Schema for field definitions.",
+        outputSchema = @Tool.OutputSchema(
+            from = VariantStatsView.class,
+            generator = VariantStatsArraySchemaGenerator.class
+        )
+    )
+    public ToolResponse selectTopChi2Variants(
+                @ToolArg(description = "number of top variants to return (max=50)") int n,
+                @ToolArg(description = "case samples (e.g. HG00096, HG00097)") List<String> samples) {
+        try {
+            List<VariantStatsView> views = client.topNChi2(n, samples).stream()
+                .map(VariantStatsView::chi2FromGrpc)
+                .toList();
+            Map<String, Object> structured = Map.of("variants", views);
+            return mcpResponse.success(structured);
+        } catch (Exception e) {
+            throw McpResponse.handle(e);
+        }
+    }
+
+    @LogToolCall
+    @RunOnVirtualThread
+    @Tool(
+        title = "listPrsModels",
+        structuredContent = true,
+        annotations = @Tool.Annotations(
+            title = "listPrsModels",
+            readOnlyHint = true,
+            destructiveHint = false,
+            idempotentHint = true,
+            openWorldHint = false
+        ),
+        description =
+            "LIST polygenic risk score (PRS) models loaded in the database.\n" +
+            "Use this to discover valid 'prsName' values before calling computePolygenicRiskScores.\n" +
+            "RETURNS: Refer to the Output Schema for field definitions.",
+        outputSchema = @Tool.OutputSchema(
+            from = DnaerysClient.PrsModel.class,
+            generator = PrsModelSchemaGenerator.class
+        )
+    )
+    public ToolResponse listPrsModels() {
+        try {
+            List<DnaerysClient.PrsModel> models = client.listPrsModels();
+            Map<String, Object> structured = Map.of("models", models);
+            return mcpResponse.success(structured);
+        } catch (Exception e) {
+            throw McpResponse.handle(e);
+        }
+    }
+
+    @LogToolCall
+    @RunOnVirtualThread
+    @Tool(
+        title = "computePolygenicRiskScores",
+        structuredContent = true,
+        annotations = @Tool.Annotations(
+            title = "computePolygenicRiskScores",
+            readOnlyHint = true,
+            destructiveHint = false,
+            idempotentHint = true,
+            openWorldHint = false
+        ),
+        description =
+            "COMPUTE polygenic risk scores (PRS, plink-equivalent '--score' sum) in 1000 Genomes " +
+            "and report them with percentiles.\n\n" +
+
+            "Scores are computed once for the whole cohort per (prsName, dominant, recessive) and cached, " +
+            "so repeated calls with different samples or populations are cheap.\n\n" +
+
+            "PARAMETERS Logic:\n" +
+            "- samples: per-sample scores with cohort-wide and within-population percentiles\n" +
+            "- populations / superpopulations: score distribution per group (mean, SD, p10, median, p90)\n" +
+            "- none of them: score distribution for every superpopulation\n" +
+            "- dominant / recessive: same as plink 2 'dominant' / 'recessive' modifiers, mutually exclusive\n\n" +
+
+            "WORKFLOW:\n" +
+            "1. Call listPrsModels to find the PRS name\n" +
+            "2. Call this tool with samples and/or groups of interest\n\n" +
+
+            "RETURNS: Refer to the Output Schema for field definitions.",
+        outputSchema = @Tool.OutputSchema(
+            from = DnaerysClient.PrsReport.class,
+            generator = PrsReportSchemaGenerator.class
+        )
+    )
+    public ToolResponse computePolygenicRiskScores(
+                @ToolArg(description = "PRS name as returned by listPrsModels") String prsName,
+                @ToolArg(description = "use 'dominant' mode (plink 2)", required = false) Boolean dominant,
+                @ToolArg(description = "use 'recessive' mode (plink 2)", required = false) Boolean recessive,
+                @ToolArg(description = "sample IDs to report scores for (e.g. HG00096)", required = false) List<String> samples,
+                @ToolArg(description = "population codes or full names to summarise (e.g. GBR, YRI)", required = false) List<String> populations,
+                @ToolArg(description = "superpopulation codes or full names to summarise (e.g. EUR, AFR)", required = false) List<String> superpopulations) {
+        try {
+            DnaerysClient.PrsReport report = client.computePrs(prsName,
+                Boolean.TRUE.equals(dominant), Boolean.TRUE.equals(recessive),
+                samples, populations, superpopulations);
+            return mcpResponse.success(report);
+        } catch (Exception e) {
+            throw McpResponse.handle(e);
+        }
+    }
+
+    @LogToolCall
+    @RunOnVirtualThread
+    @Tool(
+        title = "checkSampleSex",
+        structuredContent = true,
+        annotations = @Tool.Annotations(
+            title = "checkSampleSex",
+            readOnlyHint = true,
+            destructiveHint = false,
+            idempotentHint = true,
+            openWorldHint = false
+        ),
+        description =
+            "CHECK reported vs observed sex for all samples in 1000 Genomes using chrX F-statistics " +
+            "(biallelic SNVs outside PAR, same method as in Hail 0.2 and Plink).\n" +
+            "Reported sex is taken from sample metadata.\n\n" +
+
+            "Use this tool instead of selecting chrX variants per sample.\n" +
+            "F-statistics are cached per (aafThreshold, includePar), so trying different thresholds is cheap.\n\n" +
+
+            "PARAMETERS Logic:\n" +
+            "- samples are called female if F < femaleThreshold, male if F > maleThreshold (defaults 0.7)\n" +
+            "- populations: restrict mismatches and distributions to these populations\n\n" +
+
+            "RETURNS: sex mismatches and F-statistic distributions per population and reported sex. " +
+            "Refer to the Output Schema for field definitions.",
+        outputSchema = @Tool.OutputSchema(
+            from = DnaerysClient.SexCheckReport.class,
+            generator = SexCheckReportSchemaGenerator.class
+        )
+    )
+    public ToolResponse checkSampleSex(
+                @ToolArg(description = "consider only alleles with aafThreshold < AAF < 1 - aafThreshold, [0, 0.5), default 0", required = false) Float aafThreshold,
+                @ToolArg(description = "samples called female if F < femaleThreshold, default 0.7", required = false) Float femaleThreshold,
+                @ToolArg(description = "samples called male if F > maleThreshold, default 0.7", required = false) Float maleThreshold,
+                @ToolArg(description = "include pseudoautosomal regions (PAR), default false", required = false) Boolean includePar,
+                @ToolArg(description = "population codes or full names to report (e.g. GBR, YRI), default all", required = false) List<String> populations) {
+        try {
+            DnaerysClient.SexCheckReport report =
+                client.checkSampleSex(aafThreshold, femaleThreshold, maleThreshold, includePar, populations);
+            return mcpResponse.success(report);
+        } catch (Exception e) {
+            throw McpResponse.handle(e);
+        }
+    }
+
+    @LogToolCall
+    @RunOnVirtualThread
+    @Tool(
+        title = "scanTrioInheritance",
+        structuredContent = true,
+        annotations = @Tool.Annotations(
+            title = "scanTrioInheritance",
+            readOnlyHint = true,
+            destructiveHint = false,
+            idempotentHint = true,
+            openWorldHint = false
+        ),
+        description =
+            "SCAN ALL parent-child TRIOS in 1000 Genomes (602 trios from sample pedigrees) for variants consistent " +
+            "with an inheritance model in a genomic region.\n" +
+            "Use this tool instead of querying trios one by one.\n\n" +
+
+            "MODELS:\n" +
+            "- DE_NOVO: variants in the child absent in both parents\n" +
+            "- HET_DOMINANT: heterozygous variants in the child and the affected parent, absent in the unaffected parent; " +
+            "requires affectedParent='father' or 'mother'\n" +
+            "- HOM_RECESSIVE: homozygous variants in the child, heterozygous in both parents\n\n" +
+
+            "PARAMETERS Logic:\n" +
+            "- Filters: ALL filters are combined with AND logic\n" +
+            "- CSV parameters: OR logic. Example: impact='HIGH,MODERATE' selects variants with HIGH OR MODERATE impact\n" +
+            "- populations: restrict the scan to trios with children from these populations\n\n" +
+
+            "RETURNS: per-trio variant counts (trios with variants, most variants first, paged with skip/limit, " +
+            "at most 50 per call) and up to 50 variants recurrent across trios. " +
+            "Refer to the Output Schema for field definitions.",
+        outputSchema = @Tool.OutputSchema(
+            from = TrioScanView.class,
+            generator = TrioScanSchemaGenerator.class
+        )
+    )
+    public ToolResponse scanTrioInheritance(
+                @ToolArg(description = "Inheritance model: DE_NOVO, HET_DOMINANT or HOM_RECESSIVE") String model,
+                @ToolArg(description = "Affected parent for HET_DOMINANT model: father or mother", required = false) String affectedParent,
+                @ToolArg(description = CHROMOSOME_DESC) String chromosome,
+                @ToolArg(description = START_DESC) int start,
+                @ToolArg(description = END_DESC) int end,
+                @ToolArg(description = REF_DESC, required = false) String refAllele,
+                @ToolArg(description = ALT_DESC, required = false) String altAllele,
+                @ToolArg(description = "population codes or full names of children to scan (e.g. GBR, YRI), default all", required = false) List<String> populations,
+                @ToolArg(description = AFLT_DESC, required = false) Float afLessThan,
+                @ToolArg(description = AFGT_DESC, required = false) Float afGreaterThan,
+                @ToolArg(description = GNE_AFLT_DESC, required = false) Float gnomadExomeAfLessThan,
+                @ToolArg(description = GNE_AFGT_DESC, required = false) Float gnomadExomeAfGreaterThan,
+                @ToolArg(description = GNG_AFLT_DESC, required = false) Float gnomadGenomeAfLessThan,
+                @ToolArg(description = GNG_AFGT_DESC, required = false) Float gnomadGenomeAfGreaterThan,
+                @ToolArg(description = CLIN_DESC, required = false) String clinSignificance,
+                @ToolArg(description = IMPACT_DESC, required = false) String vepImpact,
+                @ToolArg(description = FEATURETYPE_DESC, required = false) String vepFeature,
+                @ToolArg(description = BIOTYPE_DESC, required = false) String vepBiotype,
+                @ToolArg(description = VARIANTTYPE_DESC, required = false) String vepVariantType,
+                @ToolArg(description = CONSEQ_DESC, required = false) String vepConsequences,
+                @ToolArg(description = AM_DESC, required = false) String alphaMissenseClass,
+                @ToolArg(description = AMLT_DESC, required = false) Float alphaMissenseScoreLessThan,
+                @ToolArg(description = AMGT_DESC, required = false) Float alphaMissenseScoreGreaterThan,
+                @ToolArg(description = BIONLY_DESC, required = false) Boolean biallelicOnly,
+                @ToolArg(description = MULTONLY_DESC, required = false) Boolean multiallelicOnly,
+                @ToolArg(description = MINLEN_DESC, required = false) Integer minVariantLengthBp,
+                @ToolArg(description = MAXLEN_DESC, required = false) Integer maxVariantLengthBp,
+                @ToolArg(description = SKIP_DESC, required = false) Integer skip,
+                @ToolArg(description = LIM_DESC, required = false) Integer limit) {
+        try {
+            GenomicRegion region = new GenomicRegion(chromosome, start, end, refAllele, altAllele);
+            SelectByAnnotations annotations = new SelectByAnnotations (
+                afLessThan, afGreaterThan, gnomadExomeAfLessThan, gnomadExomeAfGreaterThan, gnomadGenomeAfLessThan,
+                gnomadGenomeAfGreaterThan, clinSignificance, vepImpact, vepFeature, vepBiotype, vepVariantType,
+                vepConsequences, alphaMissenseClass, alphaMissenseScoreLessThan, alphaMissenseScoreGreaterThan,
+                biallelicOnly, multiallelicOnly, null, null, minVariantLengthBp, maxVariantLengthBp
+            );
+            DnaerysClient.TrioScan scan = client.scanTrios(
+                DnaerysClient.InheritanceModel.parse(model), affectedParent, region, annotations, populations,
+                skip, limit);
+            return mcpResponse.success(TrioScanView.fromClient(scan));
+        } catch (Exception e) {
+            throw McpResponse.handle(e);
+        }
+    }
+
+    private static boolean isColumnar(String format) {
+        if (format == null || format.isBlank() || format.trim().equalsIgnoreCase("rows")) return false;
+        if (format.trim().equalsIgnoreCase("columnar")) return true;
+        throw new RuntimeException("Invalid parameter: 'format' must be 'rows' or 'columnar'");
+    }
+
     public List<GenomicRegion> getGenomicRegions(List<String> chromosome, List<Integer> start, List<Integer> end,
                                                  List<String> refAllele, List<String> altAllele) {
         if (chromosome.size() != start.size() || chromosome.size() != end.size()) {
@@ -972,6 +1573,8 @@ public class OneKGPdMCPServer {
 
     // -----------------------------------------------------------------------------------------------------------------
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "getSampleMetadata",
         structuredContent = true,
@@ -995,12 +1598,14 @@ public class OneKGPdMCPServer {
         try {
             List<SampleMeta> metas = metaClient.getSampleMeta(sampleIds);
             Map<String, Object> structured = Map.of("samples", metas);
-            return mcpResponse.success(structured, metas);
+            return mcpResponse.success(structured);
         } catch (Exception e) {
             throw McpResponse.handle(e);
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "listPopulations",
         structuredContent = true,
@@ -1023,12 +1628,14 @@ public class OneKGPdMCPServer {
         try {
             List<PopulationInfo> populations = metaClient.listPopulations();
             Map<String, Object> structured = Map.of("populations", populations);
-            return mcpResponse.success(structured, populations);
+            return mcpResponse.success(structured);
         } catch (Exception e) {
             throw McpResponse.handle(e);
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "listSuperpopulations",
         structuredContent = true,
@@ -1051,12 +1658,14 @@ public class OneKGPdMCPServer {
         try {
             List<SuperpopulationInfo> superpopulations = metaClient.listSuperpopulations();
             Map<String, Object> structured = Map.of("superpopulations", superpopulations);
-            return mcpResponse.success(structured, superpopulations);
+            return mcpResponse.success(structured);
         } catch (Exception e) {
             throw McpResponse.handle(e);
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "getPopulationStats",
         structuredContent = true,
@@ -1081,12 +1690,14 @@ public class OneKGPdMCPServer {
         try {
             List<PopulationStats> stats = metaClient.getPopulationStats(populations);
             Map<String, Object> structured = Map.of("populations", stats);
-            return mcpResponse.success(structured, stats);
+            return mcpResponse.success(structured);
         } catch (Exception e) {
             throw McpResponse.handle(e);
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "getSuperpopulationSummary",
         structuredContent = true,
@@ -1111,12 +1722,14 @@ public class OneKGPdMCPServer {
         try {
             List<SuperpopulationSummary> summaries = metaClient.getSuperpopulationSummary(superpopulations);
             Map<String, Object> structured = Map.of("superpopulations", summaries);
-            return mcpResponse.success(structured, summaries);
+            return mcpResponse.success(structured);
         } catch (Exception e) {
             throw McpResponse.handle(e);
         }
     }
 
+    @LogToolCall
+    @RunOnVirtualThread
     @Tool(
         title = "selectSamplesByPopulation",
         structuredContent = true,
@@ -1148,7 +1761,7 @@ public class OneKGPdMCPServer {
         try {
             List<String> samples = metaClient.selectSamplesByPopulation(population, region, skip, limit);
             Map<String, Object> structured = Map.of("samples", samples);
-            return mcpResponse.success(structured, samples);
+            return mcpResponse.success(structured);
         } catch (Exception e) {
             throw McpResponse.handle(e);
         }
@@ -0,0 +1,126 @@
+package org.dnaerys.mcp;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.dnaerys.client.DnaerysClient;
+import org.dnaerys.client.MetaClient;
+import org.dnaerys.client.SampleIndex;
+import org.dnaerys.mcp.OneKGPdMCPServer.GenomicRegion;
+import org.dnaerys.mcp.OneKGPdMCPServer.SelectByAnnotations;
+import org.dnaerys.mcp.util.JsonUtil;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.HealthCheckResponseBuilder;
+import org.eclipse.microprofile.health.Readiness;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms up the main tool paths after boot and gates readiness on it.
+ * <p>
+ * Warm-up builds the sample and metadata indexes, connects the gRPC channel (including TLS),
+ * fetches {@code DatasetInfo} and runs a small synthetic request set through the client and
+ * JSON serialization, so the first real tool call does not pay for lazy initialization and
+ * interpreted code. It runs on a background thread; readiness is DOWN until it completes.
+ * A failed step is logged and reported in the check data, it does not keep the server unready.
+ */
+@Readiness
+@ApplicationScoped
+public class StartupWarmUp implements HealthCheck {
+
+    private static final Logger LOG = Logger.getLogger(StartupWarmUp.class);
+
+    // ~1 kbp of BRCA1, small enough to be cheap on the cluster
+    private static final List<GenomicRegion> REGIONS = List.of(new GenomicRegion("17", 43044295, 43045295, null, null));
+    private static final SelectByAnnotations NO_ANNOTATIONS = new SelectByAnnotations(
+        null, null, null, null, null, null, null, null, null, null,
+        null, null, null, null, null, null, null, null, null, null, null);
+    private static final int SAMPLES = 4;
+
+    @Inject
+    DnaerysClient client;
+
+    @Inject
+    MetaClient metaClient;
+
+    @Inject
+    JsonUtil jsonUtil;
+
+    @Inject
+    MeterRegistry registry;
+
+    @ConfigProperty(name = "dnaerys.warmup.enabled", defaultValue = "true")
+    boolean enabled;
+
+    // repetitions of the synthetic request set, to get the hot paths compiled
+    @ConfigProperty(name = "dnaerys.warmup.iterations", defaultValue = "3")
+    int iterations;
+
+    private volatile boolean done;
+    private volatile long durationMillis = -1;
+    private volatile String failure;
+
+    void onStart(@Observes StartupEvent event) {
+        TimeGauge.builder("dnaerys.warmup.duration", this, TimeUnit.MILLISECONDS, StartupWarmUp::durationMillis)
+            .description("Startup warm-up duration, -1 while running or if disabled")
+            .register(registry);
+        if (!enabled) {
+            done = true;
+            return;
+        }
+        Thread thread = new Thread(this::run, "dnaerys-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void run() {
+        long started = System.nanoTime();
+        try {
+            SampleIndex index = metaClient.sampleIndex();
+            List<String> samples = index.sampleIds().subList(0, Math.min(SAMPLES, index.size()));
+            DnaerysClient.DatasetInfo info = client.getDatasetInfo();
+            LOG.debugf("Warm-up: connected, %d variants in dataset", info.variantsTotal());
+
+            for (int i = 0; i < iterations; i++) {
+                jsonUtil.stringify(metaClient.getSampleMeta(samples));
+                jsonUtil.stringify(metaClient.selectSamplesByPopulation("GBR", null, 0, SAMPLES));
+                jsonUtil.stringify(Map.of("count", client.countVariants(REGIONS, true, true, NO_ANNOTATIONS)));
+                jsonUtil.stringify(Map.of("count",
+                    client.countVariantsInSamples(REGIONS, samples, true, true, NO_ANNOTATIONS)));
+                jsonUtil.stringify(Map.of("variants",
+                    client.selectVariants(REGIONS, true, true, NO_ANNOTATIONS, 0, 10)));
+            }
+        } catch (Exception e) {
+            failure = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            LOG.warnf("Warm-up failed, serving without it: %s", failure);
+        } finally {
+            durationMillis = (System.nanoTime() - started) / 1_000_000;
+            done = true;
+            LOG.infof("Warm-up finished in %d ms", durationMillis);
+        }
+    }
+
+    public boolean isDone() { return done; }
+
+    /**
+     * @return warm-up duration, -1 while running or if disabled
+     */
+    public long durationMillis() { return durationMillis; }
+
+    @Override
+    public HealthCheckResponse call() {
+        HealthCheckResponseBuilder response = HealthCheckResponse.named("warm-up").status(done);
+        if (!enabled) return response.withData("enabled", false).build();
+        if (done) response.withData("durationMs", durationMillis);
+        if (failure != null) response.withData("failure", failure);
+        return response.build();
+    }
+}
@@ -0,0 +1,124 @@
+package org.dnaerys.mcp.generator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.dnaerys.cluster.grpc.Variant;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compact columnar representation of variants: column names once, then one value array per column.
+ * <p>
+ * Variants are ordered by chromosome and position. Chromosome column is run-length encoded as
+ * {@code [[chr, count], ...]}, position column is delta encoded (first value absolute, then differences
+ * to the previous position, restarting from 0 for every chromosome run). Optional fields which are
+ * skipped in row format are written as 0 (numbers) or "" (HGVSp) to keep arrays parallel.
+ */
+@JsonSerialize(using = ColumnarVariants.ColumnarSerializer.class)
+public record ColumnarVariants(List<Variant> variants) {
+
+    public static final List<String> COLUMNS = List.of(
+        "chr", "pos", "ref", "alt", "AF", "AC", "AN", "het", "hom", "gnomADe", "gnomADg", "AlphaMissense", "HGVSp");
+
+    public static ColumnarVariants of(Collection<Variant> variants) {
+        List<Variant> sorted = new ArrayList<>(variants);
+        sorted.sort(Comparator.comparingInt(Variant::getChrValue).thenComparingInt(Variant::getStart));
+        return new ColumnarVariants(sorted);
+    }
+
+    public static class ColumnarSerializer extends JsonSerializer<ColumnarVariants> {
+        @Override
+        public void serialize(ColumnarVariants c, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            List<Variant> vs = c.variants();
+
+            gen.writeStartObject();
+            gen.writeNumberField("rows", vs.size());
+            gen.writeArrayFieldStart("columns");
+            for (String column : COLUMNS) gen.writeString(column);
+            gen.writeEndArray();
+            gen.writeObjectFieldStart("encoding");
+            gen.writeStringField("chr", "rle");
+            gen.writeStringField("pos", "delta");
+            gen.writeEndObject();
+
+            gen.writeArrayFieldStart("values");
+            writeChrRuns(vs, gen);
+            writePositionDeltas(vs, gen);
+
+            gen.writeStartArray();
+            for (Variant v : vs) gen.writeString(v.getRef());
+            gen.writeEndArray();
+            gen.writeStartArray();
+            for (Variant v : vs) gen.writeString(v.getAlt());
+            gen.writeEndArray();
+            gen.writeStartArray();
+            for (Variant v : vs) gen.writeNumber(v.getAf());
+            gen.writeEndArray();
+            gen.writeStartArray();
+            for (Variant v : vs) gen.writeNumber((int) v.getAc());
+            gen.writeEndArray();
+            gen.writeStartArray();
+            for (Variant v : vs) gen.writeNumber(v.getAn());
+            gen.writeEndArray();
+            // counters in sex chr are split between males/females, only include for autosomes
+            gen.writeStartArray();
+            for (Variant v : vs) gen.writeNumber(v.getChrValue() <= 22 ? v.getHetc() : 0);
+            gen.writeEndArray();
+            gen.writeStartArray();
+            for (Variant v : vs) gen.writeNumber(v.getChrValue() <= 22 ? v.getHomc() : 0);
+            gen.writeEndArray();
+            gen.writeStartArray();
+            for (Variant v : vs) gen.writeNumber(v.getGnomADe());
+            gen.writeEndArray();
+            gen.writeStartArray();
+            for (Variant v : vs) gen.writeNumber(v.getGnomADg());
+            gen.writeEndArray();
+            gen.writeStartArray();
+            for (Variant v : vs) gen.writeNumber(v.getAmScore());
+            gen.writeEndArray();
+            gen.writeStartArray();
+            for (Variant v : vs) gen.writeString(GrpcVariantSerializer.firstHgvsp(v.getAminoAcids()));
+            gen.writeEndArray();
+            gen.writeEndArray();
+
+            gen.writeEndObject();
+        }
+
+        private static void writeChrRuns(List<Variant> vs, JsonGenerator gen) throws IOException {
+            gen.writeStartArray();
+            int i = 0;
+            while (i < vs.size()) {
+                int chr = vs.get(i).getChrValue();
+                int run = 1;
+                while (i + run < vs.size() && vs.get(i + run).getChrValue() == chr) run++;
+                gen.writeStartArray();
+                gen.writeString(GrpcVariantSerializer.chrName(chr));
+                gen.writeNumber(run);
+                gen.writeEndArray();
+                i += run;
+            }
+            gen.writeEndArray();
+        }
+
+        private static void writePositionDeltas(List<Variant> vs, JsonGenerator gen) throws IOException {
+            gen.writeStartArray();
+            int previousChr = -1;
+            int previousPos = 0;
+            for (Variant v : vs) {
+                if (v.getChrValue() != previousChr) {
+                    previousChr = v.getChrValue();
+                    previousPos = 0;
+                }
+                gen.writeNumber(v.getStart() - previousPos);
+                previousPos = v.getStart();
+            }
+            gen.writeEndArray();
+        }
+    }
+}
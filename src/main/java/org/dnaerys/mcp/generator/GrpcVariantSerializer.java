@@ -0,0 +1,83 @@
+package org.dnaerys.mcp.generator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.dnaerys.cluster.grpc.Chromosome;
+import org.dnaerys.cluster.grpc.Variant;
+
+import java.io.IOException;
+
+/**
+ * Writes gRPC {@link Variant} straight to the JSON generator, without mapping to {@link VariantView} first.
+ * Field names, order and skipping rules are the same as in {@link VariantView.VariantSerializer},
+ * so both produce identical JSON for the same variant.
+ */
+public class GrpcVariantSerializer extends StdSerializer<Variant> {
+
+    // chromosome names by enum number, avoids String.valueOf per variant
+    private static final String[] CHR_NAMES = new String[Chromosome.CHR_MT.getNumber() + 1];
+    static {
+        for (int i = 0; i < CHR_NAMES.length; i++) {
+            CHR_NAMES[i] = VariantView.VariantSerializer.mapChr(i);
+        }
+    }
+
+    public GrpcVariantSerializer() {
+        super(Variant.class);
+    }
+
+    /**
+     * Jackson module registering this serializer for {@link Variant}.
+     */
+    public static SimpleModule module() {
+        return new SimpleModule("GrpcVariant").addSerializer(Variant.class, new GrpcVariantSerializer());
+    }
+
+    @Override
+    public void serialize(Variant v, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        writeFields(v, gen);
+        gen.writeEndObject();
+    }
+
+    /**
+     * Writes variant fields into the current JSON object.
+     */
+    static void writeFields(Variant v, JsonGenerator gen) throws IOException {
+        int chrIdx = v.getChrValue();
+        // counters in sex chr are split between males/females, only include for autosomes
+        boolean autosome = chrIdx <= 22;
+
+        // Required Fields
+        gen.writeStringField("chr", chrName(chrIdx));
+        gen.writeNumberField("pos", v.getStart());
+        gen.writeStringField("ref", v.getRef());
+        gen.writeStringField("alt", v.getAlt());
+        gen.writeNumberField("AF", v.getAf());
+        gen.writeNumberField("AC", (int) v.getAc());
+        gen.writeNumberField("AN", v.getAn());
+        gen.writeNumberField("het", autosome ? v.getHetc() : 0);
+        gen.writeNumberField("hom", autosome ? v.getHomc() : 0);
+
+        // Optional (NON_DEFAULT logic)
+        if (v.getGnomADe() != 0.0f) gen.writeNumberField("gnomADe", v.getGnomADe());
+        if (v.getGnomADg() != 0.0f) gen.writeNumberField("gnomADg", v.getGnomADg());
+        if (v.getAmScore() != 0.0f) gen.writeNumberField("AlphaMissense", v.getAmScore());
+
+        String hgvsp = firstHgvsp(v.getAminoAcids());
+        if (!hgvsp.isEmpty()) gen.writeStringField("HGVSp", hgvsp);
+    }
+
+    static String chrName(int chrIdx) {
+        return chrIdx >= 0 && chrIdx < CHR_NAMES.length ? CHR_NAMES[chrIdx] : "0";
+    }
+
+    // first HGVSp notation only, same as VariantView.fromGrpc but without splitting the whole list
+    static String firstHgvsp(String aminoAcids) {
+        if (aminoAcids.isBlank()) return "";
+        int comma = aminoAcids.indexOf(',');
+        return comma < 0 ? aminoAcids : aminoAcids.substring(0, comma);
+    }
+}
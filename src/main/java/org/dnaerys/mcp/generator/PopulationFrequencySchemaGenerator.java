@@ -0,0 +1,51 @@
+package org.dnaerys.mcp.generator;
+
+import io.quarkiverse.mcp.server.OutputSchemaGenerator;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class PopulationFrequencySchemaGenerator implements OutputSchemaGenerator {
+
+    @Override
+    public Map<String, Object> generate(Class<?> type) {
+        Map<String, Object> stratumFields = Map.of(
+            "level", Map.of("type", "string", "description", "Stratum level: population or superpopulation"),
+            "code", Map.of("type", "string", "description", "Population or superpopulation short code"),
+            "name", Map.of("type", "string", "description", "Full population or superpopulation name"),
+            "sampleCount", Map.of("type", "integer", "description", "Number of samples in the stratum")
+        );
+
+        Map<String, Object> variantFields = new HashMap<>(VariantArraySchemaGenerator.variantFields());
+        variantFields.put("af", Map.of("type", "array", "items", Map.of("type", "number"),
+            "description", "Allele frequency in each stratum, in the order of 'strata'; 0 if absent in the stratum"));
+        variantFields.put("ac", Map.of("type", "array", "items", Map.of("type", "integer"),
+            "description", "Allele count in each stratum, in the order of 'strata'"));
+        List<String> variantRequired = new ArrayList<>(VariantArraySchemaGenerator.variantRequired());
+        variantRequired.add("af");
+        variantRequired.add("ac");
+
+        return Map.of(
+            "type", "object",
+            "properties", Map.of(
+                "strata", Map.of(
+                    "type", "array",
+                    "description", "Matrix columns: populations first, in requested (default: code) order",
+                    "items", Map.of("type", "object", "properties", stratumFields,
+                        "required", List.of("level", "code", "name", "sampleCount"))
+                ),
+                "totalVariants", Map.of("type", "integer", "description", "Number of distinct variants across all strata"),
+                "variants", Map.of(
+                    "type", "array",
+                    "description", "Matrix rows ordered by position",
+                    "items", Map.of("type", "object", "properties", variantFields, "required", variantRequired)
+                )
+            ),
+            "required", List.of("strata", "totalVariants", "variants")
+        );
+    }
+}
@@ -0,0 +1,48 @@
+package org.dnaerys.mcp.generator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.dnaerys.client.DnaerysClient;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Variant x stratum allele frequency matrix with variants mapped to {@link VariantView}.
+ */
+public record PopulationFrequencyView(
+    List<DnaerysClient.FrequencyStratum> strata,
+    int totalVariants,
+    List<FrequencyRowView> variants
+) {
+
+    /**
+     * Variant fields followed by per-stratum {@code af} and {@code ac}, in the order of {@code strata}.
+     */
+    @JsonSerialize(using = FrequencyRowSerializer.class)
+    public record FrequencyRowView(VariantView variant, float[] af, int[] ac) {}
+
+    public static PopulationFrequencyView fromClient(DnaerysClient.PopulationFrequencies frequencies) {
+        List<FrequencyRowView> rows = frequencies.variants().stream()
+            .map(r -> new FrequencyRowView(VariantView.fromGrpc(r.variant()), r.af(), r.ac()))
+            .toList();
+        return new PopulationFrequencyView(frequencies.strata(), frequencies.totalVariants(), rows);
+    }
+
+    public static class FrequencyRowSerializer extends JsonSerializer<FrequencyRowView> {
+        @Override
+        public void serialize(FrequencyRowView r, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject();
+            VariantView.VariantSerializer.writeFields(r.variant(), gen);
+            gen.writeArrayFieldStart("af");
+            for (float v : r.af()) gen.writeNumber(v);
+            gen.writeEndArray();
+            gen.writeArrayFieldStart("ac");
+            for (int v : r.ac()) gen.writeNumber(v);
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+}
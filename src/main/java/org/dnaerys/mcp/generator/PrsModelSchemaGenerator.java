@@ -0,0 +1,33 @@
+package org.dnaerys.mcp.generator;
+
+import io.quarkiverse.mcp.server.OutputSchemaGenerator;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class PrsModelSchemaGenerator implements OutputSchemaGenerator {
+
+    @Override
+    public Map<String, Object> generate(Class<?> type) {
+        return Map.of(
+            "type", "object",
+            "properties", Map.of(
+                "models", Map.of(
+                    "type", "array",
+                    "items", Map.of(
+                        "type", "object",
+                        "properties", Map.of(
+                            "name", Map.of("type", "string", "description", "PRS name, used as 'prsName' in computePolygenicRiskScores"),
+                            "description", Map.of("type", "string", "description", "PRS description"),
+                            "cardinality", Map.of("type", "integer", "description", "Number of effect alleles in PRS")
+                        ),
+                        "required", List.of("name", "description", "cardinality")
+                    )
+                )
+            ),
+            "required", List.of("models")
+        );
+    }
+}
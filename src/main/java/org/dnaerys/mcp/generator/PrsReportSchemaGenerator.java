@@ -0,0 +1,61 @@
+package org.dnaerys.mcp.generator;
+
+import io.quarkiverse.mcp.server.OutputSchemaGenerator;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class PrsReportSchemaGenerator implements OutputSchemaGenerator {
+
+    @Override
+    public Map<String, Object> generate(Class<?> type) {
+        Map<String, Object> sampleFields = Map.of(
+            "sample", Map.of("type", "string", "description", "Sample ID"),
+            "populationCode", Map.of("type", "string", "description", "Population short code"),
+            "superpopulationCode", Map.of("type", "string", "description", "Superpopulation short code"),
+            "score", Map.of("type", "number", "description", "PRS score (sum of scores, plink '--score' sum mode), absent if not scored"),
+            "cohortPercentile", Map.of("type", "number", "description", "Percentile of the score within the whole cohort (0-100)"),
+            "populationPercentile", Map.of("type", "number", "description", "Percentile of the score within sample's population (0-100)")
+        );
+
+        Map<String, Object> groupSummary = Map.of(
+            "type", "object",
+            "properties", Map.of(
+                "code", Map.of("type", "string", "description", "Population or superpopulation short code"),
+                "name", Map.of("type", "string", "description", "Full population or superpopulation name"),
+                "sampleCount", Map.of("type", "integer", "description", "Number of scored samples in group"),
+                "mean", Map.of("type", "number", "description", "Mean score"),
+                "standardDeviation", Map.of("type", "number", "description", "Population standard deviation of scores"),
+                "p10", Map.of("type", "number", "description", "10th percentile of scores"),
+                "median", Map.of("type", "number", "description", "Median score"),
+                "p90", Map.of("type", "number", "description", "90th percentile of scores")
+            ),
+            "required", List.of("code", "name", "sampleCount", "mean", "standardDeviation", "p10", "median", "p90")
+        );
+
+        return Map.of(
+            "type", "object",
+            "properties", Map.of(
+                "prsName", Map.of("type", "string", "description", "PRS name"),
+                "dominant", Map.of("type", "boolean", "description", "Whether 'dominant' mode was used"),
+                "recessive", Map.of("type", "boolean", "description", "Whether 'recessive' mode was used"),
+                "prsCardinality", Map.of("type", "integer", "description", "Number of effect variants in PRS"),
+                "scoredSamples", Map.of("type", "integer", "description", "Number of scored samples in the cohort"),
+                "samples", Map.of(
+                    "type", "array",
+                    "items", Map.of(
+                        "type", "object",
+                        "properties", sampleFields,
+                        "required", List.of("sample", "populationCode", "superpopulationCode")
+                    )
+                ),
+                "populations", Map.of("type", "array", "items", groupSummary),
+                "superpopulations", Map.of("type", "array", "items", groupSummary)
+            ),
+            "required", List.of("prsName", "dominant", "recessive", "prsCardinality", "scoredSamples",
+                "samples", "populations", "superpopulations")
+        );
+    }
+}
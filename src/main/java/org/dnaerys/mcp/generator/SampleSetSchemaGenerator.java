@@ -0,0 +1,40 @@
+package org.dnaerys.mcp.generator;
+
+import io.quarkiverse.mcp.server.OutputSchemaGenerator;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class SampleSetSchemaGenerator implements OutputSchemaGenerator {
+
+    @Override
+    public Map<String, Object> generate(Class<?> type) {
+        return Map.of(
+            "type", "object",
+            "properties", Map.of(
+                "expression", Map.of("type", "string", "description", "Evaluated expression"),
+                "count", Map.of("type", "integer", "description", "Number of samples in the resulting set"),
+                "operands", Map.of(
+                    "type", "array",
+                    "description", "Distinct operands in order of appearance with the size of their sample sets",
+                    "items", Map.of(
+                        "type", "object",
+                        "properties", Map.of(
+                            "operand", Map.of("type", "string", "description", "Operand as written in the expression"),
+                            "count", Map.of("type", "integer", "description", "Number of samples in the operand set")
+                        ),
+                        "required", List.of("operand", "count")
+                    )
+                ),
+                "samples", Map.of(
+                    "type", "array",
+                    "description", "Page of sample IDs in the resulting set, in sample ID order",
+                    "items", Map.of("type", "string")
+                )
+            ),
+            "required", List.of("expression", "count", "operands", "samples")
+        );
+    }
+}
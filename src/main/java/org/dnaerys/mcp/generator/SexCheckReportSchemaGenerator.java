@@ -0,0 +1,60 @@
+package org.dnaerys.mcp.generator;
+
+import io.quarkiverse.mcp.server.OutputSchemaGenerator;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class SexCheckReportSchemaGenerator implements OutputSchemaGenerator {
+
+    @Override
+    public Map<String, Object> generate(Class<?> type) {
+        Map<String, Object> mismatchFields = Map.of(
+            "sample", Map.of("type", "string", "description", "Sample ID"),
+            "populationCode", Map.of("type", "string", "description", "Population short code"),
+            "reportedSex", Map.of("type", "string", "description", "Gender in sample metadata (male/female)"),
+            "observedSex", Map.of("type", "string", "description", "Sex called from chrX F-statistic (male/female)"),
+            "fStat", Map.of("type", "number", "description", "chrX F-statistic")
+        );
+
+        Map<String, Object> distributionFields = Map.of(
+            "populationCode", Map.of("type", "string", "description", "Population short code"),
+            "superpopulationCode", Map.of("type", "string", "description", "Superpopulation short code"),
+            "reportedSex", Map.of("type", "string", "description", "Gender in sample metadata (male/female)"),
+            "sampleCount", Map.of("type", "integer", "description", "Number of samples with F-statistic"),
+            "mean", Map.of("type", "number", "description", "Mean F-statistic"),
+            "min", Map.of("type", "number", "description", "Minimal F-statistic"),
+            "median", Map.of("type", "number", "description", "Median F-statistic"),
+            "max", Map.of("type", "number", "description", "Maximal F-statistic")
+        );
+
+        return Map.of(
+            "type", "object",
+            "properties", Map.of(
+                "aafThreshold", Map.of("type", "number", "description", "Alternative allele frequency threshold used"),
+                "femaleThreshold", Map.of("type", "number", "description", "Samples called female if F < femaleThreshold"),
+                "maleThreshold", Map.of("type", "number", "description", "Samples called male if F > maleThreshold"),
+                "includePar", Map.of("type", "boolean", "description", "Whether PAR regions were included"),
+                "checkedSamples", Map.of("type", "integer", "description", "Number of samples with F-statistic"),
+                "mismatchCount", Map.of("type", "integer", "description", "Number of samples with observed sex different from reported"),
+                "undeterminedCount", Map.of("type", "integer", "description", "Number of samples with F between thresholds"),
+                "mismatches", Map.of(
+                    "type", "array",
+                    "items", Map.of("type", "object", "properties", mismatchFields,
+                        "required", List.of("sample", "populationCode", "reportedSex", "observedSex", "fStat"))
+                ),
+                "distributions", Map.of(
+                    "type", "array",
+                    "description", "F-statistic distribution per population and reported sex",
+                    "items", Map.of("type", "object", "properties", distributionFields,
+                        "required", List.of("populationCode", "superpopulationCode", "reportedSex", "sampleCount",
+                            "mean", "min", "median", "max"))
+                )
+            ),
+            "required", List.of("aafThreshold", "femaleThreshold", "maleThreshold", "includePar", "checkedSamples",
+                "mismatchCount", "undeterminedCount", "mismatches", "distributions")
+        );
+    }
+}
@@ -0,0 +1,38 @@
+package org.dnaerys.mcp.generator;
+
+import io.quarkiverse.mcp.server.OutputSchemaGenerator;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class StratifiedCountsSchemaGenerator implements OutputSchemaGenerator {
+
+    @Override
+    public Map<String, Object> generate(Class<?> type) {
+        Map<String, Object> stratumFields = Map.of(
+            "level", Map.of("type", "string", "description", "Stratum level: population or superpopulation"),
+            "code", Map.of("type", "string", "description", "Population or superpopulation short code"),
+            "name", Map.of("type", "string", "description", "Full population or superpopulation name"),
+            "sampleCount", Map.of("type", "integer", "description", "Number of samples in the stratum"),
+            "variantCount", Map.of("type", "integer",
+                "description", "Number of variants in the stratum; absent if the query for the stratum failed")
+        );
+
+        return Map.of(
+            "type", "object",
+            "properties", Map.of(
+                "strataCounted", Map.of("type", "integer", "description", "Number of strata counted"),
+                "strataFailed", Map.of("type", "integer", "description", "Number of strata for which the query failed"),
+                "strata", Map.of(
+                    "type", "array",
+                    "description", "Counts per stratum, populations first, in requested (default: code) order",
+                    "items", Map.of("type", "object", "properties", stratumFields,
+                        "required", List.of("level", "code", "name", "sampleCount"))
+                )
+            ),
+            "required", List.of("strataCounted", "strataFailed", "strata")
+        );
+    }
+}
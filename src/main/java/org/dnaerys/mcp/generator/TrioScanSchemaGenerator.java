@@ -0,0 +1,61 @@
+package org.dnaerys.mcp.generator;
+
+import io.quarkiverse.mcp.server.OutputSchemaGenerator;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class TrioScanSchemaGenerator implements OutputSchemaGenerator {
+
+    @Override
+    public Map<String, Object> generate(Class<?> type) {
+        Map<String, Object> trioFields = Map.of(
+            "child", Map.of("type", "string", "description", "Child (proband) sample ID"),
+            "father", Map.of("type", "string", "description", "Father sample ID"),
+            "mother", Map.of("type", "string", "description", "Mother sample ID"),
+            "populationCode", Map.of("type", "string", "description", "Population short code of the child"),
+            "variantCount", Map.of("type", "integer", "description", "Number of variants consistent with the model"),
+            "truncated", Map.of("type", "boolean",
+                "description", "Whether the trio has more variants than the 5000 counted; narrow the region or filters")
+        );
+
+        Map<String, Object> recurrentFields = Map.of(
+            "variant", Map.of(
+                "type", "object",
+                "properties", VariantArraySchemaGenerator.variantFields(),
+                "required", VariantArraySchemaGenerator.variantRequired()
+            ),
+            "trioCount", Map.of("type", "integer", "description", "Number of trios with the variant"),
+            "probands", Map.of("type", "array", "items", Map.of("type", "string"),
+                "description", "Child sample IDs of trios with the variant")
+        );
+
+        return Map.of(
+            "type", "object",
+            "properties", Map.of(
+                "model", Map.of("type", "string", "description", "Inheritance model (DE_NOVO, HET_DOMINANT, HOM_RECESSIVE)"),
+                "affectedParent", Map.of("type", "string", "description", "Affected parent for HET_DOMINANT model (father/mother)"),
+                "triosScanned", Map.of("type", "integer", "description", "Number of trios scanned"),
+                "triosFailed", Map.of("type", "integer", "description", "Number of trios for which the query failed"),
+                "triosWithVariants", Map.of("type", "integer", "description", "Number of trios with at least one variant"),
+                "totalVariants", Map.of("type", "integer", "description", "Sum of per-trio variant counts"),
+                "trios", Map.of(
+                    "type", "array",
+                    "description", "Trios with at least one variant, by variant count descending; a page of triosWithVariants selected by skip and limit",
+                    "items", Map.of("type", "object", "properties", trioFields,
+                        "required", List.of("child", "father", "mother", "populationCode", "variantCount", "truncated"))
+                ),
+                "recurrentVariants", Map.of(
+                    "type", "array",
+                    "description", "Variants found in more than one trio, by trio count descending, at most 50",
+                    "items", Map.of("type", "object", "properties", recurrentFields,
+                        "required", List.of("variant", "trioCount", "probands"))
+                )
+            ),
+            "required", List.of("model", "triosScanned", "triosFailed", "triosWithVariants", "totalVariants",
+                "trios", "recurrentVariants")
+        );
+    }
+}
@@ -0,0 +1,32 @@
+package org.dnaerys.mcp.generator;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.dnaerys.client.DnaerysClient;
+
+import java.util.List;
+
+/**
+ * Trio scan with recurrent variants mapped to {@link VariantView}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TrioScanView(
+    String model,
+    String affectedParent,
+    int triosScanned,
+    int triosFailed,
+    int triosWithVariants,
+    int totalVariants,
+    List<DnaerysClient.TrioVariantCount> trios,
+    List<RecurrentVariantView> recurrentVariants
+) {
+
+    public record RecurrentVariantView(VariantView variant, int trioCount, List<String> probands) {}
+
+    public static TrioScanView fromClient(DnaerysClient.TrioScan scan) {
+        List<RecurrentVariantView> recurrent = scan.recurrentVariants().stream()
+            .map(rv -> new RecurrentVariantView(VariantView.fromGrpc(rv.variant()), rv.trioCount(), rv.probands()))
+            .toList();
+        return new TrioScanView(scan.model(), scan.affectedParent(), scan.triosScanned(), scan.triosFailed(),
+            scan.triosWithVariants(), scan.totalVariants(), scan.trios(), recurrent);
+    }
+}
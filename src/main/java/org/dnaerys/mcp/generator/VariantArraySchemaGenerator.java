@@ -8,10 +8,9 @@ import java.util.Map;
 @ApplicationScoped
 public class VariantArraySchemaGenerator implements OutputSchemaGenerator {
 
-    @Override
-    public Map<String, Object> generate(Class<?> type) {
-        // Properties dictionary tells the LLM what each field means
-        Map<String, Object> variantFields = Map.ofEntries(
+    // Properties dictionary tells the LLM what each field means
+    static Map<String, Object> variantFields() {
+        return Map.ofEntries(
             Map.entry("chr", Map.of("type", "string", "description", "Chromosome (1-22, X, Y)")),
             Map.entry("pos", Map.of("type", "integer", "description", "GRCh38 Position")),
             Map.entry("ref", Map.of("type", "string")),
@@ -26,18 +25,52 @@ public class VariantArraySchemaGenerator implements OutputSchemaGenerator {
             Map.entry("AlphaMissense", Map.of("type", "number", "description", "AlphaMissense score")),
             Map.entry("HGVSp", Map.of("type", "string", "description", "HGVSp notation"))
         );
+    }
+
+    static List<String> variantRequired() {
+        return List.of("chr", "pos", "ref", "alt", "AF", "AC", "AN", "het", "hom");
+    }
+
+    static Map<String, Object> rowsSchema() {
+        return Map.of(
+            "type", "array",
+            "items", Map.of(
+                "type", "object",
+                "properties", variantFields(),
+                "required", variantRequired()
+            )
+        );
+    }
+
+    // format=columnar, see ColumnarVariants
+    static Map<String, Object> columnarSchema() {
+        return Map.of(
+            "type", "object",
+            "description", "Columnar variants: values[i] holds column columns[i] for all rows, " +
+                "ordered by chromosome and position. Missing optional values are 0 or empty string",
+            "properties", Map.of(
+                "rows", Map.of("type", "integer", "description", "Number of variants"),
+                "columns", Map.of("type", "array", "items", Map.of("type", "string"),
+                    "description", "Column names, same fields as in row format"),
+                "encoding", Map.of("type", "object",
+                    "description", "chr: run-length encoded as [[chr, count], ...]; " +
+                        "pos: delta encoded, first position of every chromosome run is absolute"),
+                "values", Map.of("type", "array", "items", Map.of("type", "array"))
+            ),
+            "required", List.of("rows", "columns", "encoding", "values")
+        );
+    }
+
+    static Map<String, Object> variantsSchema() {
+        return Map.of("anyOf", List.of(rowsSchema(), columnarSchema()));
+    }
 
+    @Override
+    public Map<String, Object> generate(Class<?> type) {
         return Map.of(
             "type", "object",
             "properties", Map.of(
-                "variants", Map.of(
-                    "type", "array",
-                    "items", Map.of(
-                        "type", "object",
-                        "properties", variantFields,
-                        "required", List.of("chr", "pos", "ref", "alt", "AF", "AC", "AN", "het", "hom")
-                    )
-                )
+                "variants", variantsSchema()
             ),
             "required", List.of("variants")
         );
@@ -8,25 +8,37 @@ import java.util.Map;
 @ApplicationScoped
 public class VariantMapSchemaGenerator implements OutputSchemaGenerator {
 
-    @Override
-    public Map<String, Object> generate(Class<?> type) {
-        // Properties dictionary tells the LLM what each field means
-        Map<String, Object> variantFields = Map.ofEntries(
-            Map.entry("chr", Map.of("type", "string", "description", "Chromosome (1-22, X, Y)")),
-            Map.entry("pos", Map.of("type", "integer", "description", "GRCh38 Position")),
-            Map.entry("ref", Map.of("type", "string")),
-            Map.entry("alt", Map.of("type", "string")),
-            Map.entry("AF", Map.of("type", "number", "description", "Allele Frequency in 1000 Genomes dataset")),
-            Map.entry("AC", Map.of("type", "integer", "description", "Allele Count in 1000 Genomes dataset")),
-            Map.entry("AN", Map.of("type", "integer", "description", "Total number of alleles in 1000 Genomes dataset")),
-            Map.entry("het", Map.of("type", "integer", "description", "Heterozygous allele count in 1000 Genomes dataset")),
-            Map.entry("hom", Map.of("type", "integer", "description", "Homozygous allele count in 1000 Genomes dataset")),
-            Map.entry("gnomADe", Map.of("type", "number", "description", "gnomAD Exomes AF")),
-            Map.entry("gnomADg", Map.of("type", "number", "description", "gnomAD Genomes AF")),
-            Map.entry("AlphaMissense", Map.of("type", "number", "description", "AlphaMissense score")),
-            Map.entry("HGVSp", Map.of("type", "string", "description", "HGVSp notation"))
+    // returned instead of variantsBySample when the response exceeds the response budget
+    static Map<String, Object> summarySchema() {
+        return Map.of(
+            "type", "object",
+            "properties", Map.of(
+                "reason", Map.of("type", "string"),
+                "samples", Map.of("type", "integer", "description", "Number of samples in the request page"),
+                "variantRows", Map.of("type", "integer", "description", "Total variants over all samples"),
+                "distinctVariants", Map.of("type", "integer", "description", "Number of distinct variants"),
+                "minVariantsPerSample", Map.of("type", "integer"),
+                "medianVariantsPerSample", Map.of("type", "integer"),
+                "maxVariantsPerSample", Map.of("type", "integer"),
+                "afHistogram", Map.of("type", "object", "description", "Distinct variants by 1000 Genomes AF bin"),
+                "alphaMissenseHistogram", Map.of("type", "object", "description", "Distinct variants by AlphaMissense class"),
+                "topVariants", Map.of(
+                    "type", "array",
+                    "description", "Top variants by AlphaMissense score, then CADD phred",
+                    "items", Map.of(
+                        "type", "object",
+                        "properties", VariantArraySchemaGenerator.variantFields(),
+                        "required", VariantArraySchemaGenerator.variantRequired()
+                    )
+                )
+            ),
+            "required", List.of("reason", "samples", "variantRows", "distinctVariants", "afHistogram",
+                "alphaMissenseHistogram", "topVariants")
         );
+    }
 
+    @Override
+    public Map<String, Object> generate(Class<?> type) {
         return Map.of(
             "type", "object",
             "properties", Map.of(
@@ -36,20 +48,19 @@ public class VariantMapSchemaGenerator implements OutputSchemaGenerator {
                         "type", "object",
                         "properties", Map.of(
                             "sample", Map.of("type", "string", "description", "Sample name"),
-                            "variants", Map.of(
-                                "type", "array",
-                                "items", Map.of(
-                                    "type", "object",
-                                    "properties", variantFields,
-                                    "required", List.of("chr", "pos", "ref", "alt", "AF", "AC", "AN", "het", "hom")
-                                )
-                            )
+                            "variants", VariantArraySchemaGenerator.variantsSchema()
                         ),
                         "required", List.of("sample", "variants")
                     )
-                )
+                ),
+                "summary", summarySchema(),
+                "nextCursor", Map.of("type", "string",
+                    "description", "Cursor for the next page of samples, pass it as 'cursor' with the same parameters")
             ),
-            "required", List.of("variantsBySample")
+            "anyOf", List.of(
+                Map.of("required", List.of("variantsBySample")),
+                Map.of("required", List.of("summary"))
+            )
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package org.dnaerys.mcp.generator;
+
+import io.quarkiverse.mcp.server.OutputSchemaGenerator;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+public class VariantStatsArraySchemaGenerator implements OutputSchemaGenerator {
+
+    @Override
+    public Map<String, Object> generate(Class<?> type) {
+        Map<String, Object> fields = new HashMap<>(VariantArraySchemaGenerator.variantFields());
+        fields.put("pHWE", Map.of("type", "number",
+            "description", "p-value of Chi-squared test for deviation from Hardy-Weinberg Equilibrium (whole dataset)"));
+        fields.put("pChi2", Map.of("type", "number",
+            "description", "p-value of Pearson's chi-squared test, provided samples as cases and the rest of cohort as controls"));
+        fields.put("OR", Map.of("type", "number", "description", "Odds ratio in Pearson's chi-squared test"));
+
+        return Map.of(
+            "type", "object",
+            "properties", Map.of(
+                "variants", Map.of(
+                    "type", "array",
+                    "description", "Variants ordered by p-value, most significant first",
+                    "items", Map.of(
+                        "type", "object",
+                        "properties", fields,
+                        "required", VariantArraySchemaGenerator.variantRequired()
+                    )
+                )
+            ),
+            "required", List.of("variants")
+        );
+    }
+}
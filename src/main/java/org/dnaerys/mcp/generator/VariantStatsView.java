@@ -0,0 +1,41 @@
+package org.dnaerys.mcp.generator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.dnaerys.cluster.grpc.VariantWithStats;
+
+import java.io.IOException;
+
+/**
+ * Variant with dataset-wide statistics. Statistics not relevant for the test are null and skipped.
+ */
+@JsonSerialize(using = VariantStatsView.VariantStatsSerializer.class)
+public record VariantStatsView(
+    VariantView variant,
+    Float pHWE,
+    Float pChi2,
+    Float OR
+) {
+
+    public static VariantStatsView hweFromGrpc(VariantWithStats v) {
+        return new VariantStatsView(VariantView.fromGrpc(v.getVariant()), v.getPhwe(), null, null);
+    }
+
+    public static VariantStatsView chi2FromGrpc(VariantWithStats v) {
+        return new VariantStatsView(VariantView.fromGrpc(v.getVariant()), null, v.getPchi2(), v.getOr());
+    }
+
+    public static class VariantStatsSerializer extends JsonSerializer<VariantStatsView> {
+        @Override
+        public void serialize(VariantStatsView v, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject();
+            VariantView.VariantSerializer.writeFields(v.variant(), gen);
+            if (v.pHWE() != null) gen.writeNumberField("pHWE", v.pHWE());
+            if (v.pChi2() != null) gen.writeNumberField("pChi2", v.pChi2());
+            if (v.OR() != null) gen.writeNumberField("OR", v.OR());
+            gen.writeEndObject();
+        }
+    }
+}
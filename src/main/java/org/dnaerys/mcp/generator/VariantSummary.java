@@ -0,0 +1,86 @@
+package org.dnaerys.mcp.generator;
+
+import org.dnaerys.cluster.grpc.Variant;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summary of variants returned instead of full rows when a response exceeds the response budget.
+ * Histograms and top variants are computed over distinct variants.
+ */
+public record VariantSummary(
+    String reason,
+    int samples,
+    int variantRows,
+    int distinctVariants,
+    int minVariantsPerSample,
+    int medianVariantsPerSample,
+    int maxVariantsPerSample,
+    Map<String, Integer> afHistogram,
+    Map<String, Integer> alphaMissenseHistogram,
+    List<Variant> topVariants
+) {
+
+    public static final int TOP_VARIANTS = 10;
+
+    private static final float[] AF_BOUNDS = {0.001f, 0.01f, 0.05f, 0.5f};
+    private static final String[] AF_BINS = {"<0.001", "0.001-0.01", "0.01-0.05", "0.05-0.5", ">=0.5"};
+
+    // AlphaMissense class thresholds
+    private static final float AM_AMBIGUOUS = 0.34f;
+    private static final float AM_PATHOGENIC = 0.564f;
+
+    public static VariantSummary of(Map<String, ? extends Collection<Variant>> variantsBySample, String reason) {
+        int[] perSample = variantsBySample.values().stream().mapToInt(Collection::size).sorted().toArray();
+        int rows = Arrays.stream(perSample).sum();
+
+        Map<String, Variant> distinct = new HashMap<>();
+        for (Collection<Variant> variants : variantsBySample.values()) {
+            for (Variant v : variants) {
+                distinct.putIfAbsent(v.getChrValue() + ":" + v.getStart() + ":" + v.getRef() + ":" + v.getAlt(), v);
+            }
+        }
+
+        Map<String, Integer> af = new LinkedHashMap<>();
+        for (String bin : AF_BINS) af.put(bin, 0);
+        Map<String, Integer> am = new LinkedHashMap<>();
+        am.put("not annotated", 0);
+        am.put("likely benign", 0);
+        am.put("ambiguous", 0);
+        am.put("likely pathogenic", 0);
+
+        for (Variant v : distinct.values()) {
+            int bin = 0;
+            while (bin < AF_BOUNDS.length && v.getAf() >= AF_BOUNDS[bin]) bin++;
+            af.merge(AF_BINS[bin], 1, Integer::sum);
+
+            float score = v.getAmScore();
+            String amClass = score == 0f ? "not annotated"
+                : score < AM_AMBIGUOUS ? "likely benign"
+                : score < AM_PATHOGENIC ? "ambiguous"
+                : "likely pathogenic";
+            am.merge(amClass, 1, Integer::sum);
+        }
+
+        // impact is not part of Variant, so the most damaging variants are ranked by AlphaMissense, then CADD
+        List<Variant> top = distinct.values().stream()
+            .sorted(Comparator.comparingDouble(Variant::getAmScore).reversed()
+                .thenComparing(Comparator.comparingDouble(Variant::getCaddPhred).reversed())
+                .thenComparingInt(Variant::getChrValue)
+                .thenComparingInt(Variant::getStart))
+            .limit(TOP_VARIANTS)
+            .toList();
+
+        return new VariantSummary(reason, perSample.length, rows, distinct.size(),
+            perSample.length == 0 ? 0 : perSample[0],
+            perSample.length == 0 ? 0 : perSample[perSample.length / 2],
+            perSample.length == 0 ? 0 : perSample[perSample.length - 1],
+            af, am, top);
+    }
+}
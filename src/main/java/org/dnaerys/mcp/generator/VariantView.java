@@ -56,7 +56,14 @@ public record VariantView(
         @Override
         public void serialize(VariantView v, JsonGenerator gen, SerializerProvider serializers) throws IOException {
             gen.writeStartObject();
+            writeFields(v, gen);
+            gen.writeEndObject();
+        }
 
+        /**
+         * Writes variant fields into the current JSON object, shared with views extending a variant.
+         */
+        static void writeFields(VariantView v, JsonGenerator gen) throws IOException {
             // Required Fields
             gen.writeStringField("chr", mapChr(v.chrIdx()));
             gen.writeNumberField("pos", v.pos());
@@ -76,11 +83,9 @@ public record VariantView(
             if (v.HGVSp != null && !v.HGVSp.isEmpty()) {
                 gen.writeStringField("HGVSp", v.HGVSp);
             }
-
-            gen.writeEndObject();
         }
 
-        private String mapChr(int chrIdx) {
+        static String mapChr(int chrIdx) {
             Chromosome chr = Chromosome.forNumber(chrIdx);
             if (chr == null) return "0";
             return switch (chr) {
@@ -7,8 +7,8 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * Interceptor binding that triggers {@link ToolCallLoggingInterceptor} so every
- * intercepted method (the MCP {@code @Tool} entry points) is logged at DEBUG.
+ * Interceptor binding that triggers {@link ToolCallLoggingInterceptor}. Place it on
+ * MCP {@code @Tool} entry points only, not on the tool bean.
  */
 @InterceptorBinding
 @Retention(RetentionPolicy.RUNTIME)
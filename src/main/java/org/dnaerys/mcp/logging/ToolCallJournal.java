@@ -0,0 +1,252 @@
+package org.dnaerys.mcp.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured journal of MCP tool calls, one NDJSON record per call:
+ * <pre>
+ * {"ts":"2026-01-01T00:00:00.000Z","tool":"countVariants","args":"5f0c6e2a9d31b7c4","latencyUs":1834,"status":"OK","bytes":212}
+ * </pre>
+ * {@code args} is a hash of the non-null arguments by parameter name, equal for equal calls, and
+ * {@code bytes} is the serialized response size (-1 if the call failed before producing one).
+ * <p>
+ * Tool threads only publish references into a preallocated lock-free ring buffer (multiple
+ * producers, single consumer); hashing, formatting and I/O happen on a background writer. When the
+ * buffer is full records are dropped and counted ({@code dnaerys.journal.dropped}) rather than
+ * blocking a tool call. Successful calls are sampled with {@code dnaerys.journal.sample-rate},
+ * failures are always recorded. Disabled unless {@code dnaerys.journal.file} is set.
+ */
+@ApplicationScoped
+public class ToolCallJournal {
+
+    private static final Logger LOG = Logger.getLogger(ToolCallJournal.class);
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @ConfigProperty(name = "dnaerys.journal.file")
+    Optional<String> file;
+
+    // fraction of successful calls recorded
+    @ConfigProperty(name = "dnaerys.journal.sample-rate", defaultValue = "1.0")
+    double sampleRate;
+
+    // ring buffer slots, rounded up to a power of two
+    @ConfigProperty(name = "dnaerys.journal.capacity", defaultValue = "8192")
+    int capacity;
+
+    @Inject
+    MeterRegistry registry;
+
+    private static final class Entry {
+        long timestampMillis;
+        Method method;
+        Object[] args;
+        String status;
+        long latencyNanos;
+        long bytes;
+    }
+
+    private volatile boolean enabled;
+    private volatile boolean running;
+    private Entry[] entries;
+    // slot i is free for producer position p when sequence == p, readable at head h when sequence == h + 1
+    private AtomicLongArray sequences;
+    private int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // writer only
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private Writer out;
+    private Thread writer;
+
+    void onStart(@Observes StartupEvent event) {
+        if (file.isEmpty()) return;
+        try {
+            open(Path.of(file.get()));
+        } catch (IOException e) {
+            LOG.warnf("Tool call journal disabled, cannot open %s: %s", file.get(), e.getMessage());
+            return;
+        }
+        FunctionCounter.builder("dnaerys.journal.dropped", dropped, LongAdder::sum)
+            .description("Tool call journal records dropped on a full buffer")
+            .register(registry);
+        FunctionCounter.builder("dnaerys.journal.written", written, LongAdder::sum)
+            .description("Tool call journal records written")
+            .register(registry);
+        running = true;
+        writer = new Thread(this::writeLoop, "dnaerys-journal");
+        writer.setDaemon(true);
+        writer.start();
+        LOG.infof("Journaling tool calls to %s, sample rate %.3f", file.get(), sampleRate);
+    }
+
+    void open(Path path) throws IOException {
+        int slots = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        entries = new Entry[slots];
+        sequences = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            entries[i] = new Entry();
+            sequences.set(i, i);
+        }
+        mask = slots - 1;
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        enabled = true;
+    }
+
+    public boolean enabled() { return enabled; }
+
+    /**
+     * Publishes a tool call for the writer; never blocks.
+     *
+     * @param args invocation arguments, kept by reference until written
+     * @param status "OK", gRPC status code name or "LOCAL"
+     * @param bytes serialized response size or -1
+     */
+    public void record(Method method, Object[] args, String status, long latencyNanos, long bytes) {
+        if (!enabled) return;
+        if (sampleRate < 1.0 && "OK".equals(status) && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        long position;
+        int slot;
+        while (true) {
+            position = tail.get();
+            slot = (int) position & mask;
+            long sequence = sequences.getAcquire(slot);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) break;
+            } else if (sequence < position) {
+                dropped.increment();
+                return;
+            }
+        }
+        Entry entry = entries[slot];
+        entry.timestampMillis = System.currentTimeMillis();
+        entry.method = method;
+        entry.args = args;
+        entry.status = status;
+        entry.latencyNanos = latencyNanos;
+        entry.bytes = bytes;
+        sequences.setRelease(slot, position + 1);
+    }
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                if (drain() == 0) {
+                    out.flush();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            } catch (IOException e) {
+                LOG.warnf("Tool call journal write failed: %s", e.getMessage());
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Writes all published records; called by a single thread at a time.
+     *
+     * @return number of records written
+     */
+    int drain() throws IOException {
+        int n = 0;
+        StringBuilder line = new StringBuilder(160);
+        while (true) {
+            int slot = (int) head & mask;
+            if (sequences.getAcquire(slot) != head + 1) break;
+            Entry entry = entries[slot];
+            line.setLength(0);
+            format(entry, line);
+            entry.method = null;
+            entry.args = null;
+            entry.status = null;
+            sequences.setRelease(slot, head + mask + 1);
+            head++;
+            out.write(line.append('\n').toString());
+            n++;
+        }
+        written.add(n);
+        return n;
+    }
+
+    private static void format(Entry entry, StringBuilder line) {
+        line.append("{\"ts\":\"").append(Instant.ofEpochMilli(entry.timestampMillis))
+            .append("\",\"tool\":\"").append(entry.method.getName())
+            .append("\",\"args\":\"").append(argsHash(entry.method, entry.args))
+            .append("\",\"latencyUs\":").append(entry.latencyNanos / 1_000)
+            .append(",\"status\":\"").append(entry.status)
+            .append("\",\"bytes\":").append(entry.bytes)
+            .append('}');
+    }
+
+    /**
+     * 64-bit FNV-1a over {@code name=value} of non-null arguments in declaration order, as hex.
+     * Arguments are strings, numbers, booleans and lists of them, so {@code toString} is canonical.
+     */
+    static String argsHash(Method method, Object[] args) {
+        Parameter[] params = method.getParameters();
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] == null) continue;
+            hash = fnv(hash, params[i].getName());
+            hash = fnv(hash, "=");
+            hash = fnv(hash, String.valueOf(args[i]));
+            hash = fnv(hash, ";");
+        }
+        return String.format("%016x", hash);
+    }
+
+    private static long fnv(long hash, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            hash ^= s.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    long droppedCount() { return dropped.sum(); }
+
+    @PreDestroy
+    void close() {
+        if (!enabled) return;
+        enabled = false;
+        running = false;
+        try {
+            if (writer != null) writer.join(TimeUnit.SECONDS.toMillis(5));
+            drain();
+            out.close();
+        } catch (IOException e) {
+            LOG.warnf("Tool call journal close failed: %s", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,48 +1,100 @@
 package org.dnaerys.mcp.logging;
 
-import io.quarkiverse.mcp.server.Tool;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
 import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
 import jakarta.interceptor.AroundInvoke;
 import jakarta.interceptor.Interceptor;
 import jakarta.interceptor.InvocationContext;
-import org.jboss.logging.Logger;
+import org.dnaerys.mcp.util.ToolCallContext;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
-import java.util.StringJoiner;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Logs each incoming MCP tool call (method name + arguments) at DEBUG.
+ * Publishes each incoming MCP tool call to the {@link ToolCallJournal}, exposes
+ * the tool name to response statistics via {@link ToolCallContext} and records
+ * per-tool latency ({@code mcp.tool.calls}) and failures ({@code mcp.tool.errors}).
+ * Each tool call runs in its own span, the parent of the RPC spans it issues.
+ * Arguments are not formatted on the calling thread; the journal records their hash.
+ * Meters are tagged with the tool name and the gRPC status code only ("OK" on success,
+ * "LOCAL" for failures without a gRPC status, e.g. invalid parameters), so their
+ * cardinality is bounded by the number of tools.
  *
  * <p>The quarkus-mcp-server extension invokes {@code @Tool} methods through the
  * CDI {@code jakarta.enterprise.invoke.Invoker} API (with instance lookup and no
  * interceptor opt-out), so a standard {@code @AroundInvoke} interceptor fires on
- * every tool call. Bound at class level via {@link LogToolCall} on the tool bean.
+ * every tool call. Bound per method via {@link LogToolCall} on each {@code @Tool} method;
+ * a class-level binding would also intercept helper methods of the tool bean.
  */
 @LogToolCall
 @Interceptor
 @Priority(Interceptor.Priority.APPLICATION)
 public class ToolCallLoggingInterceptor {
 
-    private static final Logger LOG = Logger.getLogger("org.dnaerys.mcp.toolcalls");
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Tracer tracer;
+
+    @Inject
+    ToolCallJournal journal;
 
     @AroundInvoke
     Object logToolCall(InvocationContext ctx) throws Exception {
         Method method = ctx.getMethod();
-        // Class-level binding intercepts every business method; Arc uses subclass-based
-        // interception, so even internal helper calls (e.g. getGenomicRegions) are seen.
-        // Restrict logging to actual MCP tool entry points.
-        if (LOG.isDebugEnabled() && method.isAnnotationPresent(Tool.class)) {
-            Parameter[] params = method.getParameters();
-            Object[] args = ctx.getParameters();
-            StringJoiner sj = new StringJoiner(", ", "{", "}");
-            for (int i = 0; i < args.length; i++) {
-                if (args[i] != null) {
-                    sj.add(params[i].getName() + "=" + args[i]);
-                }
-            }
-            LOG.debugf("MCP tool call: %s %s", method.getName(), sj);
+        String tool = method.getName();
+        ToolCallContext.enter(tool);
+        Span span = tracer.spanBuilder("tool " + tool).setAttribute("mcp.tool.name", tool).startSpan();
+        long started = System.nanoTime();
+        String status = "OK";
+        try (Scope ignored = span.makeCurrent()) {
+            return ctx.proceed();
+        } catch (StatusRuntimeException e) {
+            status = e.getStatus().getCode().name();
+            span.recordException(e);
+            throw e;
+        } catch (Exception e) {
+            status = ToolCallContext.failureStatus() != null ? ToolCallContext.failureStatus() : "LOCAL";
+            span.recordException(e);
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - started;
+            long bytes = ToolCallContext.responseBytes();
+            ToolCallContext.exit();
+            if (!"OK".equals(status)) span.setStatus(StatusCode.ERROR, status);
+            span.end();
+            record(tool, status, elapsed);
+            journal.record(method, ctx.getParameters(), status, elapsed, bytes);
+        }
+    }
+
+    private void record(String tool, String status, long nanos) {
+        Timer.builder("mcp.tool.calls")
+            .description("MCP tool call latency")
+            .tag("tool", tool)
+            .tag("status", status)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofMinutes(2))
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+        if (!"OK".equals(status)) {
+            Counter.builder("mcp.tool.errors")
+                .description("Failed MCP tool calls by gRPC status")
+                .tag("tool", tool)
+                .tag("status", status)
+                .register(registry)
+                .increment();
         }
-        return ctx.proceed();
     }
 }
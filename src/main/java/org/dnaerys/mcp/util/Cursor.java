@@ -0,0 +1,39 @@
+package org.dnaerys.mcp.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation cursor returned when a response is paged to fit the response budget.
+ * Encodes what is paged (e.g. "samples"), page offset and page size.
+ */
+public record Cursor(String kind, int offset, int count) {
+
+    public String encode() {
+        String plain = kind + ":" + offset + ":" + count;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Cursor next() {
+        return new Cursor(kind, offset + count, count);
+    }
+
+    /**
+     * @return decoded cursor or null if no cursor is given
+     */
+    public static Cursor decode(String cursor, String expectedKind) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String plain = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] parts = plain.split(":");
+            if (parts.length == 3 && parts[0].equals(expectedKind)) {
+                int offset = Integer.parseInt(parts[1]);
+                int count = Integer.parseInt(parts[2]);
+                if (offset >= 0 && count > 0) return new Cursor(parts[0], offset, count);
+            }
+        } catch (IllegalArgumentException e) {
+            // falls through to the error below, NumberFormatException included
+        }
+        throw new RuntimeException("Invalid parameter: 'cursor' is not a cursor returned by this tool");
+    }
+}
@@ -0,0 +1,19 @@
+package org.dnaerys.mcp.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.jackson.ObjectMapperCustomizer;
+import jakarta.inject.Singleton;
+import org.dnaerys.mcp.generator.GrpcVariantSerializer;
+
+/**
+ * Registers serializers for gRPC messages returned as is from tools, so that they are written
+ * directly to JSON instead of being mapped to view records first.
+ */
+@Singleton
+public class JacksonCustomizer implements ObjectMapperCustomizer {
+
+    @Override
+    public void customize(ObjectMapper mapper) {
+        mapper.registerModule(GrpcVariantSerializer.module());
+    }
+}
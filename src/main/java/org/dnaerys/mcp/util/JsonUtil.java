@@ -3,7 +3,9 @@ package org.dnaerys.mcp.util;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import java.util.Collection;
+
+import java.io.IOException;
+import java.io.Writer;
 
 @ApplicationScoped
 public class JsonUtil {
@@ -23,14 +25,84 @@ public class JsonUtil {
     }
 
     /**
-     * Serializes a collection directly via Jackson.
+     * Converts an object to a JSON string unless it exceeds {@code maxBytes} in UTF-8.
+     * Serialization stops as soon as the limit is crossed, so oversized payloads are never fully built.
+     *
+     * @return JSON string or null if the limit would be exceeded
+     */
+    public String stringifyWithin(Object obj, long maxBytes) {
+        BoundedWriter writer = new BoundedWriter(maxBytes, true);
+        return write(obj, writer) ? writer.json.toString() : null;
+    }
+
+    /**
+     * @return UTF-8 size of the object serialization, or -1 if it exceeds {@code maxBytes}; JSON is not kept
      */
-    public <T> String toJsonArray(Collection<T> collection) {
-        if (collection == null || collection.isEmpty()) return "[]";
+    public long sizeWithin(Object obj, long maxBytes) {
+        BoundedWriter writer = new BoundedWriter(maxBytes, false);
+        return write(obj, writer) ? writer.bytes : -1;
+    }
+
+    private boolean write(Object obj, BoundedWriter writer) {
         try {
-            return mapper.writeValueAsString(collection);
+            mapper.writeValue(writer, obj);
+            return true;
         } catch (Exception e) {
-            return "[]";
+            for (Throwable t = e; t != null; t = t.getCause()) {
+                if (t instanceof LimitExceeded) return false;
+            }
+            // same behaviour as stringify() for failures not related to size
+            if (writer.json != null) {
+                writer.json.setLength(0);
+                writer.json.append("{}");
+            }
+            writer.bytes = 2;
+            return true;
         }
     }
-}
\ No newline at end of file
+
+    private static final class LimitExceeded extends IOException {
+        LimitExceeded() { super("JSON size limit exceeded", null); }
+    }
+
+    /**
+     * Counts UTF-8 bytes of written characters and fails once the limit is crossed.
+     */
+    private static final class BoundedWriter extends Writer {
+        private final long maxBytes;
+        private final StringBuilder json;
+        private long bytes;
+
+        BoundedWriter(long maxBytes, boolean keep) {
+            this.maxBytes = maxBytes;
+            this.json = keep ? new StringBuilder() : null;
+        }
+
+        @Override
+        public void write(char[] buf, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) count(buf[i]);
+            if (bytes > maxBytes) throw new LimitExceeded();
+            if (json != null) json.append(buf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            for (int i = off; i < off + len; i++) count(str.charAt(i));
+            if (bytes > maxBytes) throw new LimitExceeded();
+            if (json != null) json.append(str, off, off + len);
+        }
+
+        private void count(char c) {
+            if (c < 0x80) bytes++;
+            else if (c < 0x800) bytes += 2;
+            else if (Character.isHighSurrogate(c)) bytes += 4;
+            else if (!Character.isLowSurrogate(c)) bytes += 3;
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+}
@@ -5,11 +5,11 @@ import io.quarkiverse.mcp.server.ToolResponse;
 import io.quarkiverse.mcp.server.ToolCallException;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
-import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Supplier;
 
 @ApplicationScoped
 public class McpResponse {
@@ -17,47 +17,72 @@ public class McpResponse {
     @Inject
     JsonUtil jsonUtil;
 
+    @Inject
+    ResponseStats stats;
+
+    // duplicate the structured payload as text content, as recommended for clients without structured content support
+    @ConfigProperty(name = "dnaerys.mcp.response.text-content", defaultValue = "true")
+    boolean textContent;
+
+    // upper bound on structured payload size for tools with unbounded results (~4 bytes per token)
+    @ConfigProperty(name = "dnaerys.mcp.response.max-bytes", defaultValue = "262144")
+    long maxBytes;
+
     private static final Logger LOG = Logger.getLogger(McpResponse.class);
 
     /**
-     * Success for collections
+     * Success: serializes the object once, the same JSON is used for text content and structured content.
+     * Text content may be switched off for clients which consume structured content only.
      */
-    public ToolResponse success(Object structured, Collection<?> rawData) {
-        String jsonText = jsonUtil.toJsonArray(rawData);
+    public ToolResponse success(Object structured) {
+        long started = System.nanoTime();
+        return response(structured, jsonUtil.stringify(structured), started);
+    }
+
+    private ToolResponse response(Object structured, String json, long started) {
+        long bytes = utf8Length(json);
+        stats.record(ToolCallContext.currentTool(), bytes, System.nanoTime() - started);
+        ToolCallContext.responded(bytes);
+
         return new ToolResponse(
             false,
-            List.of(new TextContent(jsonText)),
-            structured,
+            textContent ? List.of(new TextContent(json)) : List.of(),
+            new SerializedContent(structured, json),
             null
         );
     }
 
     /**
-     * Success for maps of collections
+     * Success within response budget: serialization is aborted once the payload exceeds the budget,
+     * and the response built by {@code overBudget} (typically a summary with a continuation cursor)
+     * is returned instead.
      */
-    public ToolResponse success(Object structured, Map<String, ? extends Collection<?>> rawData) {
-        String jsonText = jsonUtil.stringify(rawData);
-        return new ToolResponse(
-            false,
-            List.of(new TextContent(jsonText)),
-            structured,
-            null
-        );
+    public ToolResponse successWithinBudget(Object structured, Supplier<Object> overBudget) {
+        long started = System.nanoTime();
+        String json = jsonUtil.stringifyWithin(structured, maxBytes);
+        if (json != null) {
+            return response(structured, json, started);
+        }
+        LOG.debugf("%s: response exceeds budget of %d bytes, returning summary", ToolCallContext.currentTool(), maxBytes);
+        return success(overBudget.get());
     }
 
     /**
-     * Success for simple objects: Serializes the object for both fields (content & structuredContent).
+     * @return number of leading items which fit into the response budget together, without building their JSON
      */
-    public ToolResponse success(Object structured) {
-        String jsonText = jsonUtil.stringify(structured);
-        return new ToolResponse(
-            false,
-            List.of(new TextContent(jsonText)),
-            structured,
-            null
-        );
+    public int fittingPrefix(List<?> items) {
+        // reserve for enclosing object, summary and cursor
+        long remaining = maxBytes - Math.min(maxBytes / 8, 16_384);
+        for (int i = 0; i < items.size(); i++) {
+            long size = jsonUtil.sizeWithin(items.get(i), remaining);
+            if (size < 0) return i;
+            remaining -= size + 1;
+        }
+        return items.size();
     }
 
+    public long maxBytes() { return maxBytes; }
+
     /**
      * Returning ToolCallException so Quarkus sets isError=true and uses the message as content
      */
@@ -65,6 +90,7 @@ public class McpResponse {
         if (t instanceof ToolCallException te) return te;
 
         if (t instanceof io.grpc.StatusRuntimeException grpcEx) {
+            ToolCallContext.failed(grpcEx.getStatus().getCode().name());
             String details = grpcEx.getStatus().getDescription() != null
                 ? ": " + grpcEx.getStatus().getDescription()
                 : "";
@@ -94,4 +120,22 @@ public class McpResponse {
         String fallback = t.getMessage() != null ? t.getMessage() : "An unexpected processing error occurred.";
         return new ToolCallException(fallback);
     }
+
+    static long utf8Length(String s) {
+        long bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package org.dnaerys.mcp.util;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-tool response sizes and serialization times.
+ * Each response is logged at DEBUG and recorded in the {@code mcp.tool.response.bytes} and
+ * {@code mcp.tool.serialization} meters; cumulative totals are available via {@link #snapshot()}.
+ */
+@ApplicationScoped
+public class ResponseStats {
+
+    private static final Logger LOG = Logger.getLogger(ResponseStats.class);
+
+    public record ToolStats(long responses, long bytes, long serializationNanos) {}
+
+    private static final class Counters {
+        final LongAdder responses = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+    }
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentHashMap<String, Counters> byTool = new ConcurrentHashMap<>();
+
+    /**
+     * @param bytes UTF-8 size of the serialized payload; it is sent once as text and once as structured content
+     */
+    public void record(String tool, long bytes, long serializationNanos) {
+        Counters counters = byTool.computeIfAbsent(tool, t -> new Counters());
+        counters.responses.increment();
+        counters.bytes.add(bytes);
+        counters.nanos.add(serializationNanos);
+        DistributionSummary.builder("mcp.tool.response.bytes")
+            .description("UTF-8 size of tool response payloads")
+            .baseUnit("bytes")
+            .tag("tool", tool)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(64.0)
+            .maximumExpectedValue(4.0 * 1024 * 1024)
+            .register(registry)
+            .record(bytes);
+        Timer.builder("mcp.tool.serialization")
+            .description("Serialization time of tool response payloads")
+            .tag("tool", tool)
+            .register(registry)
+            .record(serializationNanos, TimeUnit.NANOSECONDS);
+        LOG.debugf("%s: response %d bytes, serialized in %d us", tool, bytes, serializationNanos / 1_000);
+    }
+
+    public Map<String, ToolStats> snapshot() {
+        Map<String, ToolStats> snapshot = new TreeMap<>();
+        byTool.forEach((tool, c) ->
+            snapshot.put(tool, new ToolStats(c.responses.sum(), c.bytes.sum(), c.nanos.sum())));
+        return snapshot;
+    }
+}
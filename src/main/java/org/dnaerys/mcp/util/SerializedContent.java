@@ -0,0 +1,26 @@
+package org.dnaerys.mcp.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+
+/**
+ * Structured content which has already been serialized to JSON.
+ * <p>
+ * The JSON is written as is when the framework encodes the tool result, so the payload is serialized
+ * once and the same JSON backs both text and structured content. {@code value} is kept for callers
+ * (e.g. tests) which need the original object.
+ */
+@JsonSerialize(using = SerializedContent.RawJsonSerializer.class)
+public record SerializedContent(Object value, String json) {
+
+    public static class RawJsonSerializer extends JsonSerializer<SerializedContent> {
+        @Override
+        public void serialize(SerializedContent c, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeRawValue(c.json());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.dnaerys.mcp.util;
+
+/**
+ * Name of the MCP tool being executed on the current thread, set by the tool call interceptor.
+ * Tools are invoked synchronously on a virtual thread per call, so a thread local is sufficient.
+ */
+public final class ToolCallContext {
+
+    private static final ThreadLocal<String> CURRENT_TOOL = new ThreadLocal<>();
+    private static final ThreadLocal<String> FAILURE_STATUS = new ThreadLocal<>();
+    // mutable holder, so recording the size on every call does not box
+    private static final ThreadLocal<long[]> RESPONSE_BYTES = ThreadLocal.withInitial(() -> new long[] {-1});
+
+    private ToolCallContext() {}
+
+    public static void enter(String tool) { CURRENT_TOOL.set(tool); }
+
+    public static void exit() {
+        CURRENT_TOOL.remove();
+        FAILURE_STATUS.remove();
+        RESPONSE_BYTES.get()[0] = -1;
+    }
+
+    /**
+     * @param bytes UTF-8 size of the serialized response of the current tool call
+     */
+    public static void responded(long bytes) { RESPONSE_BYTES.get()[0] = bytes; }
+
+    /**
+     * @return UTF-8 size of the serialized response or -1 if none was produced
+     */
+    public static long responseBytes() { return RESPONSE_BYTES.get()[0]; }
+
+    /**
+     * Records why the current tool call failed, before the cause is replaced by a ToolCallException.
+     *
+     * @param status gRPC status code name
+     */
+    public static void failed(String status) { FAILURE_STATUS.set(status); }
+
+    /**
+     * @return gRPC status code name of the failure or null if none was recorded
+     */
+    public static String failureStatus() { return FAILURE_STATUS.get(); }
+
+    /**
+     * @return current tool name or "unknown" outside of a tool call
+     */
+    public static String currentTool() {
+        String tool = CURRENT_TOOL.get();
+        return tool == null ? "unknown" : tool;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the persistent disk result cache.
+ *
+ * Test Case IDs: DISK-001 through DISK-006
+ */
+@DisplayName("DiskResultCache Tests")
+class DiskResultCacheTest {
+
+    private static final String V1 = "2025-01-01/GRCh38/3/138044723/3202";
+    private static final String V2 = "2026-01-01/GRCh38/3/138044723/3202";
+
+    @TempDir
+    Path dir;
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("DISK-001: entries survive reopening the cache directory")
+    void testSurvivesRestart() {
+        try (DiskResultCache cache = new DiskResultCache(dir, 1 << 20, 1 << 16)) {
+            cache.put(V1, "TopNHWE", bytes("n=10"), bytes("top10"));
+            cache.put(V1, "TopNHWE", bytes("n=20"), bytes("top20"));
+        }
+
+        try (DiskResultCache cache = new DiskResultCache(dir, 1 << 20, 1 << 16)) {
+            assertThat(cache.get(V1, "TopNHWE", bytes("n=10"))).isEqualTo(bytes("top10"));
+            assertThat(cache.get(V1, "TopNHWE", bytes("n=20"))).isEqualTo(bytes("top20"));
+            assertThat(cache.get(V1, "TopNchi2", bytes("n=10"))).isNull();
+            assertThat(cache.size()).isEqualTo(2);
+            assertThat(cache.hitCount()).isEqualTo(2);
+            assertThat(cache.missCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("DISK-002: entries of another dataset version are never returned and are compacted away")
+    void testDatasetVersion() throws IOException {
+        try (DiskResultCache cache = new DiskResultCache(dir, 1 << 20, 1 << 16)) {
+            cache.put(V1, "FstatX", bytes("aaf=0"), bytes("fstats"));
+        }
+
+        try (DiskResultCache cache = new DiskResultCache(dir, 1 << 20, 1 << 16)) {
+            assertThat(cache.get(V2, "FstatX", bytes("aaf=0"))).isNull();
+            cache.maintain();
+
+            assertThat(cache.size()).isZero();
+            assertThat(cache.segmentCount()).isZero();
+        }
+        assertThat(segments()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("DISK-003: oldest segments are deleted once the size cap is exceeded")
+    void testSizeCap() {
+        byte[] payload = new byte[400];
+        try (DiskResultCache cache = new DiskResultCache(dir, 2000, 1000)) {
+            for (int i = 0; i < 10; i++) {
+                cache.put(V1, "Prs", bytes("prs-" + i), payload);
+            }
+            cache.maintain();
+
+            assertThat(cache.bytes()).isLessThanOrEqualTo(2000);
+            assertThat(cache.get(V1, "Prs", bytes("prs-0"))).isNull();
+            assertThat(cache.get(V1, "Prs", bytes("prs-9"))).isEqualTo(payload);
+        }
+    }
+
+    @Test
+    @DisplayName("DISK-004: corrupted payloads and a torn record at the end of a segment are ignored")
+    void testCorruption() throws IOException {
+        try (DiskResultCache cache = new DiskResultCache(dir, 1 << 20, 1 << 16)) {
+            cache.put(V1, "Prs", bytes("a"), bytes("first"));
+            cache.put(V1, "Prs", bytes("b"), bytes("second"));
+        }
+        Path segment = segments().getFirst();
+        byte[] content = Files.readAllBytes(segment);
+        // flip the last byte of the first payload, then append half a header
+        int firstPayloadEnd = 52 + "first".length();
+        content[firstPayloadEnd - 1] ^= 0x7f;
+        Files.write(segment, content);
+        Files.write(segment, Arrays.copyOf(content, 20), StandardOpenOption.APPEND);
+
+        try (DiskResultCache cache = new DiskResultCache(dir, 1 << 20, 1 << 16)) {
+            assertThat(cache.get(V1, "Prs", bytes("a"))).isNull();
+            assertThat(cache.get(V1, "Prs", bytes("b"))).isEqualTo(bytes("second"));
+            cache.put(V1, "Prs", bytes("a"), bytes("first"));
+            assertThat(cache.get(V1, "Prs", bytes("a"))).isEqualTo(bytes("first"));
+        }
+    }
+
+    @Test
+    @DisplayName("DISK-005: records appended to a known segment by another writer are picked up")
+    void testGrowingSegment() {
+        try (DiskResultCache writer = new DiskResultCache(dir, 1 << 20, 1 << 16);
+             DiskResultCache reader = new DiskResultCache(dir, 1 << 20, 1 << 16)) {
+            writer.put(V1, "Prs", bytes("a"), bytes("first"));
+            assertThat(reader.get(V1, "Prs", bytes("a"))).isEqualTo(bytes("first"));
+
+            writer.put(V1, "Prs", bytes("b"), bytes("second"));
+            assertThat(reader.get(V1, "Prs", bytes("b"))).isNull();
+            reader.maintain();
+
+            assertThat(reader.get(V1, "Prs", bytes("b"))).isEqualTo(bytes("second"));
+        }
+    }
+
+    @Test
+    @DisplayName("DISK-006: the newest segment of another live process is not deleted")
+    void testLiveProcessSegment() throws Exception {
+        long livePid = ProcessHandle.current().parent().orElseThrow().pid();
+        Process exited = new ProcessBuilder(ProcessHandle.current().info().command().orElseThrow(), "-version")
+            .redirectErrorStream(true).start();
+        exited.getInputStream().transferTo(OutputStream.nullOutputStream());
+        exited.waitFor();
+        Path deadSegment = dir.resolve(String.format("%013d-%d.seg", 1, exited.pid()));
+        Path liveSegment = dir.resolve(String.format("%013d-%d.seg", 2, livePid));
+        byte[] payload = new byte[400];
+
+        try (DiskResultCache cache = new DiskResultCache(dir, 2000, 1000)) {
+            cache.put(V1, "Prs", bytes("dead"), payload);
+        }
+        Files.move(segments().getFirst(), deadSegment);
+        try (DiskResultCache cache = new DiskResultCache(dir, 2000, 1000)) {
+            cache.put(V1, "Prs", bytes("live"), payload);
+        }
+        Files.move(segments().getLast(), liveSegment);
+
+        try (DiskResultCache cache = new DiskResultCache(dir, 2000, 1000)) {
+            for (int i = 0; i < 10; i++) {
+                cache.put(V1, "Prs", bytes("prs-" + i), payload);
+            }
+            cache.maintain();
+
+            assertThat(deadSegment).doesNotExist();
+            assertThat(liveSegment).exists();
+            assertThat(cache.get(V1, "Prs", bytes("live"))).isEqualTo(payload);
+            assertThat(cache.get(V1, "Prs", bytes("dead"))).isNull();
+        }
+    }
+}
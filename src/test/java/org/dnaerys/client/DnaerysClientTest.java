@@ -1,10 +1,18 @@
 package org.dnaerys.client;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
 import io.quarkus.test.common.QuarkusTestResource;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
 import org.dnaerys.cluster.grpc.*;
+import org.dnaerys.test.InMemorySpanExporterProducer;
+import org.dnaerys.test.SlowQueryReplay;
 import org.dnaerys.test.WireMockGrpcResource;
 import org.dnaerys.test.WireMockGrpcResource.InjectWireMockGrpc;
 import org.dnaerys.test.WireMockGrpcResource.InjectWireMockServer;
@@ -19,10 +27,15 @@ import org.wiremock.grpc.dsl.WireMockGrpcService;
 import org.dnaerys.mcp.OneKGPdMCPServer.GenomicRegion;
 import org.dnaerys.mcp.OneKGPdMCPServer.SelectByAnnotations;
 
+import java.nio.file.Path;
 import java.util.Iterator;
 import java.util.List;
+import java.util.stream.IntStream;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
@@ -53,6 +66,9 @@ class DnaerysClientTest {
     @InjectWireMockServer
     WireMockServer wireMockServer;
 
+    @Inject
+    InMemorySpanExporter spans;
+
     // Mock stub used only by disabled PaginationLogicTests (streaming RPC tests)
     // Kept for compilation only - not used by enabled tests
     @SuppressWarnings("unused")
@@ -985,7 +1001,7 @@ class DnaerysClientTest {
         }
 
         @Test
-        @DisplayName("CLI-PAG-007: Valid skip is passed through")
+        @DisplayName("CLI-PAG-007: Valid skip is applied after merging, nodes return skip + limit variants")
         void testValidSkipPassthrough() {
             @SuppressWarnings("unchecked")
             Iterator<AllelesResponse> emptyIterator = mock(Iterator.class);
@@ -999,11 +1015,1047 @@ class DnaerysClientTest {
             );
 
             verify(mockBlockingStub).selectVariantsInMultiRegions(argThat(request ->
-                request.getSkip() == 200
+                request.getSkip() == 0 && request.getLimit() == 250
             ));
         }
     }
 
+    // ========================================
+    // GENOME-WIDE STATISTICS TESTS (CLI-STAT-*)
+    // Uses WireMock gRPC for mocking unary TopNHWE / TopNchi2 RPCs.
+    // Results are cached for the lifetime of the client, hence each test uses its own N.
+    // ========================================
+
+    @Nested
+    @DisplayName("Genome-wide Statistics Tests")
+    class GenomeWideStatisticsTests {
+
+        private static final String SERVICE_PATH = "/org.dnaerys.cluster.grpc.DnaerysService/";
+
+        private VariantWithStats variantWithStats(int start, float phwe, float pchi2) {
+            Variant variant = Variant.newBuilder()
+                .setChr(Chromosome.CHR_1)
+                .setStart(start)
+                .setEnd(start)
+                .setRef("A")
+                .setAlt("G")
+                .build();
+            return VariantWithStats.newBuilder()
+                .setVariant(variant)
+                .setPhwe(phwe)
+                .setPchi2(pchi2)
+                .build();
+        }
+
+        private int requestsTo(String rpc) {
+            return wireMockServer.findAll(postRequestedFor(urlPathEqualTo(SERVICE_PATH + rpc))).size();
+        }
+
+        @Test
+        @DisplayName("CLI-STAT-001: topNHWE keeps N most significant variants across nodes")
+        void testTopNHWEKeepsMostSignificant() {
+            AllelesWithStatsResponse response = AllelesWithStatsResponse.newBuilder()
+                .addVariants(variantWithStats(1000, 1e-5f, 0f))
+                .addVariants(variantWithStats(2000, 1e-9f, 0f))
+                .addVariants(variantWithStats(3000, 1e-7f, 0f))
+                .build();
+            dnaerysService.stubFor(method("TopNHWE").willReturn(message(response)));
+
+            List<VariantWithStats> result = client.topNHWE(2);
+
+            assertThat(result).extracting(v -> v.getVariant().getStart())
+                .containsExactly(2000, 3000);
+        }
+
+        @Test
+        @DisplayName("CLI-STAT-002: topNHWE result is cached by N")
+        void testTopNHWECached() {
+            AllelesWithStatsResponse response = AllelesWithStatsResponse.newBuilder()
+                .addVariants(variantWithStats(1000, 1e-5f, 0f))
+                .build();
+            dnaerysService.stubFor(method("TopNHWE").willReturn(message(response)));
+
+            List<VariantWithStats> first = client.topNHWE(3);
+            List<VariantWithStats> second = client.topNHWE(3);
+
+            assertThat(second).isEqualTo(first);
+            assertThat(requestsTo("TopNHWE")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("CLI-STAT-003: topNChi2 cache key ignores sample order, duplicates and whitespace")
+        void testTopNChi2CacheKeyNormalized() {
+            Cohort cohort = Cohort.newBuilder()
+                .addMaleSamplesNames("HG00403")
+                .addFemaleSamplesNames("HG00405")
+                .build();
+            dnaerysService.stubFor(
+                method("DatasetInfo")
+                    .willReturn(message(DatasetInfoResponse.newBuilder().addCohorts(cohort).build()))
+            );
+            AllelesWithStatsResponse response = AllelesWithStatsResponse.newBuilder()
+                .addVariants(variantWithStats(1000, 0f, 1e-6f))
+                .build();
+            dnaerysService.stubFor(method("TopNchi2").willReturn(message(response)));
+
+            client.topNChi2(4, List.of("HG00405", "HG00403"));
+            client.topNChi2(4, List.of(" HG00403", "HG00405", "HG00403"));
+
+            assertThat(requestsTo("TopNchi2")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("CLI-STAT-004: topNChi2 with non-existent sample throws RuntimeException")
+        void testTopNChi2NonExistentSample() {
+            dnaerysService.stubFor(
+                method("DatasetInfo")
+                    .willReturn(message(DatasetInfoResponse.newBuilder().build()))
+            );
+
+            RuntimeException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.topNChi2(5, List.of("NONEXISTENT"))
+            );
+
+            assertThat(thrown.getMessage()).contains("does not exist");
+            assertThat(requestsTo("TopNchi2")).isZero();
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {0, -1, 51})
+        @DisplayName("CLI-STAT-005: N outside of (0, 50] throws RuntimeException")
+        void testTopNInvalidN(int n) {
+            RuntimeException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.topNHWE(n)
+            );
+
+            assertThat(thrown.getMessage()).contains("'n' must be > 0");
+        }
+
+        @Test
+        @DisplayName("CLI-STAT-006: failed scan is not cached")
+        void testTopNFailureNotCached() {
+            dnaerysService.stubFor(
+                method("TopNHWE")
+                    .willReturn(Status.UNAVAILABLE, "Connection failed")
+            );
+
+            org.junit.jupiter.api.Assertions.assertThrows(RuntimeException.class, () -> client.topNHWE(6));
+
+            AllelesWithStatsResponse response = AllelesWithStatsResponse.newBuilder()
+                .addVariants(variantWithStats(1000, 1e-5f, 0f))
+                .build();
+            dnaerysService.stubFor(method("TopNHWE").willReturn(message(response)));
+
+            assertThat(client.topNHWE(6)).hasSize(1);
+        }
+    }
+
+    // ========================================
+    // POLYGENIC RISK SCORE TESTS (CLI-PRS-*)
+    // Uses WireMock gRPC for mocking unary DatasetInfo / Prs RPCs, metadata comes from MetaClient.
+    // Cohort scores are cached for the lifetime of the client, hence each test uses its own PRS name.
+    // ========================================
+
+    @Nested
+    @DisplayName("Polygenic Risk Score Tests")
+    class PolygenicRiskScoreTests {
+
+        private void stubPrs(String prsName) {
+            DatasetInfoResponse datasetResponse = DatasetInfoResponse.newBuilder()
+                .addPrs(PRS.newBuilder().setName(prsName).setDesc("test PRS").setCardinality(77).build())
+                .build();
+            dnaerysService.stubFor(method("DatasetInfo").willReturn(message(datasetResponse)));
+
+            // GBR: HG00096, HG00097, HG00099, HG00100; YRI: NA18484
+            PRSResponse prsResponse = PRSResponse.newBuilder()
+                .setPrsName(prsName)
+                .setPrsCardinality(77)
+                .addSampleScores(SampleScore.newBuilder().setSample("HG00096").setScoresSum(1f))
+                .addSampleScores(SampleScore.newBuilder().setSample("HG00097").setScoresSum(2f))
+                .addSampleScores(SampleScore.newBuilder().setSample("HG00099").setScoresSum(3f))
+                .addSampleScores(SampleScore.newBuilder().setSample("HG00100").setScoresSum(4f))
+                .addSampleScores(SampleScore.newBuilder().setSample("NA18484").setScoresSum(10f))
+                .build();
+            dnaerysService.stubFor(method("Prs").willReturn(message(prsResponse)));
+        }
+
+        @Test
+        @DisplayName("CLI-PRS-001: sample score has cohort and population percentiles")
+        void testSamplePercentiles() {
+            stubPrs("PRS_TEST_1");
+
+            DnaerysClient.PrsReport report = client.computePrs("PRS_TEST_1", false, false,
+                List.of("HG00097"), null, null);
+
+            assertThat(report.prsCardinality()).isEqualTo(77);
+            assertThat(report.scoredSamples()).isEqualTo(5);
+            assertThat(report.samples()).hasSize(1);
+            DnaerysClient.PrsSampleScore score = report.samples().getFirst();
+            assertThat(score.score()).isEqualTo(2f);
+            assertThat(score.populationCode()).isEqualTo("GBR");
+            assertThat(score.cohortPercentile()).isEqualTo(30.0);
+            assertThat(score.populationPercentile()).isEqualTo(37.5);
+        }
+
+        @Test
+        @DisplayName("CLI-PRS-002: population summary is computed from scored members only")
+        void testPopulationSummary() {
+            stubPrs("PRS_TEST_2");
+
+            DnaerysClient.PrsReport report = client.computePrs("PRS_TEST_2", false, false,
+                null, List.of("British in England and Scotland"), null);
+
+            assertThat(report.populations()).hasSize(1);
+            DnaerysClient.PrsGroupSummary gbr = report.populations().getFirst();
+            assertThat(gbr.code()).isEqualTo("GBR");
+            assertThat(gbr.sampleCount()).isEqualTo(4);
+            assertThat(gbr.mean()).isEqualTo(2.5);
+            assertThat(gbr.median()).isEqualTo(2.5);
+            assertThat(gbr.p10()).isCloseTo(1.3, org.assertj.core.data.Offset.offset(1e-6));
+            assertThat(gbr.p90()).isCloseTo(3.7, org.assertj.core.data.Offset.offset(1e-6));
+        }
+
+        @Test
+        @DisplayName("CLI-PRS-003: cohort scores are computed once per PRS and mode")
+        void testCohortScoresCached() {
+            stubPrs("PRS_TEST_3");
+
+            client.computePrs("PRS_TEST_3", false, false, List.of("HG00096"), null, null);
+            client.computePrs("PRS_TEST_3", false, false, null, List.of("YRI"), List.of("EUR"));
+
+            assertThat(wireMockServer.findAll(postRequestedFor(
+                urlPathEqualTo("/org.dnaerys.cluster.grpc.DnaerysService/Prs")))).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("CLI-PRS-004: without samples and groups all superpopulations are summarised")
+        void testDefaultSuperpopulationSummaries() {
+            stubPrs("PRS_TEST_4");
+
+            DnaerysClient.PrsReport report = client.computePrs("PRS_TEST_4", false, false, null, null, List.of());
+
+            assertThat(report.superpopulations())
+                .extracting(DnaerysClient.PrsGroupSummary::code)
+                .containsExactly("AFR", "AMR", "EAS", "EUR", "SAS");
+            assertThat(report.superpopulations())
+                .filteredOn(g -> g.code().equals("EUR"))
+                .extracting(DnaerysClient.PrsGroupSummary::sampleCount)
+                .containsExactly(4);
+        }
+
+        @Test
+        @DisplayName("CLI-PRS-005: unknown PRS name throws RuntimeException")
+        void testUnknownPrs() {
+            stubPrs("PRS_TEST_5");
+
+            RuntimeException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.computePrs("NO_SUCH_PRS", false, false, List.of("HG00096"), null, null)
+            );
+
+            assertThat(thrown.getMessage()).contains("does not exist");
+        }
+
+        @Test
+        @DisplayName("CLI-PRS-006: unknown sample and population values throw RuntimeException")
+        void testUnknownSampleAndPopulation() {
+            stubPrs("PRS_TEST_6");
+
+            RuntimeException unknownSample = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.computePrs("PRS_TEST_6", false, false, List.of("NONEXISTENT"), null, null)
+            );
+            RuntimeException unknownPopulation = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.computePrs("PRS_TEST_6", false, false, null, List.of("XXX"), null)
+            );
+
+            assertThat(unknownSample.getMessage()).contains("Unknown sample IDs");
+            assertThat(unknownPopulation.getMessage()).contains("Unrecognised population values");
+        }
+
+        @Test
+        @DisplayName("CLI-PRS-007: dominant and recessive together throw RuntimeException")
+        void testDominantAndRecessive() {
+            RuntimeException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.computePrs("PRS_TEST_7", true, true, null, null, null)
+            );
+
+            assertThat(thrown.getMessage()).contains("mutually exclusive");
+        }
+
+        @Test
+        @DisplayName("CLI-PRS-008: percentile rank and quantile helpers")
+        void testPercentileHelpers() {
+            float[] sorted = {1f, 2f, 2f, 4f};
+
+            assertThat(DnaerysClient.percentileRank(sorted, 2f)).isEqualTo(50.0);
+            assertThat(DnaerysClient.percentileRank(sorted, 5f)).isEqualTo(100.0);
+            assertThat(DnaerysClient.quantile(sorted, 0.5)).isEqualTo(2.0);
+            assertThat(DnaerysClient.quantile(sorted, 1.0)).isEqualTo(4.0);
+        }
+    }
+
+    // ========================================
+    // SEX CHECK TESTS (CLI-SEX-*)
+    // Uses WireMock gRPC for mocking unary FstatX RPC, reported gender comes from sample metadata.
+    // F-statistics are cached per (aafThreshold, includePar), hence each test uses its own aafThreshold.
+    // ========================================
+
+    @Nested
+    @DisplayName("Sex Check Tests")
+    class SexCheckTests {
+
+        private void stubFstatX() {
+            // metadata: HG00096 male, HG00097 female, HG00099 female (GBR); NA18484 female (YRI)
+            FstatXResponse response = FstatXResponse.newBuilder()
+                .addMales(SampleStat.newBuilder().setSample("HG00096").setFStat(0.95f))
+                .addFemales(SampleStat.newBuilder().setSample("HG00097").setFStat(0.9f))
+                .addFemales(SampleStat.newBuilder().setSample("HG00099").setFStat(0.5f))
+                .addFemales(SampleStat.newBuilder().setSample("NA18484").setFStat(0.0f))
+                .build();
+            dnaerysService.stubFor(method("FstatX").willReturn(message(response)));
+        }
+
+        @Test
+        @DisplayName("CLI-SEX-001: mismatches and undetermined samples are called against metadata gender")
+        void testMismatchesAgainstMetadata() {
+            stubFstatX();
+
+            DnaerysClient.SexCheckReport report = client.checkSampleSex(0.01f, 0.2f, 0.8f, false, null);
+
+            assertThat(report.checkedSamples()).isEqualTo(4);
+            assertThat(report.undeterminedCount()).isEqualTo(1);
+            assertThat(report.mismatches())
+                .extracting(DnaerysClient.SexCheckMismatch::sample, DnaerysClient.SexCheckMismatch::observedSex)
+                .containsExactly(org.assertj.core.groups.Tuple.tuple("HG00097", "male"));
+        }
+
+        @Test
+        @DisplayName("CLI-SEX-002: F distributions are grouped by population and reported sex")
+        void testDistributions() {
+            stubFstatX();
+
+            DnaerysClient.SexCheckReport report = client.checkSampleSex(0.02f, null, null, false, null);
+
+            assertThat(report.distributions())
+                .extracting(DnaerysClient.FstatDistribution::populationCode,
+                    DnaerysClient.FstatDistribution::reportedSex,
+                    DnaerysClient.FstatDistribution::sampleCount)
+                .containsExactly(
+                    org.assertj.core.groups.Tuple.tuple("GBR", "female", 2),
+                    org.assertj.core.groups.Tuple.tuple("GBR", "male", 1),
+                    org.assertj.core.groups.Tuple.tuple("YRI", "female", 1));
+            assertThat(report.distributions().getFirst().mean())
+                .isCloseTo(0.7, org.assertj.core.data.Offset.offset(1e-6));
+        }
+
+        @Test
+        @DisplayName("CLI-SEX-003: changing sex thresholds does not repeat FstatX")
+        void testThresholdsDoNotRepeatRpc() {
+            stubFstatX();
+
+            client.checkSampleSex(0.03f, 0.2f, 0.8f, false, null);
+            client.checkSampleSex(0.03f, 0.5f, 0.5f, false, List.of("YRI"));
+
+            assertThat(wireMockServer.findAll(postRequestedFor(
+                urlPathEqualTo("/org.dnaerys.cluster.grpc.DnaerysService/FstatX")))).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("CLI-SEX-004: population filter restricts checked samples")
+        void testPopulationFilter() {
+            stubFstatX();
+
+            DnaerysClient.SexCheckReport report = client.checkSampleSex(0.04f, null, null, false, List.of("YRI"));
+
+            assertThat(report.checkedSamples()).isEqualTo(1);
+            assertThat(report.mismatches()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("CLI-SEX-005: invalid thresholds throw RuntimeException")
+        void testInvalidThresholds() {
+            RuntimeException aaf = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.checkSampleSex(0.6f, null, null, false, null)
+            );
+            RuntimeException sex = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.checkSampleSex(0f, 0.9f, 0.1f, false, null)
+            );
+
+            assertThat(aaf.getMessage()).contains("'aafThreshold'");
+            assertThat(sex.getMessage()).contains("'femaleThreshold' must be <= 'maleThreshold'");
+        }
+    }
+
+    // ========================================
+    // TRIO SCAN TESTS (CLI-TRIO-*)
+    // Uses WireMock gRPC for SelectDeNovo / SelectHetDominant (single message streams),
+    // trios come from sample metadata. MSL has 11 complete trios.
+    // ========================================
+
+    @Nested
+    @DisplayName("Trio Scan Tests")
+    class TrioScanTests {
+
+        private static final String SERVICE_PATH = "/org.dnaerys.cluster.grpc.DnaerysService/";
+        private static final GenomicRegion REGION = new GenomicRegion("1", 1000, 2000, null, null);
+
+        private Variant variant(int start) {
+            return Variant.newBuilder()
+                .setChr(Chromosome.CHR_1)
+                .setStart(start)
+                .setEnd(start)
+                .setRef("A")
+                .setAlt("G")
+                .build();
+        }
+
+        @Test
+        @DisplayName("CLI-TRIO-001: every trio is queried and variants shared by trios are recurrent")
+        void testDeNovoScanAggregatesTrios() {
+            AllelesResponse response = AllelesResponse.newBuilder()
+                .addVariants(variant(1500))
+                .addVariants(variant(1600))
+                .build();
+            dnaerysService.stubFor(method("SelectDeNovo").willReturn(message(response)));
+
+            DnaerysClient.TrioScan scan = client.scanTrios(
+                DnaerysClient.InheritanceModel.DE_NOVO, null, REGION, NO_ANNOTATIONS, List.of("MSL"), null, null);
+
+            assertThat(scan.triosScanned()).isEqualTo(11);
+            assertThat(scan.triosFailed()).isZero();
+            assertThat(scan.triosWithVariants()).isEqualTo(11);
+            assertThat(scan.totalVariants()).isEqualTo(22);
+            assertThat(scan.affectedParent()).isNull();
+            assertThat(scan.trios()).allSatisfy(t -> assertThat(t.populationCode()).isEqualTo("MSL"));
+            assertThat(scan.trios()).noneMatch(DnaerysClient.TrioVariantCount::truncated);
+            assertThat(scan.recurrentVariants())
+                .extracting(DnaerysClient.RecurrentVariant::trioCount)
+                .containsExactly(11, 11);
+            assertThat(scan.recurrentVariants().getFirst().variant().getStart()).isEqualTo(1500);
+            assertThat(wireMockServer.findAll(postRequestedFor(
+                urlPathEqualTo(SERVICE_PATH + "SelectDeNovo")))).hasSize(11);
+        }
+
+        @Test
+        @DisplayName("CLI-TRIO-002: duplicate variants within a trio are counted once")
+        void testDuplicatesWithinTrio() {
+            AllelesResponse response = AllelesResponse.newBuilder()
+                .addVariants(variant(1500))
+                .addVariants(variant(1500))
+                .build();
+            dnaerysService.stubFor(method("SelectHetDominant").willReturn(message(response)));
+
+            DnaerysClient.TrioScan scan = client.scanTrios(
+                DnaerysClient.InheritanceModel.HET_DOMINANT, "mother", REGION, NO_ANNOTATIONS, List.of("MSL"), null, null);
+
+            assertThat(scan.affectedParent()).isEqualTo("mother");
+            assertThat(scan.trios()).allSatisfy(t -> assertThat(t.variantCount()).isEqualTo(1));
+        }
+
+        @Test
+        @DisplayName("CLI-TRIO-003: scan fails only when every trio fails")
+        void testAllTriosFail() {
+            dnaerysService.stubFor(
+                method("SelectDeNovo")
+                    .willReturn(Status.UNAVAILABLE, "Connection failed")
+            );
+
+            RuntimeException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.scanTrios(
+                    DnaerysClient.InheritanceModel.DE_NOVO, null, REGION, NO_ANNOTATIONS, List.of("MSL"), null, null)
+            );
+
+            assertThat(thrown.getMessage()).contains("Trio scan failed");
+        }
+
+        @Test
+        @DisplayName("CLI-TRIO-004: HET_DOMINANT requires affected parent")
+        void testHetDominantRequiresAffectedParent() {
+            RuntimeException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.scanTrios(
+                    DnaerysClient.InheritanceModel.HET_DOMINANT, null, REGION, NO_ANNOTATIONS, null, null, null)
+            );
+
+            assertThat(thrown.getMessage()).contains("'affectedParent'");
+        }
+
+        @Test
+        @DisplayName("CLI-TRIO-005: invalid model and population values throw RuntimeException")
+        void testInvalidModelAndPopulation() {
+            RuntimeException model = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> DnaerysClient.InheritanceModel.parse("X_LINKED")
+            );
+            RuntimeException population = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.scanTrios(
+                    DnaerysClient.InheritanceModel.DE_NOVO, null, REGION, NO_ANNOTATIONS, List.of("XYZ"), null, null)
+            );
+
+            assertThat(model.getMessage()).contains("'model'");
+            assertThat(population.getMessage()).contains("Unrecognised population values: [XYZ]");
+            assertThat(DnaerysClient.InheritanceModel.parse(" hom_recessive "))
+                .isEqualTo(DnaerysClient.InheritanceModel.HOM_RECESSIVE);
+        }
+
+        @Test
+        @DisplayName("CLI-TRIO-006: per-trio counts are paged with skip and limit")
+        void testTrioCountsPaged() {
+            AllelesResponse response = AllelesResponse.newBuilder()
+                .addVariants(variant(1500))
+                .build();
+            dnaerysService.stubFor(method("SelectHomRecessive").willReturn(message(response)));
+
+            DnaerysClient.TrioScan scan = client.scanTrios(
+                DnaerysClient.InheritanceModel.HOM_RECESSIVE, null, REGION, NO_ANNOTATIONS, List.of("MSL"), 8, 5);
+            RuntimeException tooMany = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.scanTrios(
+                    DnaerysClient.InheritanceModel.HOM_RECESSIVE, null, REGION, NO_ANNOTATIONS, List.of("MSL"), 0, 51)
+            );
+
+            assertThat(scan.triosWithVariants()).isEqualTo(11);
+            assertThat(scan.trios()).hasSize(3);
+            assertThat(tooMany.getMessage()).contains("'limit'");
+        }
+
+        @Test
+        @DisplayName("CLI-TRIO-007: trios with more than 5000 distinct variants are capped and flagged")
+        void testTrioVariantsTruncated() {
+            AllelesResponse.Builder response = AllelesResponse.newBuilder();
+            IntStream.range(0, 5001).forEach(i -> response.addVariants(variant(1000 + i)));
+            dnaerysService.stubFor(method("SelectDeNovo").willReturn(message(response.build())));
+
+            DnaerysClient.TrioScan scan = client.scanTrios(
+                DnaerysClient.InheritanceModel.DE_NOVO, null, REGION, NO_ANNOTATIONS, List.of("MSL"), null, null);
+
+            assertThat(scan.triosScanned()).isEqualTo(11);
+            assertThat(scan.trios()).allSatisfy(t -> {
+                assertThat(t.variantCount()).isEqualTo(5000);
+                assertThat(t.truncated()).isTrue();
+            });
+        }
+    }
+
+    // ========================================
+    // STRATIFIED COUNT TESTS (CLI-STRAT-*)
+    // sample sets come from metadata: MSL has 99 samples, GBR 91, EUR 633.
+    // WithStats responses are not stratum specific, so every column of the matrix is the same.
+    // ========================================
+
+    @Nested
+    @DisplayName("Stratified Count Tests")
+    class StratifiedCountTests {
+
+        private static final String SERVICE_PATH = "/org.dnaerys.cluster.grpc.DnaerysService/";
+        private static final List<GenomicRegion> REGIONS = List.of(new GenomicRegion("1", 1000, 2000, null, null));
+
+        @Test
+        @DisplayName("CLI-STRAT-001: one count per stratum, populations first, samples not validated")
+        void testCountsPerStratum() {
+            dnaerysService.stubFor(method("CountVariantsInMultiRegionsInSamples")
+                .willReturn(message(CountAllelesResponse.newBuilder().setCount(42).build())));
+
+            DnaerysClient.StratifiedCounts counts = client.countVariantsByPopulation(
+                REGIONS, true, true, NO_ANNOTATIONS, List.of("MSL", "GBR"), List.of("EUR"));
+
+            assertThat(counts.strataCounted()).isEqualTo(3);
+            assertThat(counts.strataFailed()).isZero();
+            assertThat(counts.strata())
+                .extracting(DnaerysClient.StratumCount::level, DnaerysClient.StratumCount::code,
+                    DnaerysClient.StratumCount::sampleCount, DnaerysClient.StratumCount::variantCount)
+                .containsExactly(
+                    tuple("population", "MSL", 99, 42),
+                    tuple("population", "GBR", 91, 42),
+                    tuple("superpopulation", "EUR", 633, 42));
+            assertThat(wireMockServer.findAll(postRequestedFor(
+                urlPathEqualTo(SERVICE_PATH + "CountVariantsInMultiRegionsInSamples")))).hasSize(3);
+            assertThat(wireMockServer.findAll(postRequestedFor(
+                urlPathEqualTo(SERVICE_PATH + "DatasetInfo")))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("CLI-STRAT-002: all populations are counted by default")
+        void testDefaultsToAllPopulations() {
+            dnaerysService.stubFor(method("CountVariantsInMultiRegionsInSamples")
+                .willReturn(message(CountAllelesResponse.newBuilder().setCount(7).build())));
+
+            DnaerysClient.StratifiedCounts counts = client.countVariantsByPopulation(
+                REGIONS, true, false, NO_ANNOTATIONS, null, null);
+
+            assertThat(counts.strata()).hasSize(26);
+            assertThat(counts.strata()).allSatisfy(s -> assertThat(s.level()).isEqualTo("population"));
+            assertThat(counts.strata()).extracting(DnaerysClient.StratumCount::code).isSorted();
+            assertThat(counts.strata().stream().mapToInt(DnaerysClient.StratumCount::sampleCount).sum())
+                .isEqualTo(3202);
+        }
+
+        @Test
+        @DisplayName("CLI-STRAT-003: count fails only when every stratum fails")
+        void testAllStrataFail() {
+            dnaerysService.stubFor(
+                method("CountVariantsInMultiRegionsInSamples")
+                    .willReturn(Status.UNAVAILABLE, "Connection failed")
+            );
+
+            RuntimeException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.countVariantsByPopulation(REGIONS, true, true, NO_ANNOTATIONS, List.of("MSL"), null)
+            );
+
+            assertThat(thrown.getMessage()).contains("Stratified count failed");
+        }
+
+        @Test
+        @DisplayName("CLI-STRAT-004: unrecognised population values throw RuntimeException")
+        void testInvalidPopulation() {
+            RuntimeException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.countVariantsByPopulation(REGIONS, true, true, NO_ANNOTATIONS, null, List.of("XYZ"))
+            );
+
+            assertThat(thrown.getMessage()).contains("Unrecognised superpopulation values: [XYZ]");
+        }
+
+        private VariantWithStats withStats(int start, float vaf, float vac) {
+            Variant variant = Variant.newBuilder()
+                .setChr(Chromosome.CHR_1).setStart(start).setEnd(start).setRef("A").setAlt("G")
+                .build();
+            return VariantWithStats.newBuilder().setVariant(variant).setVaf(vaf).setVac(vac)
+                .setVan(vaf == 0 ? 0 : Math.round(vac / vaf)).build();
+        }
+
+        @Test
+        @DisplayName("CLI-STRAT-005: frequency streams are merged into one row per variant, ordered by position")
+        void testPopulationFrequencyMatrix() {
+            dnaerysService.stubFor(method("CountVariantsInMultiRegions")
+                .willReturn(message(CountAllelesResponse.newBuilder().setCount(2).build())));
+            dnaerysService.stubFor(method("SelectVariantsInMultiRegionsInSamplesWithStats")
+                .willReturn(message(AllelesWithStatsResponse.newBuilder()
+                    .addVariants(withStats(1600, 0.25f, 3f))
+                    .addVariants(withStats(1500, 0.5f, 6f))
+                    .build())));
+
+            DnaerysClient.PopulationFrequencies matrix = client.populationFrequencies(
+                REGIONS, true, true, NO_ANNOTATIONS, List.of("MSL", "GBR"), List.of("EUR"), null, null);
+
+            assertThat(matrix.strata())
+                .extracting(DnaerysClient.FrequencyStratum::code, DnaerysClient.FrequencyStratum::sampleCount)
+                .containsExactly(tuple("MSL", 99), tuple("GBR", 91), tuple("EUR", 633));
+            assertThat(matrix.totalVariants()).isEqualTo(2);
+            assertThat(matrix.variants()).extracting(r -> r.variant().getStart()).containsExactly(1500, 1600);
+            assertThat(matrix.variants().getFirst().af()).containsExactly(0.5f, 0.5f, 0.5f);
+            assertThat(matrix.variants().getFirst().ac()).containsExactly(6, 6, 6);
+            assertThat(wireMockServer.findAll(postRequestedFor(
+                urlPathEqualTo(SERVICE_PATH + "SelectVariantsInMultiRegionsInSamplesWithStats")))).hasSize(3);
+        }
+
+        @Test
+        @DisplayName("CLI-STRAT-006: frequency matrix is refused when the selection is too large")
+        void testPopulationFrequencyTooManyVariants() {
+            dnaerysService.stubFor(method("CountVariantsInMultiRegions")
+                .willReturn(message(CountAllelesResponse.newBuilder().setCount(5001).build())));
+
+            RuntimeException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.populationFrequencies(REGIONS, true, true, NO_ANNOTATIONS, List.of("MSL"), null, null, null)
+            );
+
+            assertThat(thrown.getMessage()).contains("exceeds 5000");
+            assertThat(wireMockServer.findAll(postRequestedFor(
+                urlPathEqualTo(SERVICE_PATH + "SelectVariantsInMultiRegionsInSamplesWithStats")))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("CLI-STRAT-007: frequency matrix is refused for an incomplete cluster or absent cohort counters")
+        void testPopulationFrequencyWithoutCounters() {
+            dnaerysService.stubFor(method("CountVariantsInMultiRegions")
+                .willReturn(message(CountAllelesResponse.newBuilder().setCount(1).build())));
+            dnaerysService.stubFor(method("SelectVariantsInMultiRegionsInSamplesWithStats")
+                .willReturn(message(AllelesWithStatsResponse.newBuilder()
+                    .addVariants(withStats(1500, 0.5f, 6f))
+                    .setIncompleteCluster(true)
+                    .build())));
+
+            RuntimeException incomplete = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.populationFrequencies(REGIONS, true, true, NO_ANNOTATIONS, List.of("MSL"), null, null, null)
+            );
+
+            // Runtime Optimized datasets return variants with empty counters
+            dnaerysService.stubFor(method("SelectVariantsInMultiRegionsInSamplesWithStats")
+                .willReturn(message(AllelesWithStatsResponse.newBuilder()
+                    .addVariants(withStats(1500, 0f, 0f))
+                    .build())));
+
+            RuntimeException noCounters = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.populationFrequencies(REGIONS, true, true, NO_ANNOTATIONS, List.of("MSL"), null, null, null)
+            );
+
+            assertThat(incomplete.getMessage()).contains("some cluster nodes are unreachable");
+            assertThat(noCounters.getMessage()).contains("no cohort counters");
+        }
+    }
+
+    // ========================================
+    // SAMPLE SET TESTS (CLI-SET-*)
+    // HG00096 is a GBR male, HG00097 a GBR female, NA18486 a YRI male, NA12878 a CEU female.
+    // ========================================
+
+    @Nested
+    @DisplayName("Sample Set Tests")
+    class SampleSetTests {
+
+        private static final String SERVICE_PATH = "/org.dnaerys.cluster.grpc.DnaerysService/";
+
+        private void stubSamples(String... samples) {
+            dnaerysService.stubFor(method("SelectSamplesInMultiRegions")
+                .willReturn(message(SamplesResponse.newBuilder().addAllSamples(List.of(samples)).build())));
+        }
+
+        @Test
+        @DisplayName("CLI-SET-001: region and metadata operands are combined, one RPC per region operand")
+        void testRegionAndMetadataOperands() {
+            stubSamples("HG00096", "HG00097", "NA18486", "NA12878");
+
+            DnaerysClient.SampleSet set = client.evaluateSampleSet(
+                "(1:1000-2000 AND 2:1000-2000) AND superpopulation:EUR AND NOT gender:female",
+                true, true, NO_ANNOTATIONS, null, null);
+
+            assertThat(set.count()).isEqualTo(1);
+            assertThat(set.samples()).containsExactly("HG00096");
+            assertThat(set.operands())
+                .extracting(DnaerysClient.OperandCount::operand, DnaerysClient.OperandCount::count)
+                .containsExactly(
+                    tuple("1:1000-2000", 4),
+                    tuple("2:1000-2000", 4),
+                    tuple("superpopulation:EUR", 633),
+                    tuple("gender:female", 1604));
+            assertThat(wireMockServer.findAll(postRequestedFor(
+                urlPathEqualTo(SERVICE_PATH + "SelectSamplesInMultiRegions")))).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("CLI-SET-002: members are paged in sample ID order, limit 0 returns the count only")
+        void testPaging() {
+            DnaerysClient.SampleSet page = client.evaluateSampleSet(
+                "population:GBR", true, true, NO_ANNOTATIONS, 1, 2);
+            DnaerysClient.SampleSet countOnly = client.evaluateSampleSet(
+                "population:GBR AND gender:male", true, true, NO_ANNOTATIONS, null, 0);
+
+            assertThat(page.count()).isEqualTo(91);
+            assertThat(page.samples()).containsExactly("HG00097", "HG00099");
+            assertThat(countOnly.count()).isPositive().isLessThan(91);
+            assertThat(countOnly.samples()).isEmpty();
+            assertThat(wireMockServer.findAll(postRequestedFor(
+                urlPathEqualTo(SERVICE_PATH + "SelectSamplesInMultiRegions")))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("CLI-SET-003: unknown populations and invalid regions are rejected before any RPC")
+        void testInvalidOperands() {
+            RuntimeException population = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.evaluateSampleSet("1:1000-2000 AND population:XYZ", true, true, NO_ANNOTATIONS, null, null)
+            );
+            RuntimeException region = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.evaluateSampleSet("1:2000-1000", true, true, NO_ANNOTATIONS, null, null)
+            );
+
+            assertThat(population.getMessage()).contains("Unrecognised population values: [XYZ]");
+            assertThat(region.getMessage()).contains("Invalid genomic region");
+            assertThat(wireMockServer.findAll(postRequestedFor(
+                urlPathEqualTo(SERVICE_PATH + "SelectSamplesInMultiRegions")))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("CLI-SET-004: evaluation fails when a region operand cannot be resolved")
+        void testRegionOperandFails() {
+            dnaerysService.stubFor(
+                method("SelectSamplesInMultiRegions")
+                    .willReturn(Status.UNAVAILABLE, "Connection failed")
+            );
+
+            RuntimeException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.evaluateSampleSet("1:1000-2000 OR population:GBR", true, true, NO_ANNOTATIONS, null, null)
+            );
+
+            assertThat(thrown.getMessage()).contains("Sample set evaluation failed");
+        }
+    }
+
+    // ========================================
+    // VARIANT TILE CACHE TESTS (CLI-TILE-*)
+    // ========================================
+
+    @Nested
+    @DisplayName("Variant Tile Cache Tests")
+    class VariantTileCacheTests {
+
+        private static final String SERVICE_PATH = "/org.dnaerys.cluster.grpc.DnaerysService/";
+
+        private Variant variant(Chromosome chr, int start) {
+            return Variant.newBuilder()
+                .setChr(chr).setStart(start).setEnd(start).setRef("A").setAlt("G")
+                .setAf(0.01f).setAc(64).setAn(6404)
+                .build();
+        }
+
+        private void stubVariants(Variant... variants) {
+            dnaerysService.stubFor(method("SelectVariantsInMultiRegions")
+                .willReturn(message(AllelesResponse.newBuilder().addAllVariants(List.of(variants)).build())));
+        }
+
+        private int selectRpcs() {
+            return wireMockServer.findAll(postRequestedFor(
+                urlPathEqualTo(SERVICE_PATH + "SelectVariantsInMultiRegions"))).size();
+        }
+
+        @Test
+        @DisplayName("CLI-TILE-001: queries within a cached tile make no further RPCs and are ordered by position")
+        void testQueriesWithinTile() {
+            stubVariants(variant(Chromosome.CHR_22, 1800), variant(Chromosome.CHR_22, 1200),
+                variant(Chromosome.CHR_22, 1500), variant(Chromosome.CHR_22, 70000));
+
+            List<Variant> first = client.selectVariants(
+                List.of(new GenomicRegion("22", 1000, 2000, null, null)), true, true, NO_ANNOTATIONS, null, null);
+            List<Variant> second = client.selectVariants(
+                List.of(new GenomicRegion("22", 1400, 1900, null, null)), true, true, NO_ANNOTATIONS, null, null);
+
+            assertThat(first).extracting(Variant::getStart).containsExactly(1200, 1500, 1800);
+            assertThat(second).extracting(Variant::getStart).containsExactly(1500, 1800);
+            assertThat(selectRpcs()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("CLI-TILE-002: tiles are kept per zygosity, skip and limit apply to the merged result")
+        void testZygosityAndPaging() {
+            stubVariants(variant(Chromosome.CHR_21, 300), variant(Chromosome.CHR_21, 100),
+                variant(Chromosome.CHR_21, 200));
+
+            List<Variant> all = client.selectVariants(
+                List.of(new GenomicRegion("21", 1, 1000, null, null)), true, true, NO_ANNOTATIONS, null, null);
+            List<Variant> page = client.selectVariants(
+                List.of(new GenomicRegion("21", 1, 1000, null, null)), true, true, NO_ANNOTATIONS, 1, 1);
+            List<Variant> homOnly = client.selectVariants(
+                List.of(new GenomicRegion("21", 1, 1000, null, null)), true, false, NO_ANNOTATIONS, null, null);
+
+            assertThat(all).extracting(Variant::getStart).containsExactly(100, 200, 300);
+            assertThat(page).extracting(Variant::getStart).containsExactly(200);
+            assertThat(homOnly).hasSize(3);
+            assertThat(selectRpcs()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("CLI-TILE-003: a failed tile fails the query and is not cached")
+        void testTileFailure() {
+            dnaerysService.stubFor(
+                method("SelectVariantsInMultiRegions")
+                    .willReturn(Status.UNAVAILABLE, "Connection failed")
+            );
+
+            RuntimeException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class,
+                () -> client.selectVariants(
+                    List.of(new GenomicRegion("20", 1000, 2000, null, null)), true, true, NO_ANNOTATIONS, null, null)
+            );
+            stubVariants(variant(Chromosome.CHR_20, 1500));
+            List<Variant> retried = client.selectVariants(
+                List.of(new GenomicRegion("20", 1000, 2000, null, null)), true, true, NO_ANNOTATIONS, null, null);
+
+            assertThat(thrown.getMessage()).contains("Variant selection failed");
+            assertThat(retried).extracting(Variant::getStart).containsExactly(1500);
+        }
+
+        @Test
+        @DisplayName("CLI-TILE-004: regions spanning more tiles than the per-query cap go to the cluster directly")
+        void testWideRegionBypassesTiles() {
+            stubVariants(variant(Chromosome.CHR_19, 1_500_000));
+
+            List<Variant> results = client.selectVariants(
+                List.of(new GenomicRegion("19", 1, 2_000_000, null, null)), true, true, NO_ANNOTATIONS, null, null);
+
+            assertThat(results).extracting(Variant::getStart).containsExactly(1_500_000);
+            assertThat(selectRpcs()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("CLI-TILE-005: regions with REF/ALT alleles go to the cluster directly")
+        void testAlleleLookupBypassesTiles() {
+            stubVariants(variant(Chromosome.CHR_18, 1500));
+
+            List<Variant> results = client.selectVariants(
+                List.of(new GenomicRegion("18", 1500, 1500, "A", "G")), true, true, NO_ANNOTATIONS, null, null);
+
+            assertThat(results).extracting(Variant::getStart).containsExactly(1500);
+            assertThat(selectRpcs()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("CLI-TILE-006: tiles from an incomplete cluster are not cached")
+        void testIncompleteTileNotCached() {
+            dnaerysService.stubFor(method("SelectVariantsInMultiRegions")
+                .willReturn(message(AllelesResponse.newBuilder()
+                    .addVariants(variant(Chromosome.CHR_17, 1500))
+                    .setIncompleteCluster(true)
+                    .build())));
+
+            List<Variant> first = client.selectVariants(
+                List.of(new GenomicRegion("17", 1000, 2000, null, null)), true, true, NO_ANNOTATIONS, null, null);
+            List<Variant> second = client.selectVariants(
+                List.of(new GenomicRegion("17", 1000, 2000, null, null)), true, true, NO_ANNOTATIONS, null, null);
+
+            assertThat(first).extracting(Variant::getStart).containsExactly(1500);
+            assertThat(second).extracting(Variant::getStart).containsExactly(1500);
+            // a tile fetch and a direct query each time
+            assertThat(selectRpcs()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("CLI-TILE-007: tiles denser than the per-tile cap are not cached")
+        void testDenseTileNotCached() {
+            Variant[] dense = IntStream.rangeClosed(1, 2049)
+                .mapToObj(i -> variant(Chromosome.CHR_16, i))
+                .toArray(Variant[]::new);
+            stubVariants(dense);
+
+            List<Variant> first = client.selectVariants(
+                List.of(new GenomicRegion("16", 1, 2049, null, null)), true, true, NO_ANNOTATIONS, null, 10);
+            List<Variant> second = client.selectVariants(
+                List.of(new GenomicRegion("16", 1, 2049, null, null)), true, true, NO_ANNOTATIONS, null, 10);
+
+            assertThat(first).extracting(Variant::getStart).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+            assertThat(second).isEqualTo(first);
+            assertThat(selectRpcs()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("CLI-TILE-008: a paged query returns the same page from the cluster and from tiles")
+        void testPagingIndependentOfPath() {
+            List<Variant> variants = List.of(variant(Chromosome.CHR_15, 1500), variant(Chromosome.CHR_15, 1200),
+                variant(Chromosome.CHR_15, 1800), variant(Chromosome.CHR_15, 1100));
+            dnaerysService.stubFor(method("SelectVariantsInMultiRegions")
+                .willReturn(message(AllelesResponse.newBuilder()
+                    .addAllVariants(variants)
+                    .setIncompleteCluster(true)
+                    .build())));
+
+            List<Variant> direct = client.selectVariants(
+                List.of(new GenomicRegion("15", 1000, 2000, null, null)), true, true, NO_ANNOTATIONS, 1, 2);
+            stubVariants(variants.toArray(Variant[]::new));
+            List<Variant> fromTiles = client.selectVariants(
+                List.of(new GenomicRegion("15", 1000, 2000, null, null)), true, true, NO_ANNOTATIONS, 1, 2);
+
+            assertThat(direct).extracting(Variant::getStart).containsExactly(1200, 1500);
+            assertThat(fromTiles).isEqualTo(direct);
+            // a tile fetch and a direct query, then a tile fetch that is cached
+            assertThat(selectRpcs()).isEqualTo(3);
+        }
+    }
+
+    // ========================================
+    // RPC TRACING TESTS (CLI-TRC-*)
+    // ========================================
+
+    @Nested
+    @DisplayName("RPC Tracing Tests")
+    class RpcTracingTests {
+
+        private static final String SERVICE_PATH = "/org.dnaerys.cluster.grpc.DnaerysService/";
+
+        @Test
+        @DisplayName("CLI-TRC-001: RPC span carries request shape, regions, node and database time")
+        void testRpcSpanAttributes() {
+            dnaerysService.stubFor(method("CountVariantsInMultiRegions")
+                .willReturn(message(CountAllelesResponse.newBuilder()
+                    .setCount(42).setNodeId("node-7").setElapsedDbMs(12).build())));
+
+            client.countVariants(List.of(
+                new GenomicRegion("3", 1000, 2000, null, null),
+                new GenomicRegion("4", 1000, 2000, null, null)), true, false, NO_ANNOTATIONS);
+
+            SpanData span = InMemorySpanExporterProducer.await(spans, "dnaerys/CountVariantsInMultiRegions");
+            assertThat(span.getKind()).isEqualTo(SpanKind.CLIENT);
+            assertThat(span.getAttributes().get(RpcTracingInterceptor.REGIONS)).isEqualTo(2L);
+            assertThat(span.getAttributes().get(RpcTracingInterceptor.REQUEST_SHAPE)).contains("chr[2]", "hom", "ann");
+            assertThat(span.getAttributes().get(RpcTracingInterceptor.NODE_IDS)).containsExactly("node-7");
+            assertThat(span.getAttributes().get(RpcTracingInterceptor.ELAPSED_DB_MS)).isEqualTo(12L);
+            assertThat(span.getAttributes().get(RpcTracingInterceptor.MESSAGES)).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("CLI-TRC-002: trace context is propagated in gRPC metadata, failures mark the span")
+        void testTraceContextPropagated() {
+            dnaerysService.stubFor(method("CountSamplesHomReference")
+                .willReturn(Status.UNAVAILABLE, "Connection failed"));
+
+            org.junit.jupiter.api.Assertions.assertThrows(
+                RuntimeException.class, () -> client.countSamplesHomozygousReference("5", 1000));
+
+            SpanData span = InMemorySpanExporterProducer.await(spans, "dnaerys/CountSamplesHomReference");
+            String traceparent = wireMockServer.findAll(postRequestedFor(
+                urlPathEqualTo(SERVICE_PATH + "CountSamplesHomReference"))).getFirst().getHeader("traceparent");
+            assertThat(traceparent).contains(span.getTraceId()).contains(span.getSpanId());
+            assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+        }
+    }
+
+    // ========================================
+    // SLOW QUERY LOG TESTS (CLI-SLOW-*)
+    // ========================================
+
+    @Nested
+    @DisplayName("Slow Query Log Tests")
+    class SlowQueryLogTests {
+
+        private static final String METHOD = "org.dnaerys.cluster.grpc.DnaerysService/CountVariantsInMultiRegions";
+
+        @Test
+        @DisplayName("CLI-SLOW-001: timed out RPC is logged with its request and replays against the backend")
+        void testTimedOutRpcLoggedAndReplayed() throws Exception {
+            dnaerysService.stubFor(method("CountVariantsInMultiRegions")
+                .willReturn(Status.DEADLINE_EXCEEDED, "deadline exceeded"));
+
+            org.junit.jupiter.api.Assertions.assertThrows(RuntimeException.class, () ->
+                client.countVariants(List.of(new GenomicRegion("8", 127735434, 127742951, null, null)),
+                    true, true, NO_ANNOTATIONS));
+
+            SlowQueryLog.Entry entry = SlowQueryLog.read(Path.of("target/slow-queries.ndjson")).stream()
+                .filter(e -> e.method().equals(METHOD) && e.status().equals("DEADLINE_EXCEEDED"))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+            assertThat(entry.regions()).isEqualTo(1);
+            CountAllelesInMultiRegionsRequest request = CountAllelesInMultiRegionsRequest.parseFrom(entry.request());
+            assertThat(request.getChr(0)).isEqualTo(Chromosome.CHR_8);
+            assertThat(request.getStart(0)).isEqualTo(127735434);
+
+            dnaerysService.stubFor(method("CountVariantsInMultiRegions")
+                .willReturn(message(CountAllelesResponse.newBuilder().setCount(7).build())));
+            ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", 8089).usePlaintext().build();
+            try {
+                SlowQueryReplay.Result result = SlowQueryReplay.replay(channel, entry, 10_000);
+                assertThat(result.status()).isEqualTo(io.grpc.Status.Code.OK);
+                assertThat(result.messages()).isEqualTo(1);
+            } finally {
+                channel.shutdownNow();
+            }
+            assertThat(wireMockServer.findAll(postRequestedFor(
+                urlPathEqualTo("/" + METHOD)))).hasSize(2);
+        }
+    }
+
     // ========================================
     // ALPHA MISSENSE STAT RECORD TESTS
     // ========================================
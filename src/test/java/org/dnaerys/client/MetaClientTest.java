@@ -23,14 +23,28 @@ import org.dnaerys.client.entity.PopulationStats;
 import org.dnaerys.client.entity.SuperpopulationInfo;
 import org.dnaerys.client.entity.SuperpopulationSummary;
 import org.dnaerys.client.entity.SampleMeta;
+import org.dnaerys.client.entity.Duo;
+import org.dnaerys.client.entity.Trio;
+import org.dnaerys.db.MetadataLoader;
+import org.dnaerys.db.MetadataSnapshot;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -42,6 +56,27 @@ class MetaClientTest {
     @Inject
     MetaClient metaClient;
 
+    @Inject
+    MetadataLoader metadata;
+
+    // raw metadata rows as loaded, column name -> value
+    private List<Map<String, String>> metadataRows() {
+        MetadataSnapshot snapshot = metadata.snapshot();
+        List<Map<String, String>> rows = new ArrayList<>(snapshot.rows());
+        for (int r = 0; r < snapshot.rows(); r++) {
+            Map<String, String> row = new HashMap<>();
+            for (int c = 0; c < snapshot.columns().size(); c++) {
+                row.put(snapshot.columns().get(c), snapshot.value(c, r));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static boolean isParent(String id) {
+        return id != null && !id.isEmpty() && !id.equals("0");
+    }
+
     @Nested
     @DisplayName("selectSamplesByPopulation Validation Tests")
     class ValidationTests {
@@ -529,4 +564,144 @@ class MetaClientTest {
             assertThat(total).isEqualTo(3202);
         }
     }
+
+    @Nested
+    @DisplayName("Concurrent Access and Index Tests")
+    class ConcurrentAccessTests {
+
+        @Test
+        @DisplayName("Concurrent metadata queries return the same results as sequential ones")
+        void concurrentQueries() throws Exception {
+            List<Callable<Object>> queries = List.of(
+                () -> metaClient.listPopulations(),
+                () -> metaClient.listSuperpopulations(),
+                () -> metaClient.getSampleMeta(List.of("HG00427", "HG00097")),
+                () -> metaClient.getPopulationStats(List.of("GBR", "CHS")),
+                () -> metaClient.getSuperpopulationSummary(List.of("EAS")),
+                () -> metaClient.selectSamplesByPopulation("GBR", null, 0, 20),
+                () -> metaClient.listTrios()
+            );
+            List<Object> expected = new ArrayList<>();
+            for (Callable<Object> query : queries) {
+                expected.add(query.call());
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(16);
+            try {
+                List<Callable<Object>> tasks = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    tasks.addAll(queries);
+                }
+                List<Future<Object>> futures = executor.invokeAll(tasks);
+                for (int i = 0; i < futures.size(); i++) {
+                    assertThat(futures.get(i).get()).isEqualTo(expected.get(i % queries.size()));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        @Test
+        @DisplayName("Population stats from the in-memory index match aggregation over raw metadata rows")
+        void indexMatchesRawRows() {
+            Map<String, List<Map<String, String>>> byPopulation = new TreeMap<>();
+            for (Map<String, String> row : metadataRows()) {
+                byPopulation.computeIfAbsent(row.get("pop"), k -> new ArrayList<>()).add(row);
+            }
+            List<PopulationStats> expected = new ArrayList<>();
+            byPopulation.forEach((pop, rows) -> {
+                Map<String, String> first = rows.getFirst();
+                expected.add(new PopulationStats(
+                    pop, first.get("Population"), first.get("reg"), first.get("region"),
+                    rows.size(),
+                    (int) rows.stream().filter(r -> "male".equals(r.get("gender"))).count(),
+                    (int) rows.stream().filter(r -> "female".equals(r.get("gender"))).count(),
+                    (int) rows.stream().filter(r -> "TRUE".equals(r.get("phase3"))).count(),
+                    (int) rows.stream().filter(r -> isParent(r.get("pid")) && isParent(r.get("mid"))).count()));
+            });
+
+            List<String> codes = expected.stream().map(PopulationStats::populationCode).toList();
+            assertThat(metaClient.getPopulationStats(codes)).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("Children from the in-memory index match parent references in raw metadata rows")
+        void childrenMatchRawRows() {
+            List<Map<String, String>> rows = metadataRows();
+            Set<String> ids = rows.stream().map(r -> r.get("externalIDs")).collect(Collectors.toSet());
+            Map<String, List<String>> expected = new HashMap<>();
+            for (Map<String, String> child : rows) {
+                // linked only if both parent IDs are given
+                if (child.get("pid") == null || child.get("pid").equals("0")
+                        || child.get("mid") == null || child.get("mid").equals("0")) continue;
+                for (String parent : Stream.of(child.get("pid"), child.get("mid")).distinct().toList()) {
+                    if (ids.contains(parent)) {
+                        expected.computeIfAbsent(parent, k -> new ArrayList<>()).add(child.get("externalIDs"));
+                    }
+                }
+            }
+            expected.values().forEach(Collections::sort);
+
+            List<SampleMeta> parents = metaClient.getSampleMeta(List.copyOf(expected.keySet()));
+            assertThat(parents).hasSize(expected.size());
+            for (SampleMeta parent : parents) {
+                assertThat(parent.children()).isEqualTo(expected.get(parent.sampleId()));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Pedigree Tests")
+    class PedigreeTests {
+
+        @Test
+        @DisplayName("Trios are the samples with both parents in raw metadata rows")
+        void triosMatchRawRows() {
+            List<Map<String, String>> rows = metadataRows();
+            Set<String> ids = rows.stream().map(r -> r.get("externalIDs")).collect(Collectors.toSet());
+            List<Trio> expected = rows.stream()
+                .filter(r -> ids.contains(r.get("pid")) && ids.contains(r.get("mid")))
+                .map(r -> new Trio(r.get("externalIDs"), r.get("pid"), r.get("mid"),
+                    r.get("familyId") == null || r.get("familyId").isEmpty() ? null : r.get("familyId"), r.get("pop")))
+                .sorted(Comparator.comparing(Trio::child))
+                .toList();
+
+            assertThat(metaClient.listTrios()).hasSize(602).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("Trio, children and family lookups for SH009")
+        void familyLookups() {
+            Pedigree pedigree = metaClient.pedigree();
+
+            assertThat(pedigree.trio("HG00429")).isEqualTo(new Trio("HG00429", "HG00427", "HG00428", "SH009", "CHS"));
+            assertThat(pedigree.trio("HG00427")).isNull();
+            assertThat(pedigree.children("HG00427")).containsExactly("HG00429");
+            assertThat(pedigree.children("HG00428")).containsExactly("HG00429");
+            assertThat(pedigree.children("HG00097")).isEmpty();
+            assertThat(pedigree.children("UNKNOWN")).isEmpty();
+            assertThat(pedigree.family("SH009")).containsExactly("HG00427", "HG00428", "HG00429");
+            assertThat(pedigree.family("UNKNOWN")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Duos have exactly one parent in the dataset")
+        void duos() {
+            Pedigree pedigree = metaClient.pedigree();
+            SampleIndex index = metaClient.sampleIndex();
+
+            assertThat(pedigree.duos()).hasSize(6);
+            assertThat(pedigree.duos()).extracting(Duo::child).isSorted();
+            for (Duo duo : pedigree.duos()) {
+                assertThat(index.ordinal(duo.parent())).isNotNegative();
+                assertThat(pedigree.trio(duo.child())).isNull();
+                assertThat(duo.parentRole()).isIn("father", "mother");
+            }
+            assertThat(pedigree.duos()).anySatisfy(duo -> {
+                assertThat(duo.child()).isEqualTo("HG02569");
+                assertThat(duo.parent()).isEqualTo("HG02568");
+                assertThat(duo.parentRole()).isEqualTo("mother");
+            });
+        }
+    }
 }
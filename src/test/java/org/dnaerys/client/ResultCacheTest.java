@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the bounded memoizing result cache.
+ *
+ * Test Case IDs: RC-001 through RC-003
+ */
+@DisplayName("ResultCache Tests")
+class ResultCacheTest {
+
+    @Test
+    @DisplayName("RC-001: oldest entries are evicted once maxEntries is exceeded")
+    void testEvictsOldest() {
+        ResultCache<Integer, String> cache = new ResultCache<>("test", 2);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, () -> "a" + loads.incrementAndGet());
+        cache.get(2, () -> "b" + loads.incrementAndGet());
+        cache.get(3, () -> "c" + loads.incrementAndGet());
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(2, () -> "reloaded")).isEqualTo("b2");
+        assertThat(cache.get(1, () -> "reloaded")).isEqualTo("reloaded");
+    }
+
+    @Test
+    @DisplayName("RC-002: a failed load is not cached and does not evict later entries")
+    void testFailedLoad() {
+        ResultCache<Integer, String> cache = new ResultCache<>("test", 2);
+
+        assertThatThrownBy(() -> cache.get(1, () -> { throw new IllegalStateException("unreachable"); }))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(cache.size()).isZero();
+
+        cache.get(1, () -> "a");
+        cache.get(2, () -> "b");
+        // a stale entry of the failed load would evict the live entry of key 1 here
+        cache.get(2, () -> "reloaded");
+        assertThat(cache.get(1, () -> "reloaded")).isEqualTo("a");
+        assertThat(cache.hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("RC-003: in-flight loads are shared and not evicted")
+    void testInFlightLoad() throws Exception {
+        ResultCache<Integer, String> cache = new ResultCache<>("test", 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get(1, () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "slow";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get(1, () -> "duplicate"));
+        // completed entries of other keys do not push the in-flight load out
+        cache.get(2, () -> "b");
+        cache.get(3, () -> "c");
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get(1, () -> "reloaded")).isEqualTo("slow");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
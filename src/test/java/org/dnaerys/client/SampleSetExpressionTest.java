@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import org.dnaerys.mcp.OneKGPdMCPServer.GenomicRegion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.BitSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Unit tests for sample set expression parsing and evaluation.
+ *
+ * Test Case IDs: SET-001 through SET-005
+ */
+@DisplayName("SampleSetExpression Tests")
+class SampleSetExpressionTest {
+
+    private static final int SIZE = 8;
+
+    private static BitSet bits(int... ordinals) {
+        BitSet set = new BitSet(SIZE);
+        for (int ordinal : ordinals) set.set(ordinal);
+        return set;
+    }
+
+    private static BitSet evaluate(String expression, Map<String, BitSet> sets) {
+        return SampleSetExpression.parse(expression).evaluate(o -> sets.get(o.text()), SIZE);
+    }
+
+    @Test
+    @DisplayName("SET-001: operands are parsed by kind, distinct and in order of appearance")
+    void testOperands() {
+        SampleSetExpression expression = SampleSetExpression.parse(
+            "(chr17:100-200 or population:GBR) AND NOT gender:Female and chr17:100-200 AND 13:500");
+
+        assertThat(expression.operands())
+            .extracting(SampleSetExpression.Operand::kind, SampleSetExpression.Operand::value)
+            .containsExactly(
+                tuple(SampleSetExpression.Kind.REGION, "chr17:100-200"),
+                tuple(SampleSetExpression.Kind.POPULATION, "GBR"),
+                tuple(SampleSetExpression.Kind.GENDER, "female"),
+                tuple(SampleSetExpression.Kind.REGION, "13:500"));
+        assertThat(expression.operands().getFirst().region())
+            .isEqualTo(new GenomicRegion("chr17", 100, 200, null, null));
+        assertThat(expression.operands().getLast().region())
+            .isEqualTo(new GenomicRegion("13", 500, 500, null, null));
+    }
+
+    @Test
+    @DisplayName("SET-002: NOT binds tighter than AND, AND tighter than OR")
+    void testPrecedence() {
+        Map<String, BitSet> sets = Map.of(
+            "1:1-2", bits(0, 1, 2, 3),
+            "2:1-2", bits(2, 3, 4, 5),
+            "3:1-2", bits(3, 6));
+
+        assertThat(evaluate("1:1-2 AND 2:1-2 OR 3:1-2", sets)).isEqualTo(bits(2, 3, 6));
+        assertThat(evaluate("1:1-2 AND (2:1-2 OR 3:1-2)", sets)).isEqualTo(bits(2, 3));
+        assertThat(evaluate("1:1-2 AND NOT 2:1-2", sets)).isEqualTo(bits(0, 1));
+        assertThat(evaluate("NOT 1:1-2 AND NOT 2:1-2", sets)).isEqualTo(bits(6, 7));
+    }
+
+    @Test
+    @DisplayName("SET-003: NOT complements within the sample index")
+    void testComplement() {
+        Map<String, BitSet> sets = Map.of("population:GBR", bits(1, 5));
+
+        assertThat(evaluate("NOT population:GBR", sets)).isEqualTo(bits(0, 2, 3, 4, 6, 7));
+        assertThat(evaluate("NOT NOT population:GBR", sets)).isEqualTo(bits(1, 5));
+    }
+
+    @Test
+    @DisplayName("SET-004: operand sets are not modified by evaluation")
+    void testOperandSetsUnchanged() {
+        BitSet gbr = bits(1, 5);
+        evaluate("NOT population:GBR AND population:GBR", Map.of("population:GBR", gbr));
+
+        assertThat(gbr).isEqualTo(bits(1, 5));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "1:1-2 AND", "(1:1-2", "1:1-2)", "1:1-2 2:1-2", "BRCA1", "gender:other",
+        "AND 1:1-2", "1:x-2"})
+    @DisplayName("SET-005: malformed expressions are rejected")
+    void testInvalidExpression(String expression) {
+        assertThatThrownBy(() -> SampleSetExpression.parse(expression))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageStartingWith("Invalid parameter: 'expression'");
+    }
+}
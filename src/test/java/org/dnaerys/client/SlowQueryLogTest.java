@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.dnaerys.cluster.grpc.Annotations;
+import org.dnaerys.cluster.grpc.Chromosome;
+import org.dnaerys.cluster.grpc.CountAllelesInMultiRegionsRequest;
+import org.dnaerys.cluster.grpc.Impact;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the rotating slow query log.
+ *
+ * Test Case IDs: SLOW-001 through SLOW-003
+ */
+@DisplayName("SlowQueryLog Tests")
+class SlowQueryLogTest {
+
+    private static final String METHOD = "org.dnaerys.cluster.grpc.DnaerysService/CountVariantsInMultiRegions";
+
+    @TempDir
+    Path dir;
+
+    private static SlowQueryLog.Entry entry(int start) {
+        CountAllelesInMultiRegionsRequest request = CountAllelesInMultiRegionsRequest.newBuilder()
+            .addChr(Chromosome.CHR_17).addStart(start).addEnd(start + 1000)
+            .setHom(true)
+            .setAnn(Annotations.newBuilder().addImpact(Impact.HIGH))
+            .build();
+        return new SlowQueryLog.Entry(Instant.parse("2026-01-01T00:00:00Z"), METHOD, "DEADLINE_EXCEEDED",
+            30_000, 29_500, 29_000, 1, 0, "impact: HIGH", 0, 0, 0, request.toByteString());
+    }
+
+    private static int start(SlowQueryLog.Entry entry) {
+        try {
+            return CountAllelesInMultiRegionsRequest.parseFrom(entry.request()).getStart(0);
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    @DisplayName("SLOW-001: entries round trip with the request intact")
+    void testRoundTrip() throws Exception {
+        Path file = dir.resolve("slow-queries.ndjson");
+        try (SlowQueryLog log = new SlowQueryLog(file, 1 << 20, 3)) {
+            log.append(entry(43044295));
+        }
+
+        List<SlowQueryLog.Entry> entries = SlowQueryLog.read(file);
+        assertThat(entries).containsExactly(entry(43044295));
+        CountAllelesInMultiRegionsRequest request =
+            CountAllelesInMultiRegionsRequest.parseFrom(entries.getFirst().request());
+        assertThat(request.getStart(0)).isEqualTo(43044295);
+        assertThat(request.getAnn().getImpactList()).containsExactly(Impact.HIGH);
+    }
+
+    @Test
+    @DisplayName("SLOW-002: log rotates at max bytes and keeps at most max files")
+    void testRotation() throws Exception {
+        Path file = dir.resolve("slow-queries.ndjson");
+        try (SlowQueryLog log = new SlowQueryLog(file, 1 << 20, 1)) {
+            log.append(entry(1000));
+        }
+        long lineBytes = Files.size(file);
+        Files.delete(file);
+
+        try (SlowQueryLog log = new SlowQueryLog(file, 2 * lineBytes, 3)) {
+            for (int i = 0; i < 10; i++) log.append(entry(1000 + i));
+        }
+
+        assertThat(files()).extracting(p -> p.getFileName().toString())
+            .containsExactly("slow-queries.ndjson", "slow-queries.ndjson.1", "slow-queries.ndjson.2");
+        assertThat(SlowQueryLog.read(file)).extracting(SlowQueryLogTest::start).containsExactly(1008, 1009);
+        assertThat(SlowQueryLog.read(dir.resolve("slow-queries.ndjson.2")))
+            .extracting(SlowQueryLogTest::start).containsExactly(1004, 1005);
+    }
+
+    @Test
+    @DisplayName("SLOW-003: torn lines are skipped and appending continues after reopening")
+    void testTornLine() throws Exception {
+        Path file = dir.resolve("slow-queries.ndjson");
+        try (SlowQueryLog log = new SlowQueryLog(file, 1 << 20, 3)) {
+            log.append(entry(1));
+        }
+        Files.writeString(file, "{\"ts\":\"2026-01-01T00:00:00Z\",\"method\":\"\n",
+            StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        try (SlowQueryLog log = new SlowQueryLog(file, 1 << 20, 3)) {
+            log.append(entry(2));
+        }
+
+        assertThat(SlowQueryLog.read(file)).containsExactly(entry(1), entry(2));
+    }
+}
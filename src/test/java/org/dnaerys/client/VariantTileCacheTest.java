@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import com.google.protobuf.ByteString;
+import org.dnaerys.cluster.grpc.Chromosome;
+import org.dnaerys.cluster.grpc.Variant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for off-heap variant tiles and their cache.
+ *
+ * Test Case IDs: TILE-001 through TILE-005
+ */
+@DisplayName("VariantTileCache Tests")
+class VariantTileCacheTest {
+
+    private static Variant variant(int start, String ref, String alt) {
+        return Variant.newBuilder()
+            .setChr(Chromosome.CHR_17).setStart(start).setEnd(start + ref.length() - 1)
+            .setRef(ref).setAlt(alt)
+            .setAf(0.25f).setAc(1601.5f).setAn(6404)
+            .setHomc(300).setHetc(1001).setMisc(2).setHomfc(150).setHetfc(500).setMisfc(1)
+            .setGnomADe(0.01f).setGnomADg(0.02f).setCaddRaw(1.5f).setCaddPhred(22.3f).setAmScore(0.91f)
+            .setAminoAcids("p.Arg175His")
+            .setBiallelic(true)
+            .build();
+    }
+
+    private static VariantTile tile(int count) {
+        List<Variant> variants = new ArrayList<>();
+        for (int i = 0; i < count; i++) variants.add(variant(1000 + i, "A", "G"));
+        return VariantTile.encode(Chromosome.CHR_17_VALUE, variants);
+    }
+
+    private static VariantTileCache.TileKey key(int tile) {
+        return new VariantTileCache.TileKey(Chromosome.CHR_17_VALUE, tile, true, true, ByteString.EMPTY);
+    }
+
+    @Test
+    @DisplayName("TILE-001: every field survives encoding, variants come back by position")
+    void testRoundTrip() {
+        Variant snv = variant(1500, "C", "T");
+        Variant deletion = variant(1200, "ACGT", "A").toBuilder().setAminoAcids("").setBiallelic(false).build();
+        VariantTile tile = VariantTile.encode(Chromosome.CHR_17_VALUE, List.of(snv, deletion));
+
+        List<Variant> decoded = new ArrayList<>();
+        tile.collect(1, 2000, null, null, decoded::add);
+
+        assertThat(tile.size()).isEqualTo(2);
+        assertThat(decoded).containsExactly(deletion, snv);
+    }
+
+    @Test
+    @DisplayName("TILE-002: collect selects by start position, ref and alt")
+    void testCollect() {
+        VariantTile tile = VariantTile.encode(Chromosome.CHR_17_VALUE, List.of(
+            variant(100, "A", "G"), variant(200, "A", "C"), variant(200, "A", "T"), variant(300, "G", "A")));
+
+        List<Integer> window = new ArrayList<>();
+        tile.collect(150, 300, null, null, v -> window.add(v.getStart()));
+        List<String> alleles = new ArrayList<>();
+        tile.collect(1, 1000, "A", "T", v -> alleles.add(v.getStart() + v.getAlt()));
+
+        assertThat(window).containsExactly(200, 200, 300);
+        assertThat(alleles).containsExactly("200T");
+    }
+
+    @Test
+    @DisplayName("TILE-003: least recently used tiles are evicted to stay within the byte cap")
+    void testEvictionByBytes() {
+        int tileBytes = tile(10).bytes();
+        VariantTileCache cache = new VariantTileCache(65536, 8L * tileBytes);
+
+        for (int t = 0; t < 8; t++) {
+            cache.get(key(t), () -> tile(10));
+        }
+        cache.get(key(0), () -> { throw new AssertionError("tile 0 should be cached"); });
+        cache.get(key(8), () -> tile(10));
+
+        assertThat(cache.bytes()).isLessThanOrEqualTo(cache.maxBytes());
+        assertThat(cache.size()).isEqualTo(8);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+        assertThat(cache.getIfPresent(key(0))).isNotNull();
+        assertThat(cache.getIfPresent(key(1))).isNull();
+    }
+
+    @Test
+    @DisplayName("TILE-004: tiles above an eighth of the cap are returned but not kept")
+    void testOversizedTile() {
+        VariantTileCache cache = new VariantTileCache(65536, 8L * tile(10).bytes());
+
+        VariantTile large = cache.get(key(0), () -> tile(100));
+
+        assertThat(large.size()).isEqualTo(100);
+        assertThat(cache.size()).isZero();
+        assertThat(cache.bytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("TILE-005: failed loads are not cached and tile bounds are 1-based")
+    void testFailedLoadAndBounds() {
+        VariantTileCache cache = new VariantTileCache(1000, 1 << 20);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThatThrownBy(() -> cache.get(key(0), () -> {
+            loads.incrementAndGet();
+            throw new RuntimeException("UNAVAILABLE");
+        })).hasMessage("UNAVAILABLE");
+        cache.get(key(0), () -> {
+            loads.incrementAndGet();
+            return tile(1);
+        });
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.tileOf(1)).isZero();
+        assertThat(cache.tileOf(1000)).isZero();
+        assertThat(cache.tileOf(1001)).isEqualTo(1);
+        assertThat(cache.tileStart(1)).isEqualTo(1001);
+        assertThat(cache.tileEnd(1)).isEqualTo(2000);
+    }
+}
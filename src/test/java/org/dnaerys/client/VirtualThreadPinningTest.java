@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.client;
+
+import com.google.protobuf.ByteString;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.dnaerys.cluster.grpc.Chromosome;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that the caches and logs on the RPC path do not pin carrier threads when used from
+ * virtual threads, i.e. do not park while holding a monitor. Pinning is detected with the JFR
+ * {@code jdk.VirtualThreadPinned} event.
+ *
+ * Test Case IDs: VT-001 through VT-004
+ */
+@DisplayName("Virtual Thread Pinning Tests")
+class VirtualThreadPinningTest {
+
+    private static final String VERSION = "2026-01-01/GRCh38/3/138044723/3202";
+    private static final int THREADS = 64;
+
+    @TempDir
+    Path dir;
+
+    @FunctionalInterface
+    private interface Task {
+        void run(int i) throws Exception;
+    }
+
+    // pinned events whose stack has a frame of main code, recorded while THREADS virtual threads run the task
+    private List<RecordedEvent> pinnedEvents(Task task) throws Exception {
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = IntStream.range(0, THREADS)
+                    .<Future<?>>mapToObj(i -> threads.submit(() -> {
+                        task.run(i);
+                        return null;
+                    }))
+                    .toList();
+                for (Future<?> future : futures) future.get();
+            }
+            recording.stop();
+            Path file = dir.resolve("pinning.jfr");
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                .filter(VirtualThreadPinningTest::inMainCode)
+                .toList();
+        }
+    }
+
+    private static boolean inMainCode(RecordedEvent event) {
+        if (event.getStackTrace() == null) return false;
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("org.dnaerys.") && !type.startsWith(VirtualThreadPinningTest.class.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("VT-001: parking under a monitor is detected")
+    void testDetectsPinning() throws Exception {
+        // monitors no longer pin from JDK 24 on (JEP 491)
+        assumeTrue(Runtime.version().feature() < 24);
+        Object monitor = new Object();
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            Thread.ofVirtual().start(() -> {
+                synchronized (monitor) {
+                    sleep(10);
+                }
+            }).join();
+            recording.stop();
+            Path file = dir.resolve("control.jfr");
+            recording.dump(file);
+            assertThat(RecordingFile.readAllEvents(file))
+                .anyMatch(e -> e.getEventType().getName().equals("jdk.VirtualThreadPinned"));
+        }
+    }
+
+    @Test
+    @DisplayName("VT-002: contended tile and result cache loads do not pin")
+    void testCacheLoadsDoNotPin() throws Exception {
+        VariantTileCache tiles = new VariantTileCache(65536, 1 << 20);
+        ResultCache<Integer, String> results = new ResultCache<>("vt", 16);
+
+        // loaders stand in for RPCs; threads share few keys, so most wait for an in-flight load
+        List<RecordedEvent> pinned = pinnedEvents(i -> {
+            tiles.get(new VariantTileCache.TileKey(Chromosome.CHR_17_VALUE, i % 4, true, true, ByteString.EMPTY), () -> {
+                sleep(20);
+                return VariantTile.encode(Chromosome.CHR_17_VALUE, List.of());
+            });
+            results.get(i % 4, () -> {
+                sleep(20);
+                return "result";
+            });
+        });
+
+        assertThat(pinned).isEmpty();
+        assertThat(tiles.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("VT-003: concurrent disk cache reads, writes and maintenance do not pin")
+    void testDiskCacheDoesNotPin() throws Exception {
+        try (DiskResultCache cache = new DiskResultCache(dir.resolve("cache"), 1 << 20, 1 << 14)) {
+            List<RecordedEvent> pinned = pinnedEvents(i -> {
+                for (int n = 0; n < 50; n++) {
+                    byte[] request = bytes("n=" + (i * 50 + n));
+                    cache.put(VERSION, "TopNHWE", request, new byte[256]);
+                    cache.get(VERSION, "TopNHWE", request);
+                }
+                if (i % 16 == 0) cache.maintain();
+            });
+
+            assertThat(pinned).isEmpty();
+            assertThat(cache.segmentCount()).isGreaterThan(1);
+        }
+    }
+
+    @Test
+    @DisplayName("VT-004: concurrent slow query log appends and rotation do not pin")
+    void testSlowQueryLogDoesNotPin() throws Exception {
+        try (SlowQueryLog log = new SlowQueryLog(dir.resolve("slow.ndjson"), 4096, 3)) {
+            List<RecordedEvent> pinned = pinnedEvents(i -> log.append(new SlowQueryLog.Entry(Instant.now(),
+                "org.dnaerys.cluster.grpc.DnaerysService/CountVariantsInMultiRegions", "OK",
+                6000, 5900, 5800, 1, 0, "", 1, 1, 16, ByteString.copyFrom(bytes("request-" + i)))));
+
+            assertThat(pinned).isEmpty();
+            assertThat(SlowQueryLog.read(log.path())).isNotEmpty();
+        }
+    }
+}
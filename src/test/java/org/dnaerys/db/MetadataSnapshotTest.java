@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2026 Dmitry Degrave
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.dnaerys.db;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for the binary sample metadata snapshot.
+ *
+ * Test Case IDs: SNAP-001 through SNAP-004
+ */
+@DisplayName("MetadataSnapshot Tests")
+class MetadataSnapshotTest {
+
+    @Test
+    @DisplayName("SNAP-001: kgpe.json round trips through the binary snapshot")
+    void testRoundTrip() throws Exception {
+        MetadataSnapshot json;
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("kgpe.json")) {
+            json = MetadataSnapshot.fromJson(new InputStreamReader(is, StandardCharsets.UTF_8));
+        }
+
+        MetadataSnapshot binary = MetadataSnapshot.read(ByteBuffer.wrap(bytes(json)));
+
+        assertThat(binary.rows()).isEqualTo(3202);
+        assertThat(binary.columns()).isEqualTo(json.columns())
+            .contains("externalIDs", "pid", "mid", "pop", "Population", "reg", "region", "phase3");
+        for (String column : json.columns()) {
+            assertThat(binary.column(column)).isEqualTo(json.column(column));
+        }
+    }
+
+    @Test
+    @DisplayName("SNAP-002: missing and null values are kept as null, other scalars as text")
+    void testNullsAndScalars() throws Exception {
+        String json = "[{\"id\":\"A\",\"n\":1,\"flag\":true},{\"id\":\"B\",\"n\":null},{\"id\":\"C\",\"extra\":\"x\"}]";
+
+        MetadataSnapshot snapshot = MetadataSnapshot.read(ByteBuffer.wrap(bytes(
+            MetadataSnapshot.fromJson(new StringReader(json)))));
+
+        assertThat(snapshot.columns()).containsExactly("id", "n", "flag", "extra");
+        assertThat(snapshot.column("id")).containsExactly("A", "B", "C");
+        assertThat(snapshot.column("n")).containsExactly("1", null, null);
+        assertThat(snapshot.column("flag")).containsExactly("true", null, null);
+        assertThat(snapshot.column("extra")).containsExactly(null, null, "x");
+        assertThat(snapshot.column("missing")).isNull();
+    }
+
+    @Test
+    @DisplayName("SNAP-003: repeated values are stored once")
+    void testDictionary() throws Exception {
+        MetadataSnapshot snapshot = new MetadataSnapshot(List.of("pop"),
+            new String[][] {{"GBR", "GBR", "GBR", "GBR", "GBR", "GBR", "GBR", "GBR"}});
+
+        byte[] bytes = bytes(snapshot);
+
+        // header 16, column name 4 + 3, dictionary 4 + 4 + 3, 8 indices
+        assertThat(bytes).hasSize(16 + 7 + 11 + 8 * 4);
+    }
+
+    @Test
+    @DisplayName("SNAP-004: other content is rejected")
+    void testRejectsOtherContent() {
+        ByteBuffer json = ByteBuffer.wrap("[{\"id\":\"A\"}]    ".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> MetadataSnapshot.read(json))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Not a metadata snapshot");
+    }
+
+    private static byte[] bytes(MetadataSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.write(out);
+        return out.toByteArray();
+    }
+}
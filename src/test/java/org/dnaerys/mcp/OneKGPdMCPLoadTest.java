@@ -0,0 +1,113 @@
+package org.dnaerys.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.dnaerys.test.LoadHarness;
+import org.dnaerys.test.LoadHarness.ToolCall;
+import org.dnaerys.test.SyntheticDnaerysResource;
+import org.dnaerys.test.SyntheticDnaerysResource.InjectSyntheticDnaerys;
+import org.dnaerys.test.SyntheticDnaerysService;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of the MCP HTTP endpoint against the synthetic in-process backend.
+ *
+ * By default a short run checks that the server and harness work end to end. For a real measurement,
+ * scale it with system properties, e.g.:
+ * <pre>
+ * ./mvnw test -Dtest=OneKGPdMCPLoadTest -Dload.sessions=32 -Dload.calls=2000 -Dsynthetic.latency-ms=5 -Dsynthetic.node-skew=1
+ * </pre>
+ * The report (throughput, p50/p99 latency, allocation per call) is logged after the measured run.
+ */
+@QuarkusTest
+@TestProfile(OneKGPdMCPLoadTest.SyntheticBackend.class)
+@DisplayName("OneKGPdMCP Load Tests")
+class OneKGPdMCPLoadTest {
+
+    private static final Logger LOG = Logger.getLogger(OneKGPdMCPLoadTest.class);
+
+    /**
+     * Synthetic backend instead of the WireMock stubs used by other tests.
+     */
+    public static class SyntheticBackend implements QuarkusTestProfile {
+
+        @Override
+        public List<TestResourceEntry> testResources() {
+            return List.of(new TestResourceEntry(SyntheticDnaerysResource.class));
+        }
+
+        @Override
+        public boolean disableGlobalTestResources() {
+            return true;
+        }
+    }
+
+    private static final Map<String, Object> BRCA1 = Map.of(
+        "chromosome", List.of("17"), "start", List.of(43044295), "end", List.of(43125483),
+        "selectHet", true, "selectHom", true);
+
+    private static final List<ToolCall> MIX = List.of(
+        new ToolCall("countVariants", BRCA1),
+        new ToolCall("selectVariants", BRCA1),
+        new ToolCall("countSamples", BRCA1),
+        new ToolCall("getKinshipDegree", Map.of("sample1", "HG00096", "sample2", "HG00097")),
+        new ToolCall("getDatasetInfo", Map.of()));
+
+    @TestHTTPResource("/mcp")
+    URI endpoint;
+
+    @InjectSyntheticDnaerys
+    SyntheticDnaerysService backend;
+
+    @Test
+    @DisplayName("concurrent sessions complete the tool mix without errors")
+    void testLoad() throws Exception {
+        int sessions = Integer.getInteger("load.sessions", 4);
+        int calls = Integer.getInteger("load.calls", 25);
+        LoadHarness harness = new LoadHarness(endpoint);
+
+        LoadHarness.Report warmUp = harness.run(sessions, Math.max(calls / 5, MIX.size()), MIX);
+        long rpcsBefore = backend.calls();
+        LoadHarness.Report report = harness.run(sessions, calls, MIX);
+        LOG.infof("Warm-up: %s", warmUp);
+        LOG.infof("Measured: %s", report);
+
+        assertThat(report.calls()).isEqualTo((long) sessions * calls);
+        if (backend.settings().errorRate() == 0) {
+            assertThat(warmUp.errors()).isZero();
+            assertThat(report.errors()).isZero();
+        }
+        assertThat(backend.calls()).isGreaterThan(rpcsBefore);
+        assertThat(report.p99Ms()).isGreaterThanOrEqualTo(report.p50Ms());
+    }
+
+    @Test
+    @DisplayName("structured content is written as the JSON of the text content")
+    void testStructuredContentOnTheWire() throws Exception {
+        LoadHarness harness = new LoadHarness(endpoint);
+
+        for (ToolCall call : MIX) {
+            JsonNode response = harness.call(call);
+            assertThat(response).as(call.name()).isNotNull();
+            JsonNode result = response.path("result");
+
+            assertThat(result.path("isError").asBoolean()).as(call.name()).isFalse();
+            assertThat(result.path("structuredContent").isObject()).as(call.name()).isTrue();
+            assertThat(result.path("structuredContent"))
+                .as(call.name())
+                .isEqualTo(new ObjectMapper().readTree(result.path("content").path(0).path("text").asText()));
+        }
+    }
+}
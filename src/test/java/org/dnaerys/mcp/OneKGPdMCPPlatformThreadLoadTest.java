@@ -0,0 +1,31 @@
+package org.dnaerys.mcp;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.Map;
+
+/**
+ * {@link OneKGPdMCPLoadTest} with virtual threads disabled, so tool calls run on the worker pool.
+ * Compare the reports of both tests with the same settings and more sessions than worker threads, e.g.:
+ * <pre>
+ * ./mvnw test -Dtest='OneKGPdMCP*LoadTest' -Dload.sessions=256 -Dload.calls=200 -Dsynthetic.latency-ms=50 -Dquarkus.thread-pool.max-threads=64
+ * </pre>
+ */
+@QuarkusTest
+@TestProfile(OneKGPdMCPPlatformThreadLoadTest.PlatformThreads.class)
+@DisplayName("OneKGPdMCP Load Tests (platform threads)")
+class OneKGPdMCPPlatformThreadLoadTest extends OneKGPdMCPLoadTest {
+
+    /**
+     * Synthetic backend, with @RunOnVirtualThread tool methods falling back to the worker pool.
+     */
+    public static class PlatformThreads extends SyntheticBackend {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.virtual-threads.enabled", "false");
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.dnaerys.client.DnaerysClient;
 import org.dnaerys.cluster.grpc.*;
 
 import org.dnaerys.mcp.generator.VariantView;
+import org.dnaerys.mcp.util.SerializedContent;
 import org.dnaerys.test.WireMockGrpcResource;
 import org.dnaerys.test.WireMockGrpcResource.InjectWireMockGrpc;
 import org.dnaerys.test.WireMockGrpcResource.InjectWireMockServer;
@@ -61,6 +62,11 @@ class OneKGPdMCPServerIT {
     @InjectWireMockServer
     WireMockServer wireMockServer;
 
+    // structured content is serialized once by McpResponse, tests inspect the original object
+    private static Object structured(ToolResponse response) {
+        return ((SerializedContent) response.structuredContent()).value();
+    }
+
     @BeforeEach
     void setupStubs() {
         wireMockServer.resetAll();
@@ -162,7 +168,7 @@ class OneKGPdMCPServerIT {
     void testMetadataTools() {
         // Test getDatasetInfo tool
         ToolResponse toolResponse = server.getDatasetInfo();
-        DnaerysClient.DatasetInfo info = (DnaerysClient.DatasetInfo) toolResponse.structuredContent();
+        DnaerysClient.DatasetInfo info = (DnaerysClient.DatasetInfo) structured(toolResponse);
         assertNotNull(info, "getDatasetInfo should return non-null result");
 
         // Validate total samples
@@ -219,7 +225,7 @@ class OneKGPdMCPServerIT {
                     CHR_BRCA1,   // chromosome
                     testPosition // position
             );
-            Map<String, Integer> countResult = (Map<String, Integer>) countResponse.structuredContent();
+            Map<String, Integer> countResult = (Map<String, Integer>) structured(countResponse);
 
             assertNotNull(countResult, "Count result should not be null");
             assertTrue(countResult.containsKey("count"), "Result should contain 'count' key");
@@ -255,7 +261,7 @@ class OneKGPdMCPServerIT {
                 KINSHIP_PARENT,  // HG00403
                 KINSHIP_CHILD    // HG00405
         );
-        OneKGPdMCPServer.KinshipResult parentChildResult = (OneKGPdMCPServer.KinshipResult) parentChildResponse.structuredContent();
+        OneKGPdMCPServer.KinshipResult parentChildResult = (OneKGPdMCPServer.KinshipResult) structured(parentChildResponse);
 
         assertNotNull(parentChildResult, "Kinship result should not be null");
         assertNotNull(parentChildResult.degree(), "Kinship degree should not be null");
@@ -268,7 +274,7 @@ class OneKGPdMCPServerIT {
                 KINSHIP_UNRELATED1,  // HG00406
                 SAMPLE_MALE          // HG00403 - from different family
         );
-        OneKGPdMCPServer.KinshipResult unrelatedResult = (OneKGPdMCPServer.KinshipResult) unrelatedResponse.structuredContent();
+        OneKGPdMCPServer.KinshipResult unrelatedResult = (OneKGPdMCPServer.KinshipResult) structured(unrelatedResponse);
 
         assertNotNull(unrelatedResult, "Unrelated kinship result should not be null");
         // Unrelated pairs may return empty string or specific degree
@@ -279,7 +285,7 @@ class OneKGPdMCPServerIT {
                 SAMPLE_FEMALE,  // HG00405
                 SAMPLE_FEMALE   // HG00405
         );
-        OneKGPdMCPServer.KinshipResult selfResult = (OneKGPdMCPServer.KinshipResult) selfResponse.structuredContent();
+        OneKGPdMCPServer.KinshipResult selfResult = (OneKGPdMCPServer.KinshipResult) structured(selfResponse);
 
         assertNotNull(selfResult, "Self-kinship result should not be null");
         LOGGER.info("Self kinship: " + selfResult.degree());
@@ -289,7 +295,7 @@ class OneKGPdMCPServerIT {
                 SAMPLE_MALE,     // HG00403
                 SAMPLE_GENERAL   // HG00404
         );
-        OneKGPdMCPServer.KinshipResult parentPairResult = (OneKGPdMCPServer.KinshipResult) parentPairResponse.structuredContent();
+        OneKGPdMCPServer.KinshipResult parentPairResult = (OneKGPdMCPServer.KinshipResult) structured(parentPairResponse);
 
         assertNotNull(parentPairResult, "Parent pair kinship result should not be null");
         LOGGER.info("Parent pair kinship (HG00403-HG00404): " + parentPairResult.degree());
@@ -322,15 +328,16 @@ class OneKGPdMCPServerIT {
                 List.of(CHR_BRCA1), List.of(BRCA1_START), List.of(BRCA1_END), null, null,
                 true, true,  // selectHet, selectHom
                 null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-                0, 5  // skip, limit
+                0, 5,  // skip, limit
+                null  // format
         );
-        Map<String, List<VariantView>> result = (Map<String, List<VariantView>>) toolResponse.structuredContent();
+        Map<String, List<Variant>> result = (Map<String, List<Variant>>) structured(toolResponse);
 
         assertNotNull(result, "Result should not be null");
-        List<VariantView> variants = result.get("variants");
+        List<Variant> variants = result.get("variants");
 
         if (!variants.isEmpty()) {
-            VariantView firstVariant = variants.get(0);
+            VariantView firstVariant = VariantView.fromGrpc(variants.get(0));
 
             // Validate required fields are present (non-null)
             assertTrue(firstVariant.chrIdx() >= 0, "Chromosome index should be >= 0");
@@ -1,5 +1,15 @@
 package org.dnaerys.mcp;
 
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.quarkiverse.mcp.server.TextContent;
 import io.quarkiverse.mcp.server.ToolCallException;
 import io.quarkiverse.mcp.server.ToolResponse;
 import io.quarkus.test.InjectMock;
@@ -8,7 +18,14 @@ import jakarta.inject.Inject;
 import org.dnaerys.client.DnaerysClient;
 import org.dnaerys.cluster.grpc.*;
 import org.dnaerys.mcp.OneKGPdMCPServer.GenomicRegion;
-import org.dnaerys.mcp.generator.VariantView;
+import org.dnaerys.mcp.generator.ColumnarVariants;
+import org.dnaerys.mcp.generator.PopulationFrequencyView;
+import org.dnaerys.mcp.generator.TrioScanView;
+import org.dnaerys.mcp.generator.VariantStatsView;
+import org.dnaerys.mcp.util.Cursor;
+import org.dnaerys.mcp.util.ResponseStats;
+import org.dnaerys.mcp.util.SerializedContent;
+import org.dnaerys.test.InMemorySpanExporterProducer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -39,12 +56,26 @@ class OneKGPdMCPServerTest {
     @InjectMock
     DnaerysClient mockClient;
 
+    @Inject
+    ResponseStats responseStats;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    InMemorySpanExporter spans;
+
     @BeforeEach
     void setUp() {
         // Reset mock state before each test
         reset(mockClient);
     }
 
+    // structured content is serialized once by McpResponse, tests inspect the original object
+    private static Object structured(ToolResponse response) {
+        return ((SerializedContent) response.structuredContent()).value();
+    }
+
     // ========================================
     // METADATA TOOLS TESTS
     // ========================================
@@ -63,7 +94,7 @@ class OneKGPdMCPServerTest {
             when(mockClient.getDatasetInfo()).thenReturn(datasetInfo);
 
             ToolResponse toolResponse = server.getDatasetInfo();
-            DnaerysClient.DatasetInfo result = (DnaerysClient.DatasetInfo) toolResponse.structuredContent();
+            DnaerysClient.DatasetInfo result = (DnaerysClient.DatasetInfo) structured(toolResponse);
 
             assertThat(result).isNotNull();
             assertThat(result.variantsTotal()).isEqualTo(138044723);
@@ -94,7 +125,7 @@ class OneKGPdMCPServerTest {
                 true, true,  // selectHet, selectHom
                 null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null
             );
-            Map<String, Integer> result = (Map<String, Integer>) toolResponse.structuredContent();
+            Map<String, Integer> result = (Map<String, Integer>) structured(toolResponse);
 
             assertThat(result).containsKey("count");
             assertThat(result.get("count")).isEqualTo(5573);
@@ -203,12 +234,93 @@ class OneKGPdMCPServerTest {
                 List.of("17"), List.of(43044295), List.of(43170245), null, null,
                 true, true,  // selectHet, selectHom
                 null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-                null, null  // skip, limit
+                null, null,  // skip, limit
+                null  // format
             );
-            Map<String, List<VariantView>> result = (Map<String, List<VariantView>>) toolResponse.structuredContent();
+            Map<String, List<Variant>> result = (Map<String, List<Variant>>) structured(toolResponse);
 
             assertThat(result).containsKey("variants");
-            assertThat(result.get("variants")).isNotEmpty();
+            assertThat(result.get("variants")).containsExactly(variant);
+        }
+
+        @Test
+        @DisplayName("selectVariants with format=columnar returns columnar variants")
+        @SuppressWarnings("unchecked")
+        void testSelectVariantsColumnar() {
+            Variant variant = Variant.newBuilder()
+                .setChr(Chromosome.CHR_17)
+                .setStart(43044295)
+                .setRef("A")
+                .setAlt("G")
+                .build();
+            when(mockClient.selectVariants(
+                any(), anyBoolean(), anyBoolean(), any(), any(), any()
+            )).thenReturn(List.of(variant));
+
+            ToolResponse toolResponse = server.selectVariants(
+                List.of("17"), List.of(43044295), List.of(43170245), null, null,
+                true, true,  // selectHet, selectHom
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                null, null,  // skip, limit
+                "columnar"
+            );
+            Map<String, Object> result = (Map<String, Object>) structured(toolResponse);
+
+            assertThat(result.get("variants")).isEqualTo(new ColumnarVariants(List.of(variant)));
+            assertThat(((SerializedContent) toolResponse.structuredContent()).json())
+                .contains("\"encoding\":{\"chr\":\"rle\",\"pos\":\"delta\"}");
+        }
+
+        @Test
+        @DisplayName("selectVariants rejects unknown format")
+        void testSelectVariantsInvalidFormat() {
+            when(mockClient.selectVariants(
+                any(), anyBoolean(), anyBoolean(), any(), any(), any()
+            )).thenReturn(List.of());
+
+            ToolCallException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                ToolCallException.class,
+                () -> server.selectVariants(
+                    List.of("1"), List.of(1000), List.of(2000), null, null,
+                    true, true,  // selectHet, selectHom
+                    null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                    null, null,  // skip, limit
+                    "csv"
+                )
+            );
+
+            assertThat(thrown.getMessage()).contains("'format'");
+        }
+
+        @Test
+        @DisplayName("selectVariantsInSamples with cursor selects a page of samples and returns next cursor")
+        @SuppressWarnings("unchecked")
+        void testSelectVariantsInSamplesCursorPage() {
+            Variant variant = Variant.newBuilder()
+                .setChr(Chromosome.CHR_1).setStart(1500).setRef("A").setAlt("G")
+                .build();
+            when(mockClient.selectVariantsInSamples(
+                any(), any(), anyBoolean(), anyBoolean(), any(), any(), any()
+            )).thenReturn(Map.of("HG00097", java.util.Set.of(variant)));
+
+            ToolResponse toolResponse = server.selectVariantsInSamples(
+                List.of("1"), List.of(1000), List.of(2000), null, null,
+                true, true,  // selectHet, selectHom
+                List.of("HG00096", "HG00097", "HG00099"),
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                null, null,  // skip, limit
+                null,  // format
+                new Cursor("samples", 1, 1).encode()
+            );
+            Map<String, Object> result = (Map<String, Object>) structured(toolResponse);
+
+            verify(mockClient).selectVariantsInSamples(
+                any(), eq(List.of("HG00097")), anyBoolean(), anyBoolean(), any(), any(), any());
+            assertThat((List<Map<String, Object>>) result.get("variantsBySample"))
+                .extracting(m -> m.get("sample"))
+                .containsExactly("HG00097");
+            assertThat(Cursor.decode((String) result.get("nextCursor"), "samples"))
+                .isEqualTo(new Cursor("samples", 2, 1));
         }
 
         @Test
@@ -224,7 +336,8 @@ class OneKGPdMCPServerTest {
                     List.of("1"), List.of(2000), List.of(1000), null, null,
                     true, true,  // selectHet, selectHom
                     null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-                    null, null  // skip, limit
+                    null, null,  // skip, limit
+                    null  // format
                 )
             );
 
@@ -253,7 +366,7 @@ class OneKGPdMCPServerTest {
                 true, true,  // selectHet, selectHom
                 null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null
             );
-            Map<String, Integer> result = (Map<String, Integer>) toolResponse.structuredContent();
+            Map<String, Integer> result = (Map<String, Integer>) structured(toolResponse);
 
             assertThat(result).containsKey("count");
             assertThat(result.get("count")).isEqualTo(150);
@@ -272,7 +385,7 @@ class OneKGPdMCPServerTest {
                 true, true,  // selectHet, selectHom
                 null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null
             );
-            Map<String, List<String>> result = (Map<String, List<String>>) toolResponse.structuredContent();
+            Map<String, List<String>> result = (Map<String, List<String>>) structured(toolResponse);
 
             assertThat(result).containsKey("samples");
             assertThat(result.get("samples")).contains("HG00403", "HG00405");
@@ -359,7 +472,7 @@ class OneKGPdMCPServerTest {
             );
 
             // Verify response is valid
-            assertThat(response.structuredContent()).isNotNull();
+            assertThat(structured(response)).isNotNull();
         }
 
         @Test
@@ -419,7 +532,7 @@ class OneKGPdMCPServerTest {
                 .thenReturn(2500);
 
             ToolResponse toolResponse = server.countSamplesHomozygousReference("1", 12345);
-            Map<String, Integer> result = (Map<String, Integer>) toolResponse.structuredContent();
+            Map<String, Integer> result = (Map<String, Integer>) structured(toolResponse);
 
             assertThat(result).containsKey("count");
             assertThat(result.get("count")).isEqualTo(2500);
@@ -433,7 +546,7 @@ class OneKGPdMCPServerTest {
                 .thenReturn(List.of("HG00403", "HG00405"));
 
             ToolResponse toolResponse = server.selectSamplesHomozygousReference("1", 12345);
-            Map<String, List<String>> result = (Map<String, List<String>>) toolResponse.structuredContent();
+            Map<String, List<String>> result = (Map<String, List<String>>) structured(toolResponse);
 
             assertThat(result).containsKey("samples");
             assertThat(result.get("samples")).contains("HG00403", "HG00405");
@@ -482,7 +595,7 @@ class OneKGPdMCPServerTest {
             when(mockClient.kinship(anyString(), anyString())).thenReturn("FIRST_DEGREE");
 
             ToolResponse toolResponse = server.getKinshipDegree("HG00403", "HG00405");
-            OneKGPdMCPServer.KinshipResult result = (OneKGPdMCPServer.KinshipResult) toolResponse.structuredContent();
+            OneKGPdMCPServer.KinshipResult result = (OneKGPdMCPServer.KinshipResult) structured(toolResponse);
 
             assertThat(result.degree()).isEqualTo("FIRST_DEGREE");
         }
@@ -543,7 +656,7 @@ class OneKGPdMCPServerTest {
             ToolResponse toolResponse = server.computeAlphaMissenseAvg(
                 List.of("17"), List.of(43044295), List.of(43170245)
             );
-            DnaerysClient.AlphaMissenseAvg result = (DnaerysClient.AlphaMissenseAvg) toolResponse.structuredContent();
+            DnaerysClient.AlphaMissenseAvg result = (DnaerysClient.AlphaMissenseAvg) structured(toolResponse);
 
             assertThat(result).isNotNull();
             assertThat(result.alphaMissenseMean()).isEqualTo(0.65);
@@ -576,7 +689,7 @@ class OneKGPdMCPServerTest {
             ToolResponse toolResponse = server.computeAlphaMissenseAvg(
                 List.of("22"), List.of(50000000), List.of(50001000)
             );
-            DnaerysClient.AlphaMissenseAvg result = (DnaerysClient.AlphaMissenseAvg) toolResponse.structuredContent();
+            DnaerysClient.AlphaMissenseAvg result = (DnaerysClient.AlphaMissenseAvg) structured(toolResponse);
 
             assertThat(result.alphaMissenseMean()).isEqualTo(0d);
             assertThat(result.alphaMissenseDeviation()).isEqualTo(0d);
@@ -603,6 +716,384 @@ class OneKGPdMCPServerTest {
         }
     }
 
+    // ========================================
+    // GENOME-WIDE STATISTICS TOOL TESTS
+    // ========================================
+
+    @Nested
+    @DisplayName("Genome-wide Statistics Tool Tests")
+    class GenomeWideStatisticsToolTests {
+
+        private VariantWithStats variantWithStats() {
+            Variant variant = Variant.newBuilder()
+                .setChr(Chromosome.CHR_1)
+                .setStart(1000)
+                .setRef("A")
+                .setAlt("G")
+                .build();
+            return VariantWithStats.newBuilder()
+                .setVariant(variant)
+                .setPhwe(1e-8f)
+                .setPchi2(1e-6f)
+                .setOr(2.5f)
+                .build();
+        }
+
+        @Test
+        @DisplayName("selectTopHWEVariants returns Map with 'variants' key and HWE p-values only")
+        @SuppressWarnings("unchecked")
+        void testSelectTopHWEVariants() {
+            when(mockClient.topNHWE(anyInt())).thenReturn(List.of(variantWithStats()));
+
+            ToolResponse toolResponse = server.selectTopHWEVariants(10);
+            Map<String, Object> result = (Map<String, Object>) structured(toolResponse);
+            List<VariantStatsView> variants = (List<VariantStatsView>) result.get("variants");
+
+            assertThat(variants).hasSize(1);
+            assertThat(variants.getFirst().pHWE()).isEqualTo(1e-8f);
+            assertThat(variants.getFirst().pChi2()).isNull();
+            assertThat(variants.getFirst().OR()).isNull();
+            verify(mockClient).topNHWE(10);
+        }
+
+        @Test
+        @DisplayName("selectTopChi2Variants passes samples and returns chi-squared p-values with odds ratio")
+        @SuppressWarnings("unchecked")
+        void testSelectTopChi2Variants() {
+            when(mockClient.topNChi2(anyInt(), anyList())).thenReturn(List.of(variantWithStats()));
+
+            ToolResponse toolResponse = server.selectTopChi2Variants(5, List.of("HG00403", "HG00405"));
+            Map<String, Object> result = (Map<String, Object>) structured(toolResponse);
+            List<VariantStatsView> variants = (List<VariantStatsView>) result.get("variants");
+
+            assertThat(variants).hasSize(1);
+            assertThat(variants.getFirst().pHWE()).isNull();
+            assertThat(variants.getFirst().pChi2()).isEqualTo(1e-6f);
+            assertThat(variants.getFirst().OR()).isEqualTo(2.5f);
+            verify(mockClient).topNChi2(eq(5), eq(List.of("HG00403", "HG00405")));
+        }
+
+        @Test
+        @DisplayName("selectTopChi2Variants throws ToolCallException on client error")
+        void testSelectTopChi2VariantsError() {
+            when(mockClient.topNChi2(anyInt(), any()))
+                .thenThrow(new RuntimeException("Invalid parameter: sample 'X' does not exist"));
+
+            ToolCallException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                ToolCallException.class,
+                () -> server.selectTopChi2Variants(5, List.of("X"))
+            );
+
+            assertThat(thrown.getMessage()).contains("does not exist");
+        }
+    }
+
+    // ========================================
+    // POLYGENIC RISK SCORE TOOL TESTS
+    // ========================================
+
+    @Nested
+    @DisplayName("Polygenic Risk Score Tool Tests")
+    class PolygenicRiskScoreToolTests {
+
+        @Test
+        @DisplayName("listPrsModels returns Map with 'models' key")
+        @SuppressWarnings("unchecked")
+        void testListPrsModels() {
+            when(mockClient.listPrsModels()).thenReturn(List.of(new DnaerysClient.PrsModel("PGS000001", "test", 77)));
+
+            ToolResponse toolResponse = server.listPrsModels();
+            Map<String, Object> result = (Map<String, Object>) structured(toolResponse);
+
+            assertThat((List<DnaerysClient.PrsModel>) result.get("models"))
+                .extracting(DnaerysClient.PrsModel::name)
+                .containsExactly("PGS000001");
+        }
+
+        @Test
+        @DisplayName("computePolygenicRiskScores treats null modes as false and passes queries through")
+        void testComputePolygenicRiskScoresPassthrough() {
+            DnaerysClient.PrsReport report = new DnaerysClient.PrsReport(
+                "PGS000001", false, false, 77, 3202, List.of(), List.of(), List.of());
+            when(mockClient.computePrs(anyString(), anyBoolean(), anyBoolean(), any(), any(), any())).thenReturn(report);
+
+            ToolResponse toolResponse = server.computePolygenicRiskScores(
+                "PGS000001", null, null, List.of("HG00096"), List.of("GBR"), null);
+
+            assertThat(structured(toolResponse)).isEqualTo(report);
+            verify(mockClient).computePrs(eq("PGS000001"), eq(false), eq(false),
+                eq(List.of("HG00096")), eq(List.of("GBR")), isNull());
+        }
+    }
+
+    // ========================================
+    // SEX CHECK TOOL TESTS
+    // ========================================
+
+    @Nested
+    @DisplayName("Sex Check Tool Tests")
+    class SexCheckToolTests {
+
+        @Test
+        @DisplayName("checkSampleSex passes parameters through and returns the report")
+        void testCheckSampleSexPassthrough() {
+            DnaerysClient.SexCheckReport report = new DnaerysClient.SexCheckReport(
+                0f, 0.2f, 0.8f, false, 3202, 0, 0, List.of(), List.of());
+            when(mockClient.checkSampleSex(any(), any(), any(), any(), any())).thenReturn(report);
+
+            ToolResponse toolResponse = server.checkSampleSex(null, 0.2f, 0.8f, null, List.of("GBR"));
+
+            assertThat(structured(toolResponse)).isEqualTo(report);
+            verify(mockClient).checkSampleSex(isNull(), eq(0.2f), eq(0.8f), isNull(), eq(List.of("GBR")));
+        }
+    }
+
+    // ========================================
+    // TRIO SCAN TOOL TESTS
+    // ========================================
+
+    @Nested
+    @DisplayName("Trio Scan Tool Tests")
+    class TrioScanToolTests {
+
+        @Test
+        @DisplayName("scanTrioInheritance parses model, builds region and maps recurrent variants")
+        void testScanTrioInheritanceDelegation() {
+            Variant variant = Variant.newBuilder()
+                .setChr(Chromosome.CHR_1).setStart(1500).setEnd(1500).setRef("A").setAlt("G")
+                .build();
+            DnaerysClient.TrioScan scan = new DnaerysClient.TrioScan("HOM_RECESSIVE", null, 11, 0, 2, 3,
+                List.of(new DnaerysClient.TrioVariantCount("HG03057", "HG03055", "HG03056", "MSL", 2, false)),
+                List.of(new DnaerysClient.RecurrentVariant(variant, 2, List.of("HG03057", "HG03060"))));
+            when(mockClient.scanTrios(any(), any(), any(), any(), any(), any(), any())).thenReturn(scan);
+
+            ToolResponse toolResponse = server.scanTrioInheritance(
+                "hom_recessive", null, "1", 1000, 2000, null, null, List.of("MSL"),
+                null, null, null, null, null, null, null, "HIGH", null, null, null, null, null, null, null, null, null,
+                null, null, 10, 20
+            );
+
+            TrioScanView view = (TrioScanView) structured(toolResponse);
+            assertThat(view.triosScanned()).isEqualTo(11);
+            assertThat(view.recurrentVariants()).hasSize(1);
+            assertThat(view.recurrentVariants().getFirst().variant().pos()).isEqualTo(1500);
+            verify(mockClient).scanTrios(
+                eq(DnaerysClient.InheritanceModel.HOM_RECESSIVE), isNull(),
+                argThat(r -> "1".equals(r.chromosome()) && r.start() == 1000 && r.end() == 2000),
+                argThat(a -> "HIGH".equals(a.vepImpact())),
+                eq(List.of("MSL")), eq(10), eq(20));
+        }
+
+        @Test
+        @DisplayName("scanTrioInheritance rejects unknown inheritance model")
+        void testScanTrioInheritanceInvalidModel() {
+            ToolCallException thrown = org.junit.jupiter.api.Assertions.assertThrows(
+                ToolCallException.class,
+                () -> server.scanTrioInheritance(
+                    "X_LINKED", null, "1", 1000, 2000, null, null, null,
+                    null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                    null, null, null, null
+                )
+            );
+
+            assertThat(thrown.getMessage()).contains("'model'");
+            verify(mockClient, never()).scanTrios(any(), any(), any(), any(), any(), any(), any());
+        }
+    }
+
+    // ========================================
+    // SAMPLE SET TOOL TESTS
+    // ========================================
+
+    @Nested
+    @DisplayName("Sample Set Tool Tests")
+    class SampleSetToolTests {
+
+        @Test
+        @DisplayName("evaluateSampleSet passes expression, zygosity, filters and paging through")
+        void testEvaluateSampleSetDelegation() {
+            DnaerysClient.SampleSet set = new DnaerysClient.SampleSet("1:100-200 AND population:GBR", 1,
+                List.of(new DnaerysClient.OperandCount("1:100-200", 10),
+                    new DnaerysClient.OperandCount("population:GBR", 91)),
+                List.of("HG00096"));
+            when(mockClient.evaluateSampleSet(anyString(), anyBoolean(), anyBoolean(), any(), any(), any()))
+                .thenReturn(set);
+
+            ToolResponse toolResponse = server.evaluateSampleSet(
+                "1:100-200 AND population:GBR", true, false,
+                null, null, null, null, null, null, null, "HIGH", null, null, null, null, null, null, null, null, null,
+                null, null, null, null, 0, 10
+            );
+
+            assertThat(structured(toolResponse)).isEqualTo(set);
+            verify(mockClient).evaluateSampleSet(eq("1:100-200 AND population:GBR"), eq(false), eq(true),
+                argThat(a -> "HIGH".equals(a.vepImpact())), eq(0), eq(10));
+        }
+    }
+
+    // ========================================
+    // STRATIFIED COUNT TOOL TESTS
+    // ========================================
+
+    @Nested
+    @DisplayName("Stratified Count Tool Tests")
+    class StratifiedCountToolTests {
+
+        @Test
+        @DisplayName("countVariantsByPopulation builds regions and passes strata through")
+        void testCountVariantsByPopulationDelegation() {
+            DnaerysClient.StratifiedCounts counts = new DnaerysClient.StratifiedCounts(2, 0, List.of(
+                new DnaerysClient.StratumCount("population", "GBR", "British", 91, 5),
+                new DnaerysClient.StratumCount("superpopulation", "EUR", "European Ancestry", 633, 17)));
+            when(mockClient.countVariantsByPopulation(any(), anyBoolean(), anyBoolean(), any(), any(), any()))
+                .thenReturn(counts);
+
+            ToolResponse toolResponse = server.countVariantsByPopulation(
+                List.of("1"), List.of(1000), List.of(2000), null, null, true, false,
+                List.of("GBR"), List.of("EUR"),
+                null, null, null, null, null, null, null, "HIGH", null, null, null, null, null, null, null, null, null,
+                null, null, null, null
+            );
+
+            assertThat(structured(toolResponse)).isEqualTo(counts);
+            verify(mockClient).countVariantsByPopulation(
+                argThat(r -> r.size() == 1 && "1".equals(r.getFirst().chromosome()) && r.getFirst().end() == 2000),
+                eq(false), eq(true),
+                argThat(a -> "HIGH".equals(a.vepImpact())),
+                eq(List.of("GBR")), eq(List.of("EUR")));
+        }
+
+        @Test
+        @DisplayName("selectPopulationFrequencies maps rows to variant views with per-stratum frequencies")
+        void testSelectPopulationFrequenciesDelegation() {
+            Variant variant = Variant.newBuilder()
+                .setChr(Chromosome.CHR_1).setStart(1500).setEnd(1500).setRef("A").setAlt("G")
+                .build();
+            DnaerysClient.PopulationFrequencies frequencies = new DnaerysClient.PopulationFrequencies(
+                List.of(new DnaerysClient.FrequencyStratum("population", "GBR", "British", 91)), 1,
+                List.of(new DnaerysClient.FrequencyRow(variant, new float[] {0.1f}, new int[] {18})));
+            when(mockClient.populationFrequencies(any(), anyBoolean(), anyBoolean(), any(), any(), any(), any(), any()))
+                .thenReturn(frequencies);
+
+            ToolResponse toolResponse = server.selectPopulationFrequencies(
+                List.of("1"), List.of(1000), List.of(2000), null, null, true, true,
+                List.of("GBR"), null,
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
+                null, null, 0, 10
+            );
+
+            PopulationFrequencyView view = (PopulationFrequencyView) structured(toolResponse);
+            assertThat(view.totalVariants()).isEqualTo(1);
+            assertThat(view.variants().getFirst().variant().pos()).isEqualTo(1500);
+            assertThat(view.variants().getFirst().af()).containsExactly(0.1f);
+            verify(mockClient).populationFrequencies(any(), eq(true), eq(true), any(),
+                eq(List.of("GBR")), isNull(), eq(0), eq(10));
+        }
+    }
+
+    // ========================================
+    // RESPONSE SERIALIZATION TESTS
+    // ========================================
+
+    @Nested
+    @DisplayName("Response Serialization Tests")
+    class ResponseSerializationTests {
+
+        @Test
+        @DisplayName("text and structured content share a single serialization")
+        void testSerializedOnce() {
+            when(mockClient.listPrsModels()).thenReturn(List.of(new DnaerysClient.PrsModel("PGS000001", "Breast cancer", 77)));
+
+            ToolResponse toolResponse = server.listPrsModels();
+
+            SerializedContent content = (SerializedContent) toolResponse.structuredContent();
+            assertThat(content.json()).startsWith("{\"models\":[").contains("\"name\":\"PGS000001\"");
+            assertThat(((TextContent) toolResponse.content().getFirst()).text()).isSameAs(content.json());
+        }
+
+        @Test
+        @DisplayName("response size is recorded per tool")
+        void testResponseStatsRecorded() {
+            when(mockClient.getDatasetInfo()).thenReturn(new DnaerysClient.DatasetInfo(100, 3202, 1603, 1599));
+            long before = responseStats.snapshot().getOrDefault("getDatasetInfo",
+                new ResponseStats.ToolStats(0, 0, 0)).responses();
+
+            ToolResponse toolResponse = server.getDatasetInfo();
+
+            ResponseStats.ToolStats stats = responseStats.snapshot().get("getDatasetInfo");
+            assertThat(stats.responses()).isEqualTo(before + 1);
+            assertThat(stats.bytes()).isGreaterThanOrEqualTo(
+                ((SerializedContent) toolResponse.structuredContent()).json().length());
+        }
+    }
+
+    // ========================================
+    // TRACING TESTS
+    // ========================================
+
+    @Nested
+    @DisplayName("Tracing Tests")
+    class TracingTests {
+
+        @Test
+        @DisplayName("each tool call runs in its own span")
+        void testToolSpan() {
+            when(mockClient.getDatasetInfo()).thenThrow(new StatusRuntimeException(Status.DEADLINE_EXCEEDED));
+
+            org.junit.jupiter.api.Assertions.assertThrows(ToolCallException.class, () -> server.getDatasetInfo());
+
+            SpanData span = InMemorySpanExporterProducer.await(spans, "tool getDatasetInfo");
+            assertThat(span.getAttributes().get(AttributeKey.stringKey("mcp.tool.name"))).isEqualTo("getDatasetInfo");
+            assertThat(span.getStatus().getStatusCode()).isEqualTo(StatusCode.ERROR);
+            assertThat(span.getStatus().getDescription()).isEqualTo("DEADLINE_EXCEEDED");
+        }
+    }
+
+    // ========================================
+    // METRICS TESTS
+    // ========================================
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+
+        private double count(String name, String tool, String status) {
+            Counter counter = meterRegistry.find(name).tags("tool", tool, "status", status).counter();
+            if (counter != null) return counter.count();
+            Timer timer = meterRegistry.find(name).tags("tool", tool, "status", status).timer();
+            return timer == null ? 0 : timer.count();
+        }
+
+        @Test
+        @DisplayName("tool latency and response size are recorded per tool")
+        void testToolLatencyRecorded() {
+            when(mockClient.listPrsModels()).thenReturn(List.of(new DnaerysClient.PrsModel("PGS000001", "Breast cancer", 77)));
+            double before = count("mcp.tool.calls", "listPrsModels", "OK");
+
+            server.listPrsModels();
+
+            assertThat(count("mcp.tool.calls", "listPrsModels", "OK")).isEqualTo(before + 1);
+            assertThat(meterRegistry.find("mcp.tool.response.bytes").tag("tool", "listPrsModels")
+                .summary().totalAmount()).isPositive();
+        }
+
+        @Test
+        @DisplayName("failed tool calls are counted by gRPC status")
+        void testToolErrorsByStatus() {
+            when(mockClient.getDatasetInfo()).thenThrow(new StatusRuntimeException(Status.UNAVAILABLE));
+            when(mockClient.listPrsModels()).thenThrow(new RuntimeException("Invalid parameter: 'prsName'"));
+            double unavailable = count("mcp.tool.errors", "getDatasetInfo", "UNAVAILABLE");
+            double local = count("mcp.tool.errors", "listPrsModels", "LOCAL");
+
+            org.junit.jupiter.api.Assertions.assertThrows(ToolCallException.class, () -> server.getDatasetInfo());
+            org.junit.jupiter.api.Assertions.assertThrows(ToolCallException.class, () -> server.listPrsModels());
+
+            assertThat(count("mcp.tool.errors", "getDatasetInfo", "UNAVAILABLE")).isEqualTo(unavailable + 1);
+            assertThat(count("mcp.tool.calls", "getDatasetInfo", "UNAVAILABLE")).isPositive();
+            assertThat(count("mcp.tool.errors", "listPrsModels", "LOCAL")).isEqualTo(local + 1);
+        }
+    }
+
     // ========================================
     // ERROR HANDLING TESTS
     // ========================================
@@ -643,7 +1134,8 @@ class OneKGPdMCPServerTest {
                     List.of("1"), List.of(1000), List.of(2000), null, null,
                     true, true,  // selectHet, selectHom
                     null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null,
-                    null, null  // skip, limit
+                    null, null,  // skip, limit
+                    null  // format
                 )
             );
 
@@ -0,0 +1,94 @@
+package org.dnaerys.mcp;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.dnaerys.client.DnaerysClient;
+import org.dnaerys.client.MetaClient;
+import org.dnaerys.client.SampleIndex;
+import org.dnaerys.mcp.util.JsonUtil;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for startup warm-up and the readiness check.
+ *
+ * Test Case IDs: WARM-001 through WARM-003
+ */
+@DisplayName("StartupWarmUp Tests")
+class StartupWarmUpTest {
+
+    private StartupWarmUp warmUp;
+    private DnaerysClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(DnaerysClient.class);
+        MetaClient metaClient = mock(MetaClient.class);
+        SampleIndex index = mock(SampleIndex.class);
+        when(index.sampleIds()).thenReturn(List.of("HG00096", "HG00097", "HG00099", "HG00100", "HG00101"));
+        when(index.size()).thenReturn(5);
+        when(metaClient.sampleIndex()).thenReturn(index);
+        when(client.getDatasetInfo()).thenReturn(new DnaerysClient.DatasetInfo(138044723, 3202, 1598, 1604));
+
+        warmUp = new StartupWarmUp();
+        warmUp.client = client;
+        warmUp.metaClient = metaClient;
+        warmUp.jsonUtil = mock(JsonUtil.class);
+        warmUp.registry = new SimpleMeterRegistry();
+        warmUp.enabled = true;
+        warmUp.iterations = 2;
+    }
+
+    @Test
+    @DisplayName("WARM-001: not ready until warm-up has run the synthetic requests")
+    void testReadinessGated() {
+        assertThat(warmUp.call().getStatus()).isEqualTo(HealthCheckResponse.Status.DOWN);
+
+        warmUp.run();
+
+        HealthCheckResponse response = warmUp.call();
+        assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.UP);
+        assertThat(response.getData()).hasValueSatisfying(data -> assertThat(data).containsKey("durationMs"));
+        assertThat(warmUp.durationMillis()).isNotNegative();
+        verify(client, times(1)).getDatasetInfo();
+        verify(client, times(2)).countVariantsInSamples(anyList(),
+            eq(List.of("HG00096", "HG00097", "HG00099", "HG00100")), eq(true), eq(true), any());
+        verify(client, times(2)).selectVariants(anyList(), eq(true), eq(true), any(), eq(0), eq(10));
+    }
+
+    @Test
+    @DisplayName("WARM-002: a failed warm-up is reported but does not keep the server unready")
+    void testFailure() {
+        when(client.getDatasetInfo()).thenThrow(new RuntimeException("UNAVAILABLE: Connection failed"));
+
+        warmUp.run();
+
+        HealthCheckResponse response = warmUp.call();
+        assertThat(response.getStatus()).isEqualTo(HealthCheckResponse.Status.UP);
+        assertThat(response.getData()).hasValueSatisfying(data ->
+            assertThat(data).containsEntry("failure", "UNAVAILABLE: Connection failed"));
+        verify(client, never()).selectVariants(anyList(), anyBoolean(), anyBoolean(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("WARM-003: disabled warm-up is ready immediately")
+    void testDisabled() {
+        warmUp.enabled = false;
+
+        warmUp.onStart(null);
+
+        assertThat(warmUp.call().getStatus()).isEqualTo(HealthCheckResponse.Status.UP);
+        assertThat(warmUp.isDone()).isTrue();
+        assertThat(warmUp.registry.get("dnaerys.warmup.duration").timeGauge().value(TimeUnit.MILLISECONDS))
+            .isEqualTo(-1.0);
+        verifyNoInteractions(client);
+    }
+}
@@ -0,0 +1,90 @@
+package org.dnaerys.mcp.generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dnaerys.cluster.grpc.Chromosome;
+import org.dnaerys.cluster.grpc.Variant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for ColumnarVariants serialization.
+ *
+ * Test Case IDs: COL-001 through COL-004
+ */
+@DisplayName("ColumnarVariants Tests")
+class ColumnarVariantsTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private static Variant variant(Chromosome chr, int start) {
+        return Variant.newBuilder()
+            .setChr(chr).setStart(start).setEnd(start).setRef("A").setAlt("G")
+            .setAf(0.5f).setAc(3).setAn(6).setHetc(1).setHomc(1)
+            .build();
+    }
+
+    private JsonNode serialize(List<Variant> variants) throws Exception {
+        return mapper.readTree(mapper.writeValueAsString(ColumnarVariants.of(variants)));
+    }
+
+    private static int column(String name) {
+        return ColumnarVariants.COLUMNS.indexOf(name);
+    }
+
+    @Test
+    @DisplayName("COL-001: header lists all row format columns and every column has a value per row")
+    void testHeaderAndParallelArrays() throws Exception {
+        JsonNode json = serialize(List.of(variant(Chromosome.CHR_1, 100), variant(Chromosome.CHR_1, 150)));
+
+        assertThat(json.get("rows").asInt()).isEqualTo(2);
+        assertThat(json.get("columns")).hasSize(ColumnarVariants.COLUMNS.size());
+        assertThat(json.get("values")).hasSize(ColumnarVariants.COLUMNS.size());
+        for (int i = 1; i < ColumnarVariants.COLUMNS.size(); i++) {
+            assertThat(json.get("values").get(i)).hasSize(2);
+        }
+    }
+
+    @Test
+    @DisplayName("COL-002: chromosomes are run-length encoded and rows sorted by chromosome and position")
+    void testChromosomeRuns() throws Exception {
+        JsonNode json = serialize(List.of(
+            variant(Chromosome.CHR_X, 10),
+            variant(Chromosome.CHR_2, 300),
+            variant(Chromosome.CHR_2, 200),
+            variant(Chromosome.CHR_X, 5)));
+
+        JsonNode runs = json.get("values").get(column("chr"));
+        assertThat(runs.toString()).isEqualTo("[[\"2\",2],[\"X\",2]]");
+    }
+
+    @Test
+    @DisplayName("COL-003: positions are delta encoded within chromosome runs")
+    void testPositionDeltas() throws Exception {
+        JsonNode json = serialize(List.of(
+            variant(Chromosome.CHR_2, 300),
+            variant(Chromosome.CHR_2, 200),
+            variant(Chromosome.CHR_X, 5),
+            variant(Chromosome.CHR_X, 10)));
+
+        assertThat(json.get("values").get(column("pos")).toString()).isEqualTo("[200,100,5,5]");
+    }
+
+    @Test
+    @DisplayName("COL-004: sex chromosome counters are zeroed as in row format")
+    void testSexChromosomeCounters() throws Exception {
+        List<Variant> variants = new ArrayList<>();
+        variants.add(variant(Chromosome.CHR_1, 1));
+        variants.add(variant(Chromosome.CHR_Y, 1));
+
+        JsonNode json = serialize(variants);
+
+        assertThat(json.get("values").get(column("het")).toString()).isEqualTo("[1,0]");
+        assertThat(json.get("values").get(column("hom")).toString()).isEqualTo("[1,0]");
+    }
+}
@@ -0,0 +1,82 @@
+package org.dnaerys.mcp.generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.dnaerys.cluster.grpc.Chromosome;
+import org.dnaerys.cluster.grpc.Variant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for GrpcVariantSerializer.
+ * Direct serialization of gRPC variants must produce the same JSON as VariantView.
+ *
+ * Test Case IDs: SER-001 through SER-003
+ */
+@DisplayName("GrpcVariantSerializer Tests")
+class GrpcVariantSerializerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(GrpcVariantSerializer.module());
+
+    static Stream<Variant> variants() {
+        return Stream.of(
+            // autosome with all optional fields
+            Variant.newBuilder()
+                .setChr(Chromosome.CHR_17).setStart(43044295).setEnd(43044295).setRef("A").setAlt("G")
+                .setAf(0.0123f).setAc(79).setAn(6404).setHetc(77).setHomc(1)
+                .setGnomADe(0.01f).setGnomADg(0.02f).setAmScore(0.87f)
+                .setAminoAcids("p.Arg1699Trp,p.Arg1652Trp")
+                .build(),
+            // sex chromosome, counters are not reported
+            Variant.newBuilder()
+                .setChr(Chromosome.CHR_X).setStart(100).setEnd(100).setRef("C").setAlt("T")
+                .setAf(0.5f).setAc(10).setAn(20).setHetc(5).setHomc(2)
+                .build(),
+            // defaults only
+            Variant.newBuilder()
+                .setChr(Chromosome.CHR_MT).setStart(1).setEnd(1).setRef("T").setAlt("TA")
+                .build()
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("variants")
+    @DisplayName("SER-001: JSON is identical to VariantView serialization")
+    void testParityWithVariantView(Variant variant) throws Exception {
+        String direct = mapper.writeValueAsString(variant);
+        String view = mapper.writeValueAsString(VariantView.fromGrpc(variant));
+
+        assertThat(direct).isEqualTo(view);
+    }
+
+    @Test
+    @DisplayName("SER-002: only the first HGVSp notation is written")
+    void testFirstHgvsp() throws Exception {
+        Variant variant = Variant.newBuilder()
+            .setChr(Chromosome.CHR_1).setStart(1).setRef("A").setAlt("G")
+            .setAminoAcids("p.Arg1Trp,p.Arg2Trp")
+            .build();
+
+        assertThat(mapper.readTree(mapper.writeValueAsString(variant)).get("HGVSp").asText())
+            .isEqualTo("p.Arg1Trp");
+    }
+
+    @Test
+    @DisplayName("SER-003: variants nested in collections and maps use the serializer")
+    void testNested() throws Exception {
+        Variant variant = Variant.newBuilder()
+            .setChr(Chromosome.CHR_2).setStart(5).setRef("A").setAlt("G")
+            .build();
+
+        String json = mapper.writeValueAsString(Map.of("variants", List.of(variant)));
+
+        assertThat(json).isEqualTo("{\"variants\":[" + mapper.writeValueAsString(VariantView.fromGrpc(variant)) + "]}");
+    }
+}
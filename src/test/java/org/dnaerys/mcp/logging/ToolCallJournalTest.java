@@ -0,0 +1,127 @@
+package org.dnaerys.mcp.logging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the tool call journal ring buffer and NDJSON records.
+ *
+ * Test Case IDs: JRN-001 through JRN-004
+ */
+@DisplayName("ToolCallJournal Tests")
+class ToolCallJournalTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    private ToolCallJournal journal;
+    private Path file;
+    private Method tool;
+
+    // stands in for a @Tool method, only its name and parameter names are used
+    @SuppressWarnings("unused")
+    static void countVariants(List<String> chromosome, List<Integer> start, Boolean selectHom) {}
+
+    @BeforeEach
+    void setUp() throws Exception {
+        journal = new ToolCallJournal();
+        journal.sampleRate = 1.0;
+        journal.capacity = 16;
+        file = dir.resolve("journal/tool-calls.ndjson");
+        tool = ToolCallJournalTest.class.getDeclaredMethod("countVariants", List.class, List.class, Boolean.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    private List<JsonNode> records() throws IOException {
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) records.add(MAPPER.readTree(line));
+        return records;
+    }
+
+    @Test
+    @DisplayName("JRN-001: records are written as NDJSON with tool, args hash, latency, status and size")
+    void testRecordFormat() throws Exception {
+        journal.open(file);
+        journal.record(tool, new Object[] {List.of("17"), List.of(43044295), true}, "OK", 2_500_000, 212);
+        journal.record(tool, new Object[] {List.of("17"), List.of(43044295), null}, "UNAVAILABLE", 900_000, -1);
+
+        assertThat(journal.drain()).isEqualTo(2);
+        journal.close();
+
+        List<JsonNode> records = records();
+        assertThat(records).hasSize(2);
+        JsonNode first = records.getFirst();
+        assertThat(first.get("tool").asText()).isEqualTo("countVariants");
+        assertThat(first.get("args").asText()).hasSize(16);
+        assertThat(first.get("latencyUs").asLong()).isEqualTo(2500);
+        assertThat(first.get("status").asText()).isEqualTo("OK");
+        assertThat(first.get("bytes").asLong()).isEqualTo(212);
+        assertThat(first.get("ts").asText()).endsWith("Z");
+        assertThat(records.get(1).get("status").asText()).isEqualTo("UNAVAILABLE");
+        assertThat(records.get(1).get("bytes").asLong()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("JRN-002: args hash is equal for equal arguments and differs otherwise")
+    void testArgsHash() {
+        String a = ToolCallJournal.argsHash(tool, new Object[] {List.of("17"), List.of(100), true});
+        String b = ToolCallJournal.argsHash(tool, new Object[] {List.of("17"), List.of(100), true});
+        String c = ToolCallJournal.argsHash(tool, new Object[] {List.of("17"), List.of(101), true});
+        String d = ToolCallJournal.argsHash(tool, new Object[] {List.of("17"), List.of(100), null});
+
+        assertThat(a).isEqualTo(b);
+        assertThat(a).isNotEqualTo(c).isNotEqualTo(d);
+    }
+
+    @Test
+    @DisplayName("JRN-003: with sample rate 0 only failed calls are recorded")
+    void testSampling() throws Exception {
+        journal.sampleRate = 0.0;
+        journal.open(file);
+        for (int i = 0; i < 5; i++) {
+            journal.record(tool, new Object[] {List.of("1"), List.of(i), true}, "OK", 1_000, 10);
+        }
+        journal.record(tool, new Object[] {List.of("1"), List.of(0), true}, "LOCAL", 1_000, -1);
+
+        assertThat(journal.drain()).isEqualTo(1);
+        journal.close();
+        assertThat(records()).extracting(r -> r.get("status").asText()).containsExactly("LOCAL");
+    }
+
+    @Test
+    @DisplayName("JRN-004: full buffer drops records without blocking and frees slots once drained")
+    void testFullBufferDrops() throws Exception {
+        journal.open(file);
+        for (int i = 0; i < 20; i++) {
+            journal.record(tool, new Object[] {List.of("1"), List.of(i), true}, "OK", 1_000, 10);
+        }
+
+        assertThat(journal.droppedCount()).isEqualTo(4);
+        assertThat(journal.drain()).isEqualTo(16);
+
+        journal.record(tool, new Object[] {List.of("2"), List.of(1), true}, "OK", 1_000, 10);
+        assertThat(journal.drain()).isEqualTo(1);
+        journal.close();
+        assertThat(records()).hasSize(17);
+    }
+}
@@ -0,0 +1,96 @@
+package org.dnaerys.mcp.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkiverse.mcp.server.ToolResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for McpResponse response budget and cursors.
+ *
+ * Test Case IDs: RESP-001 through RESP-005
+ */
+@DisplayName("McpResponse Budget Tests")
+class McpResponseTest {
+
+    private McpResponse response;
+
+    @BeforeEach
+    void setUp() {
+        JsonUtil jsonUtil = new JsonUtil();
+        jsonUtil.mapper = new ObjectMapper();
+        response = new McpResponse();
+        response.jsonUtil = jsonUtil;
+        response.stats = new ResponseStats();
+        response.stats.registry = new SimpleMeterRegistry();
+        response.textContent = true;
+        response.maxBytes = 1_000;
+    }
+
+    @Test
+    @DisplayName("RESP-001: payload within budget is returned as is")
+    void testWithinBudget() {
+        Map<String, Object> payload = Map.of("samples", List.of("HG00096"));
+
+        ToolResponse toolResponse = response.successWithinBudget(payload, () -> Map.of("summary", "unused"));
+
+        SerializedContent content = (SerializedContent) toolResponse.structuredContent();
+        assertThat(content.value()).isEqualTo(payload);
+        assertThat(content.json()).isEqualTo("{\"samples\":[\"HG00096\"]}");
+    }
+
+    @Test
+    @DisplayName("RESP-002: payload over budget is replaced by the fallback")
+    void testOverBudget() {
+        Map<String, Object> payload = Map.of("samples", Collections.nCopies(200, "HG00096"));
+
+        ToolResponse toolResponse = response.successWithinBudget(payload, () -> Map.of("summary", "too large"));
+
+        assertThat(((SerializedContent) toolResponse.structuredContent()).value())
+            .isEqualTo(Map.of("summary", "too large"));
+    }
+
+    @Test
+    @DisplayName("RESP-003: fitting prefix stops at the budget")
+    void testFittingPrefix() {
+        // each item is 102 bytes, budget leaves 875 bytes after the reserve
+        List<String> items = Collections.nCopies(20, "x".repeat(100));
+
+        assertThat(response.fittingPrefix(items)).isEqualTo(8);
+        assertThat(response.fittingPrefix(List.of("small"))).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("RESP-004: cursor round trip and next page")
+    void testCursorRoundTrip() {
+        Cursor cursor = new Cursor("samples", 10, 5);
+
+        Cursor decoded = Cursor.decode(cursor.encode(), "samples");
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.next()).isEqualTo(new Cursor("samples", 15, 5));
+        assertThat(Cursor.decode(null, "samples")).isNull();
+    }
+
+    @Test
+    @DisplayName("RESP-005: foreign or malformed cursors are rejected")
+    void testInvalidCursor() {
+        String foreign = new Cursor("variants", 0, 5).encode();
+
+        RuntimeException kind = org.junit.jupiter.api.Assertions.assertThrows(
+            RuntimeException.class, () -> Cursor.decode(foreign, "samples"));
+        RuntimeException garbage = org.junit.jupiter.api.Assertions.assertThrows(
+            RuntimeException.class, () -> Cursor.decode("not a cursor!", "samples"));
+
+        assertThat(kind.getMessage()).contains("'cursor'");
+        assertThat(garbage.getMessage()).contains("'cursor'");
+    }
+}
@@ -0,0 +1,50 @@
+package org.dnaerys.test;
+
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Collects finished spans in memory, in place of an OTLP collector.
+ *
+ * Usage:
+ * <pre>{@code
+ * @Inject
+ * InMemorySpanExporter spans;
+ *
+ * SpanData span = InMemorySpanExporterProducer.await(spans, "dnaerys/DatasetInfo");
+ * }</pre>
+ */
+@ApplicationScoped
+public class InMemorySpanExporterProducer {
+
+    @Produces
+    @Singleton
+    InMemorySpanExporter inMemorySpanExporter() {
+        return InMemorySpanExporter.create();
+    }
+
+    /**
+     * Waits for the batch span processor to export the newest span with the given name.
+     */
+    public static SpanData await(InMemorySpanExporter exporter, String name) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            List<SpanData> spans = exporter.getFinishedSpanItems();
+            Optional<SpanData> span = spans.reversed().stream().filter(s -> s.getName().equals(name)).findFirst();
+            if (span.isPresent()) return span.get();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        throw new AssertionError("No span '" + name + "' exported within 5 s");
+    }
+}
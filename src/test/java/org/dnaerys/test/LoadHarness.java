@@ -0,0 +1,208 @@
+package org.dnaerys.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the MCP Streamable HTTP endpoint with concurrent sessions and reports throughput, latency
+ * percentiles and allocation.
+ * <p>
+ * Each session initializes its own MCP session and then issues {@code tools/call} requests back to back,
+ * cycling through the tool mix from a different offset per session. A call counts as an error if it
+ * returns a JSON-RPC error, a tool result with {@code isError} or a non-2xx status. Allocation is the
+ * growth of the JVM-wide allocated bytes during the run, so it includes the harness itself; compare
+ * runs with the same mix and session count.
+ *
+ * Usage:
+ * <pre>{@code
+ * LoadHarness harness = new LoadHarness(URI.create("http://localhost:8081/mcp"));
+ * LoadHarness.Report report = harness.run(16, 500, List.of(
+ *     new LoadHarness.ToolCall("countVariants", Map.of("chromosome", List.of("17"), ...))));
+ * System.out.println(report);
+ * }</pre>
+ */
+public final class LoadHarness {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String PROTOCOL_VERSION = "2025-03-26";
+    private static final String SESSION_HEADER = "Mcp-Session-Id";
+
+    public record ToolCall(String name, Map<String, Object> arguments) {}
+
+    /**
+     * @param allocatedBytes bytes allocated by all JVM threads during the run, -1 if not supported
+     */
+    public record Report(int sessions, long calls, long errors, Duration elapsed, double callsPerSecond,
+                         double p50Ms, double p99Ms, double maxMs, long allocatedBytes) {
+
+        public long allocatedBytesPerCall() { return calls == 0 || allocatedBytes < 0 ? -1 : allocatedBytes / calls; }
+
+        @Override
+        public String toString() {
+            return String.format("%d sessions, %d calls (%d errors) in %d ms: %.1f calls/s, p50 %.2f ms, "
+                    + "p99 %.2f ms, max %.2f ms, %d KB allocated per call",
+                sessions, calls, errors, elapsed.toMillis(), callsPerSecond, p50Ms, p99Ms, maxMs,
+                allocatedBytesPerCall() < 0 ? -1 : allocatedBytesPerCall() / 1024);
+        }
+    }
+
+    private final URI endpoint;
+    private final HttpClient http;
+
+    public LoadHarness(URI endpoint) {
+        this.endpoint = endpoint;
+        this.http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    /**
+     * Runs {@code sessions} concurrent sessions of {@code callsPerSession} tool calls each.
+     */
+    public Report run(int sessions, int callsPerSession, List<ToolCall> mix) throws Exception {
+        if (sessions <= 0 || callsPerSession <= 0 || mix.isEmpty()) {
+            throw new IllegalArgumentException("sessions, callsPerSession and mix must not be empty");
+        }
+        AtomicLong errors = new AtomicLong();
+        long allocatedBefore = allocatedBytes();
+        long started = System.nanoTime();
+        List<long[]> latencies = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(sessions)) {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int s = 0; s < sessions; s++) {
+                int offset = s;
+                futures.add(pool.submit(() -> session(offset, callsPerSession, mix, errors)));
+            }
+            for (Future<long[]> future : futures) latencies.add(future.get());
+        }
+        long elapsedNanos = System.nanoTime() - started;
+        long allocatedAfter = allocatedBytes();
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Report(sessions, all.length, errors.get(), Duration.ofNanos(elapsedNanos),
+            all.length * 1e9 / elapsedNanos, percentile(all, 0.50), percentile(all, 0.99), percentile(all, 1.0),
+            allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore);
+    }
+
+    /**
+     * Issues a single tool call in a session of its own.
+     *
+     * @return the JSON-RPC response, null on a non-2xx status
+     */
+    public JsonNode call(ToolCall call) throws IOException, InterruptedException {
+        String session = initialize();
+        try {
+            return call(session, request(2, "tools/call", params(call)));
+        } finally {
+            http.send(HttpRequest.newBuilder(endpoint).header(SESSION_HEADER, session).DELETE().build(),
+                HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    // latency of each call, in ns
+    private long[] session(int offset, int calls, List<ToolCall> mix, AtomicLong errors)
+            throws IOException, InterruptedException {
+        String session = initialize();
+        long[] latencies = new long[calls];
+        try {
+            for (int i = 0; i < calls; i++) {
+                ToolCall call = mix.get((offset + i) % mix.size());
+                long started = System.nanoTime();
+                JsonNode response = call(session, request(i + 2, "tools/call", params(call)));
+                latencies[i] = System.nanoTime() - started;
+                if (response == null || response.has("error") || response.path("result").path("isError").asBoolean()) {
+                    errors.incrementAndGet();
+                }
+            }
+        } finally {
+            http.send(HttpRequest.newBuilder(endpoint).header(SESSION_HEADER, session).DELETE().build(),
+                HttpResponse.BodyHandlers.discarding());
+        }
+        return latencies;
+    }
+
+    private String initialize() throws IOException, InterruptedException {
+        ObjectNode params = MAPPER.createObjectNode();
+        params.put("protocolVersion", PROTOCOL_VERSION);
+        params.set("capabilities", MAPPER.createObjectNode());
+        params.set("clientInfo", MAPPER.createObjectNode().put("name", "load-harness").put("version", "1"));
+        HttpResponse<String> response = http.send(post(null, request(1, "initialize", params).toString()),
+            HttpResponse.BodyHandlers.ofString());
+        String session = response.headers().firstValue(SESSION_HEADER)
+            .orElseThrow(() -> new IOException("No MCP session in initialize response: " + response.statusCode()));
+
+        ObjectNode initialized = MAPPER.createObjectNode().put("jsonrpc", "2.0").put("method", "notifications/initialized");
+        http.send(post(session, initialized.toString()), HttpResponse.BodyHandlers.discarding());
+        return session;
+    }
+
+    private static ObjectNode params(ToolCall call) {
+        ObjectNode params = MAPPER.createObjectNode();
+        params.put("name", call.name());
+        params.set("arguments", MAPPER.valueToTree(call.arguments()));
+        return params;
+    }
+
+    private static ObjectNode request(int id, String method, ObjectNode params) {
+        ObjectNode request = MAPPER.createObjectNode().put("jsonrpc", "2.0").put("id", id).put("method", method);
+        request.set("params", params);
+        return request;
+    }
+
+    private HttpRequest post(String session, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(endpoint)
+            .timeout(Duration.ofMinutes(2))
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json, text/event-stream")
+            .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (session != null) request.header(SESSION_HEADER, session);
+        return request.build();
+    }
+
+    // JSON-RPC response from a JSON or an SSE body, null on a non-2xx status
+    private JsonNode call(String session, ObjectNode body) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(post(session, body.toString()), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) return null;
+        String text = response.body();
+        if (response.headers().firstValue("Content-Type").orElse("").startsWith("text/event-stream")) {
+            String data = null;
+            for (String line : text.split("\n")) {
+                if (line.startsWith("data:")) data = line.substring(5).trim();
+            }
+            text = data;
+        }
+        return text == null || text.isBlank() ? null : MAPPER.readTree(text);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
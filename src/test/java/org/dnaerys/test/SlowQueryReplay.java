@@ -0,0 +1,90 @@
+package org.dnaerys.test;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServiceDescriptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCalls;
+import org.dnaerys.client.SlowQueryLog;
+import org.dnaerys.cluster.grpc.DnaerysServiceGrpc;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays requests captured in a slow query log (see {@link SlowQueryLog}) against a backend,
+ * e.g. WireMock or a local cluster, to reproduce problem queries.
+ *
+ * Usage:
+ * <pre>{@code
+ * ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", 8089).usePlaintext().build();
+ * for (SlowQueryReplay.Result r : SlowQueryReplay.replay(channel, Path.of("slow-queries.ndjson"), 30_000)) {
+ *     System.out.println(r.entry().method() + " " + r.entry().clientMs() + " ms -> " + r.status() + " " + r.elapsedMs() + " ms");
+ * }
+ * }</pre>
+ */
+public final class SlowQueryReplay {
+
+    /**
+     * @param status status code of the replayed call
+     * @param elapsedMs time of the replayed call, to compare with {@code entry.clientMs()}
+     * @param messages response messages received
+     */
+    public record Result(SlowQueryLog.Entry entry, Status.Code status, long elapsedMs, long messages) {}
+
+    private SlowQueryReplay() {}
+
+    /**
+     * Replays all entries of the log file sequentially.
+     */
+    public static List<Result> replay(Channel channel, Path log, long deadlineMs) throws IOException {
+        List<Result> results = new ArrayList<>();
+        for (SlowQueryLog.Entry entry : SlowQueryLog.read(log)) {
+            results.add(replay(channel, entry, deadlineMs));
+        }
+        return results;
+    }
+
+    public static Result replay(Channel channel, SlowQueryLog.Entry entry, long deadlineMs) {
+        MethodDescriptor<?, ?> method = method(entry.method());
+        return call(channel, method, entry, deadlineMs);
+    }
+
+    private static <ReqT, RespT> Result call(Channel channel, MethodDescriptor<ReqT, RespT> method,
+                                             SlowQueryLog.Entry entry, long deadlineMs) {
+        ReqT request = method.parseRequest(entry.request().newInput());
+        CallOptions options = CallOptions.DEFAULT.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS);
+        long started = System.nanoTime();
+        long messages = 0;
+        Status.Code status = Status.Code.OK;
+        try {
+            if (method.getType() == MethodDescriptor.MethodType.SERVER_STREAMING) {
+                Iterator<RespT> responses = ClientCalls.blockingServerStreamingCall(channel, method, options, request);
+                while (responses.hasNext()) {
+                    responses.next();
+                    messages++;
+                }
+            } else {
+                ClientCalls.blockingUnaryCall(channel, method, options, request);
+                messages = 1;
+            }
+        } catch (StatusRuntimeException e) {
+            status = e.getStatus().getCode();
+        }
+        return new Result(entry, status, (System.nanoTime() - started) / 1_000_000, messages);
+    }
+
+    private static MethodDescriptor<?, ?> method(String fullName) {
+        ServiceDescriptor service = DnaerysServiceGrpc.getServiceDescriptor();
+        for (MethodDescriptor<?, ?> method : service.getMethods()) {
+            if (method.getFullMethodName().equals(fullName)) return method;
+        }
+        throw new IllegalArgumentException("Unknown method " + fullName);
+    }
+}
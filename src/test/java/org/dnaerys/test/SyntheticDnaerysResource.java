@@ -0,0 +1,101 @@
+package org.dnaerys.test;
+
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quarkus test resource that serves {@link SyntheticDnaerysService} on a local port and points the
+ * DnaerysService gRPC client at it. Runs offline; intended for load tests, where WireMock is too slow.
+ * <p>
+ * Scale, latency and error rate come from system properties, so the same test can run as a quick
+ * check or as a long load run:
+ * <pre>
+ * -Dsynthetic.nodes=8 -Dsynthetic.variants-per-kb=40 -Dsynthetic.latency-ms=0 -Dsynthetic.node-skew=0
+ * -Dsynthetic.error-rate=0
+ * </pre>
+ *
+ * Usage:
+ * <pre>{@code
+ * @QuarkusTest
+ * @QuarkusTestResource(SyntheticDnaerysResource.class)
+ * class MyLoadTest {
+ *     @InjectSyntheticDnaerys
+ *     SyntheticDnaerysService backend;
+ * }
+ * }</pre>
+ */
+public class SyntheticDnaerysResource implements QuarkusTestResourceLifecycleManager {
+
+    private Server server;
+    private SyntheticDnaerysService service;
+
+    /**
+     * Annotation for injecting the SyntheticDnaerysService into test classes.
+     */
+    @Target(ElementType.FIELD)
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface InjectSyntheticDnaerys {
+    }
+
+    static SyntheticDnaerysService.Settings settingsFromSystemProperties() {
+        SyntheticDnaerysService.Settings defaults = SyntheticDnaerysService.Settings.defaults();
+        return defaults
+            .withScale(Integer.getInteger("synthetic.nodes", defaults.nodes()),
+                Double.parseDouble(System.getProperty("synthetic.variants-per-kb", String.valueOf(defaults.variantsPerKb()))))
+            .withLatency(Long.getLong("synthetic.latency-ms", defaults.latencyMs()),
+                Double.parseDouble(System.getProperty("synthetic.node-skew", String.valueOf(defaults.nodeSkew()))))
+            .withErrorRate(Double.parseDouble(System.getProperty("synthetic.error-rate", String.valueOf(defaults.errorRate()))));
+    }
+
+    @Override
+    public Map<String, String> start() {
+        service = new SyntheticDnaerysService(settingsFromSystemProperties());
+        try {
+            server = ServerBuilder.forPort(0).addService(service).build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start synthetic Dnaerys backend", e);
+        }
+
+        Map<String, String> config = new HashMap<>();
+        config.put("quarkus.grpc.clients.dnaerys.host", "localhost");
+        config.put("quarkus.grpc.clients.dnaerys.port", String.valueOf(server.getPort()));
+        config.put("quarkus.grpc.clients.dnaerys.test-port", String.valueOf(server.getPort()));
+        config.put("quarkus.grpc.clients.dnaerys.plain-text", "true");
+        config.put("quarkus.grpc.clients.dnaerys.ssl.trust-certificate-path", "");
+
+        return config;
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.shutdownNow();
+            try {
+                server.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            server = null;
+        }
+        service = null;
+    }
+
+    @Override
+    public void inject(TestInjector testInjector) {
+        testInjector.injectIntoFields(
+            service,
+            new TestInjector.AnnotatedAndMatchesType(InjectSyntheticDnaerys.class, SyntheticDnaerysService.class)
+        );
+    }
+}
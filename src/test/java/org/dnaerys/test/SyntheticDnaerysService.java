@@ -0,0 +1,531 @@
+package org.dnaerys.test;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import org.dnaerys.cluster.grpc.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic stand-in for a Dnaerys cluster, for throughput tests without a network or WireMock.
+ * <p>
+ * Variants are generated on the fly from the seed and the position: every 1 kbp bucket of a chromosome
+ * holds {@code variantsPerKb} variants on average, with allele frequencies skewed towards rare variants,
+ * and each sample's genotype is a function of the variant and the sample name. The same request
+ * therefore always returns the same data, and counts, variant lists and sample lists agree with each
+ * other. Variants are spread over {@code nodes} virtual nodes which answer with their own messages and
+ * {@code node_id}s, like a real cluster. Annotation filters are accepted and ignored.
+ * <p>
+ * Latency is injected per node: node {@code i} of {@code n} answers after
+ * {@code latency * (1 + nodeSkew * i / (n - 1))}, so streamed responses arrive spread out and unary
+ * responses wait for the slowest node. A fraction {@code errorRate} of calls, chosen deterministically
+ * by call number, fails with UNAVAILABLE.
+ * <p>
+ * Implements the RPCs used by {@code DnaerysClient} for variants, samples, kinship and HWE; the others
+ * return UNIMPLEMENTED.
+ *
+ * Usage:
+ * <pre>{@code
+ * Server server = ServerBuilder.forPort(0)
+ *     .addService(new SyntheticDnaerysService(SyntheticDnaerysService.Settings.defaults().withLatency(2, 0.5)))
+ *     .build().start();
+ * }</pre>
+ */
+public class SyntheticDnaerysService extends DnaerysServiceGrpc.DnaerysServiceImplBase {
+
+    /**
+     * @param samples sample names; genotypes are derived from the names
+     * @param variantsPerKb average number of variants per 1 kbp
+     * @param latencyMs latency of the fastest node
+     * @param nodeSkew extra latency of the slowest node, as a fraction of {@code latencyMs}
+     * @param errorRate fraction of calls failing with UNAVAILABLE
+     */
+    public record Settings(List<String> samples, int nodes, double variantsPerKb, long latencyMs, double nodeSkew,
+                           double errorRate, long seed) {
+
+        public Settings {
+            if (samples.isEmpty() || nodes <= 0 || variantsPerKb < 0 || latencyMs < 0 || nodeSkew < 0
+                    || errorRate < 0 || errorRate > 1) {
+                throw new IllegalArgumentException("Invalid synthetic backend settings");
+            }
+            samples = List.copyOf(samples);
+        }
+
+        /**
+         * 3202 samples (HG00000 - HG03201) on 8 nodes, 40 variants per kbp as in 1000 Genomes,
+         * no latency and no errors.
+         */
+        public static Settings defaults() {
+            List<String> samples = IntStream.range(0, 3202).mapToObj(i -> String.format("HG%05d", i)).toList();
+            return new Settings(samples, 8, 40, 0, 0, 0, 42);
+        }
+
+        public Settings withSamples(List<String> samples) {
+            return new Settings(samples, nodes, variantsPerKb, latencyMs, nodeSkew, errorRate, seed);
+        }
+
+        public Settings withScale(int nodes, double variantsPerKb) {
+            return new Settings(samples, nodes, variantsPerKb, latencyMs, nodeSkew, errorRate, seed);
+        }
+
+        public Settings withLatency(long latencyMs, double nodeSkew) {
+            return new Settings(samples, nodes, variantsPerKb, latencyMs, nodeSkew, errorRate, seed);
+        }
+
+        public Settings withErrorRate(double errorRate) {
+            return new Settings(samples, nodes, variantsPerKb, latencyMs, nodeSkew, errorRate, seed);
+        }
+    }
+
+    private static final int BUCKET = 1000;
+    private static final String BASES = "ACGT";
+    // GRCh38 primary assembly, for variants_total
+    private static final long GENOME_KBP = 3_100_000;
+
+    private final Settings settings;
+    private final long[] sampleHashes;
+    private final AtomicLong calls = new AtomicLong();
+
+    public SyntheticDnaerysService(Settings settings) {
+        this.settings = settings;
+        this.sampleHashes = settings.samples().stream().mapToLong(this::sampleHash).toArray();
+    }
+
+    public Settings settings() { return settings; }
+
+    /**
+     * @return number of RPCs received so far
+     */
+    public long calls() { return calls.get(); }
+
+    // ---------------------------------------------------------------------------------------------
+    // synthetic data
+
+    /**
+     * One generated variant: its hash determines all fields and, with a sample's hash, its genotypes.
+     */
+    private record Site(int chr, int start, long hash) {
+
+        float af() {
+            double u = ((hash >>> 24) & 0xFFFF) / 65536.0;
+            return (float) Math.max(u * u * u, 1e-4);
+        }
+
+        int node(int nodes) { return (int) Long.remainderUnsigned(hash, nodes); }
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static double unit(long hash) { return (hash >>> 11) * 0x1.0p-53; }
+
+    private long sampleHash(String sample) { return mix(settings.seed() ^ sample.hashCode() * 0x9E3779B97F4A7C15L); }
+
+    // sites starting in [start, end] of a chromosome, by position
+    private List<Site> sites(int chr, int start, int end) {
+        List<Site> sites = new ArrayList<>();
+        double perBucket = settings.variantsPerKb() * BUCKET / 1000.0;
+        for (long bucket = (start - 1L) / BUCKET; bucket <= (end - 1L) / BUCKET; bucket++) {
+            long bucketHash = mix(settings.seed() ^ ((long) chr << 40) ^ bucket);
+            int n = (int) perBucket + (unit(bucketHash) < perBucket - (int) perBucket ? 1 : 0);
+            List<Site> inBucket = new ArrayList<>(n);
+            for (int j = 0; j < n; j++) {
+                long hash = mix(bucketHash + j);
+                int position = (int) (bucket * BUCKET + 1 + Long.remainderUnsigned(hash, BUCKET));
+                if (position >= start && position <= end) inBucket.add(new Site(chr, position, hash));
+            }
+            inBucket.sort(Comparator.comparingInt(Site::start));
+            sites.addAll(inBucket);
+        }
+        return sites;
+    }
+
+    // 0 = hom ref, 1 = het, 2 = hom alt
+    private static int genotype(Site site, long sampleHash) {
+        double af = site.af();
+        double u = unit(mix(site.hash() ^ sampleHash));
+        if (u < af * af) return 2;
+        if (u < af * af + 2 * af * (1 - af)) return 1;
+        return 0;
+    }
+
+    private String ref(Site site) { return String.valueOf(BASES.charAt((int) ((site.hash() >>> 4) & 3))); }
+
+    private String alt(Site site) {
+        int ref = (int) ((site.hash() >>> 4) & 3);
+        // every 16th variant is a short insertion
+        String base = String.valueOf(BASES.charAt((ref + 1 + (int) ((site.hash() >>> 6) % 3)) & 3));
+        return (site.hash() & 0xF) == 0 ? BASES.charAt(ref) + base + base : base;
+    }
+
+    private Variant variant(Site site, int homc, int hetc) {
+        int an = 2 * settings.samples().size();
+        int ac = 2 * homc + hetc;
+        String ref = ref(site);
+        String alt = alt(site);
+        return Variant.newBuilder()
+            .setChrValue(site.chr())
+            .setStart(site.start())
+            .setEnd(site.start() + ref.length() - 1)
+            .setRef(ref)
+            .setAlt(alt)
+            .setAf((float) ac / an)
+            .setAc(ac)
+            .setAn(an)
+            .setHomc(homc)
+            .setHetc(hetc)
+            .setGnomADe(site.af())
+            .setGnomADg(site.af())
+            .setCaddRaw((float) unit(mix(site.hash() + 1)) * 5)
+            .setCaddPhred((float) unit(mix(site.hash() + 2)) * 40)
+            .setAmScore((float) unit(mix(site.hash() + 3)))
+            .setBiallelic((site.hash() & 0x30) != 0)
+            .build();
+    }
+
+    /**
+     * Region query common to all multi-region requests; {@code samples} empty means the whole dataset.
+     */
+    private record Query(List<Integer> chr, List<Integer> start, List<Integer> end, List<String> ref,
+                         List<String> alt, boolean hom, boolean het, int minLength, int maxLength,
+                         List<String> samples, int skip, int limit) {}
+
+    private static final class Hit {
+        final Site site;
+        final int homc;
+        final int hetc;
+
+        Hit(Site site, int homc, int hetc) {
+            this.site = site;
+            this.homc = homc;
+            this.hetc = hetc;
+        }
+    }
+
+    private long[] hashes(List<String> samples) {
+        return samples.isEmpty() ? sampleHashes : samples.stream().mapToLong(this::sampleHash).toArray();
+    }
+
+    // selected variants with genotype counts over the query's samples
+    private List<Hit> hits(Query q) {
+        long[] hashes = hashes(q.samples());
+        int maxLength = q.maxLength() <= 0 ? Integer.MAX_VALUE : q.maxLength();
+        List<Hit> hits = new ArrayList<>();
+        for (int r = 0; r < q.chr().size(); r++) {
+            String ref = r < q.ref().size() ? q.ref().get(r) : "";
+            String alt = r < q.alt().size() ? q.alt().get(r) : "";
+            for (Site site : sites(q.chr().get(r), q.start().get(r), q.end().get(r))) {
+                if (!ref.isEmpty() && !ref.equals(ref(site))) continue;
+                if (!alt.isEmpty() && !alt.equals(alt(site))) continue;
+                int length = alt(site).length();
+                if (length < q.minLength() || length > maxLength) continue;
+                int homc = 0;
+                int hetc = 0;
+                for (long sample : hashes) {
+                    int gt = genotype(site, sample);
+                    if (gt == 2) homc++;
+                    else if (gt == 1) hetc++;
+                }
+                if ((q.hom() && homc > 0) || (q.het() && hetc > 0)) hits.add(new Hit(site, homc, hetc));
+            }
+        }
+        return hits;
+    }
+
+    // samples carrying any selected variant, in dataset order
+    private List<String> carriers(Query q) {
+        List<Hit> hits = hits(q);
+        List<String> carriers = new ArrayList<>();
+        for (int s = 0; s < sampleHashes.length; s++) {
+            for (Hit hit : hits) {
+                int gt = genotype(hit.site, sampleHashes[s]);
+                if ((q.hom() && gt == 2) || (q.het() && gt == 1)) {
+                    carriers.add(settings.samples().get(s));
+                    break;
+                }
+            }
+        }
+        return carriers;
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // latency and failures
+
+    private long nodeLatencyNanos(int node) {
+        double skew = settings.nodes() == 1 ? 0 : settings.nodeSkew() * node / (settings.nodes() - 1);
+        return (long) (TimeUnit.MILLISECONDS.toNanos(settings.latencyMs()) * (1 + skew));
+    }
+
+    private String nodeId(int node) { return "synthetic-" + node; }
+
+    private static void pause(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        for (long left = nanos; left > 0; left = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(left);
+        }
+    }
+
+    // true if the call was failed
+    private boolean failed(StreamObserver<?> observer) {
+        long call = calls.incrementAndGet();
+        if (settings.errorRate() > 0 && unit(mix(settings.seed() ^ call)) < settings.errorRate()) {
+            observer.onError(Status.UNAVAILABLE.withDescription("synthetic failure").asRuntimeException());
+            return true;
+        }
+        return false;
+    }
+
+    private <T> void unary(StreamObserver<T> observer, Supplier<T> response) {
+        if (failed(observer)) return;
+        pause(nodeLatencyNanos(settings.nodes() - 1));
+        observer.onNext(response.get());
+        observer.onCompleted();
+    }
+
+    // one message per node, in order of node latency
+    private void streamByNode(StreamObserver<AllelesResponse> observer, Query q) {
+        if (failed(observer)) return;
+        List<Hit> hits = hits(q);
+        long started = System.nanoTime();
+        for (int node = 0; node < settings.nodes(); node++) {
+            int skip = Math.max(q.skip(), 0);
+            int limit = q.limit() <= 0 ? Integer.MAX_VALUE : q.limit();
+            AllelesResponse.Builder response = AllelesResponse.newBuilder().setNodeId(nodeId(node));
+            for (Hit hit : hits) {
+                if (hit.site.node(settings.nodes()) != node) continue;
+                if (skip > 0) {
+                    skip--;
+                } else if (limit-- > 0) {
+                    response.addVariants(variant(hit.site, hit.homc, hit.hetc));
+                } else {
+                    break;
+                }
+            }
+            pause(started + nodeLatencyNanos(node) - System.nanoTime());
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+            observer.onNext(response.setElapsedMs(elapsedMs).setElapsedDbMs(elapsedMs).build());
+        }
+        observer.onCompleted();
+    }
+
+    private CountAllelesResponse countResponse(Query q) {
+        long count = 0;
+        for (Hit hit : hits(q)) {
+            count += (q.hom() ? hit.homc : 0) + (q.het() ? hit.hetc : 0);
+        }
+        return CountAllelesResponse.newBuilder()
+            .setCount(count)
+            .setNodeId(nodeId(settings.nodes() - 1))
+            .setElapsedMs(settings.latencyMs())
+            .build();
+    }
+
+    // ---------------------------------------------------------------------------------------------
+    // RPCs
+
+    @Override
+    public void datasetInfo(DatasetInfoRequest request, StreamObserver<DatasetInfoResponse> observer) {
+        unary(observer, () -> {
+            Cohort.Builder cohort = Cohort.newBuilder().setCohortName("synthetic");
+            for (int s = 0; s < sampleHashes.length; s++) {
+                boolean female = (sampleHashes[s] & 1) == 0;
+                if (request.getReturnSamplesNames()) {
+                    if (female) cohort.addFemaleSamplesNames(settings.samples().get(s));
+                    else cohort.addMaleSamplesNames(settings.samples().get(s));
+                }
+                if (female) cohort.setFemaleCount(cohort.getFemaleCount() + 1);
+                else cohort.setMaleCount(cohort.getMaleCount() + 1);
+            }
+            cohort.setSamplesCount(sampleHashes.length).setSynthetic(true);
+            return DatasetInfoResponse.newBuilder()
+                .addCohorts(cohort)
+                .setSamplesTotal(sampleHashes.length)
+                .setFemalesTotal(cohort.getFemaleCount())
+                .setMalesTotal(cohort.getMaleCount())
+                .setVariantsTotal((int) Math.min(Integer.MAX_VALUE, (long) (settings.variantsPerKb() * GENOME_KBP)))
+                .setAssembly(RefAssembly.GRCh38)
+                .setTimestamp("synthetic-" + settings.seed())
+                .setRingsTotal(settings.nodes())
+                .setNodeId(nodeId(0))
+                .build();
+        });
+    }
+
+    @Override
+    public void countVariantsInMultiRegions(CountAllelesInMultiRegionsRequest r,
+                                            StreamObserver<CountAllelesResponse> observer) {
+        Query q = new Query(r.getChrValueList(), r.getStartList(), r.getEndList(), r.getRefList(), r.getAltList(),
+            r.getHom(), r.getHet(), r.getVariantMinLength(), r.getVariantMaxLength(), List.of(), 0, 0);
+        unary(observer, () -> countResponse(q));
+    }
+
+    @Override
+    public void countVariantsInMultiRegionsInSamples(CountAllelesInMultiRegionsInSamplesRequest r,
+                                                     StreamObserver<CountAllelesResponse> observer) {
+        Query q = new Query(r.getChrValueList(), r.getStartList(), r.getEndList(), r.getRefList(), r.getAltList(),
+            r.getHom(), r.getHet(), r.getVariantMinLength(), r.getVariantMaxLength(), r.getSamplesList(), 0, 0);
+        unary(observer, () -> countResponse(q));
+    }
+
+    @Override
+    public void selectVariantsInMultiRegions(AllelesInMultiRegionsRequest r,
+                                             StreamObserver<AllelesResponse> observer) {
+        streamByNode(observer, new Query(r.getChrValueList(), r.getStartList(), r.getEndList(), r.getRefList(),
+            r.getAltList(), r.getHom(), r.getHet(), r.getVariantMinLength(), r.getVariantMaxLength(), List.of(),
+            r.getSkip(), r.getLimit()));
+    }
+
+    @Override
+    public void selectVariantsInMultiRegionsInSamples(AllelesInMultiRegionsInSamplesRequest r,
+                                                      StreamObserver<AllelesResponse> observer) {
+        streamByNode(observer, new Query(r.getChrValueList(), r.getStartList(), r.getEndList(), r.getRefList(),
+            r.getAltList(), r.getHom(), r.getHet(), r.getVariantMinLength(), r.getVariantMaxLength(),
+            r.getSamplesList(), r.getSkip(), r.getLimit()));
+    }
+
+    @Override
+    public void selectVariantsInMultiRegionsInSamplesWithStats(AllelesInMultiRegionsInSamplesRequest r,
+                                                               StreamObserver<AllelesWithStatsResponse> observer) {
+        if (failed(observer)) return;
+        Query q = new Query(r.getChrValueList(), r.getStartList(), r.getEndList(), r.getRefList(), r.getAltList(),
+            r.getHom(), r.getHet(), r.getVariantMinLength(), r.getVariantMaxLength(), r.getSamplesList(),
+            r.getSkip(), r.getLimit());
+        pause(nodeLatencyNanos(settings.nodes() - 1));
+        AllelesWithStatsResponse.Builder response = AllelesWithStatsResponse.newBuilder().setNodeId(nodeId(0));
+        int van = 2 * Math.max(q.samples().size(), 1);
+        for (Hit hit : hits(q)) {
+            response.addVariants(VariantWithStats.newBuilder()
+                .setVariant(variant(hit.site, hit.homc, hit.hetc))
+                .setVan(van)
+                .setVac(2 * hit.homc + hit.hetc)
+                .setVaf((float) (2 * hit.homc + hit.hetc) / van)
+                .setVhomc(hit.homc)
+                .setVhetc(hit.hetc)
+                .setPhwe((float) unit(mix(hit.site.hash() + 4)))
+                .setPchi2((float) unit(mix(hit.site.hash() + 5))));
+        }
+        observer.onNext(response.build());
+        observer.onCompleted();
+    }
+
+    @Override
+    public void countSamplesInMultiRegions(SamplesInMultiRegionsRequest r,
+                                           StreamObserver<CountSamplesResponse> observer) {
+        Query q = new Query(r.getChrValueList(), r.getStartList(), r.getEndList(), r.getRefList(), r.getAltList(),
+            r.getHom(), r.getHet(), r.getVariantMinLength(), r.getVariantMaxLength(), List.of(), 0, 0);
+        unary(observer, () -> CountSamplesResponse.newBuilder()
+            .setCount(carriers(q).size())
+            .setNodeId(nodeId(settings.nodes() - 1))
+            .build());
+    }
+
+    @Override
+    public void selectSamplesInMultiRegions(SamplesInMultiRegionsRequest r,
+                                            StreamObserver<SamplesResponse> observer) {
+        Query q = new Query(r.getChrValueList(), r.getStartList(), r.getEndList(), r.getRefList(), r.getAltList(),
+            r.getHom(), r.getHet(), r.getVariantMinLength(), r.getVariantMaxLength(), List.of(), 0, 0);
+        unary(observer, () -> SamplesResponse.newBuilder()
+            .addAllSamples(page(carriers(q), r.getSkip(), r.getLimit()))
+            .setNodeId(nodeId(settings.nodes() - 1))
+            .build());
+    }
+
+    // samples without a variant starting at the position
+    private List<String> homReference(int chr, int position) {
+        List<Site> sites = sites(chr, position, position);
+        List<String> samples = new ArrayList<>();
+        for (int s = 0; s < sampleHashes.length; s++) {
+            long sample = sampleHashes[s];
+            if (sites.stream().allMatch(site -> genotype(site, sample) == 0)) samples.add(settings.samples().get(s));
+        }
+        return samples;
+    }
+
+    @Override
+    public void countSamplesHomReference(SamplesHomRefRequest r, StreamObserver<CountSamplesResponse> observer) {
+        unary(observer, () -> CountSamplesResponse.newBuilder()
+            .setCount(homReference(r.getChrValue(), r.getPosition()).size())
+            .setNodeId(nodeId(0))
+            .build());
+    }
+
+    @Override
+    public void selectSamplesHomReference(SamplesHomRefRequest r, StreamObserver<SamplesResponse> observer) {
+        unary(observer, () -> SamplesResponse.newBuilder()
+            .addAllSamples(page(homReference(r.getChrValue(), r.getPosition()), r.getSkip(), r.getLimit()))
+            .setNodeId(nodeId(0))
+            .build());
+    }
+
+    private static List<String> page(List<String> samples, int skip, int limit) {
+        int from = Math.min(Math.max(skip, 0), samples.size());
+        int to = limit <= 0 ? samples.size() : (int) Math.min(samples.size(), (long) from + limit);
+        return samples.subList(from, to);
+    }
+
+    @Override
+    public void kinshipDuo(KinshipDuoRequest r, StreamObserver<KinshipResponse> observer) {
+        unary(observer, () -> {
+            // symmetric in the pair; about 1% first degree, 2% second, 4% third
+            long pair = sampleHash(r.getSample1()) ^ sampleHash(r.getSample2());
+            double u = unit(mix(pair));
+            KinshipDegree degree;
+            float phi;
+            if (r.getSample1().equals(r.getSample2())) {
+                degree = KinshipDegree.TWINS_MONOZYGOTIC;
+                phi = 0.5f;
+            } else if (u < 0.01) {
+                degree = KinshipDegree.FIRST_DEGREE;
+                phi = 0.25f;
+            } else if (u < 0.03) {
+                degree = KinshipDegree.SECOND_DEGREE;
+                phi = 0.125f;
+            } else if (u < 0.07) {
+                degree = KinshipDegree.THIRD_DEGREE;
+                phi = 0.0625f;
+            } else {
+                degree = KinshipDegree.UNRELATED;
+                phi = (float) (u * 0.04);
+            }
+            return KinshipResponse.newBuilder()
+                .addRel(Relatedness.newBuilder()
+                    .setSample1(r.getSample1())
+                    .setSample2(r.getSample2())
+                    .setDegree(degree)
+                    .setPhiBwf(phi))
+                .setNodeId(nodeId(0))
+                .build();
+        });
+    }
+
+    @Override
+    public void topNHWE(TopNHWERequest r, StreamObserver<AllelesWithStatsResponse> observer) {
+        unary(observer, () -> {
+            // lowest p-values are taken from the first megabase of each autosome
+            List<VariantWithStats> variants = new ArrayList<>();
+            for (int chr = 1; chr <= 22; chr++) {
+                for (Site site : sites(chr, 1, 1_000_000)) {
+                    variants.add(VariantWithStats.newBuilder()
+                        .setVariant(variant(site, 0, 0))
+                        .setPhwe((float) unit(mix(site.hash() + 4)))
+                        .build());
+                }
+            }
+            variants.sort(Comparator.comparingDouble(VariantWithStats::getPhwe));
+            return AllelesWithStatsResponse.newBuilder()
+                .addAllVariants(variants.subList(0, Math.min(Math.max(r.getN(), 0), variants.size())))
+                .setNodeId(nodeId(0))
+                .build();
+        });
+    }
+}